@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.analysis.os.linux.core.tests.tid;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.tracecompass.analysis.os.linux.core.tests.stubs.LinuxTestCase;
+import org.eclipse.tracecompass.analysis.os.linux.core.tests.stubs.kernel.KernelAnalysisTestFactory;
+import org.eclipse.tracecompass.analysis.os.linux.core.tid.TidAnalysisModule;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
+import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
+import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
+import org.eclipse.tracecompass.tmf.core.exceptions.TmfAnalysisException;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTrace;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceManager;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test the {@link TidAnalysisModule} class, whose history can be built in time
+ * partitions
+ */
+public class TidAnalysisModuleTest {
+
+    private static final @NonNull LinuxTestCase KERNEL_TEST_CASE = KernelAnalysisTestFactory.KERNEL_SCHED;
+
+    private static final int NB_PARTITIONS = 3;
+
+    private ITmfTrace fTrace;
+
+    private static void deleteSuppFiles(@NonNull ITmfTrace trace) {
+        /* Remove supplementary files */
+        File suppDir = new File(TmfTraceManager.getSupplementaryFileDir(trace));
+        for (File file : suppDir.listFiles()) {
+            file.delete();
+        }
+    }
+
+    /**
+     * Test setup
+     */
+    @Before
+    public void setUp() {
+        TmfTrace trace = KERNEL_TEST_CASE.getKernelTrace();
+        deleteSuppFiles(trace);
+        trace.indexTrace(true);
+        fTrace = trace;
+    }
+
+    /**
+     * Test clean up
+     */
+    @After
+    public void tearDown() {
+        ITmfTrace trace = fTrace;
+        if (trace != null) {
+            deleteSuppFiles(trace);
+            trace.dispose();
+        }
+    }
+
+    /**
+     * Test that the history built in time partitions is the same as the
+     * history built in one go
+     *
+     * @throws TmfAnalysisException
+     *             Error setting the trace of the modules
+     * @throws StateSystemDisposedException
+     *             Error querying the state systems
+     */
+    @Test
+    public void testPartitionedBuild() throws TmfAnalysisException, StateSystemDisposedException {
+        TidAnalysisModule module = new TidAnalysisModule();
+        TidAnalysisModule partitioned = new TidAnalysisModule() {
+            @Override
+            protected int getMaxPartitions(ITmfTrace trace) {
+                return NB_PARTITIONS;
+            }
+        };
+        /* Use another ID, so that the modules do not share their history file */
+        partitioned.setId(TidAnalysisModule.ID + ".partitioned"); //$NON-NLS-1$
+        try {
+            assertTrue(module.setTrace(fTrace));
+            assertTrue(partitioned.setTrace(fTrace));
+            module.schedule();
+            partitioned.schedule();
+            assertTrue(module.waitForCompletion());
+            assertTrue(partitioned.waitForCompletion());
+
+            ITmfStateSystem expected = module.getStateSystem();
+            ITmfStateSystem actual = partitioned.getStateSystem();
+            assertNotNull(expected);
+            assertNotNull(actual);
+            assertEquals(expected.getStartTime(), actual.getStartTime());
+            assertEquals(expected.getCurrentEndTime(), actual.getCurrentEndTime());
+            Set<String> expectedIntervals = getIntervals(expected);
+            assertFalse(expectedIntervals.isEmpty());
+            assertEquals(expectedIntervals, getIntervals(actual));
+        } finally {
+            module.dispose();
+            partitioned.dispose();
+        }
+    }
+
+    /*
+     * Get the intervals of a state system, identified by the path of their
+     * attribute, since the quarks of the state systems may differ
+     */
+    private static Set<String> getIntervals(ITmfStateSystem ss) throws StateSystemDisposedException {
+        Set<String> intervals = new HashSet<>();
+        List<@NonNull Integer> quarks = ss.getQuarks("*"); //$NON-NLS-1$
+        for (ITmfStateInterval interval : ss.query2D(quarks, ss.getStartTime(), ss.getCurrentEndTime())) {
+            intervals.add(ss.getFullAttributePath(interval.getAttribute()) + '[' + interval.getStartTime() + ", " //$NON-NLS-1$
+                    + interval.getEndTime() + "] = " + interval.getValue()); //$NON-NLS-1$
+        }
+        return intervals;
+    }
+}
@@ -23,6 +23,7 @@ import org.eclipse.tracecompass.statesystem.core.exceptions.StateValueTypeExcept
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
 import org.eclipse.tracecompass.tmf.core.event.aspect.TmfCpuAspect;
 import org.eclipse.tracecompass.tmf.core.statesystem.AbstractTmfStateProvider;
+import org.eclipse.tracecompass.tmf.core.statesystem.ITmfPartitionableStateProvider;
 import org.eclipse.tracecompass.tmf.core.statesystem.ITmfStateProvider;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
 import org.eclipse.tracecompass.tmf.core.trace.TmfTraceUtils;
@@ -37,6 +38,9 @@ import org.eclipse.tracecompass.tmf.core.trace.TmfTraceUtils;
  *
  * Note 2: this is deliberately only package visible.
  *
+ * Note 3: each sched_switch sets the active TID of its CPU, without looking at
+ * the previous one, so the history can be built in time partitions.
+ *
  * Attribute tree:
  *
  * <pre>
@@ -45,7 +49,7 @@ import org.eclipse.tracecompass.tmf.core.trace.TmfTraceUtils;
  *
  * @author Matthew Khouzam
  */
-class ActiveTidStateProvider extends AbstractTmfStateProvider {
+class ActiveTidStateProvider extends AbstractTmfStateProvider implements ITmfPartitionableStateProvider {
 
     private static final @NonNull String PROVIDER_ID = "activeTidAnalysis.provider"; //$NON-NLS-1$
     private static final int VERSION = 0;
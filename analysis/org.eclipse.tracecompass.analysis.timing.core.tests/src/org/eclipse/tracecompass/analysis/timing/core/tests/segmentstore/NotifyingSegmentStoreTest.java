@@ -0,0 +1,70 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.analysis.timing.core.tests.segmentstore;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.tracecompass.internal.analysis.timing.core.segmentstore.NotifyingSegmentStore;
+import org.eclipse.tracecompass.segmentstore.core.BasicSegment;
+import org.eclipse.tracecompass.segmentstore.core.ISegment;
+import org.eclipse.tracecompass.segmentstore.core.ISegmentStore;
+import org.eclipse.tracecompass.segmentstore.core.SegmentStoreFactory;
+import org.junit.Test;
+
+/**
+ * Test the {@link NotifyingSegmentStore}
+ */
+public class NotifyingSegmentStoreTest {
+
+    /**
+     * Test that the added segments are sent by batches, and all of them after
+     * a flush
+     */
+    @Test
+    public void testBatches() {
+        ISegmentStore<@NonNull ISegment> store = SegmentStoreFactory.createSegmentStore();
+        List<ISegment> received = new ArrayList<>();
+        List<Integer> batchSizes = new ArrayList<>();
+        NotifyingSegmentStore<@NonNull ISegment> notifying = new NotifyingSegmentStore<>(store, segments -> {
+            received.addAll(segments);
+            batchSizes.add(segments.size());
+        });
+
+        List<ISegment> expected = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            ISegment segment = new BasicSegment(i, i + 10);
+            expected.add(segment);
+            notifying.add(segment);
+        }
+        assertTrue(received.size() < expected.size());
+        List<ISegment> segments = new ArrayList<>();
+        for (int i = 10000; i < 10100; i++) {
+            segments.add(new BasicSegment(i, i + 10));
+        }
+        notifying.addAll(segments);
+        expected.addAll(segments);
+        notifying.flush();
+
+        assertEquals(expected, received);
+        assertEquals(expected.size(), store.size());
+        assertTrue(batchSizes.size() > 1);
+
+        /* Nothing more to send */
+        notifying.flush();
+        assertEquals(expected.size(), received.size());
+    }
+}
@@ -10,6 +10,7 @@
  **********************************************************************/
 package org.eclipse.tracecompass.analysis.timing.core.tests.segmentstore;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
@@ -19,6 +20,10 @@ import java.nio.file.Path;
 
 import org.eclipse.tracecompass.analysis.timing.core.segmentstore.AbstractSegmentStoreAnalysisModule;
 import org.eclipse.tracecompass.analysis.timing.core.tests.stubs.segmentstore.StubSegmentStoreOnDiskProvider;
+import org.eclipse.tracecompass.analysis.timing.core.tests.stubs.segmentstore.StubSegmentStoreProvider;
+import org.eclipse.tracecompass.internal.segmentstore.core.arraylist.LazyArrayListStore;
+import org.eclipse.tracecompass.segmentstore.core.ISegment;
+import org.eclipse.tracecompass.segmentstore.core.ISegmentStore;
 import org.eclipse.tracecompass.tmf.core.exceptions.TmfAnalysisException;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
 import org.eclipse.tracecompass.tmf.tests.stubs.trace.xml.TmfXmlTraceStub;
@@ -27,6 +32,8 @@ import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import com.google.common.collect.Iterables;
+
 /**
  * Tests the {@link AbstractSegmentStoreAnalysisModule}
  *
@@ -106,4 +113,30 @@ public class SegmentStoreAnalysisTest {
         }
     }
 
+    /**
+     * Test that an in-memory segment store is closed, and thus indexed, once
+     * the analysis is done
+     *
+     * @throws TmfAnalysisException
+     *             An exception when setting the trace
+     */
+    @Test
+    public void testInMemoryStoreClosed() throws TmfAnalysisException {
+        StubSegmentStoreProvider module = new StubSegmentStoreProvider();
+        try {
+            ITmfTrace trace = fTrace;
+            assertNotNull(trace);
+            module.setTrace(trace);
+            module.schedule();
+            assertTrue(module.waitForCompletion());
+
+            ISegmentStore<ISegment> store = module.getSegmentStore();
+            assertNotNull(store);
+            assertTrue(store instanceof LazyArrayListStore);
+            assertTrue(((LazyArrayListStore<?>) store).isIndexed());
+            assertEquals(1, Iterables.size(store.getIntersectingElements(65534)));
+        } finally {
+            module.dispose();
+        }
+    }
 }
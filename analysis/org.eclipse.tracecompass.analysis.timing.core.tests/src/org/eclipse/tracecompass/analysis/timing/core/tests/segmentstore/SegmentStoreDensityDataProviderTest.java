@@ -10,17 +10,26 @@
  **********************************************************************/
 package org.eclipse.tracecompass.analysis.timing.core.tests.segmentstore;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.util.Arrays;
+import java.util.Collections;
 
 import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.analysis.timing.core.segmentstore.IAnalysisProgressListener;
+import org.eclipse.tracecompass.analysis.timing.core.segmentstore.ISegmentStoreProvider;
 import org.eclipse.tracecompass.analysis.timing.core.tests.stubs.segmentstore.StubSegmentStoreProvider;
 import org.eclipse.tracecompass.internal.analysis.timing.core.segmentstore.SegmentStoreDensityDataProvider;
 import org.eclipse.tracecompass.internal.analysis.timing.core.segmentstore.SegmentStoreDensityDataProviderFactory;
 import org.eclipse.tracecompass.internal.tmf.core.model.filters.FetchParametersUtils;
+import org.eclipse.tracecompass.segmentstore.core.BasicSegment;
+import org.eclipse.tracecompass.segmentstore.core.ISegment;
+import org.eclipse.tracecompass.segmentstore.core.ISegmentStore;
+import org.eclipse.tracecompass.segmentstore.core.SegmentStoreFactory;
 import org.eclipse.tracecompass.tmf.core.dataprovider.IDataProviderFactory;
 import org.eclipse.tracecompass.tmf.core.exceptions.TmfAnalysisException;
 import org.eclipse.tracecompass.tmf.core.model.SeriesModel;
@@ -30,6 +39,7 @@ import org.eclipse.tracecompass.tmf.core.model.tree.TmfTreeModel;
 import org.eclipse.tracecompass.tmf.core.model.xy.ITmfTreeXYDataProvider;
 import org.eclipse.tracecompass.tmf.core.model.xy.ITmfXyModel;
 import org.eclipse.tracecompass.tmf.core.response.TmfModelResponse;
+import org.eclipse.tracecompass.tmf.core.segment.ISegmentAspect;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
 import org.eclipse.tracecompass.tmf.tests.stubs.trace.xml.TmfXmlTraceStub;
 import org.eclipse.tracecompass.tmf.tests.stubs.trace.xml.TmfXmlTraceStubNs;
@@ -140,6 +150,135 @@ public class SegmentStoreDensityDataProviderTest {
         assertTrue(Arrays.equals(xValues, seriesResponse.getXAxis()));
     }
 
+    /**
+     * Tests that fetching the same range again returns the same data
+     */
+    @Test()
+    public void testDataProviderFetchXYAgain() {
+        TimeQueryFilter timeQueryFilter = new TimeQueryFilter(0, 100, 100);
+        TmfModelResponse<@NonNull ITmfXyModel> response = fDataProvider.fetchXY(FetchParametersUtils.timeQueryToMap(timeQueryFilter), null);
+        TmfModelResponse<@NonNull ITmfXyModel> response2 = fDataProvider.fetchXY(FetchParametersUtils.timeQueryToMap(timeQueryFilter), null);
+        ITmfXyModel responseModel = response2.getModel();
+        assertNotNull(responseModel);
+        SeriesModel seriesResponse = (SeriesModel) responseModel.getSeriesData().toArray()[0];
+        assertTrue(Arrays.equals(yValues, seriesResponse.getData()));
+        assertTrue(Arrays.equals(xValues, seriesResponse.getXAxis()));
+        assertNotNull(response.getModel());
+    }
+
+    /**
+     * Tests that the longest segment of a range is found, when the longest
+     * segments of the store are outside of the range or only overlap it
+     */
+    @Test()
+    public void testDataProviderFetchXYZoomed() {
+        ISegmentStore<@NonNull ISegment> store = SegmentStoreFactory.createSegmentStore();
+        /* Long segments, of lengths 10000 to 11999 */
+        for (int i = 0; i < 2000; i++) {
+            store.add(new BasicSegment(i, i + 10000 + i));
+        }
+        /* Short segments, of lengths 0 to 99 */
+        for (int i = 0; i < 100; i++) {
+            store.add(new BasicSegment(100000 + i * 10, 100000 + i * 11));
+        }
+        ISegmentStoreProvider provider = new StaticSegmentStoreProvider(store);
+        ITmfTreeXYDataProvider<@NonNull TmfTreeDataModel> dataProvider = new SegmentStoreDensityDataProvider(fTrace, provider, ID);
+
+        /* Only the short segments */
+        assertDensity(dataProvider, 100000, 101000, 99, 100);
+        /* The long segments that overlap the start of the range */
+        assertDensity(dataProvider, 11000, 11000, 11999, 1500);
+        /* The long segments that start in the range */
+        assertDensity(dataProvider, 1000, 1100, 11100, 1101);
+        /* No segments */
+        assertDensity(dataProvider, 50000, 60000, 1, 0);
+    }
+
+    /**
+     * Tests that the segments added to a store that is being built are
+     * counted, and that the store is indexed once it is complete
+     */
+    @Test()
+    public void testDataProviderFetchXYGrowing() {
+        ISegmentStore<@NonNull ISegment> store = SegmentStoreFactory.createSegmentStore();
+        for (int i = 0; i < 100; i++) {
+            store.add(new BasicSegment(i * 10, i * 10 + 5));
+        }
+        StaticSegmentStoreProvider provider = new StaticSegmentStoreProvider(store);
+        ITmfTreeXYDataProvider<@NonNull TmfTreeDataModel> dataProvider = new SegmentStoreDensityDataProvider(fTrace, provider, ID);
+        assertDensity(dataProvider, 0, 2000, 5, 100);
+
+        /* The store is being built again */
+        for (int i = 0; i < 50; i++) {
+            store.add(new BasicSegment(1000 + i * 10, 1000 + i * 10 + 50));
+        }
+        assertDensity(dataProvider, 0, 2000, 50, 150);
+        store.add(new BasicSegment(1500, 1600));
+        assertDensity(dataProvider, 0, 2000, 100, 151);
+
+        /* The store is complete */
+        IAnalysisProgressListener listener = provider.fListener;
+        assertNotNull(listener);
+        listener.onComplete(provider, store);
+        assertDensity(dataProvider, 0, 2000, 100, 151);
+        assertDensity(dataProvider, 0, 900, 5, 91);
+
+        dataProvider.dispose();
+        assertNull(provider.fListener);
+    }
+
+    /**
+     * A segment store provider whose store is built by the test
+     */
+    private static class StaticSegmentStoreProvider implements ISegmentStoreProvider {
+        private final ISegmentStore<@NonNull ISegment> fStore;
+        private @Nullable IAnalysisProgressListener fListener;
+
+        public StaticSegmentStoreProvider(ISegmentStore<@NonNull ISegment> store) {
+            fStore = store;
+        }
+
+        @Override
+        public void addListener(@NonNull IAnalysisProgressListener listener) {
+            fListener = listener;
+        }
+
+        @Override
+        public void removeListener(@NonNull IAnalysisProgressListener listener) {
+            if (fListener == listener) {
+                fListener = null;
+            }
+        }
+
+        @Override
+        public @NonNull Iterable<@NonNull ISegmentAspect> getSegmentAspects() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public @Nullable ISegmentStore<@NonNull ISegment> getSegmentStore() {
+            return fStore;
+        }
+    }
+
+    private static void assertDensity(ITmfTreeXYDataProvider<@NonNull TmfTreeDataModel> dataProvider, long start, long end, long maxLength, int nbSegments) {
+        int width = 100;
+        TimeQueryFilter timeQueryFilter = new TimeQueryFilter(start, end, width);
+        TmfModelResponse<@NonNull ITmfXyModel> response = dataProvider.fetchXY(FetchParametersUtils.timeQueryToMap(timeQueryFilter), null);
+        ITmfXyModel responseModel = response.getModel();
+        assertNotNull(responseModel);
+        SeriesModel seriesResponse = (SeriesModel) responseModel.getSeriesData().toArray()[0];
+        /* The x axis is scaled to the longest segment */
+        double timeWidth = (double) maxLength / width;
+        long lastX = (long) ((long) ((width - 1) * timeWidth) + timeWidth / 2);
+        assertEquals(lastX, seriesResponse.getXAxis()[width - 1]);
+        double count = 0;
+        for (double y : seriesResponse.getData()) {
+            count += (y >= 1) ? y : 0;
+        }
+        assertEquals(nbSegments, count, 0);
+    }
+
     /**
      * Tests data model returned by the fetch XY
      */
@@ -0,0 +1,308 @@
+/**********************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ **********************************************************************/
+package org.eclipse.tracecompass.analysis.timing.core.tests.segmentstore;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.analysis.timing.core.segmentstore.IAnalysisProgressListener;
+import org.eclipse.tracecompass.analysis.timing.core.segmentstore.ISegmentStoreProvider;
+import org.eclipse.tracecompass.internal.analysis.timing.core.segmentstore.SegmentStoreScatterDataProvider;
+import org.eclipse.tracecompass.internal.tmf.core.model.filters.FetchParametersUtils;
+import org.eclipse.tracecompass.segmentstore.core.BasicSegment;
+import org.eclipse.tracecompass.segmentstore.core.ISegment;
+import org.eclipse.tracecompass.segmentstore.core.ISegmentStore;
+import org.eclipse.tracecompass.segmentstore.core.SegmentStoreFactory;
+import org.eclipse.tracecompass.segmentstore.core.segment.interfaces.INamedSegment;
+import org.eclipse.tracecompass.tmf.core.model.filters.SelectionTimeQueryFilter;
+import org.eclipse.tracecompass.tmf.core.model.filters.TimeQueryFilter;
+import org.eclipse.tracecompass.tmf.core.model.tree.TmfTreeDataModel;
+import org.eclipse.tracecompass.tmf.core.model.tree.TmfTreeModel;
+import org.eclipse.tracecompass.tmf.core.model.xy.ISeriesModel;
+import org.eclipse.tracecompass.tmf.core.model.xy.ITmfXyModel;
+import org.eclipse.tracecompass.tmf.core.response.TmfModelResponse;
+import org.eclipse.tracecompass.tmf.core.segment.ISegmentAspect;
+import org.eclipse.tracecompass.tmf.tests.stubs.trace.xml.TmfXmlTraceStub;
+import org.eclipse.tracecompass.tmf.tests.stubs.trace.xml.TmfXmlTraceStubNs;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Tests the {@link SegmentStoreScatterDataProvider}, which keeps a bounded
+ * number of points per pixel column, spread over its durations
+ */
+public class SegmentStoreScatterDataProviderTest {
+
+    private static final String ID = "org.eclipse.tracecompass.analysis.timing.core.tests.segmentstore";
+    private static final String SEGMENT_NAME = "segment";
+
+    /* The segments start from 0 to NB_STARTS - 1 */
+    private static final int NB_STARTS = 10000;
+    private static final int SEGMENTS_PER_START = 3;
+    /* The duration buckets of a column, and the longest duration */
+    private static final int MAX_POINTS_PER_COLUMN = 33;
+
+    private static final @NonNull ISegmentStore<@NonNull ISegment> fStore = SegmentStoreFactory.createSegmentStore();
+    private static final @NonNull TmfXmlTraceStub fTrace = new TmfXmlTraceStubNs();
+    private static SegmentStoreScatterDataProvider fDataProvider;
+
+    /**
+     * A segment of the series of the tests
+     */
+    private static class NamedSegment extends BasicSegment implements INamedSegment {
+
+        private static final long serialVersionUID = 6381584391437620437L;
+        private final String fName;
+
+        public NamedSegment(long start, long end, String name) {
+            super(start, end);
+            fName = name;
+        }
+
+        @Override
+        public @NonNull String getName() {
+            return fName;
+        }
+    }
+
+    /**
+     * Set-up resources
+     */
+    @BeforeClass
+    public static void init() {
+        for (int i = 0; i < NB_STARTS; i++) {
+            for (int j = 0; j < SEGMENTS_PER_START; j++) {
+                /* Pseudo-random lengths, so that the extremes are anywhere */
+                long length = ((i * 7919L + j * 104729L) % 1009L) * 10;
+                fStore.add(new NamedSegment(i, i + length, SEGMENT_NAME));
+            }
+        }
+        fDataProvider = new SegmentStoreScatterDataProvider(fTrace, createProvider(fStore), ID);
+    }
+
+    private static @NonNull ISegmentStoreProvider createProvider(@NonNull ISegmentStore<@NonNull ISegment> store) {
+        return new ISegmentStoreProvider() {
+            @Override
+            public void addListener(@NonNull IAnalysisProgressListener listener) {
+                // Do nothing
+            }
+
+            @Override
+            public void removeListener(@NonNull IAnalysisProgressListener listener) {
+                // Do nothing
+            }
+
+            @Override
+            public @NonNull Iterable<@NonNull ISegmentAspect> getSegmentAspects() {
+                return Collections.emptyList();
+            }
+
+            @Override
+            public @Nullable ISegmentStore<@NonNull ISegment> getSegmentStore() {
+                return store;
+            }
+        };
+    }
+
+    /**
+     * Disposing resources
+     */
+    @AfterClass
+    public static void clean() {
+        fDataProvider.dispose();
+        fTrace.dispose();
+    }
+
+    /**
+     * Test that each pixel column of the whole store keeps its shortest and
+     * longest segments, and points close to all the other durations
+     */
+    @Test
+    public void testFetchXY() {
+        assertColumns(0, NB_STARTS, 100);
+    }
+
+    /**
+     * Test a range whose pixel columns do not start on round times, and which
+     * has more columns than times
+     */
+    @Test
+    public void testFetchXYZoomed() {
+        assertColumns(1234, 5678, 333);
+        assertColumns(4000, 4100, 500);
+    }
+
+    /**
+     * Test that the segments at the boundaries of the pixel columns are kept,
+     * when they are the shortest or the longest of their column, with the
+     * segments in between
+     */
+    @Test
+    public void testFetchXYColumnBoundaries() {
+        ISegmentStore<@NonNull ISegment> store = SegmentStoreFactory.createSegmentStore();
+        int nbColumns = 10;
+        long pixelSize = 100;
+        for (int column = 0; column < nbColumns; column++) {
+            long columnStart = column * pixelSize;
+            long columnEnd = columnStart + pixelSize - 1;
+            /* The longest segment on the first time of the column */
+            store.add(new NamedSegment(columnStart, columnStart + 1000 + column, SEGMENT_NAME));
+            /* The shortest segment on the last time of the column */
+            store.add(new NamedSegment(columnEnd, columnEnd + column, SEGMENT_NAME));
+            /* Segments in between */
+            store.add(new NamedSegment(columnStart + 50, columnStart + 50 + 500, SEGMENT_NAME));
+        }
+        SegmentStoreScatterDataProvider dataProvider = new SegmentStoreScatterDataProvider(fTrace, createProvider(store), ID);
+        try {
+            ISeriesModel series = fetchSeries(dataProvider, 0, nbColumns * pixelSize, nbColumns);
+            long[] xValues = series.getXAxis();
+            double[] yValues = series.getData();
+            assertEquals(3 * nbColumns, xValues.length);
+            for (int column = 0; column < nbColumns; column++) {
+                long columnStart = column * pixelSize;
+                long columnEnd = columnStart + pixelSize - 1;
+                assertEquals(columnStart, xValues[3 * column]);
+                assertEquals(1000 + column, yValues[3 * column], 0);
+                assertEquals(columnStart + 50, xValues[3 * column + 1]);
+                assertEquals(500, yValues[3 * column + 1], 0);
+                assertEquals(columnEnd, xValues[3 * column + 2]);
+                assertEquals(column, yValues[3 * column + 2], 0);
+            }
+        } finally {
+            dataProvider.dispose();
+        }
+    }
+
+    /**
+     * Test that the interior durations of a pixel column with many distinct
+     * durations are kept, with a bounded number of points
+     */
+    @Test
+    public void testFetchXYInteriorDurations() {
+        ISegmentStore<@NonNull ISegment> store = SegmentStoreFactory.createSegmentStore();
+        int maxDuration = 10000;
+        /* The first of two columns, with all the durations in a shuffled order */
+        for (int i = 0; i <= maxDuration; i++) {
+            long duration = (i * 7919L) % (maxDuration + 1);
+            store.add(new NamedSegment(i % 50, i % 50 + duration, SEGMENT_NAME));
+        }
+        SegmentStoreScatterDataProvider dataProvider = new SegmentStoreScatterDataProvider(fTrace, createProvider(store), ID);
+        try {
+            ISeriesModel series = fetchSeries(dataProvider, 0, 100, 2);
+            double[] yValues = series.getData();
+            assertTrue(yValues.length <= MAX_POINTS_PER_COLUMN);
+            assertTrue(yValues.length >= MAX_POINTS_PER_COLUMN / 2);
+            double[] durations = Arrays.copyOf(yValues, yValues.length);
+            Arrays.sort(durations);
+            assertEquals(0, durations[0], 0);
+            assertEquals(maxDuration, durations[durations.length - 1], 0);
+            /* No large gap between the kept durations */
+            for (int i = 1; i < durations.length; i++) {
+                assertTrue("Gap at " + durations[i], durations[i] - durations[i - 1] <= getTolerance(0, maxDuration));
+            }
+        } finally {
+            dataProvider.dispose();
+        }
+    }
+
+    /*
+     * Assert that the series of a range has a bounded number of points per
+     * pixel column, with the minimum and maximum durations of the segments
+     * starting in that column, and a point close to each of their durations
+     */
+    private static void assertColumns(long start, long end, int nbColumns) {
+        ISeriesModel series = fetchSeries(fDataProvider, start, end, nbColumns);
+        long[] xValues = series.getXAxis();
+        double[] yValues = series.getData();
+        assertEquals(xValues.length, yValues.length);
+
+        long pixelSize = Math.max(1, (end - start) / nbColumns);
+        List<List<Long>> expected = new ArrayList<>();
+        List<List<Double>> actual = new ArrayList<>();
+        for (int i = 0; i < nbColumns; i++) {
+            expected.add(new ArrayList<>());
+            actual.add(new ArrayList<>());
+        }
+        for (ISegment segment : fStore.getIntersectingElements(start, end)) {
+            if (segment.getStart() < start) {
+                continue;
+            }
+            expected.get(getColumn(segment.getStart(), start, pixelSize, nbColumns)).add(segment.getLength());
+        }
+
+        long previousX = Long.MIN_VALUE;
+        for (int i = 0; i < xValues.length; i++) {
+            assertTrue(xValues[i] >= previousX);
+            previousX = xValues[i];
+            actual.get(getColumn(xValues[i], start, pixelSize, nbColumns)).add(yValues[i]);
+        }
+
+        for (int column = 0; column < nbColumns; column++) {
+            List<Long> durations = expected.get(column);
+            List<Double> points = actual.get(column);
+            assertTrue("Column " + column, points.size() <= MAX_POINTS_PER_COLUMN);
+            if (durations.isEmpty()) {
+                assertTrue("Column " + column, points.isEmpty());
+                continue;
+            }
+            long min = Collections.min(durations);
+            long max = Collections.max(durations);
+            assertEquals("Column " + column, min, Collections.min(points), 0);
+            assertEquals("Column " + column, max, Collections.max(points), 0);
+            double tolerance = getTolerance(min, max);
+            for (long duration : durations) {
+                assertTrue("Column " + column + ", duration " + duration, points.stream().anyMatch(y -> Math.abs(y - duration) <= tolerance));
+            }
+        }
+    }
+
+    /*
+     * The maximum distance between a duration and the point of its bucket,
+     * with buckets of a power of two width where the durations of the column
+     * fit in MAX_POINTS_PER_COLUMN - 1 buckets
+     */
+    private static double getTolerance(long min, long max) {
+        return 2.0 * (max - min) / (MAX_POINTS_PER_COLUMN - 2);
+    }
+
+    private static int getColumn(long time, long start, long pixelSize, int nbColumns) {
+        return (int) Math.max(0, Math.min(nbColumns - 1, (time - start) / pixelSize));
+    }
+
+    private static ISeriesModel fetchSeries(SegmentStoreScatterDataProvider dataProvider, long start, long end, int nbColumns) {
+        TmfModelResponse<@NonNull TmfTreeModel<@NonNull TmfTreeDataModel>> treeResponse = dataProvider.fetchTree(FetchParametersUtils.timeQueryToMap(new TimeQueryFilter(start, end, nbColumns)), null);
+        TmfTreeModel<@NonNull TmfTreeDataModel> tree = treeResponse.getModel();
+        assertNotNull(tree);
+        List<@NonNull Long> ids = new ArrayList<>();
+        for (TmfTreeDataModel entry : tree.getEntries()) {
+            if (entry.getName().equals(SEGMENT_NAME)) {
+                ids.add(entry.getId());
+            }
+        }
+        assertEquals(1, ids.size());
+
+        SelectionTimeQueryFilter filter = new SelectionTimeQueryFilter(start, end, nbColumns, ids);
+        TmfModelResponse<@NonNull ITmfXyModel> response = dataProvider.fetchXY(FetchParametersUtils.selectionTimeQueryToMap(filter), null);
+        ITmfXyModel model = response.getModel();
+        assertNotNull(model);
+        assertEquals(1, model.getSeriesData().size());
+        return model.getSeriesData().iterator().next();
+    }
+}
@@ -0,0 +1,187 @@
+/**********************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ **********************************************************************/
+package org.eclipse.tracecompass.analysis.timing.core.tests.segmentstore;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.tracecompass.analysis.timing.core.tests.stubs.segmentstore.StubSegmentStoreOnDiskProvider;
+import org.eclipse.tracecompass.internal.analysis.timing.core.segmentstore.SegmentStoreTableDataProvider;
+import org.eclipse.tracecompass.internal.provisional.tmf.core.model.filters.VirtualTableQueryFilter;
+import org.eclipse.tracecompass.internal.provisional.tmf.core.model.table.ITmfVirtualTableModel;
+import org.eclipse.tracecompass.internal.provisional.tmf.core.model.table.VirtualTableLine;
+import org.eclipse.tracecompass.internal.tmf.core.model.filters.FetchParametersUtils;
+import org.eclipse.tracecompass.segmentstore.core.BasicSegment;
+import org.eclipse.tracecompass.segmentstore.core.ISegment;
+import org.eclipse.tracecompass.segmentstore.core.ISegmentStore;
+import org.eclipse.tracecompass.tmf.core.exceptions.TmfAnalysisException;
+import org.eclipse.tracecompass.tmf.core.model.filters.TimeQueryFilter;
+import org.eclipse.tracecompass.tmf.core.model.tree.TmfTreeDataModel;
+import org.eclipse.tracecompass.tmf.core.model.tree.TmfTreeModel;
+import org.eclipse.tracecompass.tmf.core.response.ITmfResponse.Status;
+import org.eclipse.tracecompass.tmf.core.response.TmfModelResponse;
+import org.eclipse.tracecompass.tmf.core.segment.SegmentDurationAspect;
+import org.eclipse.tracecompass.tmf.core.segment.SegmentEndTimeAspect;
+import org.eclipse.tracecompass.tmf.core.segment.SegmentStartTimeAspect;
+import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimestamp;
+import org.eclipse.tracecompass.tmf.tests.stubs.trace.xml.TmfXmlTraceStub;
+import org.eclipse.tracecompass.tmf.tests.stubs.trace.xml.TmfXmlTraceStubNs;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Tests the {@link SegmentStoreTableDataProvider} with an on-disk segment
+ * store, which cannot be copied to an array, paging through the segments
+ * sorted by each column. The segments are either indexed in memory or read
+ * from checkpoints.
+ */
+public class SegmentStoreTableDataProviderOnDiskTest {
+
+    private static final String ID = "org.eclipse.tracecompass.analysis.timing.core.tests.segmentstore";
+    private static final String TABLE_COMPARATOR_EXPRESSION_KEY = "table_comparator_expression"; //$NON-NLS-1$
+    private static final int PAGE_SIZE = 50;
+
+    private static TmfXmlTraceStub fTrace;
+    private static StubSegmentStoreOnDiskProvider fFixture;
+    private static SegmentStoreTableDataProvider fIndexedProvider;
+    private static SegmentStoreTableDataProvider fCheckpointProvider;
+    private static List<@NonNull ISegment> fSegments = Collections.emptyList();
+
+    /**
+     * Set-up resources
+     *
+     * @throws TmfAnalysisException
+     *             Trace exception should not happen
+     */
+    @BeforeClass
+    public static void init() throws TmfAnalysisException {
+        fTrace = new TmfXmlTraceStubNs();
+        StubSegmentStoreOnDiskProvider fixture = new StubSegmentStoreOnDiskProvider();
+        fixture.setTrace(fTrace);
+        fixture.schedule();
+        assertTrue(fixture.waitForCompletion());
+        fFixture = fixture;
+        ISegmentStore<@NonNull ISegment> segmentStore = fixture.getSegmentStore();
+        assertNotNull(segmentStore);
+        List<@NonNull ISegment> segments = new ArrayList<>();
+        for (ISegment segment : segmentStore) {
+            segments.add(new BasicSegment(segment.getStart(), segment.getEnd()));
+        }
+        fSegments = segments;
+        fIndexedProvider = new SegmentStoreTableDataProvider(fTrace, fixture, ID);
+        /* Index no segment in memory, to page through the checkpoints */
+        fCheckpointProvider = new SegmentStoreTableDataProvider(fTrace, fixture, ID, 0);
+    }
+
+    /**
+     * Disposes resources
+     */
+    @AfterClass
+    public static void tearDown() {
+        fIndexedProvider.dispose();
+        fCheckpointProvider.dispose();
+        fFixture.dispose();
+        fTrace.dispose();
+    }
+
+    /**
+     * Test the pages of the segments sorted by start time
+     */
+    @Test
+    public void testStartTimeComparator() {
+        Comparator<ISegment> comparator = Comparator.comparingLong(ISegment::getStart);
+        assertPages(SegmentStartTimeAspect.SEGMENT_START_TIME_ASPECT.getName(), comparator, segment -> lineTime(segment.getStart()));
+    }
+
+    /**
+     * Test the pages of the segments sorted by end time, in reverse order
+     */
+    @Test
+    public void testEndTimeComparator() {
+        Comparator<ISegment> comparator = Comparator.comparingLong(ISegment::getEnd);
+        assertPages(SegmentEndTimeAspect.SEGMENT_END_TIME_ASPECT.getName(), comparator.reversed(), segment -> lineTime(segment.getEnd()));
+    }
+
+    /**
+     * Test the pages of the segments sorted by duration
+     */
+    @Test
+    public void testDurationComparator() {
+        Comparator<ISegment> comparator = Comparator.comparingLong(ISegment::getLength);
+        assertPages(SegmentDurationAspect.SEGMENT_DURATION_ASPECT.getName(), comparator, segment -> lineDuration(segment.getLength()));
+    }
+
+    /*
+     * Assert that the first and last pages, and the pages that cross a
+     * checkpoint, have the segments of their ranks in the sorted column, with
+     * both providers
+     */
+    private static void assertPages(String columnName, Comparator<ISegment> comparator, Function<ISegment, String> cell) {
+        List<@NonNull ISegment> sorted = new ArrayList<>(fSegments);
+        sorted.sort(comparator);
+        int size = sorted.size();
+        long[] indexes = { 0, 1000 - PAGE_SIZE / 2, 32000 - PAGE_SIZE / 2, size - PAGE_SIZE };
+        for (SegmentStoreTableDataProvider provider : new SegmentStoreTableDataProvider[] { fIndexedProvider, fCheckpointProvider }) {
+            Map<String, Long> columns = fetchColumnIds(provider);
+            Long columnId = columns.get(columnName);
+            assertNotNull(columnId);
+            int column = new ArrayList<>(columns.keySet()).indexOf(columnName);
+            for (long index : indexes) {
+                VirtualTableQueryFilter queryFilter = new VirtualTableQueryFilter(Collections.emptyList(), index, PAGE_SIZE);
+                Map<String, Object> fetchParameters = FetchParametersUtils.virtualTableQueryToMap(queryFilter);
+                fetchParameters.put(TABLE_COMPARATOR_EXPRESSION_KEY, columnId);
+                TmfModelResponse<ITmfVirtualTableModel<VirtualTableLine>> response = provider.fetchLines(fetchParameters, null);
+                assertEquals(Status.COMPLETED, response.getStatus());
+                ITmfVirtualTableModel<VirtualTableLine> model = response.getModel();
+                assertNotNull(model);
+                assertEquals(size, model.getSize());
+                List<VirtualTableLine> lines = model.getLines();
+                assertEquals(PAGE_SIZE, lines.size());
+                for (int i = 0; i < PAGE_SIZE; i++) {
+                    VirtualTableLine line = lines.get(i);
+                    assertEquals(index + i, line.getIndex());
+                    String message = columnName + " at rank " + (index + i);
+                    assertEquals(message, cell.apply(sorted.get((int) index + i)), line.getCells().get(column).getContent());
+                }
+            }
+        }
+    }
+
+    private static Map<String, Long> fetchColumnIds(SegmentStoreTableDataProvider provider) {
+        TmfTreeModel<@NonNull TmfTreeDataModel> columns = provider.fetchTree(FetchParametersUtils.timeQueryToMap(new TimeQueryFilter(0, 0, 1)), null).getModel();
+        assertNotNull(columns);
+        Map<String, Long> columnIds = new LinkedHashMap<>();
+        for (TmfTreeDataModel column : columns.getEntries()) {
+            columnIds.put(column.getName(), column.getId());
+        }
+        return columnIds;
+    }
+
+    private static String lineTime(long milliseconds) {
+        return TmfTimestamp.fromNanos(milliseconds).toString();
+    }
+
+    private static String lineDuration(long duration) {
+        return new DecimalFormat("###,###.##").format(duration);
+    }
+}
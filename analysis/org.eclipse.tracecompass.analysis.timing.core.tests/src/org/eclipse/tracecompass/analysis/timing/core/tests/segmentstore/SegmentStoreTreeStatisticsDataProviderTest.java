@@ -55,28 +55,28 @@ public class SegmentStoreTreeStatisticsDataProviderTest extends AbstractSegmentS
     // Test data
     // ------------------------------------------------------------------------
 
-    private static final @NonNull List<@NonNull String> EXPECTED_HEADER_LIST = Arrays.asList("Label", "Minimum", "Maximum", "Average", "Std Dev", "Count", "Total", "Min Time Range", "Max Time Range");
-    private static final @NonNull List<@NonNull DataType> EXPECTED_DATATYPE_LIST = Arrays.asList(DataType.STRING, DataType.STRING, DataType.STRING, DataType.STRING, DataType.STRING, DataType.STRING, DataType.STRING, DataType.TIME_RANGE, DataType.TIME_RANGE);
-    private static final @NonNull List<@NonNull String> EXPECTED_TOOLTIP_LIST = Arrays.asList("", "", "", "", "", "", "", "", "");
+    private static final @NonNull List<@NonNull String> EXPECTED_HEADER_LIST = Arrays.asList("Label", "Minimum", "Maximum", "Average", "Std Dev", "Count", "Total", "Min Time Range", "Max Time Range", "P50", "P99", "P99.9");
+    private static final @NonNull List<@NonNull DataType> EXPECTED_DATATYPE_LIST = Arrays.asList(DataType.STRING, DataType.STRING, DataType.STRING, DataType.STRING, DataType.STRING, DataType.STRING, DataType.STRING, DataType.TIME_RANGE, DataType.TIME_RANGE, DataType.STRING, DataType.STRING, DataType.STRING);
+    private static final @NonNull List<@NonNull String> EXPECTED_TOOLTIP_LIST = Arrays.asList("", "", "", "", "", "", "", "", "", "", "", "");
 
     private static final List<@NonNull List<@NonNull String>> LIST_OF_EXPECTED_LABELS_FULL = Arrays.asList(
-            Arrays.asList("", "0", "2 ns", "1 ns", "1 ns", "3", "3 ns", "[1000,1000]", "[1000,1002]"),
-            Arrays.asList("Total", "0", "2 ns", "1 ns", "1 ns", "3", "3 ns", "[1000,1000]", "[1000,1002]"),
-            Arrays.asList("child1", "0", "2 ns", "1 ns", "1 ns", "3", "3 ns", "[2000,2000]", "[2000,2002]"),
-            Arrays.asList("grandChild11", "0", "2 ns", "1 ns", "1 ns", "3", "3 ns", "[4000,4000]", "[4000,4002]"),
-            Arrays.asList("grandChild12", "0", "2 ns", "1 ns", "1 ns", "3", "3 ns", "[5000,5000]", "[5000,5002]"),
-            Arrays.asList("child2", "0", "2 ns", "1 ns", "1 ns", "3", "3 ns", "[3000,3000]", "[3000,3002]"),
-            Arrays.asList("grandChild21", "0", "2 ns", "1 ns", "1 ns", "3", "3 ns", "[6000,6000]", "[6000,6002]"),
-            Arrays.asList("grandChild22", "0", "2 ns", "1 ns", "1 ns", "3", "3 ns", "[7000,7000]", "[7000,7002]"));
+            Arrays.asList("", "0", "2 ns", "1 ns", "1 ns", "3", "3 ns", "[1000,1000]", "[1000,1002]", "1 ns", "2 ns", "2 ns"),
+            Arrays.asList("Total", "0", "2 ns", "1 ns", "1 ns", "3", "3 ns", "[1000,1000]", "[1000,1002]", "1 ns", "2 ns", "2 ns"),
+            Arrays.asList("child1", "0", "2 ns", "1 ns", "1 ns", "3", "3 ns", "[2000,2000]", "[2000,2002]", "1 ns", "2 ns", "2 ns"),
+            Arrays.asList("grandChild11", "0", "2 ns", "1 ns", "1 ns", "3", "3 ns", "[4000,4000]", "[4000,4002]", "1 ns", "2 ns", "2 ns"),
+            Arrays.asList("grandChild12", "0", "2 ns", "1 ns", "1 ns", "3", "3 ns", "[5000,5000]", "[5000,5002]", "1 ns", "2 ns", "2 ns"),
+            Arrays.asList("child2", "0", "2 ns", "1 ns", "1 ns", "3", "3 ns", "[3000,3000]", "[3000,3002]", "1 ns", "2 ns", "2 ns"),
+            Arrays.asList("grandChild21", "0", "2 ns", "1 ns", "1 ns", "3", "3 ns", "[6000,6000]", "[6000,6002]", "1 ns", "2 ns", "2 ns"),
+            Arrays.asList("grandChild22", "0", "2 ns", "1 ns", "1 ns", "3", "3 ns", "[7000,7000]", "[7000,7002]", "1 ns", "2 ns", "2 ns"));
 
     private static final @NonNull List<@NonNull List<@NonNull String>> LIST_OF_EXPECTED_LABELS_SELECTION = Arrays.asList(
-            Arrays.asList("Selection", "0", "2 ns", "1 ns", "1 ns", "3", "3 ns", "[1000,1000]", "[1000,1002]"),
-            Arrays.asList("child1", "0", "2 ns", "1 ns", "1 ns", "3", "3 ns", "[2000,2000]", "[2000,2002]"),
-            Arrays.asList("grandChild11", "0", "2 ns", "1 ns", "1 ns", "3", "3 ns", "[4000,4000]", "[4000,4002]"),
-            Arrays.asList("grandChild12", "0", "2 ns", "1 ns", "1 ns", "3", "3 ns", "[5000,5000]", "[5000,5002]"),
-            Arrays.asList("child2", "0", "2 ns", "1 ns", "1 ns", "3", "3 ns", "[3000,3000]", "[3000,3002]"),
-            Arrays.asList("grandChild21", "0", "2 ns", "1 ns", "1 ns", "3", "3 ns", "[6000,6000]", "[6000,6002]"),
-            Arrays.asList("grandChild22", "0", "2 ns", "1 ns", "1 ns", "3", "3 ns", "[7000,7000]", "[7000,7002]"));
+            Arrays.asList("Selection", "0", "2 ns", "1 ns", "1 ns", "3", "3 ns", "[1000,1000]", "[1000,1002]", "1 ns", "2 ns", "2 ns"),
+            Arrays.asList("child1", "0", "2 ns", "1 ns", "1 ns", "3", "3 ns", "[2000,2000]", "[2000,2002]", "1 ns", "2 ns", "2 ns"),
+            Arrays.asList("grandChild11", "0", "2 ns", "1 ns", "1 ns", "3", "3 ns", "[4000,4000]", "[4000,4002]", "1 ns", "2 ns", "2 ns"),
+            Arrays.asList("grandChild12", "0", "2 ns", "1 ns", "1 ns", "3", "3 ns", "[5000,5000]", "[5000,5002]", "1 ns", "2 ns", "2 ns"),
+            Arrays.asList("child2", "0", "2 ns", "1 ns", "1 ns", "3", "3 ns", "[3000,3000]", "[3000,3002]", "1 ns", "2 ns", "2 ns"),
+            Arrays.asList("grandChild21", "0", "2 ns", "1 ns", "1 ns", "3", "3 ns", "[6000,6000]", "[6000,6002]", "1 ns", "2 ns", "2 ns"),
+            Arrays.asList("grandChild22", "0", "2 ns", "1 ns", "1 ns", "3", "3 ns", "[7000,7000]", "[7000,7002]", "1 ns", "2 ns", "2 ns"));
 
     private static final @NonNull List<@NonNull StatisticsHolder> EXPECTED_STATS_FULL = Arrays.asList(
             new StatisticsHolder("", 0, -1, 0, 2, 1.0, 1.0, 3, 3.0, 1000, 1000, 1000, 1002),
@@ -98,14 +98,14 @@ public class SegmentStoreTreeStatisticsDataProviderTest extends AbstractSegmentS
             new StatisticsHolder("grandChild22", 16, 14, 0, 2, 1.0, 1.0, 3, 3.0, 7000, 7000, 7000, 7002));
 
     private static final List<@NonNull List<@NonNull String>> LIST_OF_EXPECTED_LABELS_WITH_MAPPER_FULL = Arrays.asList(
-            Arrays.asList("My", "0", "2", "1.0", "1.0", "3", "3.0", "[1000,1000]", "[1000,1002]"),
-            Arrays.asList("MyTotal", "0", "2", "1.0", "1.0", "3", "3.0", "[1000,1000]", "[1000,1002]"),
-            Arrays.asList("Mychild1", "0", "2", "1.0", "1.0", "3", "3.0", "[2000,2000]", "[2000,2002]"),
-            Arrays.asList("MygrandChild11", "0", "2", "1.0", "1.0", "3", "3.0", "[4000,4000]", "[4000,4002]"),
-            Arrays.asList("MygrandChild12", "0", "2", "1.0", "1.0", "3", "3.0", "[5000,5000]", "[5000,5002]"),
-            Arrays.asList("Mychild2", "0", "2", "1.0", "1.0", "3", "3.0", "[3000,3000]", "[3000,3002]"),
-            Arrays.asList("MygrandChild21", "0", "2", "1.0", "1.0", "3", "3.0", "[6000,6000]", "[6000,6002]"),
-            Arrays.asList("MygrandChild22", "0", "2", "1.0", "1.0", "3", "3.0", "[7000,7000]", "[7000,7002]"));
+            Arrays.asList("My", "0", "2", "1.0", "1.0", "3", "3.0", "[1000,1000]", "[1000,1002]", "1.0", "2.0", "2.0"),
+            Arrays.asList("MyTotal", "0", "2", "1.0", "1.0", "3", "3.0", "[1000,1000]", "[1000,1002]", "1.0", "2.0", "2.0"),
+            Arrays.asList("Mychild1", "0", "2", "1.0", "1.0", "3", "3.0", "[2000,2000]", "[2000,2002]", "1.0", "2.0", "2.0"),
+            Arrays.asList("MygrandChild11", "0", "2", "1.0", "1.0", "3", "3.0", "[4000,4000]", "[4000,4002]", "1.0", "2.0", "2.0"),
+            Arrays.asList("MygrandChild12", "0", "2", "1.0", "1.0", "3", "3.0", "[5000,5000]", "[5000,5002]", "1.0", "2.0", "2.0"),
+            Arrays.asList("Mychild2", "0", "2", "1.0", "1.0", "3", "3.0", "[3000,3000]", "[3000,3002]", "1.0", "2.0", "2.0"),
+            Arrays.asList("MygrandChild21", "0", "2", "1.0", "1.0", "3", "3.0", "[6000,6000]", "[6000,6002]", "1.0", "2.0", "2.0"),
+            Arrays.asList("MygrandChild22", "0", "2", "1.0", "1.0", "3", "3.0", "[7000,7000]", "[7000,7002]", "1.0", "2.0", "2.0"));
 
     private static final @NonNull List<@NonNull StatisticsHolder> EXPECTED_STATS_WITH_MAPPER_FULL = Arrays.asList(
             new StatisticsHolder("My", 1, -1, 0, 2, 1.0, 1.0, 3, 3.0, 1000, 1000, 1000, 1002),
@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.analysis.timing.core.tests.segmentstore.statistics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.analysis.timing.core.statistics.IStatistics;
+import org.eclipse.tracecompass.analysis.timing.core.statistics.Statistics;
+import org.eclipse.tracecompass.internal.analysis.timing.core.segmentstore.statistics.SegmentStatisticsTree;
+import org.eclipse.tracecompass.segmentstore.core.BasicSegment;
+import org.eclipse.tracecompass.segmentstore.core.ISegment;
+import org.eclipse.tracecompass.segmentstore.core.ISegmentStore;
+import org.eclipse.tracecompass.segmentstore.core.SegmentStoreFactory;
+import org.junit.Test;
+
+/**
+ * Test the {@link SegmentStatisticsTree} against statistics computed on the
+ * intersecting segments
+ */
+public class SegmentStatisticsTreeTest {
+
+    private static final double ERROR = 0.000001;
+
+    private static @Nullable String getType(ISegment segment) {
+        long length = segment.getLength();
+        return (length % 3 == 0) ? null : (length % 3 == 1) ? "one" : "two";
+    }
+
+    private static void validate(IStatistics<@NonNull ISegment> expected, IStatistics<@NonNull ISegment> actual) {
+        assertEquals("Count", expected.getNbElements(), actual.getNbElements());
+        if (expected.getNbElements() == 0) {
+            return;
+        }
+        assertEquals("Min", expected.getMin(), actual.getMin());
+        assertEquals("Max", expected.getMax(), actual.getMax());
+        assertEquals("Total", expected.getTotal(), actual.getTotal(), ERROR * expected.getTotal());
+        assertEquals("Mean", expected.getMean(), actual.getMean(), ERROR * expected.getMean());
+        if (expected.getNbElements() > 2) {
+            assertEquals("Standard deviation", expected.getStdDev(), actual.getStdDev(), ERROR * expected.getStdDev());
+        }
+        assertEquals("Median", expected.getQuantile(0.5), actual.getQuantile(0.5), 0.0);
+    }
+
+    private static ISegmentStore<@NonNull ISegment> createStore(Random random) {
+        ISegmentStore<@NonNull ISegment> store = SegmentStoreFactory.createSegmentStore();
+        for (int i = 0; i < 100000; i++) {
+            long start = random.nextInt(10000000);
+            /* A few long segments */
+            long length = (i % 1000 == 0) ? random.nextInt(5000000) : random.nextInt(10000);
+            store.add(new BasicSegment(start, start + length));
+        }
+        return store;
+    }
+
+    private static void validateRanges(ISegmentStore<@NonNull ISegment> store, SegmentStatisticsTree tree, Function<ISegment, @Nullable String> typeResolver, Random random) {
+        for (int i = 0; i < 50; i++) {
+            long start = random.nextInt(11000000) - 500000;
+            long end = start + ((i % 5 == 0) ? random.nextInt(100) : random.nextInt(8000000));
+            IStatistics<@NonNull ISegment> expected = new Statistics<>(ISegment::getLength, true);
+            Map<String, IStatistics<@NonNull ISegment>> expectedPerType = new HashMap<>();
+            for (ISegment segment : store.getIntersectingElements(start, end)) {
+                expected.update(segment);
+                String type = typeResolver.apply(segment);
+                if (type != null) {
+                    expectedPerType.computeIfAbsent(type, t -> new Statistics<>(ISegment::getLength, true)).update(segment);
+                }
+            }
+
+            IStatistics<@NonNull ISegment> actual = tree.getStatsForRange(start, end, new NullProgressMonitor());
+            assertNotNull(actual);
+            validate(expected, actual);
+            Map<String, IStatistics<@NonNull ISegment>> actualPerType = tree.getStatsPerTypeForRange(start, end, new NullProgressMonitor());
+            assertNotNull(actualPerType);
+            assertEquals(expectedPerType.keySet(), actualPerType.keySet());
+            for (Map.Entry<String, IStatistics<@NonNull ISegment>> entry : expectedPerType.entrySet()) {
+                IStatistics<@NonNull ISegment> actualStats = actualPerType.get(entry.getKey());
+                assertNotNull(actualStats);
+                validate(entry.getValue(), actualStats);
+            }
+        }
+    }
+
+    /**
+     * Test the statistics of random ranges of a store with random segments
+     */
+    @Test
+    public void testRandomRanges() {
+        Random random = new Random(10);
+        ISegmentStore<@NonNull ISegment> store = createStore(random);
+        SegmentStatisticsTree tree = SegmentStatisticsTree.build(store, ISegment::getLength, SegmentStatisticsTreeTest::getType, new NullProgressMonitor());
+        assertNotNull(tree);
+        /* The nodes have at most 512 statistics, with 2 types */
+        assertEquals(64, tree.getNbBuckets());
+        validateRanges(store, tree, SegmentStatisticsTreeTest::getType, random);
+    }
+
+    /**
+     * Test that a store with many segment types has fewer buckets, to bound
+     * the number of statistics of the tree, and still gives the statistics
+     * of the ranges
+     */
+    @Test
+    public void testManyTypes() {
+        Random random = new Random(11);
+        ISegmentStore<@NonNull ISegment> store = createStore(random);
+        Function<ISegment, @Nullable String> typeResolver = segment -> "type" + segment.getLength() % 100;
+        SegmentStatisticsTree tree = SegmentStatisticsTree.build(store, ISegment::getLength, typeResolver, new NullProgressMonitor());
+        assertNotNull(tree);
+        assertEquals(2, tree.getNbBuckets());
+        validateRanges(store, tree, typeResolver, random);
+    }
+
+    /**
+     * Test that an empty store has no statistics tree
+     */
+    @Test
+    public void testEmptyStore() {
+        assertNull(SegmentStatisticsTree.build(SegmentStoreFactory.createSegmentStore(), ISegment::getLength, SegmentStatisticsTreeTest::getType, new NullProgressMonitor()));
+    }
+}
@@ -51,23 +51,23 @@ public class StubTreeStatisticsAnalysis implements ITreeStatisticsAnalysis<@NonN
 
     private static ITreeStatistics<@NonNull ISegment> createTreeStatistics(@NonNull String rootName) {
         // Create the root statistics
-        TreeStatistics<@NonNull ISegment> rootStats = new TreeStatistics<>(ISegment::getLength, rootName);
+        TreeStatistics<@NonNull ISegment> rootStats = new TreeStatistics<>(ISegment::getLength, rootName, true);
         updateStatistic(rootStats, 1000);
 
         // Create child statistics
-        TreeStatistics<@NonNull ISegment> chlid1Stats = new TreeStatistics<>(ISegment::getLength, "child1");
+        TreeStatistics<@NonNull ISegment> chlid1Stats = new TreeStatistics<>(ISegment::getLength, "child1", true);
         updateStatistic(chlid1Stats, 2000);
-        TreeStatistics<@NonNull ISegment> chlid2Stats = new TreeStatistics<>(ISegment::getLength, "child2");
+        TreeStatistics<@NonNull ISegment> chlid2Stats = new TreeStatistics<>(ISegment::getLength, "child2", true);
         updateStatistic(chlid2Stats, 3000);
 
         // Create grandchild statistics
-        TreeStatistics<@NonNull ISegment> grandChild11Stats = new TreeStatistics<>(ISegment::getLength, "grandChild11");
+        TreeStatistics<@NonNull ISegment> grandChild11Stats = new TreeStatistics<>(ISegment::getLength, "grandChild11", true);
         updateStatistic(grandChild11Stats, 4000);
-        TreeStatistics<@NonNull ISegment> grandChild12Stats = new TreeStatistics<>(ISegment::getLength, "grandChild12");
+        TreeStatistics<@NonNull ISegment> grandChild12Stats = new TreeStatistics<>(ISegment::getLength, "grandChild12", true);
         updateStatistic(grandChild12Stats, 5000);
-        TreeStatistics<@NonNull ISegment> grandChild21Stats = new TreeStatistics<>(ISegment::getLength, "grandChild21");
+        TreeStatistics<@NonNull ISegment> grandChild21Stats = new TreeStatistics<>(ISegment::getLength, "grandChild21", true);
         updateStatistic(grandChild21Stats, 6000);
-        TreeStatistics<@NonNull ISegment> grandChild22Stats = new TreeStatistics<>(ISegment::getLength, "grandChild22");
+        TreeStatistics<@NonNull ISegment> grandChild22Stats = new TreeStatistics<>(ISegment::getLength, "grandChild22", true);
         updateStatistic(grandChild22Stats, 7000);
 
         // Add children to their respective parents
@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.analysis.timing.core.tests.statistics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.tracecompass.analysis.timing.core.statistics.Statistics;
+import org.junit.Test;
+
+/**
+ * Test the quantiles estimated by {@link Statistics}
+ */
+public class QuantileStatisticsTest {
+
+    private static final double[] QUANTILES = { 0.0, 0.01, 0.25, 0.5, 0.75, 0.9, 0.99, 0.999, 1.0 };
+    /** The maximal relative error of the quantiles */
+    private static final double RELATIVE_ERROR = 1.0 / 256;
+
+    private static Statistics<@NonNull Long> createStatistics() {
+        return new Statistics<>(e -> e, true);
+    }
+
+    private static Statistics<@NonNull Long> createStatistics(List<@NonNull Long> values) {
+        Statistics<@NonNull Long> statistics = createStatistics();
+        values.forEach(statistics::update);
+        return statistics;
+    }
+
+    private static long getExpectedQuantile(List<@NonNull Long> sortedValues, double quantile) {
+        int rank = Math.max(0, (int) Math.ceil(quantile * sortedValues.size()) - 1);
+        return sortedValues.get(rank);
+    }
+
+    private static void validate(List<@NonNull Long> values, Statistics<@NonNull Long> statistics) {
+        List<@NonNull Long> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        for (double quantile : QUANTILES) {
+            long expected = getExpectedQuantile(sorted, quantile);
+            assertEquals("Quantile " + quantile, expected, statistics.getQuantile(quantile), Math.abs(expected) * RELATIVE_ERROR);
+        }
+    }
+
+    /**
+     * Test that quantiles are not available when they are not tracked or when
+     * there are no values
+     */
+    @Test
+    public void testNoQuantiles() {
+        Statistics<@NonNull Long> statistics = new Statistics<>(e -> e);
+        statistics.update(1L);
+        assertTrue(Double.isNaN(statistics.getQuantile(0.5)));
+        assertTrue(Double.isNaN(createStatistics().getQuantile(0.5)));
+    }
+
+    /**
+     * Test that small values are exact
+     */
+    @Test
+    public void testSmallValues() {
+        Statistics<@NonNull Long> statistics = createStatistics(List.of(0L, 1L, 2L));
+        assertEquals(0.0, statistics.getQuantile(0.0), 0.0);
+        assertEquals(1.0, statistics.getQuantile(0.5), 0.0);
+        assertEquals(2.0, statistics.getQuantile(0.99), 0.0);
+        assertEquals(2.0, statistics.getQuantile(1.0), 0.0);
+    }
+
+    /**
+     * Test quantiles on a large dataset of positive and negative values
+     */
+    @Test
+    public void testLargeDataset() {
+        Random random = new Random(10);
+        List<@NonNull Long> values = new ArrayList<>();
+        for (int i = 0; i < 100000; i++) {
+            long value = (long) Math.exp(random.nextDouble() * 30);
+            values.add(random.nextInt(10) == 0 ? -value : value);
+        }
+        validate(values, createStatistics(values));
+    }
+
+    /**
+     * Test that the quantiles of merged statistics are those of all the values
+     */
+    @Test
+    public void testMerge() {
+        Random random = new Random(10);
+        List<@NonNull Long> values = new ArrayList<>();
+        Statistics<@NonNull Long> merged = createStatistics();
+        for (int i = 0; i < 20; i++) {
+            List<@NonNull Long> nodeValues = new ArrayList<>();
+            /* Include empty and single element nodes */
+            int nbValues = (i < 3) ? i : random.nextInt(5000);
+            for (int j = 0; j < nbValues; j++) {
+                nodeValues.add((long) random.nextInt(1000000));
+            }
+            values.addAll(nodeValues);
+            merged.merge(createStatistics(nodeValues));
+        }
+        validate(values, merged);
+        validate(values, createStatistics(values));
+        for (double quantile : QUANTILES) {
+            assertEquals(createStatistics(values).getQuantile(quantile), merged.getQuantile(quantile), 0.0);
+        }
+    }
+
+    /**
+     * Test that merging statistics that do not track quantiles drops them
+     */
+    @Test
+    public void testMergeWithoutQuantiles() {
+        Statistics<@NonNull Long> statistics = createStatistics(List.of(1L, 2L, 3L));
+        Statistics<@NonNull Long> other = new Statistics<>(e -> e);
+        other.update(4L);
+        other.update(5L);
+        statistics.merge(other);
+        assertEquals(5, statistics.getNbElements());
+        assertTrue(Double.isNaN(statistics.getQuantile(0.5)));
+    }
+}
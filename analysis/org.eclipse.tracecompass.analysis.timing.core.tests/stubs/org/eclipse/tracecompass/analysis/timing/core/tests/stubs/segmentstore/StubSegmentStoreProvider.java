@@ -114,9 +114,7 @@ public class StubSegmentStoreProvider extends AbstractSegmentStoreAnalysisModule
 
     @Override
     protected boolean buildAnalysisSegments(@NonNull ISegmentStore<@NonNull ISegment> segmentStore, @NonNull IProgressMonitor monitor) throws TmfAnalysisException {
-        boolean retVal = segmentStore.addAll(fPreFixture);
-        segmentStore.close(false);
-        return retVal;
+        return segmentStore.addAll(fPreFixture);
     }
 
     @Override
@@ -17,6 +17,7 @@ import java.nio.file.Paths;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.nio.file.attribute.FileTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -30,6 +31,7 @@ import org.eclipse.tracecompass.common.core.format.DataSizeWithUnitFormat;
 import org.eclipse.tracecompass.datastore.core.interval.IHTIntervalReader;
 import org.eclipse.tracecompass.internal.analysis.timing.core.Activator;
 import org.eclipse.tracecompass.internal.analysis.timing.core.segmentstore.Messages;
+import org.eclipse.tracecompass.internal.analysis.timing.core.segmentstore.NotifyingSegmentStore;
 import org.eclipse.tracecompass.segmentstore.core.ISegment;
 import org.eclipse.tracecompass.segmentstore.core.ISegmentStore;
 import org.eclipse.tracecompass.segmentstore.core.SegmentStoreFactory;
@@ -153,8 +155,9 @@ public abstract class AbstractSegmentStoreAnalysisModule extends TmfAbstractAnal
     protected abstract boolean buildAnalysisSegments(ISegmentStore<ISegment> segmentStore, IProgressMonitor monitor) throws TmfAnalysisException;
 
     /**
-     * Get the reader for the segments on disk. If the segment store is not on
-     * disk, this method can return null.
+     * Get the reader for the segments on disk, or kept serialized by a
+     * {@link SegmentStoreType#Compact} segment store. If the segment store is
+     * not on disk or compact, this method can return null.
      *
      * @return The segment reader
      * @since 3.0
@@ -203,6 +206,9 @@ public abstract class AbstractSegmentStoreAnalysisModule extends TmfAbstractAnal
         case OnDisk:
             store = buildOnDiskSegmentStore(monitor);
             break;
+        case Compact:
+            store = buildCompactSegmentStore(monitor);
+            break;
         default:
             Activator.getInstance().logError("Unknown segment store type: " + type); //$NON-NLS-1$
             break;
@@ -242,7 +248,7 @@ public abstract class AbstractSegmentStoreAnalysisModule extends TmfAbstractAnal
         if (built) {
             return segmentStore;
         }
-        boolean completed = buildAnalysisSegments(segmentStore, monitor);
+        boolean completed = buildSegments(segmentStore, monitor);
         if (!completed) {
             return null;
         }
@@ -250,16 +256,49 @@ public abstract class AbstractSegmentStoreAnalysisModule extends TmfAbstractAnal
         return segmentStore;
     }
 
+    private @Nullable ISegmentStore<@NonNull ISegment> buildCompactSegmentStore(IProgressMonitor monitor) throws TmfAnalysisException {
+        ISegmentStore<ISegment> segmentStore = SegmentStoreFactory.createCompactSegmentStore(getSegmentReader());
+        boolean completed = buildSegments(segmentStore, monitor);
+        if (!completed) {
+            segmentStore.dispose();
+            return null;
+        }
+
+        return segmentStore;
+    }
+
     private @Nullable ISegmentStore<@NonNull ISegment> buildInMemorySegmentStore(SegmentStoreType type, IProgressMonitor monitor) throws TmfAnalysisException {
         ISegmentStore<ISegment> segmentStore = SegmentStoreFactory.createSegmentStore(type);
-        boolean completed = buildAnalysisSegments(segmentStore, monitor);
+        boolean completed = buildSegments(segmentStore, monitor);
         if (!completed) {
             return null;
         }
 
+        /* All the segments are there, let the store sort and index them */
+        segmentStore.close(false);
         return segmentStore;
     }
 
+    /**
+     * Fill the segment store, sending the segments to the listeners as they
+     * are added, if there are any
+     */
+    private boolean buildSegments(ISegmentStore<ISegment> segmentStore, IProgressMonitor monitor) throws TmfAnalysisException {
+        if (!getListeners().iterator().hasNext()) {
+            return buildAnalysisSegments(segmentStore, monitor);
+        }
+        NotifyingSegmentStore<ISegment> notifyingStore = new NotifyingSegmentStore<>(segmentStore, this::sendSegmentsAdded);
+        boolean completed = buildAnalysisSegments(notifyingStore, monitor);
+        notifyingStore.flush();
+        return completed;
+    }
+
+    private void sendSegmentsAdded(Collection<ISegment> segments) {
+        for (IAnalysisProgressListener listener : getListeners()) {
+            listener.onSegmentsAdded(this, segments);
+        }
+    }
+
     /**
      * Send the segment store to all its listener
      *
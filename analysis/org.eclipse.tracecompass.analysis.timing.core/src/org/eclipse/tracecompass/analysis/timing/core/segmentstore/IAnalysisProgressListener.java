@@ -10,6 +10,8 @@
  *******************************************************************************/
 package org.eclipse.tracecompass.analysis.timing.core.segmentstore;
 
+import java.util.Collection;
+
 import org.eclipse.tracecompass.segmentstore.core.ISegment;
 import org.eclipse.tracecompass.segmentstore.core.ISegmentStore;
 
@@ -32,4 +34,19 @@ public interface IAnalysisProgressListener {
      */
     void onComplete(ISegmentStoreProvider segmentProvider, ISegmentStore<ISegment> data);
 
+    /**
+     * Called, by batches, with the segments added to the segment store while
+     * it is being built. The segments of a segment store that is read from
+     * disk or was added before the listener was registered are not sent.
+     *
+     * @param segmentProvider
+     *            analysis that is running
+     * @param segments
+     *            the segments added since the previous call
+     * @since 6.2
+     */
+    default void onSegmentsAdded(ISegmentStoreProvider segmentProvider, Collection<ISegment> segments) {
+        // Do nothing by default
+    }
+
 }
@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.eclipse.tracecompass.analysis.timing.core.segmentstore.statistics;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -18,10 +19,12 @@ import java.util.function.Function;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.analysis.timing.core.segmentstore.IAnalysisProgressListener;
 import org.eclipse.tracecompass.analysis.timing.core.segmentstore.ISegmentStoreProvider;
 import org.eclipse.tracecompass.analysis.timing.core.statistics.IStatistics;
 import org.eclipse.tracecompass.analysis.timing.core.statistics.IStatisticsAnalysis;
 import org.eclipse.tracecompass.analysis.timing.core.statistics.Statistics;
+import org.eclipse.tracecompass.internal.analysis.timing.core.segmentstore.statistics.SegmentStatisticsTree;
 import org.eclipse.tracecompass.segmentstore.core.ISegment;
 import org.eclipse.tracecompass.segmentstore.core.ISegmentStore;
 import org.eclipse.tracecompass.tmf.core.analysis.IAnalysisModule;
@@ -33,7 +36,14 @@ import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
 import com.google.common.collect.ImmutableList;
 
 /**
- * Abstract analysis to build statistics data for a segment store
+ * Abstract analysis to build statistics data for a segment store. The
+ * statistics also estimate the quantiles of the segment values, and can be
+ * merged without losing them.
+ *
+ * While the segment store is being built, the statistics of the segments
+ * produced so far are updated as they are added to the segment store, and
+ * snapshots of them are periodically published by {@link #getStatsTotal()}
+ * and {@link #getStatsPerType()}.
  *
  * @author Jean-Christian Kouame
  * @since 3.0
@@ -46,6 +56,72 @@ public abstract class AbstractSegmentStatisticsAnalysis extends TmfAbstractAnaly
 
     private Map<String, IStatistics<ISegment>> fPerSegmentTypeStats = new HashMap<>();
 
+    private volatile @Nullable SegmentStatisticsTree fStatsTree;
+
+    private @Nullable LiveStatistics fLiveStatistics;
+
+    private volatile @Nullable IStatistics<ISegment> fLiveTotalStats;
+
+    private volatile Map<String, IStatistics<ISegment>> fLivePerSegmentTypeStats = Collections.emptyMap();
+
+    /**
+     * Listener that updates the statistics with the segments as they are
+     * produced, and publishes copies of them at most every
+     * {@link #PUBLISH_PERIOD} nanoseconds
+     */
+    private final class LiveStatistics implements IAnalysisProgressListener {
+
+        private static final long PUBLISH_PERIOD = 1000000000L;
+
+        private final Statistics<ISegment> fTotal = new Statistics<>(getMapper(), true);
+        private final Map<String, Statistics<ISegment>> fPerType = new HashMap<>();
+        private long fNbSegments = 0;
+        private long fLastPublish = System.nanoTime();
+
+        @Override
+        public synchronized void onSegmentsAdded(ISegmentStoreProvider segmentProvider, Collection<ISegment> segments) {
+            for (ISegment segment : segments) {
+                fTotal.update(segment);
+                String segmentType = getSegmentType(segment);
+                if (segmentType != null) {
+                    fPerType.computeIfAbsent(segmentType, type -> new Statistics<>(getMapper(), true)).update(segment);
+                }
+            }
+            fNbSegments += segments.size();
+            long now = System.nanoTime();
+            if (now - fLastPublish >= PUBLISH_PERIOD) {
+                fLastPublish = now;
+                Map<String, IStatistics<ISegment>> perType = new HashMap<>();
+                fPerType.forEach((type, statistics) -> perType.put(type, copy(statistics)));
+                fLivePerSegmentTypeStats = Collections.unmodifiableMap(perType);
+                fLiveTotalStats = copy(fTotal);
+            }
+        }
+
+        @Override
+        public void onComplete(ISegmentStoreProvider segmentProvider, ISegmentStore<ISegment> data) {
+            // The complete statistics are set by the analysis
+        }
+
+        private Statistics<ISegment> copy(Statistics<ISegment> statistics) {
+            Statistics<ISegment> copy = new Statistics<>(getMapper(), true);
+            copy.merge(statistics);
+            return copy;
+        }
+
+        /**
+         * Get the total statistics if all the segments of the store were seen,
+         * as well as the statistics per type
+         */
+        public synchronized @Nullable IStatistics<ISegment> getCompleteTotal(ISegmentStore<ISegment> store, Map<String, IStatistics<ISegment>> perTypeStats) {
+            if (fNbSegments != store.size()) {
+                return null;
+            }
+            perTypeStats.putAll(fPerType);
+            return fTotal;
+        }
+    }
+
     /**
      * Gets the segment mapper. This allows values to be resolved
      *
@@ -63,6 +139,12 @@ public abstract class AbstractSegmentStatisticsAnalysis extends TmfAbstractAnaly
         ITmfTrace trace = getTrace();
         if (trace != null) {
             ISegmentStoreProvider provider = getSegmentStoreProvider(trace);
+            if (provider != null && provider != fSegmentStoreProvider) {
+                /* Follow the segments while the provider produces them */
+                LiveStatistics liveStatistics = new LiveStatistics();
+                provider.addListener(liveStatistics);
+                fLiveStatistics = liveStatistics;
+            }
             fSegmentStoreProvider = provider;
             if (provider instanceof IAnalysisModule) {
                 return ImmutableList.of((IAnalysisModule) provider);
@@ -73,19 +155,54 @@ public abstract class AbstractSegmentStatisticsAnalysis extends TmfAbstractAnaly
 
     @Override
     protected boolean executeAnalysis(IProgressMonitor monitor) throws TmfAnalysisException {
+        try {
+            return computeStatistics(monitor);
+        } finally {
+            /* The statistics are complete, or will not be */
+            fLiveTotalStats = null;
+            fLivePerSegmentTypeStats = Collections.emptyMap();
+        }
+    }
+
+    private boolean computeStatistics(IProgressMonitor monitor) {
         if (monitor.isCanceled()) {
             return false;
         }
 
-        IStatistics<ISegment> totalStats = getTotalStats(TmfTimeRange.ETERNITY.getStartTime().toNanos(), TmfTimeRange.ETERNITY.getEndTime().toNanos(), monitor);
+        IStatistics<ISegment> totalStats = null;
+        Map<String, IStatistics<ISegment>> perTypeStats = new HashMap<>();
+        ISegmentStoreProvider segmentStoreProvider = fSegmentStoreProvider;
+        LiveStatistics liveStatistics = fLiveStatistics;
+        if (segmentStoreProvider != null && liveStatistics != null) {
+            if (segmentStoreProvider instanceof IAnalysisModule) {
+                ((IAnalysisModule) segmentStoreProvider).waitForCompletion();
+            }
+            ISegmentStore<ISegment> segmentStore = segmentStoreProvider.getSegmentStore();
+            /*
+             * Use the statistics updated while the segments were produced if
+             * they were all seen
+             */
+            totalStats = segmentStore != null ? liveStatistics.getCompleteTotal(segmentStore, perTypeStats) : null;
+        }
         if (totalStats == null) {
-            return false;
+            totalStats = getTotalStats(TmfTimeRange.ETERNITY.getStartTime().toNanos(), TmfTimeRange.ETERNITY.getEndTime().toNanos(), monitor);
+            if (totalStats == null) {
+                return false;
+            }
+            perTypeStats = getPerTypeStats(TmfTimeRange.ETERNITY.getStartTime().toNanos(), TmfTimeRange.ETERNITY.getEndTime().toNanos(), monitor);
         }
-
-        Map<String, IStatistics<ISegment>> perTypeStats = getPerTypeStats(TmfTimeRange.ETERNITY.getStartTime().toNanos(), TmfTimeRange.ETERNITY.getEndTime().toNanos(), monitor);
         fTotalStats = totalStats;
         fPerSegmentTypeStats = perTypeStats;
 
+        /*
+         * Pre-aggregate the statistics per time bucket, so that the statistics
+         * of a selection do not need to iterate on all its segments
+         */
+        ISegmentStore<@NonNull ISegment> segmentStore = segmentStoreProvider != null ? segmentStoreProvider.getSegmentStore() : null;
+        if (segmentStore != null) {
+            fStatsTree = SegmentStatisticsTree.build(segmentStore, getMapper(), this::getSegmentType, monitor);
+        }
+
         return true;
     }
 
@@ -123,6 +240,10 @@ public abstract class AbstractSegmentStatisticsAnalysis extends TmfAbstractAnaly
             waitForCompletion();
             return getStatsTotal();
         }
+        SegmentStatisticsTree statsTree = fStatsTree;
+        if (statsTree != null) {
+            return statsTree.getStatsForRange(Long.min(start, end), Long.max(start, end), monitor);
+        }
         return getTotalStats(start, end, monitor);
     }
 
@@ -157,6 +278,11 @@ public abstract class AbstractSegmentStatisticsAnalysis extends TmfAbstractAnaly
             waitForCompletion();
             return getStatsPerType();
         }
+        SegmentStatisticsTree statsTree = fStatsTree;
+        if (statsTree != null) {
+            Map<String, IStatistics<ISegment>> stats = statsTree.getStatsPerTypeForRange(Long.min(start, end), Long.max(start, end), monitor);
+            return stats != null ? stats : Collections.emptyMap();
+        }
         return getPerTypeStats(start, end, monitor);
     }
 
@@ -188,7 +314,7 @@ public abstract class AbstractSegmentStatisticsAnalysis extends TmfAbstractAnaly
     }
 
     private @Nullable IStatistics<ISegment> calculateTotalManual(Iterable<@NonNull ISegment> segments, IProgressMonitor monitor) {
-        IStatistics<ISegment> total = new Statistics<>(getMapper());
+        IStatistics<ISegment> total = new Statistics<>(getMapper(), true);
         for (ISegment segment : segments) {
             if (monitor.isCanceled()) {
                 return null;
@@ -207,9 +333,7 @@ public abstract class AbstractSegmentStatisticsAnalysis extends TmfAbstractAnaly
             }
             String segmentType = getSegmentType(segment);
             if (segmentType != null) {
-                IStatistics<ISegment> values = perSegmentTypeStats.getOrDefault(segmentType, new Statistics<>(getMapper()));
-                values.update(segment);
-                perSegmentTypeStats.put(segmentType, values);
+                perSegmentTypeStats.computeIfAbsent(segmentType, type -> new Statistics<>(getMapper(), true)).update(segment);
             }
         }
         return perSegmentTypeStats;
@@ -241,25 +365,52 @@ public abstract class AbstractSegmentStatisticsAnalysis extends TmfAbstractAnaly
     }
 
     /**
-     * Get the statistics for the full segment store
+     * The statistics are not queryable while only the statistics of the
+     * segments produced so far are available
+     *
+     * @since 6.2
+     */
+    @Override
+    public boolean isQueryable(long ts) {
+        return fTotalStats != null || fLiveTotalStats == null;
+    }
+
+    @Override
+    public void dispose() {
+        super.dispose();
+        ISegmentStoreProvider segmentStoreProvider = fSegmentStoreProvider;
+        LiveStatistics liveStatistics = fLiveStatistics;
+        if (segmentStoreProvider != null && liveStatistics != null) {
+            segmentStoreProvider.removeListener(liveStatistics);
+        }
+        fLiveStatistics = null;
+    }
+
+    /**
+     * Get the statistics for the full segment store. While the segment store
+     * is being built, they are the statistics of the segments produced so far,
+     * if any.
      *
      * @return The complete statistics
      * @since 1.3
      */
     @Override
     public @Nullable IStatistics<@NonNull ISegment> getStatsTotal() {
-        return fTotalStats;
+        IStatistics<ISegment> totalStats = fTotalStats;
+        return totalStats != null ? totalStats : fLiveTotalStats;
     }
 
     /**
-     * Get the statistics for each type of segment in this segment store
+     * Get the statistics for each type of segment in this segment store. While
+     * the segment store is being built, they are the statistics of the
+     * segments produced so far.
      *
      * @return the map of statistics per type
      * @since 1.3
      */
     @Override
     public Map<String, IStatistics<@NonNull ISegment>> getStatsPerType() {
-        return fPerSegmentTypeStats;
+        return fTotalStats != null ? fPerSegmentTypeStats : fLivePerSegmentTypeStats;
     }
 
 }
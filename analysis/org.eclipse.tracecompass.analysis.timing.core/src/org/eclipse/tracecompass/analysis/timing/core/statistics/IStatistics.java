@@ -107,6 +107,20 @@ public interface IStatistics<@NonNull E> {
      */
     double getTotal();
 
+    /**
+     * Gets an estimate of a quantile of the values, for example 0.99 for the
+     * 99th percentile. The default implementation does not track quantiles.
+     *
+     * @param quantile
+     *            the quantile, between 0 and 1
+     * @return the estimated value, or NaN if there are no elements or if the
+     *         quantiles are not tracked
+     * @since 6.2
+     */
+    default double getQuantile(double quantile) {
+        return Double.NaN;
+    }
+
     /**
      * Update the statistics based on a given object
      * <p>
@@ -17,11 +17,14 @@ import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.common.core.NonNullUtils;
 import org.eclipse.tracecompass.internal.analysis.timing.core.segmentstore.statistics.NumberComparator;
+import org.eclipse.tracecompass.internal.analysis.timing.core.segmentstore.statistics.QuantileSketch;
 
 /**
  * Class that calculates statistics on a certain type of object. If the object
  * is not a {@link Number}, a mapper function should be passed in the constructor
  * to retrieve the numerical value to make statistics on from an object.
+ * Quantiles can optionally be estimated with a fixed-memory sketch, which is
+ * kept when merging statistics that both track them.
  *
  * @author Bernd Hufmann
  * @author Geneviève Bastien
@@ -48,6 +51,7 @@ public class Statistics<@NonNull E> implements IStatistics<E> {
      */
     private double fVariance;
     private double fTotal;
+    private @Nullable QuantileSketch fQuantiles;
 
     /**
      * Constructor
@@ -69,11 +73,27 @@ public class Statistics<@NonNull E> implements IStatistics<E> {
      *            for and returns the value to use for the statistics
      */
     public Statistics(Function<E, @Nullable ? extends @Nullable Number> mapper) {
+        this(mapper, false);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param mapper
+     *            A mapper function that takes an object to computes statistics
+     *            for and returns the value to use for the statistics
+     * @param trackQuantiles
+     *            Whether to estimate the quantiles of the values, see
+     *            {@link #getQuantile(double)}
+     * @since 6.2
+     */
+    public Statistics(Function<E, @Nullable ? extends @Nullable Number> mapper, boolean trackQuantiles) {
         fNbElements = 0;
         fMean = 0.0;
         fVariance = 0.0;
         fTotal = 0.0;
         fMapper = mapper;
+        fQuantiles = trackQuantiles ? new QuantileSketch() : null;
     }
 
     @Override
@@ -135,6 +155,27 @@ public class Statistics<@NonNull E> implements IStatistics<E> {
         return fTotal;
     }
 
+    /**
+     * Gets an estimate of a quantile of the values. The estimate is within
+     * 0.4% of the actual value, and values below 128 are exact.
+     *
+     * @param quantile
+     *            the quantile, between 0 and 1
+     * @return the estimated value, or NaN if there are no elements or if this
+     *         object was not created to track quantiles
+     * @since 6.2
+     */
+    @Override
+    public double getQuantile(double quantile) {
+        QuantileSketch quantiles = fQuantiles;
+        if (quantiles == null || fNbElements == 0) {
+            return Double.NaN;
+        }
+        double value = quantiles.getQuantile(quantile);
+        /* The bucket value may be outside the actual range of values */
+        return Math.min(fMaxNum.doubleValue(), Math.max(fMinNum.doubleValue(), value));
+    }
+
     @Override
     public void update(E object) {
         Number number = fMapper.apply(object);
@@ -155,6 +196,10 @@ public class Statistics<@NonNull E> implements IStatistics<E> {
         fMean += delta / fNbElements;
         fVariance += delta * (doubleValue - fMean);
         fTotal += doubleValue;
+        QuantileSketch quantiles = fQuantiles;
+        if (quantiles != null) {
+            quantiles.add(doubleValue);
+        }
     }
 
     private void updateMax(@Nullable E object, Number number) {
@@ -185,6 +230,10 @@ public class Statistics<@NonNull E> implements IStatistics<E> {
             throw new IllegalArgumentException("Can only merge statistics of the same class"); //$NON-NLS-1$
         }
         Statistics<E> other = (Statistics<E>) o;
+        if (other.fQuantiles == null) {
+            /* The quantiles of the merged values are unknown */
+            fQuantiles = null;
+        }
         if (other.fNbElements == 0) {
             return;
         } else if (fNbElements == 0) {
@@ -192,7 +241,7 @@ public class Statistics<@NonNull E> implements IStatistics<E> {
         } else if (other.fNbElements == 1) {
             update(NonNullUtils.checkNotNull(other.getMaxObject()));
         } else if (fNbElements == 1) {
-            Statistics<E> copyOther = new Statistics<>(fMapper);
+            Statistics<E> copyOther = new Statistics<>(fMapper, fQuantiles != null);
             copyOther.copy(other);
             copyOther.update(NonNullUtils.checkNotNull(getMaxObject()));
             copy(copyOther);
@@ -216,6 +265,11 @@ public class Statistics<@NonNull E> implements IStatistics<E> {
         double otherAverage = other.getMean();
         fNbElements += otherSegments;
         fTotal += other.getTotal();
+        QuantileSketch quantiles = fQuantiles;
+        QuantileSketch otherQuantiles = other.fQuantiles;
+        if (quantiles != null && otherQuantiles != null) {
+            quantiles.merge(otherQuantiles);
+        }
 
         /*
          * Average is a weighted average
@@ -223,25 +277,14 @@ public class Statistics<@NonNull E> implements IStatistics<E> {
         fMean = ((oldNbSeg * oldAverage) + (otherAverage * otherSegments)) / fNbElements;
 
         /*
-         * This one is a bit tricky.
-         *
-         * The variance is the sum of the deltas from a mean squared.
-         *
-         * So if we add the old mean squared back to to variance and remove the
-         * new mean, the standard deviation can be easily calculated.
-         */
-        double avg1Sq = oldAverage * oldAverage;
-        double avg2sq = otherAverage * otherAverage;
-        double avgtSq = fMean * fMean;
-        /*
-         * This is a tricky part, bear in mind that the set is not continuous
-         * but discrete, Therefore, we have for n elements, n-1 intervals
-         * between them. Ergo, n-1 intervals are used for divisions and
-         * multiplications.
+         * The variance is the sum of the squared deltas from the mean. The sum
+         * of each set is relative to its own mean, so the squared deltas
+         * between the means of the sets are added, as per the parallel
+         * algorithm of Chan et al. in the same Wikipedia article as the online
+         * algorithm.
          */
-        double variance1 = fVariance / (oldNbSeg - 1);
-        double variance2 = other.fVariance / (otherSegments - 1);
-        fVariance = ((variance1 + avg1Sq - avgtSq) * (oldNbSeg - 1) + (variance2 + avg2sq - avgtSq) * (otherSegments - 1));
+        double delta = otherAverage - oldAverage;
+        fVariance += other.fVariance + delta * delta * ((double) oldNbSeg * otherSegments / fNbElements);
     }
 
     private void copy(Statistics<E> copyOther) {
@@ -253,6 +296,8 @@ public class Statistics<@NonNull E> implements IStatistics<E> {
         fNbElements = copyOther.fNbElements;
         fTotal = copyOther.fTotal;
         fVariance = copyOther.fVariance;
+        QuantileSketch otherQuantiles = copyOther.fQuantiles;
+        fQuantiles = (fQuantiles != null && otherQuantiles != null) ? otherQuantiles.copy() : null;
     }
 
     @Override
@@ -55,6 +55,23 @@ public class TreeStatistics<@NonNull E> extends Statistics<E> implements ITreeSt
         fName = name;
     }
 
+    /**
+     * Constructor
+     *
+     * @param mapper
+     *            A mapper function that takes an object to compute statistics
+     *            for and returns the value to use for the statistics
+     * @param name
+     *            The name of this statistic
+     * @param trackQuantiles
+     *            Whether to estimate the quantiles of the values
+     * @since 6.2
+     */
+    public TreeStatistics(Function<E, @Nullable ? extends @Nullable Number> mapper, String name, boolean trackQuantiles) {
+        super(mapper, trackQuantiles);
+        fName = name;
+    }
+
     @Override
     public List<ITreeStatistics<E>> getChildren() {
         return fChildStatistics;
@@ -52,6 +52,15 @@ public class EventMatchingLatencyAnalysis extends AbstractSegmentStoreAnalysisEv
     private static final Collection<ISegmentAspect> BASE_ASPECTS =
             ImmutableList.of(EventMatchingTypeAspect.INSTANCE);
 
+    /**
+     * Time, in nanoseconds, after which an event that is still waiting for a
+     * match is dropped
+     */
+    private static final long UNMATCHED_TIME_TO_LIVE = 60_000_000_000L;
+
+    /** Maximum number of events waiting for a match in each direction */
+    private static final int UNMATCHED_MAX_SIZE = 1_000_000;
+
     private static class EventMatchingLatencyProcessing implements IMatchProcessingUnit {
 
         private final ISegmentStore<ISegment> fSegmentStore;
@@ -104,6 +113,7 @@ public class EventMatchingLatencyAnalysis extends AbstractSegmentStoreAnalysisEv
             throw new NullPointerException("The trace should not be null"); //$NON-NLS-1$
         }
         TmfEventMatching matching = new TmfEventMatching(Collections.singleton(trace), new EventMatchingLatencyProcessing(segmentStore));
+        matching.setUnmatchedEventLimits(UNMATCHED_TIME_TO_LIVE, UNMATCHED_MAX_SIZE);
         matching.initMatching();
         return new LatencyMatchingEventRequest(segmentStore, matching, monitor);
     }
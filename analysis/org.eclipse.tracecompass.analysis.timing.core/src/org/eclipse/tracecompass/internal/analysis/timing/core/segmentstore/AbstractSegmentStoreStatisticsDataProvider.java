@@ -173,7 +173,8 @@ public abstract class AbstractSegmentStoreStatisticsDataProvider extends Abstrac
 
     /**
      * Set a mapper function to convert a statistics Number to String.
-     * Used for minimum, maximum, average, standard deviation and total.
+     * Used for minimum, maximum, average, standard deviation, total and
+     * quantiles.
      *
      * @param mapper
      *              function to convert a Number to String
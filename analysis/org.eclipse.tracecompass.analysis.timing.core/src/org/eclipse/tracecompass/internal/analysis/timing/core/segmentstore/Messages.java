@@ -138,6 +138,18 @@ public class Messages extends NLS {
      * Name of the column for maximum time range
      */
     public static @Nullable String SegmentStoreStatistics_MaxTimeRangeLabel;
+    /**
+     * Name of the column for the median
+     */
+    public static @Nullable String SegmentStoreStatistics_P50Label;
+    /**
+     * Name of the column for the 99th percentile
+     */
+    public static @Nullable String SegmentStoreStatistics_P99Label;
+    /**
+     * Name of the column for the 99.9th percentile
+     */
+    public static @Nullable String SegmentStoreStatistics_P999Label;
     /**
      * Title of the data provider
      */
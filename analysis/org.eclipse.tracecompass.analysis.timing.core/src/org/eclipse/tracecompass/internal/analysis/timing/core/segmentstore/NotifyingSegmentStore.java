@@ -0,0 +1,184 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.analysis.timing.core.segmentstore;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.segmentstore.core.ISegment;
+import org.eclipse.tracecompass.segmentstore.core.ISegmentStore;
+
+/**
+ * A segment store that forwards all calls to another segment store, and sends
+ * the segments that are added to it, by batches, to a consumer. It is used to
+ * follow the segments as they are produced by an analysis.
+ *
+ * The segments are sent only if they were actually added to the store. If
+ * some of the segments of an {@link #addAll(Collection)} are not added, none
+ * of them is sent, so the consumer may have seen fewer segments than the
+ * store contains, but never more.
+ *
+ * @param <E>
+ *            The type of segment held in this store
+ */
+public class NotifyingSegmentStore<@NonNull E extends ISegment> implements ISegmentStore<E> {
+
+    private static final int BATCH_SIZE = 4096;
+
+    private final ISegmentStore<E> fDelegate;
+    private final Consumer<Collection<E>> fConsumer;
+    private List<E> fBatch = new ArrayList<>();
+
+    /**
+     * Constructor
+     *
+     * @param delegate
+     *            The segment store to forward the calls to
+     * @param consumer
+     *            The consumer of the added segments
+     */
+    public NotifyingSegmentStore(ISegmentStore<E> delegate, Consumer<Collection<E>> consumer) {
+        fDelegate = delegate;
+        fConsumer = consumer;
+    }
+
+    /**
+     * Send the segments added since the last batch to the consumer
+     */
+    public void flush() {
+        if (fBatch.isEmpty()) {
+            return;
+        }
+        List<E> batch = fBatch;
+        fBatch = new ArrayList<>();
+        fConsumer.accept(Collections.unmodifiableList(batch));
+    }
+
+    private void added(E segment) {
+        fBatch.add(segment);
+        if (fBatch.size() >= BATCH_SIZE) {
+            flush();
+        }
+    }
+
+    @Override
+    public boolean add(E segment) {
+        boolean added = fDelegate.add(segment);
+        if (added) {
+            added(segment);
+        }
+        return added;
+    }
+
+    @Override
+    public boolean addAll(@Nullable Collection<? extends E> segments) {
+        if (segments == null) {
+            return fDelegate.addAll(segments);
+        }
+        int size = fDelegate.size();
+        boolean added = fDelegate.addAll(segments);
+        if (fDelegate.size() - size == segments.size()) {
+            segments.forEach(this::added);
+        }
+        return added;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return fDelegate.iterator();
+    }
+
+    @Override
+    public Iterable<E> iterator(Comparator<ISegment> order) {
+        return fDelegate.iterator(order);
+    }
+
+    @Override
+    public int size() {
+        return fDelegate.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return fDelegate.isEmpty();
+    }
+
+    @Override
+    public boolean contains(@Nullable Object o) {
+        return fDelegate.contains(o);
+    }
+
+    @Override
+    public boolean containsAll(@Nullable Collection<?> c) {
+        return fDelegate.containsAll(c);
+    }
+
+    @Override
+    public Object[] toArray() {
+        return fDelegate.toArray();
+    }
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+        return fDelegate.toArray(a);
+    }
+
+    @Override
+    public void clear() {
+        fBatch.clear();
+        fDelegate.clear();
+    }
+
+    @Override
+    public Iterable<E> getIntersectingElements(long position) {
+        return fDelegate.getIntersectingElements(position);
+    }
+
+    @Override
+    public Iterable<E> getIntersectingElements(long position, Comparator<ISegment> order) {
+        return fDelegate.getIntersectingElements(position, order);
+    }
+
+    @Override
+    public Iterable<E> getIntersectingElements(long start, long end) {
+        return fDelegate.getIntersectingElements(start, end);
+    }
+
+    @Override
+    public Iterable<E> getIntersectingElements(long start, long end, Comparator<ISegment> order) {
+        return fDelegate.getIntersectingElements(start, end, order);
+    }
+
+    @Override
+    public List<E> getIntersectingElements(long start, long end, Comparator<ISegment> order, Predicate<ISegment> filter) {
+        return fDelegate.getIntersectingElements(start, end, order, filter);
+    }
+
+    @Override
+    public void dispose() {
+        fDelegate.dispose();
+    }
+
+    @Override
+    public void close(boolean deleteFiles) {
+        flush();
+        fDelegate.close(deleteFiles);
+    }
+}
@@ -13,20 +13,19 @@ package org.eclipse.tracecompass.internal.analysis.timing.core.segmentstore;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.stream.StreamSupport;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.analysis.timing.core.segmentstore.IAnalysisProgressListener;
 import org.eclipse.tracecompass.analysis.timing.core.segmentstore.ISegmentStoreProvider;
 import org.eclipse.tracecompass.internal.tmf.core.model.TmfXyResponseFactory;
 import org.eclipse.tracecompass.internal.tmf.core.model.filters.FetchParametersUtils;
 import org.eclipse.tracecompass.segmentstore.core.ISegment;
 import org.eclipse.tracecompass.segmentstore.core.ISegmentStore;
-import org.eclipse.tracecompass.segmentstore.core.SegmentComparators;
 import org.eclipse.tracecompass.tmf.core.analysis.IAnalysisModule;
 import org.eclipse.tracecompass.tmf.core.model.AbstractTmfTraceDataProvider;
 import org.eclipse.tracecompass.tmf.core.model.CommonStatusMessage;
@@ -41,6 +40,8 @@ import org.eclipse.tracecompass.tmf.core.response.ITmfResponse;
 import org.eclipse.tracecompass.tmf.core.response.TmfModelResponse;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableList.Builder;
 
@@ -58,6 +59,12 @@ public class SegmentStoreDensityDataProvider extends AbstractTmfTraceDataProvide
      */
     public static final String ID = "org.eclipse.tracecompass.internal.analysis.timing.core.segmentstore.SegmentStoreDensityDataProvider"; //$NON-NLS-1$
     private static final AtomicLong TRACE_IDS = new AtomicLong();
+    private static final int CACHE_SIZE = 16;
+    /*
+     * The maximum number of segments of an index of lengths, which uses about
+     * 10 longs per segment, so at most 20 MB
+     */
+    private static final int MAX_INDEXED_SEGMENTS = 1 << 18;
 
     private final String fID;
     private final String title = Objects.requireNonNull(Messages.SegmentStoreDensityDataProvider_title);
@@ -65,6 +72,127 @@ public class SegmentStoreDensityDataProvider extends AbstractTmfTraceDataProvide
     private final long fTotalId = TRACE_IDS.getAndIncrement();
     private final long fTraceId = TRACE_IDS.getAndIncrement();
 
+    /* The segment store whose construction is complete, and its size */
+    private @Nullable ISegmentStore<ISegment> fCompleteStore = null;
+    private int fCompleteSize = 0;
+    /*
+     * The index of the segment lengths of the complete store, to find the
+     * longest segment of a range, built by the first query
+     */
+    private @Nullable LengthIndex fLengthIndex = null;
+    /* The responses of completed queries of the complete store, by start, end and width */
+    private final Cache<List<Long>, TmfModelResponse<ITmfXyModel>> fResponseCache = CacheBuilder.newBuilder().maximumSize(CACHE_SIZE).build();
+    private final IAnalysisProgressListener fListener = (provider, store) -> setCompleteStore(store);
+
+    /**
+     * An index of the lengths of the segments of a segment store, to find the
+     * length of the longest segment that intersects a range in logarithmic
+     * time.
+     *
+     * A segment intersects a range [start, end] if it starts in that range, or
+     * if it starts before it and ends at or after its start. The start and end
+     * times of all the segments are sorted in an array of distinct keys, and
+     * two segment trees are built over those keys:
+     * <ul>
+     * <li>the first one has the greatest length of the segments that start at
+     * each key, and gives the maximum for a range of keys;</li>
+     * <li>the second one has, for each key, the greatest length of the
+     * segments that start before it and end at or after it. Each segment is
+     * added to the nodes that cover its range of keys, and the maximum for a
+     * key is found on the path from its leaf to the root.</li>
+     * </ul>
+     */
+    private static final class LengthIndex {
+        private final long[] fKeys;
+        /* Segment tree of the lengths of the segments starting at each key */
+        private final long[] fStartingAt;
+        /* Segment tree of the lengths of the segments overlapping each key */
+        private final long[] fOverlapping;
+
+        public LengthIndex(ISegmentStore<ISegment> store) {
+            int size = 0;
+            long[] starts = new long[Math.max(16, store.size())];
+            long[] ends = new long[starts.length];
+            for (ISegment segment : store) {
+                if (size == starts.length) {
+                    starts = Arrays.copyOf(starts, size * 2);
+                    ends = Arrays.copyOf(ends, size * 2);
+                }
+                starts[size] = segment.getStart();
+                ends[size] = segment.getEnd();
+                size++;
+            }
+
+            long[] keys = Arrays.copyOf(starts, size * 2);
+            System.arraycopy(ends, 0, keys, size, size);
+            Arrays.sort(keys);
+            int nbKeys = 0;
+            for (int i = 0; i < keys.length; i++) {
+                if (nbKeys == 0 || keys[i] != keys[nbKeys - 1]) {
+                    keys[nbKeys++] = keys[i];
+                }
+            }
+            fKeys = Arrays.copyOf(keys, nbKeys);
+
+            fStartingAt = new long[2 * nbKeys];
+            fOverlapping = new long[2 * nbKeys];
+            Arrays.fill(fStartingAt, -1);
+            Arrays.fill(fOverlapping, -1);
+            for (int i = 0; i < size; i++) {
+                long length = ends[i] - starts[i];
+                int startKey = Arrays.binarySearch(fKeys, starts[i]);
+                int endKey = Arrays.binarySearch(fKeys, ends[i]);
+                fStartingAt[nbKeys + startKey] = Math.max(fStartingAt[nbKeys + startKey], length);
+                /* The keys after the start, up to the end */
+                for (int lo = nbKeys + startKey + 1, hi = nbKeys + endKey + 1; lo < hi; lo >>= 1, hi >>= 1) {
+                    if ((lo & 1) == 1) {
+                        fOverlapping[lo] = Math.max(fOverlapping[lo], length);
+                        lo++;
+                    }
+                    if ((hi & 1) == 1) {
+                        hi--;
+                        fOverlapping[hi] = Math.max(fOverlapping[hi], length);
+                    }
+                }
+            }
+            for (int i = nbKeys - 1; i > 0; i--) {
+                fStartingAt[i] = Math.max(fStartingAt[2 * i], fStartingAt[2 * i + 1]);
+            }
+        }
+
+        /**
+         * Get the length of the longest segment intersecting a range, or -1 if
+         * no segment intersects it
+         */
+        public long getMaxLength(long start, long end) {
+            int nbKeys = fKeys.length;
+            /* The first key at or after the start */
+            int first = lowerBound(start);
+            /* The first key after the end */
+            int last = lowerBound(end == Long.MAX_VALUE ? end : end + 1);
+            long max = -1;
+            if (first < nbKeys) {
+                for (int i = nbKeys + first; i > 0; i >>= 1) {
+                    max = Math.max(max, fOverlapping[i]);
+                }
+            }
+            for (int lo = nbKeys + first, hi = nbKeys + last; lo < hi; lo >>= 1, hi >>= 1) {
+                if ((lo & 1) == 1) {
+                    max = Math.max(max, fStartingAt[lo++]);
+                }
+                if ((hi & 1) == 1) {
+                    max = Math.max(max, fStartingAt[--hi]);
+                }
+            }
+            return max;
+        }
+
+        private int lowerBound(long time) {
+            int index = Arrays.binarySearch(fKeys, time);
+            return (index >= 0) ? index : -index - 1;
+        }
+    }
+
     /**
      * Constructor
      *
@@ -79,8 +207,18 @@ public class SegmentStoreDensityDataProvider extends AbstractTmfTraceDataProvide
         super(trace);
         fProvider = provider;
         fID = id;
+        provider.addListener(fListener);
+        /*
+         * The store of a provider that is not an analysis is considered
+         * complete, until its size changes
+         */
+        boolean complete = true;
         if (provider instanceof IAnalysisModule) {
-            ((IAnalysisModule) provider).waitForCompletion();
+            complete = ((IAnalysisModule) provider).waitForCompletion();
+        }
+        ISegmentStore<ISegment> store = provider.getSegmentStore();
+        if (complete && store != null) {
+            setCompleteStore(store);
         }
     }
 
@@ -97,10 +235,58 @@ public class SegmentStoreDensityDataProvider extends AbstractTmfTraceDataProvide
                 return TmfXyResponseFactory.createFailedResponse(CommonStatusMessage.INCORRECT_QUERY_PARAMETERS);
             }
         }
-        return getXyData(segmentStore, queryFilter);
+        boolean completeStore = isComplete(segmentStore);
+        List<Long> key = ImmutableList.of(queryFilter.getStart(), queryFilter.getEnd(), (long) queryFilter.getTimesRequested().length);
+        TmfModelResponse<ITmfXyModel> response = completeStore ? fResponseCache.getIfPresent(key) : null;
+        if (response != null) {
+            return response;
+        }
+        response = getXyData(segmentStore, queryFilter, completeStore);
+        if (completeStore && response.getStatus() == ITmfResponse.Status.COMPLETED) {
+            fResponseCache.put(key, response);
+        }
+        return response;
+    }
+
+    private synchronized void setCompleteStore(ISegmentStore<ISegment> segmentStore) {
+        fCompleteStore = segmentStore;
+        fCompleteSize = segmentStore.size();
+        fLengthIndex = null;
+        fResponseCache.invalidateAll();
+    }
+
+    /*
+     * Whether the construction of a segment store is complete. A store that
+     * changed since it was complete is being built again, it will be complete
+     * when the provider says so.
+     */
+    private synchronized boolean isComplete(ISegmentStore<ISegment> segmentStore) {
+        if (fCompleteStore != segmentStore) {
+            return false;
+        }
+        if (fCompleteSize != segmentStore.size()) {
+            fCompleteStore = null;
+            fLengthIndex = null;
+            fResponseCache.invalidateAll();
+            return false;
+        }
+        return true;
+    }
+
+    /*
+     * Get the index of the lengths of a complete segment store, or null if it
+     * has too many segments
+     */
+    private synchronized @Nullable LengthIndex getLengthIndex(ISegmentStore<ISegment> segmentStore) {
+        LengthIndex lengthIndex = fLengthIndex;
+        if (lengthIndex == null && segmentStore.size() <= MAX_INDEXED_SEGMENTS) {
+            lengthIndex = new LengthIndex(segmentStore);
+            fLengthIndex = lengthIndex;
+        }
+        return lengthIndex;
     }
 
-    private TmfModelResponse<ITmfXyModel> getXyData(ISegmentStore<ISegment> segmentStore, TimeQueryFilter queryFilter) {
+    private TmfModelResponse<ITmfXyModel> getXyData(ISegmentStore<ISegment> segmentStore, TimeQueryFilter queryFilter, boolean completeStore) {
         long startTraceTime = queryFilter.getStart();
         long endTraceTime = queryFilter.getEnd();
         int width = queryFilter.getTimesRequested().length;
@@ -109,10 +295,23 @@ public class SegmentStoreDensityDataProvider extends AbstractTmfTraceDataProvide
         IAnalysisModule module = (fProvider instanceof IAnalysisModule) ? (IAnalysisModule) fProvider : null;
         boolean complete = module != null && module.isQueryable(queryFilter.getEnd());
 
-        Optional<ISegment> maxSegment = StreamSupport.stream(displayData.spliterator(), false).max(SegmentComparators.INTERVAL_LENGTH_COMPARATOR);
-        long maxLength = 1;
-        if (maxSegment.isPresent()) {
-            maxLength = maxSegment.get().getLength();
+        /*
+         * Look up the longest segment of the range in the index of a complete
+         * store, so that the segments are only read once, to fill the bins.
+         * The segments of a store that is still being built are read twice.
+         */
+        LengthIndex lengthIndex = completeStore ? getLengthIndex(segmentStore) : null;
+        long maxLength = -1;
+        if (lengthIndex != null) {
+            maxLength = lengthIndex.getMaxLength(startTraceTime, endTraceTime);
+        } else {
+            for (ISegment segment : displayData) {
+                maxLength = Math.max(maxLength, segment.getLength());
+            }
+        }
+        if (maxLength < 0) {
+            /* There are no segments in the range */
+            maxLength = 1;
         }
 
         double[] yValues = getYValues(displayData, width, maxLength);
@@ -160,4 +359,9 @@ public class SegmentStoreDensityDataProvider extends AbstractTmfTraceDataProvide
     public String getId() {
         return fID;
     }
+
+    @Override
+    public void dispose() {
+        fProvider.removeListener(fListener);
+    }
 }
@@ -12,15 +12,17 @@
 package org.eclipse.tracecompass.internal.analysis.timing.core.segmentstore;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.NoSuchElementException;
+import java.util.NavigableMap;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Predicate;
 
@@ -35,7 +37,6 @@ import org.eclipse.tracecompass.internal.tmf.core.model.TmfXyResponseFactory;
 import org.eclipse.tracecompass.internal.tmf.core.model.filters.FetchParametersUtils;
 import org.eclipse.tracecompass.segmentstore.core.ISegment;
 import org.eclipse.tracecompass.segmentstore.core.ISegmentStore;
-import org.eclipse.tracecompass.segmentstore.core.SegmentComparators;
 import org.eclipse.tracecompass.segmentstore.core.segment.interfaces.INamedSegment;
 import org.eclipse.tracecompass.tmf.core.analysis.IAnalysisModule;
 import org.eclipse.tracecompass.tmf.core.dataprovider.DataProviderParameterUtils;
@@ -67,9 +68,6 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableList.Builder;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Multimap;
-import com.google.common.primitives.Doubles;
-import com.google.common.primitives.Ints;
-import com.google.common.primitives.Longs;
 
 /**
  * This data provider will return a XY model (model wrapped in a response) based
@@ -119,88 +117,6 @@ public class SegmentStoreScatterDataProvider extends AbstractTmfTraceDataProvide
         }
     }
 
-    /**
-     * An iterator over a segment store that returns segments from a segment
-     * store only if they do not overlap
-     */
-    private static class SegmentStoreIterator implements Iterator<@NonNull ISegment> {
-
-        /* Last segment per category */
-        private final Map<String, ISegment> fLasts = new HashMap<>();
-        private @Nullable ISegment fNext = null;
-        private final Iterator<@NonNull ISegment> fIterator;
-        private final long fStartTime;
-        private final long fPixelSize;
-
-        public SegmentStoreIterator(long startTime, Iterable<@NonNull ISegment> iterableToCompact, long pixelSize) {
-            fStartTime = startTime;
-            fIterator = Objects.requireNonNull(iterableToCompact.iterator());
-            fPixelSize = Math.max(1, pixelSize);
-        }
-
-        @Override
-        public @NonNull ISegment next() {
-            /* hasNext implies next != null */
-            if (hasNext()) {
-                ISegment segment = Objects.requireNonNull(fNext);
-                fLasts.put(getSegmentName(segment), segment);
-                fNext = null;
-                return segment;
-            }
-            throw new NoSuchElementException();
-        }
-
-        @Override
-        public boolean hasNext() {
-            if (fLasts.isEmpty() && fNext == null) {
-                // iteration hasn't started yet.
-                if (fIterator.hasNext()) {
-                    ISegment segment = fIterator.next();
-                    if (segment.getStart() >= fStartTime) {
-                        fNext = segment;
-                    }
-                } else {
-                    return false;
-                }
-            }
-
-            // clear warning in calling overlaps below.
-            while (fNext == null && fIterator.hasNext()) {
-                ISegment tmp = fIterator.next();
-                ISegment last = fLasts.get(getSegmentName(tmp));
-                if (tmp.getStart() >= fStartTime && !overlaps(last, tmp)) {
-                    fNext = tmp;
-                }
-            }
-            return fNext != null;
-        }
-
-        /*
-         * Returns whether two segments overlaps or not by comparing start/end
-         * of last and start/end of next.
-         */
-        private boolean overlaps(@Nullable ISegment last, ISegment next) {
-            if (last == null) {
-                return false;
-            }
-            long timePerPix = fPixelSize;
-            final long start = last.getStart();
-            final long pixelStart = fStartTime;
-            final long pixelDuration = start - pixelStart;
-            long startPixBoundL = pixelDuration / timePerPix * timePerPix + pixelStart;
-            long startPixBoundR = startPixBoundL + timePerPix;
-            final long currentStart = next.getStart();
-            if (currentStart >= startPixBoundL && currentStart <= startPixBoundR) {
-                long length = last.getLength();
-                long lengthNext = next.getLength();
-                long lengthLow = length / timePerPix * timePerPix;
-                long lengthHigh = lengthLow + timePerPix;
-                return (lengthNext >= lengthLow && lengthNext <= lengthHigh);
-            }
-            return false;
-        }
-    }
-
     /**
      * Create an instance of {@link SegmentStoreScatterDataProvider} for a given
      * analysis ID. Returns a null instance if the ISegmentStoreProvider is
@@ -240,8 +156,15 @@ public class SegmentStoreScatterDataProvider extends AbstractTmfTraceDataProvide
 
     /**
      * Constructor
+     *
+     * @param trace
+     *            the trace of the segment store provider
+     * @param provider
+     *            the segment store provider
+     * @param secondaryId
+     *            the ID of the analysis to use for this provider
      */
-    private SegmentStoreScatterDataProvider(ITmfTrace trace, ISegmentStoreProvider provider, String secondaryId) {
+    public SegmentStoreScatterDataProvider(ITmfTrace trace, ISegmentStoreProvider provider, String secondaryId) {
         super(trace);
         fProvider = provider;
         fGroupingAspects = Iterables.filter(provider.getSegmentAspects(), IGroupingSegmentAspect.class);
@@ -367,23 +290,20 @@ public class SegmentStoreScatterDataProvider extends AbstractTmfTraceDataProvide
         // readability, but the name of the series in XY model should be unique
         // per trace
         String prefix = getTrace().getName() + '/';
-        Map<String, Series> types = initTypes(prefix, filter);
+        Map<String, Series> types = initTypes(prefix, filter, start, end);
         if (types.isEmpty()) {
             // this would return an empty map even if we did the queries.
             return TmfXyResponseFactory.create(Objects.requireNonNull(Messages.SegmentStoreScatterGraphViewer_title), Collections.emptyList(), true);
         }
-        long pixelSize = Math.max(1, (end - start) / filter.getTimesRequested().length);
-        final Iterable<ISegment> intersectingElements = Iterables.filter(segStore.getIntersectingElements(start, end, SegmentComparators.INTERVAL_START_COMPARATOR), segment -> {
-            CheckSegmentType cs = new CheckSegmentType(prefix, types.keySet());
-            return cs.test(segment);
-        });
-        final Iterable<ISegment> displayData = compactList(start, intersectingElements, pixelSize);
+        CheckSegmentType checkType = new CheckSegmentType(prefix, types.keySet());
+        final Iterable<ISegment> displayData = Iterables.filter(segStore.getIntersectingElements(start, end), segment -> segment.getStart() >= start && checkType.test(segment));
 
         IAnalysisModule module = (fProvider instanceof IAnalysisModule) ? (IAnalysisModule) fProvider : null;
         boolean complete = module == null || module.isQueryable(filter.getEnd());
 
         // For each visible segments, add start time to x value and duration for
-        // y value
+        // y value. The series keep a bounded number of points per pixel column,
+        // spread over its durations, so the segments can be read in any order.
         for (ISegment segment : displayData) {
             if (monitor != null && monitor.isCanceled()) {
                 return TmfXyResponseFactory.createCancelledResponse(CommonStatusMessage.TASK_CANCELLED);
@@ -457,27 +377,81 @@ public class SegmentStoreScatterDataProvider extends AbstractTmfTraceDataProvide
         }
     }
 
+    /**
+     * The points of a series, downsampled on the fly to the requested
+     * resolution. For each pixel column, and each combination of filter
+     * properties, the points are spread over the range of durations of the
+     * column, see {@link Column}. The number of points is thus bounded by the
+     * number of requested times, whatever the number of segments.
+     */
     private static class Series {
         private final long fId;
-        private final List<Long> fXValues = new ArrayList<>();
-        private final List<Double> fYValues = new ArrayList<>();
-        private final List<Integer> fProperties = new ArrayList<>();
+        private final long fStart;
+        private final long fPixelSize;
+        private final int fNbColumns;
+        /* The columns of points per filter properties */
+        private final Map<Integer, @Nullable Column[]> fColumns = new HashMap<>();
 
-        public Series(long id) {
+        public Series(long id, long start, long end, int nbColumns) {
             fId = id;
+            fStart = start;
+            fNbColumns = Math.max(1, nbColumns);
+            fPixelSize = Math.max(1, (end - start) / fNbColumns);
         }
 
-        public void addPoint(long x, double y, int properties) {
-            fXValues.add(x);
-            fYValues.add(y);
-            fProperties.add(properties);
+        public void addPoint(long x, long y, int properties) {
+            @Nullable Column[] columns = fColumns.computeIfAbsent(properties, p -> new Column[fNbColumns]);
+            int index = (int) Math.max(0, Math.min(fNbColumns - 1, (x - fStart) / fPixelSize));
+            Column column = columns[index];
+            if (column == null) {
+                columns[index] = new Column(x, y);
+            } else {
+                column.update(x, y);
+            }
         }
 
         public SeriesModel build() {
-            SeriesModelBuilder builder = new SeriesModel.SeriesModelBuilder(getId(), String.valueOf(getId()), Longs.toArray(fXValues), Doubles.toArray(fYValues));
+            int maxPoints = 0;
+            for (@Nullable Column[] columns : fColumns.values()) {
+                for (Column column : columns) {
+                    maxPoints += (column == null) ? 0 : column.getMaxPoints();
+                }
+            }
+            long[] xValues = new long[maxPoints];
+            double[] yValues = new double[maxPoints];
+            int[] properties = new int[maxPoints];
+            int nbPoints = 0;
+            for (int i = 0; i < fNbColumns; i++) {
+                int columnStart = nbPoints;
+                for (Entry<Integer, @Nullable Column[]> entry : fColumns.entrySet()) {
+                    Column column = entry.getValue()[i];
+                    if (column == null) {
+                        continue;
+                    }
+                    int columnEnd = column.getPoints(xValues, yValues, nbPoints);
+                    Arrays.fill(properties, nbPoints, columnEnd, entry.getKey());
+                    nbPoints = columnEnd;
+                }
+                /* Keep the x values sorted, there are few points per column */
+                for (int j = columnStart + 1; j < nbPoints; j++) {
+                    long x = xValues[j];
+                    double y = yValues[j];
+                    int property = properties[j];
+                    int k = j - 1;
+                    while (k >= columnStart && xValues[k] > x) {
+                        xValues[k + 1] = xValues[k];
+                        yValues[k + 1] = yValues[k];
+                        properties[k + 1] = properties[k];
+                        k--;
+                    }
+                    xValues[k + 1] = x;
+                    yValues[k + 1] = y;
+                    properties[k + 1] = property;
+                }
+            }
+            SeriesModelBuilder builder = new SeriesModel.SeriesModelBuilder(getId(), String.valueOf(getId()), Arrays.copyOf(xValues, nbPoints), Arrays.copyOf(yValues, nbPoints));
             builder.seriesDisplayType(DisplayType.SCATTER);
-            builder.setProperties(Ints.toArray(fProperties)).build();
-            return builder.setProperties(Ints.toArray(fProperties)).build();
+            return builder.setProperties(Arrays.copyOf(properties, nbPoints)).build();
         }
 
         private long getId() {
@@ -486,7 +460,80 @@ public class SegmentStoreScatterDataProvider extends AbstractTmfTraceDataProvide
 
     }
 
-    private Map<String, Series> initTypes(String prefix, TimeQueryFilter filter) {
+    /**
+     * The points of a pixel column. The durations are grouped in at most
+     * {@link #MAX_BUCKETS} buckets, whose width is the smallest power of two
+     * that fits them, and each bucket keeps its earliest point with the
+     * shortest duration. The kept points thus cover the whole range of
+     * durations of the column, and the point with the longest duration is
+     * also kept so the outliers stay visible.
+     */
+    private static class Column {
+        private static final int MAX_BUCKETS = 32;
+
+        /* The points of each bucket, as {x, y}, by y >> fShift */
+        private NavigableMap<Long, long[]> fBuckets = new TreeMap<>();
+        private int fShift = 0;
+        private long fMaxX;
+        private long fMaxY;
+
+        public Column(long x, long y) {
+            fMaxX = x;
+            fMaxY = y;
+            fBuckets.put(y, new long[] { x, y });
+        }
+
+        public void update(long x, long y) {
+            if (y > fMaxY || (y == fMaxY && x < fMaxX)) {
+                fMaxX = x;
+                fMaxY = y;
+            }
+            addToBucket(fBuckets, x, y, fShift);
+            while (fBuckets.size() > MAX_BUCKETS) {
+                /* Merge the buckets two by two */
+                fShift++;
+                NavigableMap<Long, long[]> buckets = new TreeMap<>();
+                for (long[] point : fBuckets.values()) {
+                    addToBucket(buckets, point[0], point[1], fShift);
+                }
+                fBuckets = buckets;
+            }
+        }
+
+        private static void addToBucket(Map<Long, long[]> buckets, long x, long y, int shift) {
+            long[] point = buckets.computeIfAbsent(y >> shift, b -> new long[] { x, y });
+            if (y < point[1] || (y == point[1] && x < point[0])) {
+                point[0] = x;
+                point[1] = y;
+            }
+        }
+
+        public int getMaxPoints() {
+            return fBuckets.size() + 1;
+        }
+
+        /**
+         * Copy the points of this column in the arrays, from the shortest to
+         * the longest durations
+         *
+         * @return the index after the last copied point
+         */
+        public int getPoints(long[] xValues, double[] yValues, int index) {
+            int i = index;
+            for (long[] point : fBuckets.values()) {
+                xValues[i] = point[0];
+                yValues[i++] = point[1];
+            }
+            long[] last = fBuckets.lastEntry().getValue();
+            if (last[0] != fMaxX || last[1] != fMaxY) {
+                xValues[i] = fMaxX;
+                yValues[i++] = fMaxY;
+            }
+            return i;
+        }
+    }
+
+    private Map<String, Series> initTypes(String prefix, TimeQueryFilter filter, long start, long end) {
         if (!(filter instanceof SelectionTimeQueryFilter)) {
             return Collections.emptyMap();
         }
@@ -500,7 +547,7 @@ public class SegmentStoreScatterDataProvider extends AbstractTmfTraceDataProvide
                 }
 
                 String name = prefix + string;
-                segmentTypes.put(name, new Series(id));
+                segmentTypes.put(name, new Series(id, start, end, filter.getTimesRequested().length));
             }
         }
         return segmentTypes;
@@ -512,10 +559,6 @@ public class SegmentStoreScatterDataProvider extends AbstractTmfTraceDataProvide
         }
     }
 
-    private static Iterable<ISegment> compactList(final long startTime, final Iterable<@NonNull ISegment> iterableToCompact, long pixelSize) {
-        return () -> new SegmentStoreIterator(startTime, iterableToCompact, pixelSize);
-    }
-
     /**
      * @since 4.0
      */
@@ -60,7 +60,8 @@ public final class SegmentStoreStatisticsAspects {
 
     /**
      * Set a mapper function to convert a statistics Number to String.
-     * Used for minimum, maximum, average, standard deviation and total.
+     * Used for minimum, maximum, average, standard deviation, total and
+     * quantiles.
      *
      * @param mapper
      *              function to convert a Number to String
@@ -210,11 +211,29 @@ public final class SegmentStoreStatisticsAspects {
             }
         });
 
+        aspectsBuilder.add(createQuantileAspect(Objects.requireNonNull(Messages.SegmentStoreStatistics_P50Label), 0.5));
+        aspectsBuilder.add(createQuantileAspect(Objects.requireNonNull(Messages.SegmentStoreStatistics_P99Label), 0.99));
+        aspectsBuilder.add(createQuantileAspect(Objects.requireNonNull(Messages.SegmentStoreStatistics_P999Label), 0.999));
+
         aspectsBuilder.addAll(userDefinedAspects);
 
         return aspectsBuilder.build();
     }
 
+    private IDataAspect<NamedStatistics> createQuantileAspect(String name, double quantile) {
+        return new IDataAspect<NamedStatistics>() {
+            @Override
+            public String getName() {
+                return name;
+            }
+            @Override
+            public @Nullable Object apply(NamedStatistics input) {
+                double value = input.getStatistics().getQuantile(quantile);
+                return Double.isNaN(value) ? null : fMapper.apply(value);
+            }
+        };
+    }
+
    /**
     * Wrapper of statistics name and actual statistics implementation
     */
@@ -119,7 +119,12 @@ public class SegmentStoreStatisticsDataProvider extends AbstractSegmentStoreStat
     @Override
     public TmfModelResponse<TmfTreeModel<SegmentStoreStatisticsModel>> fetchTree(Map<String, Object> fetchParameters, @Nullable IProgressMonitor monitor) {
         IAnalysisModule module = fModule;
-        if (module != null) {
+        /*
+         * While the segments are produced, return the statistics of the
+         * segments seen so far instead of waiting for the analysis
+         */
+        boolean complete = module == null || fProvider.getStatsTotal() == null || module.isQueryable(Long.MAX_VALUE);
+        if (module != null && complete) {
             if (monitor != null) {
                 module.waitForCompletion(monitor);
                 if (monitor.isCanceled()) {
@@ -158,7 +163,7 @@ public class SegmentStoreStatisticsDataProvider extends AbstractSegmentStoreStat
          */
         TimeQueryFilter filter = FetchParametersUtils.createTimeQuery(fetchParameters);
         Boolean isFiltered = DataProviderParameterUtils.extractIsFiltered(fetchParameters);
-        if (filter != null && isFiltered != null && isFiltered) {
+        if (complete && filter != null && isFiltered != null && isFiltered) {
             long start = filter.getStart();
             long end = filter.getEnd();
 
@@ -181,6 +186,9 @@ public class SegmentStoreStatisticsDataProvider extends AbstractSegmentStoreStat
         TmfTreeModel.Builder<SegmentStoreStatisticsModel> treeModelBuilder = new TmfTreeModel.Builder();
         treeModelBuilder.setColumnDescriptors(getColumnDescriptors());
         treeModelBuilder.setEntries(Collections.unmodifiableList(list));
+        if (!complete) {
+            return new TmfModelResponse<>(treeModelBuilder.build(), Status.RUNNING, CommonStatusMessage.RUNNING);
+        }
         return new TmfModelResponse<>(treeModelBuilder.build(), Status.COMPLETED, CommonStatusMessage.COMPLETED);
     }
 
@@ -17,6 +17,7 @@ package org.eclipse.tracecompass.internal.analysis.timing.core.segmentstore;
 import java.text.DecimalFormat;
 import java.text.Format;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -45,6 +46,7 @@ import org.eclipse.tracecompass.internal.provisional.tmf.core.model.table.TmfVir
 import org.eclipse.tracecompass.internal.provisional.tmf.core.model.table.VirtualTableCell;
 import org.eclipse.tracecompass.internal.provisional.tmf.core.model.table.VirtualTableLine;
 import org.eclipse.tracecompass.internal.tmf.core.model.AbstractTmfTableDataProvider;
+import org.eclipse.tracecompass.internal.segmentstore.core.SegmentSorter;
 import org.eclipse.tracecompass.internal.tmf.core.model.filters.FetchParametersUtils;
 import org.eclipse.tracecompass.segmentstore.core.ISegment;
 import org.eclipse.tracecompass.segmentstore.core.ISegmentStore;
@@ -81,6 +83,56 @@ import com.google.common.collect.HashBiMap;
  */
 public class SegmentStoreTableDataProvider extends AbstractTmfTableDataProvider implements ITmfVirtualTableDataProvider<TmfTreeDataModel, VirtualTableLine> {
 
+    /**
+     * Access by rank to the segments of a segment store, sorted by the
+     * comparator of a column
+     */
+    private interface ISegmentRankIndex {
+        /**
+         * Get the segment at a rank
+         *
+         * @param rank
+         *            the rank, between 0 and {@link #size()}
+         * @return the segment, or null if it could not be found
+         */
+        @Nullable ISegment get(long rank);
+
+        /**
+         * Get the number of ranks
+         *
+         * @return the number of segments
+         */
+        long size();
+    }
+
+    /**
+     * A rank index of the segments of a segment store for a column: a
+     * permutation of the segments that sorts them by the comparator of the
+     * column, so that the segment at any rank is accessed in constant time.
+     * It is only built for the stores whose segments fit in memory, and the
+     * segments are sorted stably, to keep the order of the segment store for
+     * equal segments.
+     */
+    private static final class SegmentRankIndex implements ISegmentRankIndex {
+        private final ISegment[] fSegments;
+        private final int[] fPermutation;
+
+        public SegmentRankIndex(ISegment[] segments, Comparator<ISegment> comparator) {
+            fSegments = segments;
+            fPermutation = SegmentSorter.sortPositions(segments, comparator);
+        }
+
+        @Override
+        public ISegment get(long rank) {
+            return fSegments[fPermutation[(int) rank]];
+        }
+
+        @Override
+        public long size() {
+            return fPermutation.length;
+        }
+    }
+
     /**
      * A simple class to create checkpoints to index the segments of a segment
      * store
@@ -152,6 +204,78 @@ public class SegmentStoreTableDataProvider extends AbstractTmfTableDataProvider
         }
     }
 
+    /**
+     * A rank index of the segments of a segment store for a column that keeps
+     * a checkpoint every {@link #STEP} segments, for the stores that are too
+     * large to be loaded in memory, like the on-disk stores. The segments of a
+     * rank are read from the segment store, from the previous checkpoint.
+     */
+    private static final class CheckpointRankIndex implements ISegmentRankIndex {
+        private final ISegmentStore<ISegment> fSegmentStore;
+        private final Comparator<ISegment> fComparator;
+        private final String fAspectName;
+        private final List<SegmentStoreIndex> fIndexes = new ArrayList<>();
+        private final long fSize;
+        /* The segments from the last checkpoint read */
+        private int fCheckpointRank = -1;
+        private List<ISegment> fCheckpointSegments = Collections.emptyList();
+
+        public CheckpointRankIndex(ISegmentStore<ISegment> segmentStore, Comparator<ISegment> comparator, String aspectName) {
+            fSegmentStore = segmentStore;
+            fComparator = comparator;
+            fAspectName = aspectName;
+            long counter = 0;
+            long i = 0;
+            long previousTimestamp = Long.MAX_VALUE;
+            for (ISegment segment : segmentStore.iterator(comparator)) {
+                if (segment.getStart() == previousTimestamp) {
+                    counter++;
+                } else {
+                    previousTimestamp = segment.getStart();
+                    counter = 0;
+                }
+                if (i % STEP == 0) {
+                    fIndexes.add(new SegmentStoreIndex(segment.getStart(), counter, segment.getLength()));
+                }
+                i++;
+            }
+            fSize = i;
+        }
+
+        @Override
+        public @Nullable ISegment get(long rank) {
+            int checkpointRank = (int) (rank / STEP);
+            if (checkpointRank != fCheckpointRank) {
+                fCheckpointSegments = getIntersectingElements(checkpointRank);
+                fCheckpointRank = checkpointRank;
+            }
+            int offset = (int) (rank % STEP);
+            return (offset < fCheckpointSegments.size()) ? fCheckpointSegments.get(offset) : null;
+        }
+
+        @Override
+        public long size() {
+            return fSize;
+        }
+
+        private List<ISegment> getIntersectingElements(int checkpointRank) {
+            SegmentStoreIndex segIndex = fIndexes.get(checkpointRank);
+            SegmentPredicate filter = new SegmentPredicate(segIndex, fAspectName);
+            return fSegmentStore.getIntersectingElements(segIndex.getStartTimestamp(), getEndTimestamp(checkpointRank + 1), fComparator, filter);
+        }
+
+        private long getEndTimestamp(int checkpointRank) {
+            if (checkpointRank >= fIndexes.size()) {
+                boolean isEndTimeComparatorUsed = fAspectName.equals(SegmentEndTimeAspect.SEGMENT_END_TIME_ASPECT.getName());
+                if (isEndTimeComparatorUsed) {
+                    return 0;
+                }
+                return Long.MAX_VALUE;
+            }
+            return fIndexes.get(checkpointRank).getStartTimestamp();
+        }
+    }
+
     /**
      * A placeholder class to wrap a segment and its rank.
      *
@@ -175,63 +299,42 @@ public class SegmentStoreTableDataProvider extends AbstractTmfTableDataProvider
         }
     }
 
-    /**
-     * A wrapper class to encapsulate the indexes with the comparator that was
-     * used to create the indexes.
-     *
-     * @author Kyrollos Bekhet
-     */
-    private static final class SegmentIndexesComparatorWrapper {
-        private final List<SegmentStoreIndex> fIndexes;
-        private final Comparator<ISegment> fComparator;
-        private final String fAspectName;
-
-        @SuppressWarnings("null")
-        public SegmentIndexesComparatorWrapper() {
-            fComparator = SegmentComparators.INTERVAL_START_COMPARATOR.thenComparing(Comparator.comparingLong(ISegment::getLength));
-            fIndexes = new ArrayList<>();
-            fAspectName = StringUtils.EMPTY;
-        }
-
-        public SegmentIndexesComparatorWrapper(List<SegmentStoreIndex> indexes, Comparator<ISegment> comparator, String aspectName) {
-            fIndexes = indexes;
-            fComparator = comparator;
-            fAspectName = aspectName;
-        }
-
-        public SegmentStoreIndex getIndex(int rank) {
-            return fIndexes.get(rank);
-        }
-
-        public int getIndexesSize() {
-            return fIndexes.size();
-        }
-
-        public Comparator<ISegment> getComparator() {
-            return fComparator;
-        }
-
-        public String getAspectName() {
-            return fAspectName;
-        }
-    }
-
     /**
      * The id of the data provider
      */
     public static final String ID = "org.eclipse.tracecompass.analysis.timing.core.segmentstore.SegmentStoreTableDataProvider"; //$NON-NLS-1$
+    /*
+     * The number of bytes used per segment by the rank indexes: the reference
+     * to the segment, the position of the segment in a column, and the buffer
+     * to sort a column
+     */
+    private static final long INDEXED_SEGMENT_SIZE = 16;
+    /**
+     * The default maximum number of segments of a segment store for which the
+     * rank indexes are kept in memory, so that the index of a column uses at
+     * most a quarter of the maximum heap size
+     */
+    public static final int DEFAULT_MAX_INDEXED_SEGMENTS = (int) Math.min(Integer.MAX_VALUE - 8, Runtime.getRuntime().maxMemory() / 4 / INDEXED_SEGMENT_SIZE);
     private static BiMap<ISegmentAspect, Long> fAspectToIdMap = HashBiMap.create();
     private static final Format FORMATTER = new DecimalFormat("###,###.##"); //$NON-NLS-1$
+    private static final Comparator<ISegment> DEFAULT_COMPARATOR = Objects.requireNonNull(SegmentComparators.INTERVAL_START_COMPARATOR.thenComparing(Comparator.comparingLong(ISegment::getLength)));
     private static final int STEP = 1000;
     private static final Logger LOGGER = TraceCompassLog.getLogger(SegmentStoreTableDataProvider.class);
     private static final String TABLE_COMPARATOR_EXPRESSION_KEY = "table_comparator_expression"; //$NON-NLS-1$
 
-    private Map<Long, SegmentIndexesComparatorWrapper> fAllIndexes;
-    private SegmentIndexesComparatorWrapper fDefaultWrapper;
+    /* The comparators of the sortable columns, by column id */
+    private final Map<Long, Comparator<ISegment>> fComparators = new HashMap<>();
+    /* The rank indexes built so far, by column id */
+    private final Map<@Nullable Long, ISegmentRankIndex> fAllIndexes = new HashMap<>();
+    private @Nullable Long fDefaultColumnId;
     private final String fId;
+    private final int fMaxIndexedSegments;
     private ISegmentStoreProvider fSegmentProvider;
-    private boolean fIsFirstAspect;
     private int fSegmentStoreSize;
+    /* The segments of the indexed segment store, in its iteration order */
+    private ISegment @Nullable [] fSegments;
+    private @Nullable ISegmentStore<ISegment> fIndexedStore;
+    private int fIndexedStoreSize;
 
     /**
      * Constructor
@@ -246,13 +349,31 @@ public class SegmentStoreTableDataProvider extends AbstractTmfTableDataProvider
      *            The analysis identifier.
      */
     public SegmentStoreTableDataProvider(ITmfTrace trace, ISegmentStoreProvider segmentProvider, String analysisId) {
+        this(trace, segmentProvider, analysisId, DEFAULT_MAX_INDEXED_SEGMENTS);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param trace
+     *            A trace on which we are interested to fetch a segment store
+     *            table model.
+     * @param segmentProvider
+     *            The segment provider that contains the data and from which the
+     *            data will be fetched.
+     * @param analysisId
+     *            The analysis identifier.
+     * @param maxIndexedSegments
+     *            The maximum number of segments of a segment store for which
+     *            the sorted segments are indexed in memory. The larger stores
+     *            are read from checkpoints.
+     */
+    public SegmentStoreTableDataProvider(ITmfTrace trace, ISegmentStoreProvider segmentProvider, String analysisId, int maxIndexedSegments) {
         super(trace);
         LogUtils.traceObjectCreation(LOGGER, Level.FINE, this);
         fId = analysisId;
-        fIsFirstAspect = true;
-        fAllIndexes = new HashMap<>();
-        fDefaultWrapper = new SegmentIndexesComparatorWrapper();
         fSegmentProvider = segmentProvider;
+        fMaxIndexedSegments = maxIndexedSegments;
     }
 
     @Override
@@ -261,60 +382,80 @@ public class SegmentStoreTableDataProvider extends AbstractTmfTableDataProvider
     }
 
     /**
-     * Build the indexes which will act like checkpoints for the data provider.
+     * Register the comparator of a sortable column. The rank index of the
+     * column is built the first time it is requested.
      *
      * @param id
      *            the id of the aspect in the {@link fAspectToIdMap}.
      * @param comparator
-     *            The comparator used to build the indexes array
-     * @param aspectName
-     *            The name of the aspect.
+     *            The comparator used to sort the column
      */
-    private void buildIndex(long id, Comparator<ISegment> comparator, String aspectName) {
-        if (fAllIndexes.containsKey(id)) {
-            return;
+    private void registerComparator(long id, Comparator<ISegment> comparator) {
+        synchronized (fAllIndexes) {
+            fComparators.putIfAbsent(id, comparator);
+            if (fDefaultColumnId == null) {
+                fDefaultColumnId = id;
+            }
         }
-        ISegmentStore<ISegment> segStore = fSegmentProvider.getSegmentStore();
-        if (segStore != null) {
-            synchronized (fAllIndexes) {
-                try (FlowScopeLog scope = new FlowScopeLogBuilder(LOGGER, Level.FINE, "SegmentStoreTableDataProvider#buildIndex.buildingIndexes").build()) { //$NON-NLS-1$
-                    LogUtils.traceObjectCreation(LOGGER, Level.FINE, fAllIndexes);
-                    Iterable<ISegment> sortedSegmentStore = segStore.iterator(comparator);
-                    List<SegmentStoreIndex> indexes = getIndexes(sortedSegmentStore);
-                    if (fIsFirstAspect) {
-                        fDefaultWrapper = new SegmentIndexesComparatorWrapper(indexes, comparator, aspectName);
-                        fIsFirstAspect = false;
-                        fAllIndexes.put(id, fDefaultWrapper);
-                    } else {
-                        fAllIndexes.put(id, new SegmentIndexesComparatorWrapper(indexes, comparator, aspectName));
-                    }
-                } catch (Exception ex) {
-                    LogUtils.traceInstant(LOGGER, Level.SEVERE, "error build index", ex.getMessage()); //$NON-NLS-1$
-                } finally {
-                    LogUtils.traceObjectDestruction(LOGGER, Level.FINE, fAllIndexes);
+    }
+
+    /**
+     * Get the rank index of the column requested in the fetch parameters, or
+     * of the default column, building it if needed. Must be called while
+     * holding the lock on {@link #fAllIndexes}.
+     */
+    private ISegmentRankIndex getRankIndex(Map<String, Object> fetchParameters, ISegmentStore<ISegment> segStore) {
+        int size = segStore.size();
+        if (segStore != fIndexedStore || size != fIndexedStoreSize) {
+            /* The indexes are kept as long as the segment store is unchanged */
+            fAllIndexes.clear();
+            fSegments = null;
+            fIndexedStore = segStore;
+            fIndexedStoreSize = size;
+        }
+        @Nullable Long key = extractColumnId(fetchParameters.get(TABLE_COMPARATOR_EXPRESSION_KEY));
+        Comparator<ISegment> comparator = fComparators.get(key);
+        if (comparator == null) {
+            key = fDefaultColumnId;
+            comparator = fComparators.getOrDefault(key, DEFAULT_COMPARATOR);
+        }
+        ISegmentRankIndex rankIndex = fAllIndexes.get(key);
+        if (rankIndex == null) {
+            try (FlowScopeLog scope = new FlowScopeLogBuilder(LOGGER, Level.FINE, "SegmentStoreTableDataProvider#getRankIndex.buildingIndex").build()) { //$NON-NLS-1$
+                if (size <= fMaxIndexedSegments) {
+                    rankIndex = new SegmentRankIndex(getSegments(segStore, size), comparator);
+                } else {
+                    ISegmentAspect aspect = fAspectToIdMap.inverse().get(key);
+                    rankIndex = new CheckpointRankIndex(segStore, comparator, aspect != null ? aspect.getName() : StringUtils.EMPTY);
                 }
             }
+            fAllIndexes.put(key, rankIndex);
         }
+        return rankIndex;
     }
 
-    private static List<SegmentStoreIndex> getIndexes(Iterable<ISegment> segmentStore) {
-        long counter = 0;
-        long i = 0;
-        long previousTimestamp = Long.MAX_VALUE;
-        List<SegmentStoreIndex> indexes = new ArrayList<>();
-        for (ISegment segment : segmentStore) {
-            if (segment.getStart() == previousTimestamp) {
-                counter++;
-            } else {
-                previousTimestamp = segment.getStart();
-                counter = 0;
+    /**
+     * Get the segments of the indexed segment store in its iteration order,
+     * reading them once for all the columns. The store is iterated, as some
+     * stores do not support being copied to an array.
+     */
+    private ISegment[] getSegments(ISegmentStore<ISegment> segStore, int size) {
+        ISegment[] segments = fSegments;
+        if (segments == null) {
+            segments = new ISegment[size];
+            int i = 0;
+            for (ISegment segment : segStore) {
+                if (i == size) {
+                    break;
+                }
+                segments[i++] = segment;
             }
-            if (i % STEP == 0) {
-                indexes.add(new SegmentStoreIndex(segment.getStart(), counter, segment.getLength()));
+            if (i < size) {
+                segments = Arrays.copyOf(segments, i);
             }
-            i++;
+            fSegments = segments;
         }
-        return indexes;
+        return segments;
     }
 
     @Override
@@ -339,7 +480,7 @@ public class SegmentStoreTableDataProvider extends AbstractTmfTableDataProvider
                     comparator = comparator.reversed();
                 }
                 if (comparator != null) {
-                    buildIndex(id, comparator, aspect.getName());
+                    registerComparator(id, comparator);
                 }
                 model.add(new TmfTreeDataModel(id, -1, Collections.singletonList(aspect.getName()), aspect.getDataType()));
             }
@@ -349,7 +490,7 @@ public class SegmentStoreTableDataProvider extends AbstractTmfTableDataProvider
                 long id = fAspectToIdMap.computeIfAbsent(aspect, a -> createColumnId());
                 Comparator<ISegment> comparator = (Comparator<ISegment>) aspect.getComparator();
                 if (comparator != null) {
-                    buildIndex(id, comparator, aspect.getName());
+                    registerComparator(id, comparator);
                 }
                 model.add(new TmfTreeDataModel(id, -1, Collections.singletonList(aspect.getName()), aspect.getDataType()));
             }
@@ -363,7 +504,7 @@ public class SegmentStoreTableDataProvider extends AbstractTmfTableDataProvider
                 comparator = comparator.reversed();
             }
             if (comparator != null) {
-                buildIndex(id, comparator, aspect.getName());
+                registerComparator(id, comparator);
             }
             model.add(new TmfTreeDataModel(id, -1, Collections.singletonList(aspect.getName())));
         }
@@ -378,7 +519,6 @@ public class SegmentStoreTableDataProvider extends AbstractTmfTableDataProvider
         if (queryFilter == null) {
             return new TmfModelResponse<>(null, ITmfResponse.Status.FAILED, CommonStatusMessage.INCORRECT_QUERY_PARAMETERS);
         }
-        SegmentIndexesComparatorWrapper indexesComparatorWrapper = getIndexesComparatorOrDefault(fetchParameters);
         Map<Long, ISegmentAspect> aspects = getAspectsFromColumnId(queryFilter.getColumnsId(), monitor);
         if (aspects.isEmpty()) {
             return new TmfModelResponse<>(new TmfVirtualTableModel<>(Collections.emptyList(), Collections.emptyList(), queryFilter.getIndex(), 0), ITmfResponse.Status.COMPLETED, CommonStatusMessage.COMPLETED);
@@ -395,7 +535,7 @@ public class SegmentStoreTableDataProvider extends AbstractTmfTableDataProvider
             synchronized (fAllIndexes) {
                 try (FlowScopeLog scope = new FlowScopeLogBuilder(LOGGER, Level.FINE, "SegmentStoreTableDataProvider#fetchLines").build()) { //$NON-NLS-1$
                     LogUtils.traceObjectCreation(LOGGER, Level.FINER, fAllIndexes);
-                    return extractRequestedLines(queryFilter, fetchParameters, segStore, aspects, indexesComparatorWrapper);
+                    return extractRequestedLines(queryFilter, fetchParameters, segStore, aspects, getRankIndex(fetchParameters, segStore));
                 } catch (Exception ex) {
                     LogUtils.traceInstant(LOGGER, Level.SEVERE, "error fetching lines ", ex.getMessage()); //$NON-NLS-1$
                 } finally {
@@ -407,19 +547,11 @@ public class SegmentStoreTableDataProvider extends AbstractTmfTableDataProvider
     }
 
     private static TmfModelResponse<ITmfVirtualTableModel<VirtualTableLine>> extractRequestedLines(VirtualTableQueryFilter queryFilter, Map<String, Object> fetchParameters, ISegmentStore<ISegment> segmentStore, Map<Long, ISegmentAspect> aspects,
-            SegmentIndexesComparatorWrapper indexesComparatorWrapper) {
+            ISegmentRankIndex rankIndex) {
         List<Long> columnIds = new ArrayList<>(aspects.keySet());
         List<VirtualTableLine> lines = new ArrayList<>();
 
-        int startIndexRank = (int) (queryFilter.getIndex() / STEP);
-        int actualStartQueryIndex = (int) (queryFilter.getIndex() % STEP);
-        SegmentStoreIndex segIndex = indexesComparatorWrapper.getIndex(startIndexRank);
-        SegmentPredicate filter = new SegmentPredicate(segIndex, indexesComparatorWrapper.getAspectName());
-        long start = segIndex.getStartTimestamp();
-
-        int endIndexRank = (int) ((queryFilter.getIndex() + queryFilter.getCount() + STEP - 1) / STEP);
-        long end = getEndTimestamp(endIndexRank, indexesComparatorWrapper);
-
+        long startRank = queryFilter.getIndex();
         VirtualTableQueryFilter localQueryFilter = queryFilter;
         @Nullable Predicate<ISegment> searchFilter = generateFilter(fetchParameters);
 
@@ -437,56 +569,44 @@ public class SegmentStoreTableDataProvider extends AbstractTmfTableDataProvider
             }
             @Nullable WrappedSegment segment = null;
             if (direction == Direction.NEXT) {
-                segment = getNextWrappedSegmentMatching(searchFilter, startIndexRank, actualStartQueryIndex, segmentStore, indexesComparatorWrapper, lines, aspects, queryFilter.getCount());
+                segment = getNextWrappedSegmentMatching(searchFilter, startRank, rankIndex, lines, aspects, queryFilter.getCount());
             } else {
-                segment = getPreviousWrappedSegmentMatching(searchFilter, startIndexRank, actualStartQueryIndex, segmentStore, indexesComparatorWrapper, lines, aspects, queryFilter.getCount());
+                segment = getPreviousWrappedSegmentMatching(searchFilter, startRank, rankIndex, lines, aspects, queryFilter.getCount());
             }
             if (segment != null) {
                 localQueryFilter = new VirtualTableQueryFilter(queryFilter.getColumnsId(), segment.getRank(), queryFilter.getCount());
-                long nextSegmentRank = segment.getRank() + 1;
-                startIndexRank = (int) (nextSegmentRank / STEP);
-                actualStartQueryIndex = (int) (nextSegmentRank % STEP);
-                segIndex = indexesComparatorWrapper.getIndex(startIndexRank);
-                start = segIndex.getStartTimestamp();
-                endIndexRank = (int) ((nextSegmentRank + localQueryFilter.getCount() + STEP - 1) / STEP);
-                end = getEndTimestamp(endIndexRank, indexesComparatorWrapper);
+                startRank = segment.getRank() + 1;
             }
             if ((queryFilter.getCount() == 1) || (segment == null)) {
                 return new TmfModelResponse<>(new TmfVirtualTableModel<>(columnIds, lines, localQueryFilter.getIndex(), segmentStore.size()), ITmfResponse.Status.COMPLETED, CommonStatusMessage.COMPLETED);
             }
         }
 
-        List<ISegment> newSegStore = segmentStore.getIntersectingElements(start, end, indexesComparatorWrapper.getComparator(), filter);
-        for (int i = actualStartQueryIndex; i < newSegStore.size(); i++) {
+        for (long rank = startRank; rank < rankIndex.size(); rank++) {
             if (queryFilter.getCount() == lines.size()) {
                 break;
             }
+            ISegment segment = rankIndex.get(rank);
+            if (segment == null) {
+                break;
+            }
             long lineNumber = localQueryFilter.getIndex() + lines.size();
-            VirtualTableLine newLine = buildSegmentStoreTableLine(aspects, newSegStore.get(i), lineNumber, searchFilter);
+            VirtualTableLine newLine = buildSegmentStoreTableLine(aspects, segment, lineNumber, searchFilter);
             lines.add(newLine);
         }
         return new TmfModelResponse<>(new TmfVirtualTableModel<>(columnIds, lines, localQueryFilter.getIndex(), segmentStore.size()), ITmfResponse.Status.COMPLETED, CommonStatusMessage.COMPLETED);
     }
 
-    private SegmentIndexesComparatorWrapper getIndexesComparatorOrDefault(Map<String, Object> fetchParameters) {
-        @Nullable Long key = extractColumnId(fetchParameters.get(TABLE_COMPARATOR_EXPRESSION_KEY));
-        return fAllIndexes.getOrDefault(key, fDefaultWrapper);
-    }
-
     /**
      * Retrieve from a segment store the next segment starting from a given
      * index, matching the given predicate.
      *
      * @param searchFilter
      *            The predicate to match.
-     * @param startIndexRank
-     *            The initial start-time index rank to search from.
-     * @param startQueryIndex
-     *            The initial start index to query from.
-     * @param segmentStore
-     *            The segment store from where the segments will be fetched.
-     * @param indexesComparatorWrapper
-     *            The segment indexes comparator wrapper to use.
+     * @param startRank
+     *            The rank to search from.
+     * @param rankIndex
+     *            The rank index of the sorted segments.
      * @param lines
      *            The virtual table lines to add the found segments to.
      * @param aspects
@@ -497,27 +617,19 @@ public class SegmentStoreTableDataProvider extends AbstractTmfTableDataProvider
      * @return A {@link WrappedSegment} that contains the matching next segment
      *         found after a given index.
      */
-    private static @Nullable WrappedSegment getNextWrappedSegmentMatching(Predicate<ISegment> searchFilter, int startIndexRank, int startQueryIndex, ISegmentStore<ISegment> segmentStore,
-            SegmentIndexesComparatorWrapper indexesComparatorWrapper, List<VirtualTableLine> lines, Map<Long, ISegmentAspect> aspects, int count) {
+    private static @Nullable WrappedSegment getNextWrappedSegmentMatching(Predicate<ISegment> searchFilter, long startRank, ISegmentRankIndex rankIndex,
+            List<VirtualTableLine> lines, Map<Long, ISegmentAspect> aspects, int count) {
         WrappedSegment first = null;
-        int startTimeIndexRank = startIndexRank;
-        int actualStartQueryIndex = startQueryIndex;
-        while (startTimeIndexRank < indexesComparatorWrapper.getIndexesSize()) {
-            List<ISegment> segments = getIntersectingElements(segmentStore, indexesComparatorWrapper, startTimeIndexRank);
-            for (int i = actualStartQueryIndex; i < segments.size(); i++) {
-                ISegment segment = segments.get(i);
-                if (searchFilter.test(segment)) {
-                    long rank = ((long) startTimeIndexRank * STEP) + i;
-                    WrappedSegment wrapped = new WrappedSegment(segment, rank);
-                    lines.add(buildSegmentStoreTableLine(aspects, wrapped.getOriginalSegment(), wrapped.getRank(), searchFilter));
-                    first = (first == null ? wrapped : first);
-                    if (lines.size() == count) {
-                        return first;
-                    }
+        for (long rank = Math.max(0, startRank); rank < rankIndex.size(); rank++) {
+            ISegment segment = rankIndex.get(rank);
+            if (segment != null && searchFilter.test(segment)) {
+                WrappedSegment wrapped = new WrappedSegment(segment, rank);
+                lines.add(buildSegmentStoreTableLine(aspects, wrapped.getOriginalSegment(), wrapped.getRank(), searchFilter));
+                first = (first == null ? wrapped : first);
+                if (lines.size() == count) {
+                    return first;
                 }
             }
-            actualStartQueryIndex = 0;
-            startTimeIndexRank++;
         }
         return first;
     }
@@ -528,14 +640,10 @@ public class SegmentStoreTableDataProvider extends AbstractTmfTableDataProvider
      *
      * @param searchFilter
      *            The predicate to match.
-     * @param startIndexRank
-     *            The initial start-time index rank to search from.
-     * @param startQueryIndex
-     *            The initial start index to query from.
-     * @param segmentStore
-     *            The segment store from where the segments will be fetched.
-     * @param indexesComparatorWrapper
-     *            The segment indexes comparator wrapper to use.
+     * @param startRank
+     *            The rank to search from.
+     * @param rankIndex
+     *            The rank index of the sorted segments.
      * @param lines
      *            The virtual table lines to add the found segments to.
      * @param aspects
@@ -546,39 +654,23 @@ public class SegmentStoreTableDataProvider extends AbstractTmfTableDataProvider
      * @return A {@link WrappedSegment} that contains the matching previous
      *         segment found before a given index.
      */
-    private static @Nullable WrappedSegment getPreviousWrappedSegmentMatching(Predicate<ISegment> searchFilter, int startIndexRank, int startQueryIndex, ISegmentStore<ISegment> segmentStore,
-            SegmentIndexesComparatorWrapper indexesComparatorWrapper, List<VirtualTableLine> lines, Map<Long, ISegmentAspect> aspects, int count) {
+    private static @Nullable WrappedSegment getPreviousWrappedSegmentMatching(Predicate<ISegment> searchFilter, long startRank, ISegmentRankIndex rankIndex,
+            List<VirtualTableLine> lines, Map<Long, ISegmentAspect> aspects, int count) {
         WrappedSegment first = null;
-        int startTimeIndexRank = startIndexRank;
-        int actualStartQueryIndex = startQueryIndex;
-        while (startTimeIndexRank >= 0) {
-            List<ISegment> segments = getIntersectingElements(segmentStore, indexesComparatorWrapper, startTimeIndexRank);
-            for (int i = Math.min(segments.size() - 1, actualStartQueryIndex); i >= 0; i--) {
-                ISegment segment = segments.get(i);
-                if (searchFilter.test(segment)) {
-                    long rank = ((long) startTimeIndexRank * STEP) + i;
-                    WrappedSegment wrapped = new WrappedSegment(segment, rank);
-                    lines.add(buildSegmentStoreTableLine(aspects, wrapped.getOriginalSegment(), wrapped.getRank(), searchFilter));
-                    first = (first == null ? wrapped : first);
-                    if (lines.size() == count) {
-                        return first;
-                    }
+        for (long rank = Math.min(rankIndex.size() - 1, startRank); rank >= 0; rank--) {
+            ISegment segment = rankIndex.get(rank);
+            if (segment != null && searchFilter.test(segment)) {
+                WrappedSegment wrapped = new WrappedSegment(segment, rank);
+                lines.add(buildSegmentStoreTableLine(aspects, wrapped.getOriginalSegment(), wrapped.getRank(), searchFilter));
+                first = (first == null ? wrapped : first);
+                if (lines.size() == count) {
+                    return first;
                 }
             }
-            actualStartQueryIndex = STEP;
-            startTimeIndexRank--;
         }
         return first;
     }
 
-    private static List<ISegment> getIntersectingElements(ISegmentStore<ISegment> segmentStore, SegmentIndexesComparatorWrapper indexesComparatorWrapper, int startTimeIndexRank) {
-        int endTimeIndexRank = startTimeIndexRank + 1;
-        SegmentStoreIndex segIndex = indexesComparatorWrapper.getIndex(startTimeIndexRank);
-        SegmentPredicate filter = new SegmentPredicate(segIndex, indexesComparatorWrapper.getAspectName());
-        long end = getEndTimestamp(endTimeIndexRank, indexesComparatorWrapper);
-        return segmentStore.getIntersectingElements(segIndex.getStartTimestamp(), end, indexesComparatorWrapper.getComparator(), filter);
-    }
-
     /**
      * Generates a predicate filter based on the search map found in the given
      * query parameters.
@@ -727,15 +819,4 @@ public class SegmentStoreTableDataProvider extends AbstractTmfTableDataProvider
         }
         return aspectParsed;
     }
-
-    private static long getEndTimestamp(int position, SegmentIndexesComparatorWrapper indexComparatorWrapper) {
-        if (position >= indexComparatorWrapper.getIndexesSize()) {
-            boolean isEndTimeComparatorUsed = indexComparatorWrapper.getAspectName().equals(SegmentEndTimeAspect.SEGMENT_END_TIME_ASPECT.getName());
-            if (isEndTimeComparatorUsed) {
-                return 0;
-            }
-            return Long.MAX_VALUE;
-        }
-        return indexComparatorWrapper.getIndex(position).getStartTimestamp();
-    }
 }
@@ -0,0 +1,182 @@
+/**********************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ **********************************************************************/
+
+package org.eclipse.tracecompass.internal.analysis.timing.core.segmentstore.statistics;
+
+import java.util.Arrays;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Fixed-memory quantile sketch, using log-linear buckets. Values are rounded
+ * to integers, the ones below {@link #SUB_BUCKETS} are counted exactly and the
+ * larger ones are counted in buckets whose width is at most 1/128 of their
+ * value, so the relative error of a quantile is below 0.4%.
+ *
+ * Since the bucket boundaries do not depend on the values, two sketches are
+ * merged exactly by adding their bucket counts, whatever the order of the
+ * values.
+ */
+public final class QuantileSketch {
+
+    private static final int SUB_BITS = 7;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    /** Group 0 is the exact values, then one group per power of 2 */
+    private static final int NB_GROUPS = Long.SIZE - SUB_BITS;
+
+    /* Buckets of the positive values and of the opposite of negative values */
+    private final long[] @Nullable [] fPositive = new long[NB_GROUPS][];
+    private final long[] @Nullable [] fNegative = new long[NB_GROUPS][];
+    private long fCount = 0;
+
+    /**
+     * Add a value to the sketch
+     *
+     * @param value
+     *            The value, NaN is ignored
+     */
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        long rounded = Math.round(value);
+        if (rounded >= 0) {
+            increment(fPositive, rounded);
+        } else {
+            increment(fNegative, rounded == Long.MIN_VALUE ? Long.MAX_VALUE : -rounded);
+        }
+        fCount++;
+    }
+
+    private static void increment(long[] @Nullable [] groups, long value) {
+        int group = getGroup(value);
+        long[] buckets = groups[group];
+        if (buckets == null) {
+            buckets = new long[SUB_BUCKETS];
+            groups[group] = buckets;
+        }
+        buckets[getSubBucket(value, group)]++;
+    }
+
+    private static int getGroup(long value) {
+        int exponent = (Long.SIZE - 1) - Long.numberOfLeadingZeros(value);
+        return Math.max(0, exponent - SUB_BITS + 1);
+    }
+
+    private static int getSubBucket(long value, int group) {
+        return (group == 0) ? (int) value : (int) (value >>> (group - 1)) - SUB_BUCKETS;
+    }
+
+    /**
+     * Get the middle value of a bucket
+     */
+    private static long getBucketValue(int group, int sub) {
+        if (group == 0) {
+            return sub;
+        }
+        long lower = ((long) SUB_BUCKETS + sub) << (group - 1);
+        return lower + ((1L << (group - 1)) >>> 1);
+    }
+
+    /**
+     * Get the number of values in this sketch
+     *
+     * @return The number of values
+     */
+    public long getCount() {
+        return fCount;
+    }
+
+    /**
+     * Get an estimate of a quantile of the values, using the nearest rank
+     * definition: the smallest value such that a fraction of at least
+     * <code>quantile</code> of the values are lower or equal.
+     *
+     * @param quantile
+     *            The quantile, between 0 and 1
+     * @return The estimated value, or {@link Double#NaN} if the sketch is
+     *         empty
+     */
+    public double getQuantile(double quantile) {
+        if (fCount == 0) {
+            return Double.NaN;
+        }
+        double q = Math.min(1.0, Math.max(0.0, quantile));
+        long rank = Math.max(0, (long) Math.ceil(q * fCount) - 1);
+        /* Negative values, from the lowest */
+        for (int group = NB_GROUPS - 1; group >= 0; group--) {
+            long[] buckets = fNegative[group];
+            if (buckets == null) {
+                continue;
+            }
+            for (int sub = SUB_BUCKETS - 1; sub >= 0; sub--) {
+                rank -= buckets[sub];
+                if (rank < 0) {
+                    return -getBucketValue(group, sub);
+                }
+            }
+        }
+        for (int group = 0; group < NB_GROUPS; group++) {
+            long[] buckets = fPositive[group];
+            if (buckets == null) {
+                continue;
+            }
+            for (int sub = 0; sub < SUB_BUCKETS; sub++) {
+                rank -= buckets[sub];
+                if (rank < 0) {
+                    return getBucketValue(group, sub);
+                }
+            }
+        }
+        /* Should not happen, the counts add up to fCount */
+        return Double.NaN;
+    }
+
+    /**
+     * Add the values of another sketch to this one
+     *
+     * @param other
+     *            The other sketch
+     */
+    public void merge(QuantileSketch other) {
+        mergeGroups(fPositive, other.fPositive);
+        mergeGroups(fNegative, other.fNegative);
+        fCount += other.fCount;
+    }
+
+    private static void mergeGroups(long[] @Nullable [] groups, long[] @Nullable [] otherGroups) {
+        for (int group = 0; group < NB_GROUPS; group++) {
+            long[] otherBuckets = otherGroups[group];
+            if (otherBuckets == null) {
+                continue;
+            }
+            long[] buckets = groups[group];
+            if (buckets == null) {
+                groups[group] = Arrays.copyOf(otherBuckets, SUB_BUCKETS);
+                continue;
+            }
+            for (int sub = 0; sub < SUB_BUCKETS; sub++) {
+                buckets[sub] += otherBuckets[sub];
+            }
+        }
+    }
+
+    /**
+     * Get a copy of this sketch
+     *
+     * @return The copy
+     */
+    public QuantileSketch copy() {
+        QuantileSketch copy = new QuantileSketch();
+        copy.merge(this);
+        return copy;
+    }
+}
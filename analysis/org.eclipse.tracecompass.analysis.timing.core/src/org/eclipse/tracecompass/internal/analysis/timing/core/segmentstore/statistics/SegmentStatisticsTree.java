@@ -0,0 +1,285 @@
+/**********************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ **********************************************************************/
+
+package org.eclipse.tracecompass.internal.analysis.timing.core.segmentstore.statistics;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.analysis.timing.core.statistics.IStatistics;
+import org.eclipse.tracecompass.analysis.timing.core.statistics.Statistics;
+import org.eclipse.tracecompass.segmentstore.core.ISegment;
+import org.eclipse.tracecompass.segmentstore.core.ISegmentStore;
+
+/**
+ * Pre-aggregated statistics of a segment store, to get the statistics of the
+ * segments intersecting a time range without iterating on all of them.
+ *
+ * The segments are distributed in buckets of equal duration by their start
+ * time, and the statistics of the buckets are merged in a segment tree, whose
+ * nodes have the total and per type statistics of a range of buckets. The
+ * statistics of a time range are the merge of the O(log n) nodes covering the
+ * buckets fully inside the range, plus the statistics of the segments that
+ * start in the partial buckets at the edges of the range, or before it, which
+ * are read from the segment store.
+ *
+ * Each statistics of a node tracks quantiles in a sketch of up to about 58 KB,
+ * so the number of buckets is reduced when there are many segment types, to
+ * bound the number of statistics of the tree.
+ */
+@NonNullByDefault
+public final class SegmentStatisticsTree {
+
+    private static final int MAX_BUCKETS = 1024;
+    private static final int MIN_SEGMENTS_PER_BUCKET = 256;
+    /* The maximum number of statistics of the nodes, total and per type */
+    private static final int MAX_STATISTICS = 512;
+
+    private static final class Node {
+        private final Statistics<ISegment> fTotal;
+        private final Map<String, Statistics<ISegment>> fPerType = new HashMap<>();
+
+        public Node(Function<ISegment, @Nullable Number> mapper) {
+            fTotal = new Statistics<>(mapper, true);
+        }
+    }
+
+    private final ISegmentStore<ISegment> fStore;
+    private final Function<ISegment, @Nullable Number> fMapper;
+    private final Function<ISegment, @Nullable String> fTypeResolver;
+    private final long fStart;
+    private final long fBucketDuration;
+    private final int fNbBuckets;
+    /* The nodes of the tree, the leaves are the nodes fNbBuckets and up */
+    private final Node[] fNodes;
+
+    private SegmentStatisticsTree(ISegmentStore<ISegment> store, Function<ISegment, @Nullable Number> mapper, Function<ISegment, @Nullable String> typeResolver,
+            long start, long bucketDuration, int nbBuckets) {
+        fStore = store;
+        fMapper = mapper;
+        fTypeResolver = typeResolver;
+        fStart = start;
+        fBucketDuration = bucketDuration;
+        fNbBuckets = nbBuckets;
+        fNodes = new Node[2 * nbBuckets];
+        for (int i = 1; i < fNodes.length; i++) {
+            fNodes[i] = new Node(mapper);
+        }
+    }
+
+    /**
+     * Build the statistics tree of a segment store
+     *
+     * @param store
+     *            The segment store, which must not be modified afterwards
+     * @param mapper
+     *            The function that returns the value of a segment
+     * @param typeResolver
+     *            The function that returns the type of a segment, or null if
+     *            it has no type
+     * @param monitor
+     *            The progress monitor
+     * @return The statistics tree, or null if the store is empty or the
+     *         monitor was canceled
+     */
+    public static @Nullable SegmentStatisticsTree build(ISegmentStore<ISegment> store, Function<ISegment, @Nullable Number> mapper,
+            Function<ISegment, @Nullable String> typeResolver, IProgressMonitor monitor) {
+        long minStart = Long.MAX_VALUE;
+        long maxStart = Long.MIN_VALUE;
+        long count = 0;
+        Set<String> types = new HashSet<>();
+        for (ISegment segment : store) {
+            minStart = Math.min(minStart, segment.getStart());
+            maxStart = Math.max(maxStart, segment.getStart());
+            String type = typeResolver.apply(segment);
+            if (type != null) {
+                types.add(type);
+            }
+            count++;
+        }
+        if (count == 0 || monitor.isCanceled()) {
+            return null;
+        }
+        /* A tree of n buckets has 2n - 1 nodes, each with at most 1 + nbTypes statistics */
+        long maxBuckets = Math.min(MAX_BUCKETS, MAX_STATISTICS / (2 * (1 + types.size())));
+        int nbBuckets = Integer.highestOneBit((int) Math.max(1, Math.min(maxBuckets, count / MIN_SEGMENTS_PER_BUCKET)));
+        long bucketDuration = (maxStart - minStart) / nbBuckets + 1;
+        SegmentStatisticsTree tree = new SegmentStatisticsTree(store, mapper, typeResolver, minStart, bucketDuration, nbBuckets);
+
+        for (ISegment segment : store) {
+            if (monitor.isCanceled()) {
+                return null;
+            }
+            tree.update(tree.fNodes[nbBuckets + (int) ((segment.getStart() - minStart) / bucketDuration)], segment);
+        }
+        for (int i = nbBuckets - 1; i > 0; i--) {
+            Node node = tree.fNodes[i];
+            tree.merge(node, tree.fNodes[2 * i]);
+            tree.merge(node, tree.fNodes[2 * i + 1]);
+        }
+        return tree;
+    }
+
+    private void update(Node node, ISegment segment) {
+        node.fTotal.update(segment);
+        String type = fTypeResolver.apply(segment);
+        if (type != null) {
+            node.fPerType.computeIfAbsent(type, t -> new Statistics<>(fMapper, true)).update(segment);
+        }
+    }
+
+    private void merge(Node node, Node child) {
+        node.fTotal.merge(child.fTotal);
+        for (Entry<String, Statistics<ISegment>> entry : child.fPerType.entrySet()) {
+            Statistics<ISegment> statistics = node.fPerType.get(entry.getKey());
+            if (statistics == null) {
+                statistics = new Statistics<>(fMapper, true);
+                node.fPerType.put(entry.getKey(), statistics);
+            }
+            statistics.merge(entry.getValue());
+        }
+    }
+
+    /**
+     * Get the number of buckets of the tree
+     *
+     * @return The number of buckets
+     */
+    public int getNbBuckets() {
+        return fNbBuckets;
+    }
+
+    /**
+     * Get the statistics of the segments intersecting a time range
+     *
+     * @param start
+     *            The start of the range
+     * @param end
+     *            The end of the range, greater or equal to start
+     * @param monitor
+     *            The progress monitor
+     * @return The total statistics, or null if the monitor was canceled
+     */
+    public @Nullable IStatistics<ISegment> getStatsForRange(long start, long end, IProgressMonitor monitor) {
+        Node result = query(start, end, monitor);
+        return (result == null) ? null : result.fTotal;
+    }
+
+    /**
+     * Get the statistics per type of the segments intersecting a time range
+     *
+     * @param start
+     *            The start of the range
+     * @param end
+     *            The end of the range, greater or equal to start
+     * @param monitor
+     *            The progress monitor
+     * @return The statistics per type, or null if the monitor was canceled
+     */
+    public @Nullable Map<String, IStatistics<ISegment>> getStatsPerTypeForRange(long start, long end, IProgressMonitor monitor) {
+        Node result = query(start, end, monitor);
+        return (result == null) ? null : new HashMap<>(result.fPerType);
+    }
+
+    private @Nullable Node query(long start, long end, IProgressMonitor monitor) {
+        Node result = new Node(fMapper);
+        /* The buckets [first, last[ are fully inside the range */
+        int first = getFirstBucketAfter(start);
+        int last = getLastBucketBefore(end);
+        if (first >= last) {
+            return updateAll(result, fStore.getIntersectingElements(start, end), Long.MIN_VALUE, Long.MAX_VALUE, monitor);
+        }
+        /* The segments that start before the first full bucket */
+        long firstBucketStart = fStart + first * fBucketDuration;
+        if (updateAll(result, fStore.getIntersectingElements(start, Math.max(start, firstBucketStart - 1)), Long.MIN_VALUE, firstBucketStart - 1, monitor) == null) {
+            return null;
+        }
+        mergeNodes(result, 1, 0, fNbBuckets, first, last);
+        /* The segments that start after the last full bucket */
+        long nextBucketStart = fStart + last * fBucketDuration;
+        if (last < fNbBuckets && nextBucketStart <= end) {
+            return updateAll(result, fStore.getIntersectingElements(nextBucketStart, end), nextBucketStart, Long.MAX_VALUE, monitor);
+        }
+        return result;
+    }
+
+    /**
+     * Update the result with the segments that start in [minStart, maxStart]
+     */
+    private @Nullable Node updateAll(Node result, Iterable<ISegment> segments, long minStart, long maxStart, IProgressMonitor monitor) {
+        for (ISegment segment : segments) {
+            if (monitor.isCanceled()) {
+                return null;
+            }
+            long segmentStart = segment.getStart();
+            if (segmentStart >= minStart && segmentStart <= maxStart) {
+                update(result, segment);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Merge the nodes covering the buckets [first, last[ in the result, from
+     * the earliest to the latest
+     */
+    private void mergeNodes(Node result, int node, int nodeFirst, int nodeLast, int first, int last) {
+        if (first <= nodeFirst && nodeLast <= last) {
+            merge(result, fNodes[node]);
+            return;
+        }
+        int middle = (nodeFirst + nodeLast) >>> 1;
+        if (first < middle) {
+            mergeNodes(result, 2 * node, nodeFirst, middle, first, last);
+        }
+        if (middle < last) {
+            mergeNodes(result, 2 * node + 1, middle, nodeLast, first, last);
+        }
+    }
+
+    /**
+     * Get the index of the first bucket that starts at or after a time
+     */
+    private int getFirstBucketAfter(long time) {
+        if (time <= fStart) {
+            return 0;
+        }
+        long offset = time - fStart;
+        if (offset < 0) {
+            /* Overflow, the time is after all the buckets */
+            return fNbBuckets;
+        }
+        long bucket = offset / fBucketDuration + ((offset % fBucketDuration == 0) ? 0 : 1);
+        return (int) Math.min(fNbBuckets, bucket);
+    }
+
+    /**
+     * Get the index after the last bucket that ends at or before a time
+     */
+    private int getLastBucketBefore(long time) {
+        if (time < fStart) {
+            return 0;
+        }
+        long offset = time - fStart;
+        if (offset < 0) {
+            return fNbBuckets;
+        }
+        long bucket = offset / fBucketDuration + ((offset % fBucketDuration == fBucketDuration - 1) ? 1 : 0);
+        return (int) Math.min(fNbBuckets, bucket);
+    }
+}
@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.ctf.core.tests.shared;
+
+import static org.junit.Assert.assertNotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.event.IEventDefinition;
+import org.eclipse.tracecompass.ctf.core.trace.CTFTrace;
+import org.eclipse.tracecompass.ctf.core.trace.CTFTraceReader;
+
+/**
+ * Helpers to open the trace of the {@link LttngTraceGenerator} and to read its
+ * events as strings, to compare the events read in different ways.
+ */
+public final class GeneratedTraceUtils {
+
+    private GeneratedTraceUtils() {}
+
+    /**
+     * Open the generated trace
+     *
+     * @return a new CTFTrace of the generated trace
+     * @throws CTFException
+     *             If there is an error opening the trace
+     */
+    public static CTFTrace getTrace() throws CTFException {
+        return new CTFTrace(LttngTraceGenerator.getPath());
+    }
+
+    /**
+     * Describe an event by its timestamp, CPU and name
+     *
+     * @param event
+     *            the event
+     * @return the description of the event
+     */
+    public static String toString(IEventDefinition event) {
+        return event.getTimestamp() + " " + event.getCPU() + " " + event.getDeclaration().getName(); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    /**
+     * Read the events of a reader, from its current event to the end of the
+     * trace
+     *
+     * @param reader
+     *            the reader
+     * @return the descriptions of the events
+     * @throws CTFException
+     *             If there is an error reading the trace
+     */
+    public static List<String> readAll(CTFTraceReader reader) throws CTFException {
+        return read(reader, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Read a number of events of a reader, from its current event
+     *
+     * @param reader
+     *            the reader
+     * @param count
+     *            the maximum number of events to read
+     * @return the descriptions of the events
+     * @throws CTFException
+     *             If there is an error reading the trace
+     */
+    public static List<String> read(CTFTraceReader reader, int count) throws CTFException {
+        return read(reader, count, GeneratedTraceUtils::toString);
+    }
+
+    /**
+     * Read a number of events of a reader, from its current event, with a
+     * custom description of the events
+     *
+     * @param reader
+     *            the reader
+     * @param count
+     *            the maximum number of events to read
+     * @param description
+     *            the function that describes an event
+     * @return the descriptions of the events
+     * @throws CTFException
+     *             If there is an error reading the trace
+     */
+    public static List<String> read(CTFTraceReader reader, int count, Function<IEventDefinition, String> description) throws CTFException {
+        List<String> events = new ArrayList<>();
+        while (reader.hasMoreEvents() && events.size() < count) {
+            IEventDefinition event = reader.getCurrentEventDef();
+            assertNotNull(event);
+            events.add(description.apply(event));
+            reader.advance();
+        }
+        return events;
+    }
+}
@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.ctf.core.tests.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.event.io.BitBuffer;
+import org.junit.Test;
+
+/**
+ * Test that the bulk integer reads of {@link BitBuffer} give the same values
+ * as reading the integers one by one
+ */
+public class BitBufferBulkTest {
+
+    private static final int SIZE = 1024;
+    private static final int COUNT = 100;
+    private static final int[] OFFSETS = { 0, 3, 8, 13, 64 };
+    private static final ByteOrder[] ORDERS = { ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN };
+
+    private static BitBuffer createBuffer(ByteOrder order) {
+        byte[] bytes = new byte[SIZE];
+        new Random(SIZE).nextBytes(bytes);
+        return new BitBuffer(ByteBuffer.wrap(bytes), order);
+    }
+
+    /**
+     * Test {@link BitBuffer#get(long[], int, boolean)} for all the lengths
+     *
+     * @throws CTFException
+     *             Not expected
+     */
+    @Test
+    public void testGetLongs() throws CTFException {
+        for (ByteOrder order : ORDERS) {
+            BitBuffer buffer = createBuffer(order);
+            for (int length = 1; length <= Long.SIZE; length++) {
+                for (int offset : OFFSETS) {
+                    for (boolean signed : new boolean[] { false, true }) {
+                        String message = order + " length:" + length + " offset:" + offset + " signed:" + signed; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                        buffer.position(offset);
+                        long[] expected = new long[COUNT];
+                        for (int i = 0; i < COUNT; i++) {
+                            expected[i] = buffer.get(length, signed);
+                        }
+                        long end = buffer.position();
+
+                        buffer.position(offset);
+                        long[] actual = new long[COUNT];
+                        buffer.get(actual, length, signed);
+                        assertArrayEquals(message, expected, actual);
+                        assertEquals(message, end, buffer.position());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Test {@link BitBuffer#get(int[], int, boolean)} for all the lengths
+     *
+     * @throws CTFException
+     *             Not expected
+     */
+    @Test
+    public void testGetInts() throws CTFException {
+        for (ByteOrder order : ORDERS) {
+            BitBuffer buffer = createBuffer(order);
+            for (int length = 1; length <= Integer.SIZE; length++) {
+                for (int offset : OFFSETS) {
+                    for (boolean signed : new boolean[] { false, true }) {
+                        String message = order + " length:" + length + " offset:" + offset + " signed:" + signed; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                        buffer.position(offset);
+                        int[] expected = new int[COUNT];
+                        for (int i = 0; i < COUNT; i++) {
+                            expected[i] = (int) buffer.get(length, signed);
+                        }
+                        long end = buffer.position();
+
+                        buffer.position(offset);
+                        int[] actual = new int[COUNT];
+                        buffer.get(actual, length, signed);
+                        assertArrayEquals(message, expected, actual);
+                        assertEquals(message, end, buffer.position());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Test reading more integers than the buffer has
+     *
+     * @throws CTFException
+     *             Not expected
+     */
+    @Test
+    public void testUnderflow() throws CTFException {
+        BitBuffer buffer = createBuffer(ByteOrder.BIG_ENDIAN);
+        buffer.position(8);
+        try {
+            buffer.get(new long[SIZE / Long.BYTES], Long.SIZE, false);
+            fail();
+        } catch (CTFException e) {
+            // Expected
+        }
+        assertEquals(8, buffer.position());
+
+        /* The integers up to the end of the buffer can be read */
+        long[] values = new long[SIZE / Long.BYTES - 1];
+        buffer.get(values, Long.SIZE, false);
+        assertEquals(SIZE * Byte.SIZE - Long.SIZE + 8, buffer.position());
+    }
+}
@@ -0,0 +1,175 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.ctf.core.tests.trace;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.tests.shared.GeneratedTraceUtils;
+import org.eclipse.tracecompass.ctf.core.tests.shared.LttngTraceGenerator;
+import org.eclipse.tracecompass.ctf.core.trace.CTFTrace;
+import org.eclipse.tracecompass.ctf.core.trace.CTFTraceReader;
+import org.eclipse.tracecompass.internal.ctf.core.trace.PacketIndexCacheFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test that the packet index of a {@link CTFTrace}, saved in a cache
+ * directory, gives the same events as the index computed from the trace
+ */
+public class CTFTraceIndexCacheTest {
+
+    private static final long INDEX_MODIFIED_TIME = 1000000000000L;
+
+    private String fPath;
+    private File fCacheDirectory;
+
+    /**
+     * Create the cache directory
+     *
+     * @throws IOException
+     *             error creating the directory
+     */
+    @Before
+    public void setUp() throws IOException {
+        fPath = LttngTraceGenerator.getPath();
+        fCacheDirectory = Files.createTempDirectory("ctfindex").toFile();
+    }
+
+    /**
+     * Delete the cache directory
+     */
+    @After
+    public void tearDown() {
+        File[] files = fCacheDirectory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        fCacheDirectory.delete();
+    }
+
+    private static List<String> readAll(CTFTrace trace) throws CTFException {
+        try (CTFTraceReader reader = new CTFTraceReader(trace)) {
+            return GeneratedTraceUtils.read(reader, Integer.MAX_VALUE, event -> GeneratedTraceUtils.toString(event) + " " + //$NON-NLS-1$
+                    event.getPacketAttributes() + " " + event.getPacketContext()); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Test reading the trace with a saved index
+     *
+     * @throws CTFException
+     *             error reading the trace
+     */
+    @Test
+    public void testSavedIndex() throws CTFException {
+        List<String> expected = readAll(new CTFTrace(fPath));
+        assertFalse(expected.isEmpty());
+
+        CTFTrace trace = new CTFTrace(fPath);
+        trace.indexStreams(fCacheDirectory);
+        long endTime = trace.getCurrentEndTime();
+        File[] files = fCacheDirectory.listFiles();
+        assertNotNull(files);
+        assertTrue(files.length > 0);
+        assertEquals(expected, readAll(trace));
+
+        /*
+         * Open the trace again, with the saved index. The index files are
+         * only written when the streams are indexed, so they are not modified
+         * if the index is restored from them.
+         */
+        for (File file : files) {
+            assertTrue(file.setLastModified(INDEX_MODIFIED_TIME));
+        }
+        trace = new CTFTrace(fPath);
+        trace.indexStreams(fCacheDirectory);
+        for (File file : files) {
+            assertEquals(file.getName(), INDEX_MODIFIED_TIME, file.lastModified());
+        }
+        /* The whole index is restored before any packet is read */
+        assertEquals(endTime, trace.getCurrentEndTime());
+        assertEquals(expected, readAll(trace));
+    }
+
+    /**
+     * Test that an index that does not match the stream file is not used
+     *
+     * @throws CTFException
+     *             error reading the trace
+     * @throws IOException
+     *             error writing the index
+     */
+    @Test
+    public void testStaleIndex() throws CTFException, IOException {
+        List<String> expected = readAll(new CTFTrace(fPath));
+
+        CTFTrace trace = new CTFTrace(fPath);
+        trace.indexStreams(fCacheDirectory);
+        File[] files = fCacheDirectory.listFiles();
+        assertNotNull(files);
+        for (File file : files) {
+            Files.write(file.toPath(), new byte[] { 1, 2, 3, 4 });
+        }
+
+        trace = new CTFTrace(fPath);
+        trace.indexStreams(fCacheDirectory);
+        assertEquals(expected, readAll(trace));
+    }
+
+    /**
+     * Test that an index whose number of packets is negative, or more than
+     * the file can hold, is not used
+     *
+     * @throws CTFException
+     *             error reading the trace
+     * @throws IOException
+     *             error writing the index
+     */
+    @Test
+    public void testCorruptedPacketCount() throws CTFException, IOException {
+        List<String> expected = readAll(new CTFTrace(fPath));
+
+        for (int count : new int[] { -1, Integer.MIN_VALUE, Integer.MAX_VALUE }) {
+            CTFTrace trace = new CTFTrace(fPath);
+            trace.indexStreams(fCacheDirectory);
+            File[] files = fCacheDirectory.listFiles();
+            assertNotNull(files);
+            assertTrue(files.length > 0);
+            for (File file : files) {
+                /* The number of packets follows the magic, version, size and modification time */
+                byte[] content = Files.readAllBytes(file.toPath());
+                ByteBuffer.wrap(content).putInt(2 * Integer.BYTES + 2 * Long.BYTES, count);
+                Files.write(file.toPath(), content);
+                String streamName = file.getName().substring(0, file.getName().length() - PacketIndexCacheFile.EXTENSION.length());
+                assertNull(PacketIndexCacheFile.read(file, new File(fPath, streamName)));
+            }
+
+            trace = new CTFTrace(fPath);
+            trace.indexStreams(fCacheDirectory);
+            assertEquals(expected, readAll(trace));
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.ctf.core.tests.trace;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.tests.shared.GeneratedTraceUtils;
+import org.eclipse.tracecompass.ctf.core.trace.CTFTrace;
+import org.eclipse.tracecompass.ctf.core.trace.CTFTraceReader;
+import org.eclipse.tracecompass.ctf.core.trace.CTFTraceReaderPosition;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test that a {@link CTFTraceReaderPosition} restored in a reader gives the
+ * same events as the reader it was saved from
+ */
+public class CTFTraceReaderPositionTest {
+
+    private CTFTrace fTrace;
+
+    /**
+     * Open the synthetic trace
+     *
+     * @throws CTFException
+     *             error opening the trace
+     */
+    @Before
+    public void setUp() throws CTFException {
+        fTrace = GeneratedTraceUtils.getTrace();
+    }
+
+    /**
+     * Test restoring positions in another reader of the trace
+     *
+     * @throws CTFException
+     *             error reading the trace
+     */
+    @Test
+    public void testRestore() throws CTFException {
+        try (CTFTraceReader reader = new CTFTraceReader(fTrace);
+                CTFTraceReader other = new CTFTraceReader(fTrace)) {
+            for (int i = 0; i < 5; i++) {
+                GeneratedTraceUtils.read(reader, 1234);
+                CTFTraceReaderPosition position = reader.getPosition();
+                assertNotNull(position);
+                List<String> expected = GeneratedTraceUtils.read(reader, 500);
+                assertFalse(expected.isEmpty());
+
+                /* Move the other reader elsewhere before restoring */
+                other.seek(0);
+                assertTrue(other.restorePosition(position));
+                assertEquals(expected, GeneratedTraceUtils.read(other, 500));
+
+                /* The position can be restored again */
+                assertTrue(reader.restorePosition(position));
+                assertEquals(expected, GeneratedTraceUtils.read(reader, 500));
+            }
+        }
+    }
+
+    /**
+     * Test restoring a position at the end of the trace
+     *
+     * @throws CTFException
+     *             error reading the trace
+     */
+    @Test
+    public void testRestoreEnd() throws CTFException {
+        try (CTFTraceReader reader = new CTFTraceReader(fTrace);
+                CTFTraceReader other = new CTFTraceReader(fTrace)) {
+            GeneratedTraceUtils.read(reader, Integer.MAX_VALUE);
+            assertFalse(reader.hasMoreEvents());
+            CTFTraceReaderPosition position = reader.getPosition();
+            assertNotNull(position);
+            assertTrue(other.restorePosition(position));
+            assertFalse(other.hasMoreEvents());
+        }
+    }
+
+    /**
+     * Test that the position of a reader of another trace is not restored
+     *
+     * @throws CTFException
+     *             error reading the trace
+     */
+    @Test
+    public void testOtherTrace() throws CTFException {
+        try (CTFTraceReader reader = new CTFTraceReader(fTrace);
+                CTFTraceReader other = new CTFTraceReader(GeneratedTraceUtils.getTrace())) {
+            CTFTraceReaderPosition position = reader.getPosition();
+            assertNotNull(position);
+            assertFalse(other.restorePosition(position));
+        }
+    }
+
+    /**
+     * Test that there is no position while the streams are read ahead
+     *
+     * @throws CTFException
+     *             error reading the trace
+     */
+    @Test
+    public void testReadAhead() throws CTFException {
+        try (CTFTraceReader reader = new CTFTraceReader(fTrace)) {
+            reader.setReadAhead(true);
+            GeneratedTraceUtils.read(reader, 10);
+            assertNull(reader.getPosition());
+        }
+    }
+}
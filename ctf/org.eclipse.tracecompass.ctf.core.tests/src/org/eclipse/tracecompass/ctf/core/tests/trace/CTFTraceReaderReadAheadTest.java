@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.ctf.core.tests.trace;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.tests.shared.GeneratedTraceUtils;
+import org.eclipse.tracecompass.ctf.core.trace.CTFTrace;
+import org.eclipse.tracecompass.ctf.core.trace.CTFTraceReader;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test that a {@link CTFTraceReader} reading its streams ahead returns the
+ * same events as a reader decoding them on demand
+ */
+public class CTFTraceReaderReadAheadTest {
+
+    private CTFTrace fTrace;
+
+    /**
+     * Open the synthetic trace
+     *
+     * @throws CTFException
+     *             error opening the trace
+     */
+    @Before
+    public void setUp() throws CTFException {
+        fTrace = GeneratedTraceUtils.getTrace();
+    }
+
+    /**
+     * Test reading the full trace
+     *
+     * @throws CTFException
+     *             error reading the trace
+     */
+    @Test
+    public void testReadAll() throws CTFException {
+        List<String> expected;
+        try (CTFTraceReader reader = new CTFTraceReader(fTrace)) {
+            expected = GeneratedTraceUtils.readAll(reader);
+        }
+        assertFalse(expected.isEmpty());
+        try (CTFTraceReader reader = new CTFTraceReader(fTrace)) {
+            reader.setReadAhead(true);
+            assertTrue(reader.isReadAhead());
+            assertEquals(expected, GeneratedTraceUtils.readAll(reader));
+        }
+    }
+
+    /**
+     * Test seeking a reader that reads ahead, and stopping the read-ahead in
+     * the middle of the trace
+     *
+     * @throws CTFException
+     *             error reading the trace
+     */
+    @Test
+    public void testSeekAndStop() throws CTFException {
+        List<String> expected;
+        long middle;
+        try (CTFTraceReader reader = new CTFTraceReader(fTrace)) {
+            List<String> all = GeneratedTraceUtils.readAll(reader);
+            String event = all.get(all.size() / 2);
+            middle = Long.parseLong(event.substring(0, event.indexOf(' ')));
+            reader.seek(middle);
+            expected = GeneratedTraceUtils.readAll(reader);
+        }
+        try (CTFTraceReader reader = new CTFTraceReader(fTrace)) {
+            reader.setReadAhead(true);
+            for (int i = 0; i < 1000; i++) {
+                reader.advance();
+            }
+            reader.seek(middle);
+            List<String> actual = new ArrayList<>(GeneratedTraceUtils.read(reader, expected.size() / 2));
+            /* Continue without the read-ahead */
+            reader.setReadAhead(false);
+            actual.addAll(GeneratedTraceUtils.readAll(reader));
+            assertEquals(expected, actual);
+        }
+    }
+}
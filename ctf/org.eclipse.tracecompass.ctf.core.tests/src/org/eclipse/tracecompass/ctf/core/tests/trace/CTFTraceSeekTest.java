@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.ctf.core.tests.trace;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.tests.shared.GeneratedTraceUtils;
+import org.eclipse.tracecompass.ctf.core.trace.CTFTraceReader;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test that seeking a {@link CTFTraceReader} gives the same events as reading
+ * the trace from the start, when the seeks start from the checkpoints of the
+ * packets decoded by the previous seeks
+ */
+public class CTFTraceSeekTest {
+
+    private static final int NB_EVENTS = 20;
+
+    private List<Long> fTimestamps;
+    private List<String> fEvents;
+
+    /**
+     * Read all the events of the synthetic trace
+     *
+     * @throws CTFException
+     *             error reading the trace
+     */
+    @Before
+    public void setUp() throws CTFException {
+        fTimestamps = new ArrayList<>();
+        fEvents = new ArrayList<>();
+        try (CTFTraceReader reader = new CTFTraceReader(GeneratedTraceUtils.getTrace())) {
+            fEvents.addAll(GeneratedTraceUtils.read(reader, Integer.MAX_VALUE, event -> {
+                fTimestamps.add(event.getTimestamp());
+                return GeneratedTraceUtils.toString(event);
+            }));
+        }
+        assertFalse(fEvents.isEmpty());
+    }
+
+    private List<String> expected(long timestamp) {
+        int first = 0;
+        while (first < fTimestamps.size() && fTimestamps.get(first) < timestamp) {
+            first++;
+        }
+        return fEvents.subList(first, Math.min(first + NB_EVENTS, fEvents.size()));
+    }
+
+    /**
+     * Test seeking the same timestamps many times, in random order
+     *
+     * @throws CTFException
+     *             error reading the trace
+     */
+    @Test
+    public void testSeek() throws CTFException {
+        Random random = new Random(1);
+        List<Long> timestamps = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            long timestamp = fTimestamps.get(random.nextInt(fTimestamps.size()));
+            timestamps.add(timestamp);
+            timestamps.add(timestamp + 1);
+        }
+        timestamps.add(0L);
+        timestamps.add(fTimestamps.get(fTimestamps.size() - 1));
+        try (CTFTraceReader reader = new CTFTraceReader(GeneratedTraceUtils.getTrace())) {
+            for (int pass = 0; pass < 3; pass++) {
+                for (int i = 0; i < timestamps.size(); i++) {
+                    long timestamp = timestamps.get(random.nextInt(timestamps.size()));
+                    reader.seek(timestamp);
+                    assertEquals("Seek to " + timestamp, expected(timestamp), GeneratedTraceUtils.read(reader, NB_EVENTS)); //$NON-NLS-1$
+                }
+            }
+        }
+    }
+}
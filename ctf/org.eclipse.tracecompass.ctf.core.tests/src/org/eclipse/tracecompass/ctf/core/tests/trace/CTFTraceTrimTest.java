@@ -0,0 +1,225 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.ctf.core.tests.trace;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.CTFStrings;
+import org.eclipse.tracecompass.ctf.core.event.IEventDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.IntegerDefinition;
+import org.eclipse.tracecompass.ctf.core.tests.shared.GeneratedTraceUtils;
+import org.eclipse.tracecompass.ctf.core.trace.CTFTrace;
+import org.eclipse.tracecompass.ctf.core.trace.CTFTraceReader;
+import org.eclipse.tracecompass.ctf.core.trace.CTFTraceWriter;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test that a trace trimmed by a {@link CTFTraceWriter}, which copies the
+ * packets inside the time range without decoding them, has the same events and
+ * lost events as the original trace in that time range
+ */
+public class CTFTraceTrimTest {
+
+    private CTFTrace fTrace;
+    private List<Long> fTimestamps;
+    private List<String> fEvents;
+    private List<LostEvents> fLostEvents;
+
+    /**
+     * The lost events of a packet
+     */
+    private static class LostEvents {
+        private final int fCpu;
+        private final long fPacketBegin;
+        private final long fPacketEnd;
+        private final long fCount;
+
+        public LostEvents(IEventDefinition event) {
+            fCpu = event.getCPU();
+            Map<String, Object> attributes = event.getPacketAttributes();
+            fPacketBegin = (Long) attributes.get(CTFStrings.TIMESTAMP_BEGIN);
+            fPacketEnd = (Long) attributes.get(CTFStrings.TIMESTAMP_END);
+            fCount = getCount(event);
+        }
+    }
+
+    /**
+     * Read all the events of the synthetic trace
+     *
+     * @throws CTFException
+     *             error reading the trace
+     */
+    @Before
+    public void setUp() throws CTFException {
+        fTimestamps = new ArrayList<>();
+        fEvents = new ArrayList<>();
+        fLostEvents = new ArrayList<>();
+        fTrace = GeneratedTraceUtils.getTrace();
+        try (CTFTraceReader reader = new CTFTraceReader(fTrace)) {
+            while (reader.hasMoreEvents()) {
+                IEventDefinition event = reader.getCurrentEventDef();
+                assertNotNull(event);
+                if (isLost(event)) {
+                    fLostEvents.add(new LostEvents(event));
+                } else {
+                    fTimestamps.add(event.getTimestamp());
+                    fEvents.add(toString(event));
+                }
+                reader.advance();
+            }
+        }
+        assertFalse(fEvents.isEmpty());
+        assertFalse(fLostEvents.isEmpty());
+    }
+
+    private static boolean isLost(IEventDefinition event) {
+        return CTFStrings.LOST_EVENT_NAME.equals(event.getDeclaration().getName());
+    }
+
+    private static String toString(IEventDefinition event) {
+        return GeneratedTraceUtils.toString(event) + " " + event.getFields(); //$NON-NLS-1$
+    }
+
+    private static long getCount(IEventDefinition event) {
+        IntegerDefinition count = (IntegerDefinition) event.getFields().getDefinition(CTFStrings.LOST_EVENTS_FIELD);
+        assertNotNull(count);
+        return count.getValue();
+    }
+
+    /*
+     * Trim the trace and read its events, and the number of lost events of
+     * each CPU
+     */
+    private static List<String> trim(long startTime, long endTime, Map<Integer, Long> lostEvents) throws CTFException, IOException {
+        File dir = Files.createTempDirectory("trim").toFile(); //$NON-NLS-1$
+        try {
+            String path = dir.getAbsolutePath() + File.separator + "trace"; //$NON-NLS-1$
+            new CTFTraceWriter(GeneratedTraceUtils.getTrace()).copyPackets(startTime, endTime, path);
+            List<String> events = new ArrayList<>();
+            try (CTFTraceReader reader = new CTFTraceReader(new CTFTrace(path))) {
+                while (reader.hasMoreEvents()) {
+                    IEventDefinition event = reader.getCurrentEventDef();
+                    assertNotNull(event);
+                    if (isLost(event)) {
+                        lostEvents.merge(event.getCPU(), getCount(event), Long::sum);
+                    } else {
+                        events.add(toString(event));
+                    }
+                    reader.advance();
+                }
+            }
+            return events;
+        } finally {
+            deleteDirectory(dir);
+        }
+    }
+
+    private static void deleteDirectory(File directory) throws IOException {
+        Files.walkFileTree(directory.toPath(), new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                if (exc != null) {
+                    throw exc;
+                }
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private List<String> expected(long startTime, long endTime) {
+        List<String> events = new ArrayList<>();
+        for (int i = 0; i < fTimestamps.size(); i++) {
+            long timestamp = fTimestamps.get(i);
+            if (timestamp >= startTime && timestamp <= endTime) {
+                events.add(fEvents.get(i));
+            }
+        }
+        return events;
+    }
+
+    /*
+     * The number of lost events of each CPU, in the packets that intersect the
+     * time range
+     */
+    private Map<Integer, Long> expectedLostEvents(long startTime, long endTime) {
+        Map<Integer, Long> lostEvents = new TreeMap<>();
+        for (LostEvents lost : fLostEvents) {
+            if (lost.fPacketBegin <= endTime && lost.fPacketEnd >= startTime) {
+                lostEvents.merge(lost.fCpu, lost.fCount, Long::sum);
+            }
+        }
+        return lostEvents;
+    }
+
+    /**
+     * Test copying the whole trace
+     *
+     * @throws CTFException
+     *             error reading the trace
+     * @throws IOException
+     *             error creating or deleting the output directory
+     */
+    @Test
+    public void testWholeTrace() throws CTFException, IOException {
+        Map<Integer, Long> lostEvents = new TreeMap<>();
+        assertEquals(fEvents, trim(0, Long.MAX_VALUE, lostEvents));
+        assertEquals(expectedLostEvents(Long.MIN_VALUE, Long.MAX_VALUE), lostEvents);
+    }
+
+    /**
+     * Test copying a time range in the middle of the trace, where the packets
+     * at the boundaries of the range are decoded and the others are copied
+     *
+     * @throws CTFException
+     *             error reading the trace
+     * @throws IOException
+     *             error creating or deleting the output directory
+     */
+    @Test
+    public void testTimeRange() throws CTFException, IOException {
+        long first = fTimestamps.get(0);
+        long duration = fTimestamps.get(fTimestamps.size() - 1) - first;
+        long startTime = first + duration / 3;
+        long endTime = first + duration / 2;
+        List<String> expected = expected(startTime, endTime);
+        assertFalse(expected.isEmpty());
+        Map<Integer, Long> expectedLostEvents = expectedLostEvents(startTime, endTime);
+        assertFalse(expectedLostEvents.isEmpty());
+        /* The time range of the writer is in nanoseconds from the epoch */
+        Map<Integer, Long> lostEvents = new TreeMap<>();
+        assertEquals(expected, trim(fTrace.timestampCyclesToNanos(startTime), fTrace.timestampCyclesToNanos(endTime), lostEvents));
+        assertEquals(expectedLostEvents, lostEvents);
+    }
+}
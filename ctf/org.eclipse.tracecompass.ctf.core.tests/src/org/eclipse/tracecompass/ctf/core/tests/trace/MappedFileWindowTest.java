@@ -0,0 +1,206 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.ctf.core.tests.trace;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.trace.CTFStreamInputReader;
+import org.eclipse.tracecompass.internal.ctf.core.SafeMappedByteBuffer;
+import org.eclipse.tracecompass.internal.ctf.core.trace.MappedFileWindow;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link MappedFileWindow}, the region of a stream file mapped
+ * by {@link CTFStreamInputReader#getByteBufferAt(long, long)}, with a small
+ * window so that the packets cross its boundaries
+ */
+public class MappedFileWindowTest {
+
+    private static final int WINDOW_SIZE = 1024;
+    private static final int FILE_SIZE = 4 * WINDOW_SIZE + 100;
+
+    private Path fFile;
+    private FileChannel fFileChannel;
+    private MappedFileWindow fWindow;
+
+    /**
+     * Create a file whose bytes are their offset, modulo a prime
+     *
+     * @throws IOException
+     *             error writing the file
+     */
+    @Before
+    public void setUp() throws IOException {
+        Assume.assumeTrue(SafeMappedByteBuffer.isMapped());
+        byte[] content = new byte[FILE_SIZE];
+        for (int i = 0; i < FILE_SIZE; i++) {
+            content[i] = getByte(i);
+        }
+        fFile = Files.createTempFile("window", ".bin"); //$NON-NLS-1$ //$NON-NLS-2$
+        Files.write(fFile, content);
+        fFileChannel = FileChannel.open(fFile, StandardOpenOption.READ);
+        fWindow = new MappedFileWindow(fFileChannel, WINDOW_SIZE);
+    }
+
+    /**
+     * Close and delete the file
+     *
+     * @throws IOException
+     *             error deleting the file
+     */
+    @After
+    public void tearDown() throws IOException {
+        if (fWindow != null) {
+            fWindow.clear();
+        }
+        if (fFileChannel != null) {
+            fFileChannel.close();
+        }
+        if (fFile != null) {
+            Files.deleteIfExists(fFile);
+        }
+    }
+
+    private static byte getByte(long offset) {
+        return (byte) (offset % 251);
+    }
+
+    private ByteBuffer assertBuffer(long start, int length) throws IOException, CTFException {
+        ByteBuffer buffer = fWindow.getByteBuffer(start, length);
+        assertEquals(0, buffer.position());
+        assertEquals(length, buffer.remaining());
+        for (int i = 0; i < length; i++) {
+            assertEquals("Byte " + (start + i), getByte(start + i), buffer.get(i));
+        }
+        return buffer;
+    }
+
+    private void assertWindow(long start, long end) {
+        assertEquals(start, fWindow.getStart());
+        assertEquals(end, fWindow.getEnd());
+    }
+
+    /**
+     * Test that the packets inside the window are read from the same mapping
+     *
+     * @throws IOException
+     *             error reading the file
+     * @throws CTFException
+     *             error mapping the file
+     */
+    @Test
+    public void testInsideWindow() throws IOException, CTFException {
+        assertBuffer(0, 100);
+        ByteBuffer window = fWindow.getWindow();
+        assertWindow(0, WINDOW_SIZE);
+        assertBuffer(100, 200);
+        assertBuffer(WINDOW_SIZE - 10, 10);
+        assertSame(window, fWindow.getWindow());
+        assertWindow(0, WINDOW_SIZE);
+    }
+
+    /**
+     * Test a packet that straddles the end of the window, which maps a window
+     * starting at the packet
+     *
+     * @throws IOException
+     *             error reading the file
+     * @throws CTFException
+     *             error mapping the file
+     */
+    @Test
+    public void testStraddlingPacket() throws IOException, CTFException {
+        assertBuffer(0, 100);
+        ByteBuffer window = fWindow.getWindow();
+        assertBuffer(WINDOW_SIZE - 50, 100);
+        assertNotSame(window, fWindow.getWindow());
+        assertWindow(WINDOW_SIZE - 50, 2 * WINDOW_SIZE - 50);
+    }
+
+    /**
+     * Test a packet that starts exactly at the end of the window
+     *
+     * @throws IOException
+     *             error reading the file
+     * @throws CTFException
+     *             error mapping the file
+     */
+    @Test
+    public void testPacketAtBoundary() throws IOException, CTFException {
+        assertBuffer(0, WINDOW_SIZE);
+        assertWindow(0, WINDOW_SIZE);
+        assertBuffer(WINDOW_SIZE, 100);
+        assertWindow(WINDOW_SIZE, 2 * WINDOW_SIZE);
+        /* The packet ending exactly at the end of the window */
+        ByteBuffer window = fWindow.getWindow();
+        assertBuffer(2 * WINDOW_SIZE - 100, 100);
+        assertSame(window, fWindow.getWindow());
+    }
+
+    /**
+     * Test that a reader moving backwards maps the window again
+     *
+     * @throws IOException
+     *             error reading the file
+     * @throws CTFException
+     *             error mapping the file
+     */
+    @Test
+    public void testBackwards() throws IOException, CTFException {
+        assertBuffer(2 * WINDOW_SIZE, 100);
+        assertWindow(2 * WINDOW_SIZE, 3 * WINDOW_SIZE);
+        assertBuffer(WINDOW_SIZE + 10, 100);
+        assertWindow(WINDOW_SIZE + 10, 2 * WINDOW_SIZE + 10);
+        /* Back in the window */
+        ByteBuffer window = fWindow.getWindow();
+        assertBuffer(2 * WINDOW_SIZE, 10);
+        assertSame(window, fWindow.getWindow());
+        /* Back before the window */
+        assertBuffer(0, 10);
+        assertWindow(0, WINDOW_SIZE);
+    }
+
+    /**
+     * Test the window at the end of the file, and a packet larger than the
+     * window, which is mapped on its own
+     *
+     * @throws IOException
+     *             error reading the file
+     * @throws CTFException
+     *             error mapping the file
+     */
+    @Test
+    public void testEndOfFileAndLargePacket() throws IOException, CTFException {
+        assertBuffer(FILE_SIZE - 300, 200);
+        assertWindow(FILE_SIZE - 300, FILE_SIZE);
+        assertBuffer(FILE_SIZE - 100, 100);
+        assertWindow(FILE_SIZE - 300, FILE_SIZE);
+
+        ByteBuffer window = fWindow.getWindow();
+        assertBuffer(10, 2 * WINDOW_SIZE);
+        assertSame(window, fWindow.getWindow());
+        assertWindow(FILE_SIZE - 300, FILE_SIZE);
+    }
+}
@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.ctf.core.tests.trace;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.antlr.runtime.RecognitionException;
+import org.eclipse.tracecompass.ctf.parser.CTFParser;
+import org.eclipse.tracecompass.internal.ctf.core.event.metadata.CTFAntlrMetadataNode;
+import org.eclipse.tracecompass.internal.ctf.core.event.metadata.MetadataTreeCache;
+import org.eclipse.tracecompass.internal.ctf.core.event.types.ICTFMetadataNode;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link MetadataTreeCache}
+ */
+public class MetadataTreeCacheTest {
+
+    private static final String TEXT = "trace { major = 1; minor = 8; };"; //$NON-NLS-1$
+
+    private final AtomicInteger fParseCount = new AtomicInteger();
+
+    /**
+     * Empty the cache before each test
+     */
+    @Before
+    public void setUp() {
+        MetadataTreeCache.clear();
+        fParseCount.set(0);
+    }
+
+    private ICTFMetadataNode parse(String text) {
+        fParseCount.incrementAndGet();
+        return new CTFAntlrMetadataNode(null, CTFParser.tokenNames[CTFParser.ROOT], text);
+    }
+
+    /**
+     * Test that the same text is only parsed once
+     *
+     * @throws IOException
+     *             error reading the text
+     * @throws RecognitionException
+     *             error parsing the text
+     */
+    @Test
+    public void testSameText() throws IOException, RecognitionException {
+        ICTFMetadataNode tree = MetadataTreeCache.getTree(TEXT, this::parse);
+        assertSame(tree, MetadataTreeCache.getTree(TEXT, this::parse));
+        assertEquals(1, fParseCount.get());
+
+        ICTFMetadataNode other = MetadataTreeCache.getTree(TEXT + " ", this::parse); //$NON-NLS-1$
+        assertNotSame(tree, other);
+        assertEquals(2, fParseCount.get());
+    }
+
+    /**
+     * Test that the same text parsed concurrently is only parsed once
+     *
+     * @throws InterruptedException
+     *             the test was interrupted
+     * @throws ExecutionException
+     *             error parsing the text
+     */
+    @Test
+    public void testConcurrent() throws InterruptedException, ExecutionException {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<ICTFMetadataNode>> results = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                results.add(executor.submit(() -> MetadataTreeCache.getTree(TEXT, text -> {
+                    try {
+                        Thread.sleep(50);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return parse(text);
+                })));
+            }
+            ICTFMetadataNode tree = results.get(0).get();
+            for (Future<ICTFMetadataNode> result : results) {
+                assertSame(tree, result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, fParseCount.get());
+    }
+
+    /**
+     * Test that a text that cannot be parsed is not cached
+     *
+     * @throws IOException
+     *             error reading the text
+     * @throws RecognitionException
+     *             error parsing the text
+     */
+    @Test
+    public void testError() throws IOException, RecognitionException {
+        try {
+            MetadataTreeCache.getTree(TEXT, text -> {
+                throw new IOException();
+            });
+            fail();
+        } catch (IOException e) {
+            // Expected
+        }
+        MetadataTreeCache.getTree(TEXT, this::parse);
+        assertEquals(1, fParseCount.get());
+    }
+}
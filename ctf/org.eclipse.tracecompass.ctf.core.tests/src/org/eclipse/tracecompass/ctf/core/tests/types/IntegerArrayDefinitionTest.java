@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.ctf.core.tests.types;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.event.io.BitBuffer;
+import org.eclipse.tracecompass.ctf.core.event.types.AbstractArrayDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.Definition;
+import org.eclipse.tracecompass.ctf.core.event.types.Encoding;
+import org.eclipse.tracecompass.ctf.core.event.types.IntegerDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.IntegerDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.StructDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.StructDefinition;
+import org.eclipse.tracecompass.internal.ctf.core.event.types.ArrayDeclaration;
+import org.eclipse.tracecompass.internal.ctf.core.event.types.ArrayDefinition;
+import org.eclipse.tracecompass.internal.ctf.core.event.types.IntegerArrayDefinition;
+import org.eclipse.tracecompass.internal.ctf.core.event.types.SequenceDeclaration;
+import org.junit.Test;
+
+/**
+ * Test that the arrays and sequences of integers decoded in an
+ * {@link IntegerArrayDefinition} have the same integers as when they are
+ * decoded one by one
+ */
+public class IntegerArrayDefinitionTest {
+
+    private static final int LENGTH = 50;
+    private static final @NonNull String LENGTH_NAME = "len"; //$NON-NLS-1$
+    private static final @NonNull String FIELD_NAME = "values"; //$NON-NLS-1$
+
+    private static @NonNull BitBuffer createBuffer() {
+        byte[] bytes = new byte[1024];
+        new Random(LENGTH).nextBytes(bytes);
+        return new BitBuffer(ByteBuffer.wrap(bytes));
+    }
+
+    private static @NonNull IntegerDeclaration createInteger(int length, boolean signed, int base, ByteOrder byteOrder, long alignment) {
+        return IntegerDeclaration.createDeclaration(length, signed, base, byteOrder, Encoding.NONE, "", alignment, null); //$NON-NLS-1$
+    }
+
+    /**
+     * Decode the integers one by one, as the array did before the bulk decoding
+     */
+    private static ArrayDefinition readOneByOne(ArrayDeclaration declaration, BitBuffer input) throws CTFException {
+        long alignment = declaration.getAlignment();
+        input.position((input.position() + alignment - 1) / alignment * alignment);
+        List<@NonNull Definition> definitions = new ArrayList<>();
+        for (int i = 0; i < declaration.getLength(); i++) {
+            definitions.add(declaration.getElementType().createDefinition(null, FIELD_NAME + '[' + i + ']', input));
+        }
+        return new ArrayDefinition(declaration, null, FIELD_NAME, definitions);
+    }
+
+    private static void assertSameIntegers(AbstractArrayDefinition expected, AbstractArrayDefinition actual) {
+        assertTrue(actual instanceof IntegerArrayDefinition);
+        assertEquals(expected.getLength(), actual.getLength());
+        assertEquals(expected.toString(), actual.toString());
+        for (int i = 0; i < expected.getLength(); i++) {
+            IntegerDefinition expectedInteger = (IntegerDefinition) expected.getDefinitions().get(i);
+            IntegerDefinition actualInteger = (IntegerDefinition) actual.getDefinitions().get(i);
+            assertEquals(expectedInteger.getValue(), actualInteger.getValue());
+            assertEquals(expectedInteger.getValue(), ((IntegerArrayDefinition) actual).getValue(i));
+        }
+    }
+
+    /**
+     * Test arrays of integers of various sizes, alignments and byte orders
+     *
+     * @throws CTFException
+     *             Not expected
+     */
+    @Test
+    public void testArray() throws CTFException {
+        int[][] layouts = { { 16, 8 }, { 32, 32 }, { 64, 8 }, { 5, 1 }, { 12, 4 }, { 40, 8 } };
+        for (ByteOrder byteOrder : new ByteOrder[] { ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN }) {
+            for (int[] layout : layouts) {
+                for (boolean signed : new boolean[] { false, true }) {
+                    IntegerDeclaration integer = createInteger(layout[0], signed, 10, byteOrder, layout[1]);
+                    ArrayDeclaration declaration = new ArrayDeclaration(LENGTH, integer);
+                    BitBuffer input = createBuffer();
+                    input.position(3);
+                    ArrayDefinition expected = readOneByOne(declaration, input);
+                    long end = input.position();
+
+                    input.position(3);
+                    AbstractArrayDefinition actual = declaration.createDefinition(null, FIELD_NAME, input);
+                    assertSameIntegers(expected, actual);
+                    assertEquals(end, input.position());
+                }
+            }
+        }
+    }
+
+    /**
+     * Test a sequence of hexadecimal integers
+     *
+     * @throws CTFException
+     *             Not expected
+     */
+    @Test
+    public void testSequence() throws CTFException {
+        IntegerDeclaration lengthDeclaration = createInteger(32, false, 10, ByteOrder.BIG_ENDIAN, 8);
+        IntegerDeclaration integer = createInteger(64, false, 16, ByteOrder.LITTLE_ENDIAN, 64);
+        StructDeclaration structDeclaration = new StructDeclaration(8);
+        structDeclaration.addField(LENGTH_NAME, lengthDeclaration);
+        StructDefinition scope = new StructDefinition(structDeclaration, null, "x", //$NON-NLS-1$
+                new Definition[] { new IntegerDefinition(lengthDeclaration, null, LENGTH_NAME, LENGTH) });
+        SequenceDeclaration declaration = new SequenceDeclaration(LENGTH_NAME, integer);
+
+        BitBuffer input = createBuffer();
+        ArrayDefinition expected = readOneByOne(new ArrayDeclaration(LENGTH, integer), input);
+        input.position(0);
+        AbstractArrayDefinition actual = declaration.createDefinition(scope, FIELD_NAME, input);
+        assertSameIntegers(expected, actual);
+    }
+
+    /**
+     * Test that integers with padding between them are still decoded one by
+     * one
+     *
+     * @throws CTFException
+     *             Not expected
+     */
+    @Test
+    public void testPadding() throws CTFException {
+        IntegerDeclaration integer = createInteger(16, false, 10, ByteOrder.BIG_ENDIAN, 32);
+        ArrayDeclaration declaration = new ArrayDeclaration(LENGTH, integer);
+        AbstractArrayDefinition actual = declaration.createDefinition(null, FIELD_NAME, createBuffer());
+        assertTrue(actual instanceof ArrayDefinition);
+        assertEquals(LENGTH, actual.getLength());
+    }
+}
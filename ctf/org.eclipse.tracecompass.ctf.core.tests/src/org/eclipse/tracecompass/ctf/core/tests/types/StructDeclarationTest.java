@@ -18,14 +18,17 @@ import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 import org.eclipse.tracecompass.ctf.core.CTFException;
 import org.eclipse.tracecompass.ctf.core.event.io.BitBuffer;
 import org.eclipse.tracecompass.ctf.core.event.types.Encoding;
 import org.eclipse.tracecompass.ctf.core.event.types.IDeclaration;
 import org.eclipse.tracecompass.ctf.core.event.types.IntegerDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.IntegerDefinition;
 import org.eclipse.tracecompass.ctf.core.event.types.StringDeclaration;
 import org.eclipse.tracecompass.ctf.core.event.types.StructDeclaration;
 import org.eclipse.tracecompass.ctf.core.event.types.StructDefinition;
@@ -89,6 +92,54 @@ public class StructDeclarationTest {
         assertNotNull(result);
     }
 
+    /**
+     * Test that a struct with fixed size fields reads the same values as its
+     * fields read one by one
+     *
+     * @throws CTFException
+     *             out of bounds
+     */
+    @Test
+    public void testCreateFixedSizeDefinition() throws CTFException {
+        StructDeclaration struct = new StructDeclaration(8);
+        struct.addField("u8", IntegerDeclaration.UINT_8_DECL);
+        struct.addField("s16l", IntegerDeclaration.createDeclaration(16, true, 10, ByteOrder.LITTLE_ENDIAN, Encoding.NONE, "", 16));
+        struct.addField("u32b", IntegerDeclaration.createDeclaration(32, false, 10, ByteOrder.BIG_ENDIAN, Encoding.NONE, "", 8));
+        struct.addField("bits5", IntegerDeclaration.createDeclaration(5, false, 10, ByteOrder.BIG_ENDIAN, Encoding.NONE, "", 1));
+        struct.addField("bits3", IntegerDeclaration.createDeclaration(3, true, 10, ByteOrder.BIG_ENDIAN, Encoding.NONE, "", 1));
+        struct.addField("s64l", IntegerDeclaration.createDeclaration(64, true, 10, ByteOrder.LITTLE_ENDIAN, Encoding.NONE, "", 64));
+        struct.addField("u32l", IntegerDeclaration.createDeclaration(32, false, 10, ByteOrder.LITTLE_ENDIAN, Encoding.NONE, "", 8));
+
+        ByteBuffer data = ByteBuffer.allocate(64);
+        for (int i = 0; i < data.capacity(); i++) {
+            data.put(i, (byte) (0x9d * (i + 1)));
+        }
+        BitBuffer input = new BitBuffer(data);
+        input.position(8);
+        StructDefinition result = struct.createDefinition(null, "", input);
+
+        BitBuffer expectedInput = new BitBuffer(data.duplicate());
+        expectedInput.position(64);
+        for (String name : struct.getFieldsList()) {
+            IDeclaration field = struct.getField(name);
+            assertNotNull(field);
+            IntegerDefinition expected = (IntegerDefinition) field.createDefinition(null, name, expectedInput);
+            IntegerDefinition actual = (IntegerDefinition) result.getDefinition(name);
+            assertNotNull(actual);
+            assertEquals(name, expected.getValue(), actual.getValue());
+        }
+        assertEquals(expectedInput.position(), input.position());
+
+        /* Not enough data left for the struct */
+        input.position(64 * 8 - 32);
+        try {
+            struct.createDefinition(null, "", input);
+            fail();
+        } catch (CTFException e) {
+            // Expected
+        }
+    }
+
     /**
      * Run the Declaration getField(String) method test.
      */
@@ -20,6 +20,8 @@ package org.eclipse.tracecompass.ctf.core.event.io;
 import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
 
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.tracecompass.ctf.core.CTFException;
@@ -193,6 +195,148 @@ public final class BitBuffer {
         fPosition += dst.length * BIT_CHAR;
     }
 
+    /**
+     * Relative bulk <i>get</i> method for reading integers of <i>length</i>
+     * bits.
+     *
+     * Reads <i>dst.length</i> consecutive integers of <i>length</i> bits
+     * starting at the current position, as if {@link #get(int, boolean)} was
+     * called for each of them. The bounds are only checked once, and when the
+     * position is byte-aligned and the integers are 8, 16, 32 or 64 bits long,
+     * they are read through a view of the buffer instead of one by one.
+     *
+     * @param dst
+     *            the array to fill with the integers
+     * @param length
+     *            The length in bits of each integer
+     * @param signed
+     *            The sign extended flag
+     * @throws CTFException
+     *             An error occurred reading the data. If the integers are
+     *             longer than 64 bits, or the buffer is read beyond its end,
+     *             this exception will be raised.
+     * @since 4.7
+     */
+    public void get(long @NonNull [] dst, int length, boolean signed) throws CTFException {
+        if (length > BIT_LONG) {
+            throw new CTFException("Cannot read a long longer than 64 bits. Requested: " + length); //$NON-NLS-1$
+        }
+        checkBulkRead(dst.length, length);
+        if ((fPosition & (BIT_CHAR - 1)) == 0) {
+            int index = (int) (fPosition / BIT_CHAR);
+            switch (length) {
+            case BIT_CHAR:
+                for (int i = 0; i < dst.length; i++) {
+                    byte val = fBuffer.get(index + i);
+                    dst[i] = signed ? val : val & BYTE_MASK;
+                }
+                fPosition += (long) dst.length * length;
+                return;
+            case BIT_SHORT:
+                ShortBuffer shorts = view(index).asShortBuffer();
+                for (int i = 0; i < dst.length; i++) {
+                    short val = shorts.get(i);
+                    dst[i] = signed ? val : val & SHORT_MASK;
+                }
+                fPosition += (long) dst.length * length;
+                return;
+            case BIT_INT:
+                IntBuffer ints = view(index).asIntBuffer();
+                for (int i = 0; i < dst.length; i++) {
+                    int val = ints.get(i);
+                    dst[i] = signed ? val : val & INT_MASK;
+                }
+                fPosition += (long) dst.length * length;
+                return;
+            case BIT_LONG:
+                view(index).asLongBuffer().get(dst);
+                fPosition += (long) dst.length * length;
+                return;
+            default:
+                break;
+            }
+        }
+        for (int i = 0; i < dst.length; i++) {
+            dst[i] = get(length, signed);
+        }
+    }
+
+    /**
+     * Relative bulk <i>get</i> method for reading integers of <i>length</i>
+     * bits, up to 32 bits.
+     *
+     * Reads <i>dst.length</i> consecutive integers of <i>length</i> bits
+     * starting at the current position. Unsigned 32-bit integers are stored
+     * with the same bits, so they have to be read with
+     * {@link Integer#toUnsignedLong(int)}.
+     *
+     * @param dst
+     *            the array to fill with the integers
+     * @param length
+     *            The length in bits of each integer
+     * @param signed
+     *            The sign extended flag
+     * @throws CTFException
+     *             An error occurred reading the data. If the integers are
+     *             longer than 32 bits, or the buffer is read beyond its end,
+     *             this exception will be raised.
+     * @see #get(long[], int, boolean)
+     * @since 4.7
+     */
+    public void get(int @NonNull [] dst, int length, boolean signed) throws CTFException {
+        if (length > BIT_INT) {
+            throw new CTFException("Cannot read an int longer than 32 bits. Requested: " + length); //$NON-NLS-1$
+        }
+        checkBulkRead(dst.length, length);
+        if ((fPosition & (BIT_CHAR - 1)) == 0) {
+            int index = (int) (fPosition / BIT_CHAR);
+            switch (length) {
+            case BIT_CHAR:
+                for (int i = 0; i < dst.length; i++) {
+                    byte val = fBuffer.get(index + i);
+                    dst[i] = signed ? val : val & BYTE_MASK;
+                }
+                fPosition += (long) dst.length * length;
+                return;
+            case BIT_SHORT:
+                ShortBuffer shorts = view(index).asShortBuffer();
+                for (int i = 0; i < dst.length; i++) {
+                    short val = shorts.get(i);
+                    dst[i] = signed ? val : val & SHORT_MASK;
+                }
+                fPosition += (long) dst.length * length;
+                return;
+            case BIT_INT:
+                view(index).asIntBuffer().get(dst);
+                fPosition += (long) dst.length * length;
+                return;
+            default:
+                break;
+            }
+        }
+        for (int i = 0; i < dst.length; i++) {
+            dst[i] = getInt(length, signed);
+        }
+    }
+
+    private void checkBulkRead(int count, int length) throws CTFException {
+        long bits = (long) count * length;
+        if (bits > fBitCapacity - fPosition) {
+            throw new CTFException("Cannot read the integers, " + //$NON-NLS-1$
+                    "the buffer does not have enough remaining space. " + //$NON-NLS-1$
+                    "Requested:" + bits + " Available:" + (fBitCapacity - fPosition)); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+    }
+
+    /**
+     * Get a view of the buffer in its byte order starting at a byte index
+     */
+    private ByteBuffer view(int index) {
+        ByteBuffer view = fBuffer.duplicate().order(fByteOrder);
+        view.position(index);
+        return view;
+    }
+
     /**
      * Relative <i>get</i> method for reading integer of <i>length</i> bits.
      *
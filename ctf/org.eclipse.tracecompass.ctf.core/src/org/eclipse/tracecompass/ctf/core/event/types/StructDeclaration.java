@@ -25,6 +25,7 @@ import org.eclipse.tracecompass.ctf.core.event.io.BitBuffer;
 import org.eclipse.tracecompass.ctf.core.event.scope.IDefinitionScope;
 import org.eclipse.tracecompass.ctf.core.event.scope.ILexicalScope;
 import org.eclipse.tracecompass.internal.ctf.core.CtfCoreLoggerUtil;
+import org.eclipse.tracecompass.internal.ctf.core.event.types.StructDecoder;
 
 /**
  * A CTF structure declaration.
@@ -58,6 +59,14 @@ public class StructDeclaration extends Declaration {
     /** maximum bit alignment */
     private long fMaxAlign;
 
+    /**
+     * Decoder specialized for the fields of this struct, if they all have a
+     * fixed size. It is compiled on first use, and again when a field is
+     * added.
+     */
+    private @Nullable StructDecoder fDecoder;
+    private boolean fDecoderCompiled = false;
+
     // ------------------------------------------------------------------------
     // Constructors
     // ------------------------------------------------------------------------
@@ -210,9 +219,20 @@ public class StructDeclaration extends Declaration {
         fFieldNames = names;
         fFields = fields;
         fMaxAlign = Math.max(fMaxAlign, declaration.getAlignment());
+        fDecoderCompiled = false;
+        fDecoder = null;
     }
 
-    private void fillStruct(@NonNull BitBuffer input, final IDefinition[] myFields, StructDefinition structDefinition) throws CTFException {
+    private void fillStruct(@NonNull BitBuffer input, final Definition[] myFields, StructDefinition structDefinition) throws CTFException {
+        StructDecoder decoder = fDecoder;
+        if (!fDecoderCompiled) {
+            decoder = StructDecoder.compile(this);
+            fDecoder = decoder;
+            fDecoderCompiled = true;
+        }
+        if (decoder != null && decoder.decode(input, structDefinition, myFields)) {
+            return;
+        }
         final @NonNull String[] fieldNames = fFieldNames;
         final @NonNull IDeclaration[] fields = fFields;
         for (int i = 0; i < fields.length; i++) {
@@ -19,8 +19,8 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.channels.FileChannel;
-import java.nio.channels.FileChannel.MapMode;
 import java.nio.file.StandardOpenOption;
+import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
 
@@ -38,7 +38,6 @@ import org.eclipse.tracecompass.ctf.core.event.types.IntegerDefinition;
 import org.eclipse.tracecompass.ctf.core.event.types.StructDeclaration;
 import org.eclipse.tracecompass.ctf.core.event.types.StructDefinition;
 import org.eclipse.tracecompass.internal.ctf.core.CtfCoreLoggerUtil;
-import org.eclipse.tracecompass.internal.ctf.core.SafeMappedByteBuffer;
 import org.eclipse.tracecompass.internal.ctf.core.trace.StreamInputPacketIndex;
 import org.eclipse.tracecompass.internal.ctf.core.trace.StreamInputPacketIndexEntry;
 import org.eclipse.tracecompass.internal.ctf.core.utils.JsonMetadataStrings;
@@ -240,32 +239,91 @@ public class CTFStreamInput implements IDefinitionScope {
      * @throws CTFException
      *             If there was a problem reading the packed header
      */
-    public boolean addPacketHeaderIndex() throws CTFException {
-        long currentPosBits = 0L;
+    public synchronized boolean addPacketHeaderIndex() throws CTFException {
+        long currentPosBits = getNextPacketPositionBits();
+        if (currentPosBits < getStreamSizeBits()) {
+            try (FileChannel fc = FileChannel.open(fFile.toPath(), StandardOpenOption.READ)) {
+                if (fc == null) {
+                    throw new IOException("Failed to create FileChannel"); //$NON-NLS-1$
+                }
+                return fIndex.append(createPacketIndexEntry(fc, currentPosBits));
+            } catch (IOException e) {
+                throw new CTFException("Failed to create packet index entry", e); //$NON-NLS-1$
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds the entries of all the packets that are not indexed yet to the
+     * index of this stream input, reading the packet headers with the same
+     * file channel. The indexing stops at the first packet that cannot be
+     * indexed.
+     *
+     * @return true if all the packets of the stream input are indexed
+     */
+    synchronized boolean indexAllPackets() {
+        try (FileChannel fc = FileChannel.open(fFile.toPath(), StandardOpenOption.READ)) {
+            if (fc == null) {
+                throw new IOException("Failed to create FileChannel"); //$NON-NLS-1$
+            }
+            long currentPosBits = getNextPacketPositionBits();
+            while (currentPosBits < getStreamSizeBits()) {
+                if (!fIndex.append(createPacketIndexEntry(fc, currentPosBits))) {
+                    return false;
+                }
+                currentPosBits = getNextPacketPositionBits();
+            }
+            return true;
+        } catch (IOException | CTFException e) {
+            CtfCoreLoggerUtil.logInfo("Cannot index the packets of " + fFile + ": " + e.getMessage()); //$NON-NLS-1$ //$NON-NLS-2$
+            return false;
+        }
+    }
+
+    /**
+     * Restore the index of this stream input from saved entries, if nothing
+     * was indexed yet
+     *
+     * @param packets
+     *            the saved entries of all the packets of the stream input
+     * @return true if the index was restored
+     */
+    synchronized boolean restoreIndex(List<ICTFPacketDescriptor> packets) {
         if (!fIndex.isEmpty()) {
-            ICTFPacketDescriptor pos = fIndex.lastElement();
-            if (pos == null) {
-                throw new IllegalStateException("Index contains null packet entries"); //$NON-NLS-1$
+            return false;
+        }
+        for (ICTFPacketDescriptor packet : packets) {
+            if (!fIndex.append(Objects.requireNonNull(packet))) {
+                break;
             }
-            currentPosBits = pos.getOffsetBits() + pos.getPacketSizeBits();
+            fLostSoFar += packet.getLostEvents();
         }
-        if (currentPosBits < getStreamSizeBits()) {
-            return fIndex.append(createPacketIndexEntry(currentPosBits));
+        if (!fIndex.isEmpty()) {
+            setTimestampEnd(fIndex.lastElement().getTimestampEnd());
         }
-        return false;
+        return true;
+    }
+
+    private long getNextPacketPositionBits() {
+        if (fIndex.isEmpty()) {
+            return 0L;
+        }
+        ICTFPacketDescriptor pos = fIndex.lastElement();
+        if (pos == null) {
+            throw new IllegalStateException("Index contains null packet entries"); //$NON-NLS-1$
+        }
+        return pos.getOffsetBits() + pos.getPacketSizeBits();
     }
 
     private long getStreamSizeBits() {
         return fFile.length() * Byte.SIZE;
     }
 
-    private ICTFPacketDescriptor createPacketIndexEntry(long dataOffsetbits)
+    private ICTFPacketDescriptor createPacketIndexEntry(FileChannel fc, long dataOffsetbits)
             throws CTFException {
 
-        try (FileChannel fc = FileChannel.open(fFile.toPath(), StandardOpenOption.READ)) {
-            if (fc == null) {
-                throw new IOException("Failed to create FileChannel"); //$NON-NLS-1$
-            }
+        try {
             BitBuffer bitBuffer = createBitBufferForPacketHeader(fc, dataOffsetbits);
             /*
              * Read the trace packet header if it exists.
@@ -294,6 +352,23 @@ public class CTFStreamInput implements IDefinitionScope {
         }
     }
 
+    /**
+     * Read the packet context of a packet whose index entry was restored
+     * without it
+     *
+     * @param packetBuffer
+     *            the buffer of the packet, starting at its packet header
+     * @return the packet context definition
+     * @throws CTFException
+     *             if the packet header or context cannot be read
+     */
+    StructDefinition readPacketContext(ByteBuffer packetBuffer) throws CTFException {
+        BitBuffer bitBuffer = new BitBuffer(packetBuffer.duplicate());
+        bitBuffer.setByteOrder(getStream().getTrace().getByteOrder());
+        parseTracePacketHeader(bitBuffer);
+        return fStreamPacketContextDecl.createDefinition(this, ILexicalScope.STREAM_PACKET_CONTEXT, bitBuffer);
+    }
+
     private BitBuffer createBitBufferForPacketHeader(FileChannel fc, long dataOffsetbits) throws CTFException, IOException {
         /*
          * create a packet bit buffer to read the packet header
@@ -304,8 +379,20 @@ public class CTFStreamInput implements IDefinitionScope {
         return bitBuffer;
     }
 
-    private static ByteBuffer getByteBufferAt(FileChannel fc, long position, long size) throws CTFException, IOException {
-        return SafeMappedByteBuffer.map(fc, MapMode.READ_ONLY, position, size);
+    private static ByteBuffer getByteBufferAt(FileChannel fc, long position, long size) throws IOException {
+        /*
+         * Read the few bytes of the headers instead of mapping them, as
+         * indexing a stream would otherwise leave one mapping per packet until
+         * the buffers are collected
+         */
+        ByteBuffer buffer = ByteBuffer.allocate((int) size);
+        while (buffer.hasRemaining()) {
+            if (fc.read(buffer, position + buffer.position()) < 0) {
+                break;
+            }
+        }
+        buffer.flip();
+        return buffer;
     }
 
     private static ByteBuffer createPacketBitBuffer(FileChannel fc,
@@ -325,7 +412,7 @@ public class CTFStreamInput implements IDefinitionScope {
         }
 
         /*
-         * Map the packet.
+         * Read the packet headers.
          */
         try {
             return getByteBufferAt(fc, packetOffsetBytes, mapSize);
@@ -18,9 +18,15 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
-import java.nio.channels.FileChannel.MapMode;
 import java.nio.file.StandardOpenOption;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -30,10 +36,14 @@ import org.eclipse.tracecompass.ctf.core.event.IEventDefinition;
 import org.eclipse.tracecompass.ctf.core.event.io.BitBuffer;
 import org.eclipse.tracecompass.ctf.core.event.types.IDeclaration;
 import org.eclipse.tracecompass.ctf.core.event.types.StructDeclaration;
+import org.eclipse.tracecompass.ctf.core.trace.CTFTraceReaderPosition.StreamPosition;
 import org.eclipse.tracecompass.internal.ctf.core.CtfCoreLoggerUtil;
-import org.eclipse.tracecompass.internal.ctf.core.SafeMappedByteBuffer;
 import org.eclipse.tracecompass.internal.ctf.core.trace.CTFPacketReader;
+import org.eclipse.tracecompass.internal.ctf.core.trace.MappedFileWindow;
 import org.eclipse.tracecompass.internal.ctf.core.trace.NullPacketReader;
+import org.eclipse.tracecompass.internal.ctf.core.trace.PacketEventIndex;
+import org.eclipse.tracecompass.internal.ctf.core.trace.StreamInputPacketIndex;
+import org.eclipse.tracecompass.internal.ctf.core.trace.StreamInputPacketIndexEntry;
 
 /**
  * A CTF trace event reader. Reads the events of a trace file.
@@ -47,6 +57,49 @@ public class CTFStreamInputReader implements AutoCloseable {
 
     private static final int BITS_PER_BYTE = Byte.SIZE;
 
+    /**
+     * Number of events decoded at once by the read-ahead of a stream
+     */
+    private static final int READ_AHEAD_BATCH_SIZE = 128;
+
+    /**
+     * Number of batches of decoded events buffered by the read-ahead of a
+     * stream
+     */
+    private static final int READ_AHEAD_CAPACITY = 8;
+
+    /**
+     * Size in bytes of the regions of the file that are mapped at once, to
+     * read many packets from the same mapping
+     */
+    private static final long MAPPED_WINDOW_SIZE = 32L * 1024 * 1024;
+
+    /**
+     * Number of packets after the current one whose pages are loaded in the
+     * background
+     */
+    private static final int PACKET_READ_AHEAD = 4;
+
+    private static final int PAGE_SIZE = 4096;
+
+    /**
+     * The workers decoding the streams ahead. A worker only decodes until the
+     * buffer of its stream is full, so a bounded pool cannot starve a stream
+     * that is waited for.
+     */
+    private static final Executor READ_AHEAD_EXECUTOR;
+
+    static {
+        int nbThreads = Runtime.getRuntime().availableProcessors();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(nbThreads, nbThreads, 10, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "CTF stream read-ahead"); //$NON-NLS-1$
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        READ_AHEAD_EXECUTOR = executor;
+    }
+
     // ------------------------------------------------------------------------
     // Attributes
     // ------------------------------------------------------------------------
@@ -61,21 +114,47 @@ public class CTFStreamInputReader implements AutoCloseable {
     private final @Nullable FileChannel fFileChannel;
 
     /**
-     * The packet reader used to read packets from this trace file.
+     * The packet reader used to read packets from this trace file. When the
+     * stream is read ahead, it is the packet reader of the read-ahead, which
+     * may be past the current event.
      */
     private IPacketReader fPacketReader;
 
+    /**
+     * The packet reader of the current event, when the stream is read ahead
+     */
+    private IPacketReader fCurrentPacketReader = NullPacketReader.INSTANCE;
+
     /**
      * Iterator on the packet index
      */
     private int fPacketIndex;
 
+    /**
+     * The mapped region of the file the packets are read from
+     */
+    private final MappedFileWindow fWindow;
+
+    /**
+     * The offset in bytes up to which the pages of the mapped region were
+     * loaded in the background, and the region they were loaded in
+     */
+    private long fLoadedEnd = 0;
+    private @Nullable ByteBuffer fLoadedWindow = null;
+
     /**
      * Reference to the current event of this trace file (iow, the last on that
      * was read, the next one to be returned)
      */
     private @Nullable IEventDefinition fCurrentEvent = null;
 
+    /**
+     * Number of events before the current event with the same timestamp, since
+     * the last seek. It is used to find the current event again when the
+     * read-ahead stops.
+     */
+    private long fCurrentEventRank = 0;
+
     private int fId;
 
     /**
@@ -83,6 +162,141 @@ public class CTFStreamInputReader implements AutoCloseable {
      */
     private boolean fLive = false;
 
+    /**
+     * Whether the events are decoded ahead by a worker thread
+     */
+    private boolean fReadAheadEnabled = false;
+
+    /**
+     * The running read-ahead, if any
+     */
+    private @Nullable ReadAhead fReadAhead = null;
+
+    /**
+     * Events decoded ahead, with the packet readers that decoded them. The
+     * last batch of the stream also has the end of the stream or the decoding
+     * error.
+     */
+    private static final class DecodedBatch {
+        private final @Nullable IEventDefinition[] fEvents = new IEventDefinition[READ_AHEAD_BATCH_SIZE];
+        private final @Nullable IPacketReader[] fReaders = new IPacketReader[READ_AHEAD_BATCH_SIZE];
+        private int fSize = 0;
+        private int fNext = 0;
+        private boolean fEnd = false;
+        private @Nullable Exception fError = null;
+    }
+
+    /**
+     * Decodes the events of the stream ahead of the consumer into a bounded
+     * buffer. The decoding state of the stream reader belongs to the worker
+     * until the read-ahead is stopped.
+     */
+    private final class ReadAhead {
+
+        private final BlockingQueue<DecodedBatch> fBuffer = new ArrayBlockingQueue<>(READ_AHEAD_CAPACITY);
+
+        private volatile boolean fStopped = false;
+        private volatile boolean fEnded = false;
+        private boolean fScheduled = false;
+
+        /** The batch being consumed */
+        private @Nullable DecodedBatch fBatch = null;
+
+        /**
+         * Get the batch of the next event, waiting for the worker if needed
+         */
+        public DecodedBatch next() throws CTFException {
+            DecodedBatch batch = fBatch;
+            if (batch != null && (batch.fNext < batch.fSize || batch.fEnd)) {
+                return batch;
+            }
+            batch = fBuffer.poll();
+            if (batch == null) {
+                schedule();
+                try {
+                    batch = fBuffer.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new CTFException("Interrupted while reading " + fStreamInput.getFilename(), e); //$NON-NLS-1$
+                }
+            } else if (fBuffer.size() <= READ_AHEAD_CAPACITY / 2) {
+                schedule();
+            }
+            fBatch = batch;
+            return batch;
+        }
+
+        private void schedule() {
+            synchronized (this) {
+                if (fScheduled || fEnded || fStopped) {
+                    return;
+                }
+                fScheduled = true;
+            }
+            READ_AHEAD_EXECUTOR.execute(this::fill);
+        }
+
+        /**
+         * Worker: decode events until the buffer is full
+         */
+        private void fill() {
+            do {
+                while (!fStopped && !fEnded && fBuffer.remainingCapacity() > 0) {
+                    DecodedBatch batch = new DecodedBatch();
+                    try {
+                        while (batch.fSize < READ_AHEAD_BATCH_SIZE) {
+                            IEventDefinition event = decodeNextEvent();
+                            if (event == null) {
+                                batch.fEnd = true;
+                                break;
+                            }
+                            batch.fEvents[batch.fSize] = event;
+                            batch.fReaders[batch.fSize] = fPacketReader;
+                            batch.fSize++;
+                        }
+                    } catch (CTFException | RuntimeException e) {
+                        batch.fEnd = true;
+                        batch.fError = e;
+                    }
+                    fEnded = batch.fEnd;
+                    fBuffer.add(batch);
+                }
+            } while (continueFill());
+        }
+
+        /**
+         * Called by the worker when it is done filling the buffer, returns
+         * whether it should keep going because the consumer caught up
+         */
+        private synchronized boolean continueFill() {
+            if (!fStopped && !fEnded && fBuffer.size() <= READ_AHEAD_CAPACITY / 2) {
+                return true;
+            }
+            fScheduled = false;
+            notifyAll();
+            return false;
+        }
+
+        /**
+         * Stop the worker and wait until it no longer uses the decoding state
+         */
+        public synchronized void stop() {
+            fStopped = true;
+            boolean interrupted = false;
+            while (fScheduled) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            fBuffer.clear();
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
     // ------------------------------------------------------------------------
     // Constructors
     // ------------------------------------------------------------------------
@@ -102,6 +316,7 @@ public class CTFStreamInputReader implements AutoCloseable {
         } catch (IOException e) {
             throw new CTFIOException(e);
         }
+        fWindow = new MappedFileWindow(fFileChannel, MAPPED_WINDOW_SIZE);
         try {
             /*
              * Get the iterator on the packet index.
@@ -137,8 +352,14 @@ public class CTFStreamInputReader implements AutoCloseable {
             if (size < 0) {
                 throw new CTFIOException("Cannot have negative sized buffers."); //$NON-NLS-1$
             }
-            BitBuffer bitBuffer = new BitBuffer(getByteBufferAt(packet.getOffsetBits(), size));
+            ByteBuffer packetBuffer = getByteBufferAt(packet.getOffsetBits(), size);
+            if (packet instanceof StreamInputPacketIndexEntry && packet.getStreamPacketContextDef() == null) {
+                /* The entry was restored from a saved index */
+                packet.setStreamPacketContextDef(fStreamInput.readPacketContext(packetBuffer));
+            }
+            BitBuffer bitBuffer = new BitBuffer(packetBuffer);
             bitBuffer.position(packet.getPayloadStartBits());
+            loadNextPackets();
             IDeclaration eventHeaderDeclaration = getStreamInput().getStream().getEventHeaderDeclaration();
             CTFTrace trace = getStreamInput().getStream().getTrace();
             ctfPacketReader = new CTFPacketReader(bitBuffer, packet, getEventDeclarations(), eventHeaderDeclaration, getStreamEventContextDecl(), trace.getPacketHeaderDef(), trace);
@@ -159,14 +380,53 @@ public class CTFStreamInputReader implements AutoCloseable {
      *
      * @since 2.0
      */
-    public ByteBuffer getByteBufferAt(long position, long size) throws CTFException {
+    public synchronized ByteBuffer getByteBufferAt(long position, long size) throws CTFException {
+        long start = position / BITS_PER_BYTE;
+        long length = (size + BITS_PER_BYTE - 1) / BITS_PER_BYTE;
         try {
-            return SafeMappedByteBuffer.map(fFileChannel, MapMode.READ_ONLY, position / BITS_PER_BYTE, (size + BITS_PER_BYTE - 1) / BITS_PER_BYTE);
+            return fWindow.getByteBuffer(start, length);
         } catch (IOException e) {
             throw new CTFIOException(e.getMessage(), e);
         }
     }
 
+    /**
+     * Load in the background the pages of the next indexed packets that are in
+     * the mapped region, so that reading them does not wait on page faults
+     */
+    private synchronized void loadNextPackets() {
+        ByteBuffer window = fWindow.getWindow();
+        if (window == null) {
+            return;
+        }
+        long windowStart = fWindow.getStart();
+        if (window != fLoadedWindow) {
+            /* The region was mapped again since the pages were loaded */
+            fLoadedWindow = window;
+            fLoadedEnd = windowStart;
+        }
+        StreamInputPacketIndex index = fStreamInput.getIndex();
+        int last = Math.min(index.size(), fPacketIndex + 1 + PACKET_READ_AHEAD) - 1;
+        if (last <= fPacketIndex) {
+            return;
+        }
+        ICTFPacketDescriptor lastPacket = index.getElement(last);
+        long end = Math.min(fWindow.getEnd(), lastPacket.getOffsetBytes() + (lastPacket.getPacketSizeBits() + BITS_PER_BYTE - 1) / BITS_PER_BYTE);
+        long start = Math.max(fLoadedEnd, windowStart);
+        if (start >= end) {
+            return;
+        }
+        fLoadedEnd = end;
+        ByteBuffer pages = window.duplicate();
+        int from = (int) (start - windowStart);
+        int to = (int) (end - windowStart);
+        READ_AHEAD_EXECUTOR.execute(() -> {
+            for (int i = from; i < to; i += PAGE_SIZE) {
+                pages.get(i);
+            }
+        });
+    }
+
     /**
      * Dispose the StreamInputReader, closes the file channel and its packet
      * reader
@@ -176,6 +436,11 @@ public class CTFStreamInputReader implements AutoCloseable {
      */
     @Override
     public void close() throws IOException {
+        stopReadAhead();
+        synchronized (this) {
+            fWindow.clear();
+            fLoadedWindow = null;
+        }
         if (fFileChannel != null) {
             fFileChannel.close();
         }
@@ -223,7 +488,7 @@ public class CTFStreamInputReader implements AutoCloseable {
      * @return The CPU id (a number)
      */
     public int getCPU() {
-        return fPacketReader.getCPU();
+        return getCurrentPacketReader().getCPU();
     }
 
     /**
@@ -260,6 +525,14 @@ public class CTFStreamInputReader implements AutoCloseable {
      */
     public void setLive(boolean live) {
         fLive = live;
+        if (live) {
+            /* Live streams are not read ahead, as they can grow */
+            try {
+                resyncReadAhead();
+            } catch (CTFException e) {
+                CtfCoreLoggerUtil.logError(e.getMessage(), e);
+            }
+        }
     }
 
     /**
@@ -271,6 +544,64 @@ public class CTFStreamInputReader implements AutoCloseable {
         return fLive;
     }
 
+    /**
+     * Set whether the events of this stream are decoded ahead by a worker
+     * thread, into a bounded buffer, while the current event is consumed.
+     * Streams read live are never read ahead.
+     *
+     * @param readAhead
+     *            whether the events are decoded ahead
+     * @throws CTFException
+     *             if an error occurs when stopping the read-ahead
+     * @since 4.7
+     */
+    public void setReadAhead(boolean readAhead) throws CTFException {
+        fReadAheadEnabled = readAhead;
+        if (!readAhead) {
+            resyncReadAhead();
+        }
+    }
+
+    /**
+     * Get whether the events of this stream are decoded ahead
+     *
+     * @return whether the events are decoded ahead
+     * @since 4.7
+     */
+    public boolean isReadAhead() {
+        return fReadAheadEnabled;
+    }
+
+    /**
+     * Stop the read-ahead, the decoding state is then past the current event
+     */
+    private void stopReadAhead() {
+        ReadAhead readAhead = fReadAhead;
+        if (readAhead != null) {
+            readAhead.stop();
+            fReadAhead = null;
+        }
+    }
+
+    /**
+     * Stop the read-ahead and bring the decoding state back to the current
+     * event
+     */
+    private void resyncReadAhead() throws CTFException {
+        if (fReadAhead == null) {
+            return;
+        }
+        stopReadAhead();
+        IEventDefinition currentEvent = fCurrentEvent;
+        if (currentEvent != null) {
+            long rank = fCurrentEventRank;
+            seek(currentEvent.getTimestamp());
+            for (long i = 0; i < rank; i++) {
+                readNextEvent();
+            }
+        }
+    }
+
     /**
      * Get the event context of the stream
      *
@@ -291,7 +622,59 @@ public class CTFStreamInputReader implements AutoCloseable {
      *             if an error occurs
      */
     public CTFResponse readNextEvent() throws CTFException {
+        if (fReadAheadEnabled && !fLive) {
+            return readNextEventAhead();
+        }
+        IEventDefinition event = decodeNextEvent();
+        setNextEvent(event);
+        if (event != null) {
+            return CTFResponse.OK;
+        }
+        return fLive ? CTFResponse.WAIT : CTFResponse.FINISH;
+    }
+
+    private CTFResponse readNextEventAhead() throws CTFException {
+        ReadAhead readAhead = fReadAhead;
+        if (readAhead == null) {
+            readAhead = new ReadAhead();
+            fCurrentPacketReader = fPacketReader;
+            fReadAhead = readAhead;
+        }
+        DecodedBatch batch = readAhead.next();
+        if (batch.fNext < batch.fSize) {
+            int next = batch.fNext++;
+            fCurrentPacketReader = Objects.requireNonNull(batch.fReaders[next]);
+            setNextEvent(batch.fEvents[next]);
+            return CTFResponse.OK;
+        }
+        /* The worker is done, the decoding state is at the end */
+        stopReadAhead();
+        Exception error = batch.fError;
+        if (error instanceof CTFException) {
+            throw (CTFException) error;
+        } else if (error instanceof RuntimeException) {
+            throw (RuntimeException) error;
+        }
+        setNextEvent(null);
+        return CTFResponse.FINISH;
+    }
 
+    private void setNextEvent(@Nullable IEventDefinition event) {
+        IEventDefinition previous = fCurrentEvent;
+        if (event != null && previous != null && previous.getTimestamp() == event.getTimestamp()) {
+            fCurrentEventRank++;
+        } else {
+            fCurrentEventRank = 0;
+        }
+        fCurrentEvent = event;
+    }
+
+    /**
+     * Decode the next event of the stream
+     *
+     * @return the event, or null if there are no more events for now
+     */
+    private @Nullable IEventDefinition decodeNextEvent() throws CTFException {
         try {
             /*
              * Change packet if needed
@@ -311,11 +694,9 @@ public class CTFStreamInputReader implements AutoCloseable {
              * If an event is available, read it.
              */
             if (fPacketReader.hasMoreEvents()) {
-                setCurrentEvent(fPacketReader.readNextEvent());
-                return CTFResponse.OK;
+                return fPacketReader.readNextEvent();
             }
-            this.setCurrentEvent(null);
-            return fLive ? CTFResponse.WAIT : CTFResponse.FINISH;
+            return null;
         } catch (CTFException e) {
             throw new CTFException("Trace read error " + fStreamInput.getFilename(), e); //$NON-NLS-1$
         }
@@ -364,6 +745,8 @@ public class CTFStreamInputReader implements AutoCloseable {
     public long seek(long timestamp) throws CTFException {
         long offset = 0;
 
+        stopReadAhead();
+        fCurrentEvent = null;
         gotoPacket(timestamp);
 
         /*
@@ -392,16 +775,69 @@ public class CTFStreamInputReader implements AutoCloseable {
          * - found the first event with a timestamp greater or equal the given
          * timestamp.
          */
-        readNextEvent();
+        offset = seekInPacket(timestamp);
         IEventDefinition currentEvent = getCurrentEvent();
+        if (currentEvent == null) {
+            setNextEvent(decodeNextEvent());
+            currentEvent = getCurrentEvent();
+        }
         while (currentEvent != null && (currentEvent.getTimestamp() < timestamp)) {
-            readNextEvent();
+            setNextEvent(decodeNextEvent());
             currentEvent = getCurrentEvent();
             offset++;
         }
         return offset;
     }
 
+    /**
+     * Decode the events of the current packet up to the first event with a
+     * timestamp greater or equal the given timestamp, starting from the last
+     * checkpoint of the packet event index before the timestamp. The index is
+     * filled with the events decoded.
+     *
+     * @param timestamp
+     *            The timestamp to seek to
+     * @return the number of events of the packet before the current event
+     * @throws CTFException
+     *             if an error occurs
+     */
+    private long seekInPacket(long timestamp) throws CTFException {
+        IPacketReader packetReader = fPacketReader;
+        ICTFPacketDescriptor packet = packetReader.getCurrentPacket();
+        if (!(packetReader instanceof CTFPacketReader) || !(packet instanceof StreamInputPacketIndexEntry)) {
+            return 0;
+        }
+        CTFPacketReader reader = (CTFPacketReader) packetReader;
+        PacketEventIndex eventIndex = ((StreamInputPacketIndexEntry) packet).getEventIndex();
+        long eventNumber = 0;
+        int checkpoint = eventIndex.floor(timestamp);
+        if (checkpoint > 0) {
+            eventNumber = PacketEventIndex.getEventNumber(checkpoint);
+            long position = eventIndex.getPosition(checkpoint);
+            reader.restore(position, position, eventIndex.getPreviousTimestamp(checkpoint), reader.hasLostEvent(), null);
+        }
+        long contentSize = packet.getContentSizeBits();
+        try {
+            /* The lost event at the end of the packet is left to the caller */
+            while (reader.getInputPosition() < contentSize) {
+                long position = reader.getInputPosition();
+                long previousTimestamp = reader.getLastTimestamp();
+                IEventDefinition event = reader.readNextEvent();
+                if (eventNumber % PacketEventIndex.INTERVAL == 0) {
+                    eventIndex.add(eventNumber, position, event.getTimestamp(), previousTimestamp);
+                }
+                setNextEvent(event);
+                if (event.getTimestamp() >= timestamp) {
+                    break;
+                }
+                eventNumber++;
+            }
+        } catch (CTFException e) {
+            throw new CTFException("Trace read error " + fStreamInput.getFilename(), e); //$NON-NLS-1$
+        }
+        return eventNumber;
+    }
+
     /**
      * @param timestamp
      *            the time to seek
@@ -469,14 +905,70 @@ public class CTFStreamInputReader implements AutoCloseable {
          * Go until the end of that packet
          */
         IEventDefinition prevEvent = null;
+        long prevRank = 0;
         while (fCurrentEvent != null) {
             prevEvent = fCurrentEvent;
-            readNextEvent();
+            prevRank = fCurrentEventRank;
+            setNextEvent(decodeNextEvent());
         }
         /*
          * Go back to the previous event
          */
-        setCurrentEvent(prevEvent);
+        fCurrentEvent = prevEvent;
+        fCurrentEventRank = prevRank;
+    }
+
+    /**
+     * Save the position of this reader
+     *
+     * @return the position, or null if it cannot be saved because the events
+     *         are decoded ahead or the stream is live
+     */
+    @Nullable StreamPosition savePosition() {
+        if (fReadAhead != null || fLive) {
+            return null;
+        }
+        IPacketReader packetReader = fPacketReader;
+        if (packetReader instanceof CTFPacketReader) {
+            return new StreamPosition(fStreamInput, fPacketIndex, (CTFPacketReader) packetReader, fCurrentEvent, fCurrentEventRank);
+        }
+        if (packetReader != NullPacketReader.INSTANCE) {
+            return null;
+        }
+        return new StreamPosition(fStreamInput, fPacketIndex, null, fCurrentEvent, fCurrentEventRank);
+    }
+
+    /**
+     * Restore a position saved by a reader of the same stream input. Only the
+     * current packet is loaded, the events are not decoded again.
+     *
+     * @param position
+     *            the position
+     * @return false if the current packet could not be restored
+     * @throws CTFException
+     *             if the packet cannot be read
+     */
+    boolean restorePosition(StreamPosition position) throws CTFException {
+        stopReadAhead();
+        int packetIndex = position.getPacketIndex();
+        if (position.isInPacket()) {
+            if (packetIndex >= getPacketSize()) {
+                return false;
+            }
+            IPacketReader packetReader = getCurrentPacketReader(fStreamInput.getIndex().getElement(packetIndex));
+            if (!(packetReader instanceof CTFPacketReader)) {
+                return false;
+            }
+            position.restore((CTFPacketReader) packetReader);
+            fPacketIndex = packetIndex;
+            fPacketReader = packetReader;
+        } else {
+            fPacketIndex = packetIndex;
+            fPacketReader = NullPacketReader.INSTANCE;
+        }
+        fCurrentEvent = position.getCurrentEvent();
+        fCurrentEventRank = position.getCurrentEventRank();
+        return true;
     }
 
     /**
@@ -488,6 +980,7 @@ public class CTFStreamInputReader implements AutoCloseable {
      */
     public void setCurrentEvent(@Nullable IEventDefinition currentEvent) {
         fCurrentEvent = currentEvent;
+        fCurrentEventRank = 0;
     }
 
     /**
@@ -512,7 +1005,7 @@ public class CTFStreamInputReader implements AutoCloseable {
      * @since 2.0
      */
     public IPacketReader getCurrentPacketReader() {
-        return fPacketReader;
+        return (fReadAhead != null) ? fCurrentPacketReader : fPacketReader;
     }
 
     @Override
@@ -88,6 +88,10 @@ public class CTFStreamOutputWriter {
      * startTime <= packet.getTimestampEnd() && packet.getTimestampStart() <=
      * endTime
      *
+     * The packets entirely within the time range are transferred as they are,
+     * without being decoded, only the packets at the boundaries of the range are
+     * decoded to be cut.
+     *
      * @param startTime
      *                      the start time for packets to be written
      * @param endTime
@@ -107,7 +111,9 @@ public class CTFStreamOutputWriter {
             StreamInputPacketIndex index = streamInput.getIndex();
             int count = 0;
             long initialLost = 0;
-            for (int i = 0; i < index.size(); i++) {
+            /* The packets before this one end before the start time */
+            int first = index.isEmpty() ? 0 : index.search(startTime);
+            for (int i = first; i < index.size(); i++) {
                 ICTFPacketDescriptor entry = index.getElement(i);
                 /*
                  * Entire packet is contained
@@ -118,8 +124,8 @@ public class CTFStreamOutputWriter {
                     initialLost = (long) entry.getAttributes().getOrDefault(CTFStrings.EVENTS_DISCARDED, 0L);
                 }
                 if (startTime <= packetStart && endTime >= packetEnd) {
-                    // MUCH faster
-                    fStreamPacketOutputWriter.writePacket(entry, fc, initialLost);
+                    // MUCH faster, the packet is not decoded
+                    fStreamPacketOutputWriter.transferPacket(entry, source, fc, initialLost);
                     count++;
                 } else if (startTime <= packetEnd && endTime >= packetStart) {
                     fStreamPacketOutputWriter.writePacket(entry, startTime, endTime, initialLost, fc);
@@ -22,6 +22,7 @@ import java.nio.channels.FileChannel.MapMode;
 import java.nio.file.StandardOpenOption;
 
 import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.ctf.core.CTFException;
 import org.eclipse.tracecompass.ctf.core.CTFStrings;
 import org.eclipse.tracecompass.ctf.core.event.IEventDefinition;
@@ -119,9 +120,7 @@ public class CTFStreamPacketOutputWriter {
                     stream.getEventContextDecl(),
                     trace.getPacketHeaderDef(),
                     trace);
-            if (entry instanceof StreamInputPacketIndexEntry) {
-                context = ((StreamInputPacketIndexEntry) entry).getStreamPacketContextDef();
-            }
+            context = getPacketContext(entry, fc);
             if (context == null) {
                 return;
             }
@@ -172,9 +171,7 @@ public class CTFStreamPacketOutputWriter {
                     trace.getPacketHeaderDef(),
                     trace);
             long lastLargeTimestamp = entry.getTimestampBegin();
-            if (entry instanceof StreamInputPacketIndexEntry) {
-                context = ((StreamInputPacketIndexEntry) entry).getStreamPacketContextDef();
-            }
+            context = getPacketContext(entry, fc);
             if (context == null) {
                 return;
             }
@@ -219,6 +216,107 @@ public class CTFStreamPacketOutputWriter {
         }
     }
 
+    /**
+     * Transfers a whole stream packet to the output file channel, without
+     * decoding it. The bytes of the packet are transferred from the stream
+     * file by the file system, only the packet context is patched when the
+     * count of discarded events must be offset.
+     *
+     * @param entry
+     *            the packet descriptor
+     * @param source
+     *            the file channel of the stream file
+     * @param output
+     *            the file channel to write to, at its current position
+     * @param initialLost
+     *            the offset initial lost events as the field is cumulative
+     * @throws IOException
+     *             if a reading or writing error occurs
+     * @throws CTFException
+     *             ctf reading error
+     * @since 4.7
+     */
+    public void transferPacket(ICTFPacketDescriptor entry, FileChannel source, FileChannel output, long initialLost) throws IOException, CTFException {
+        long offset = entry.getOffsetBytes();
+        long size = bitsToBytes(entry.getPacketSizeBits());
+        long outputStart = output.position();
+        long transferred = 0;
+        while (transferred < size) {
+            long count = source.transferTo(offset + transferred, size - transferred, output);
+            if (count <= 0) {
+                throw new IOException("Cannot transfer the packet at offset " + offset + " of " + fStreamInput.getFilename()); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+            transferred += count;
+        }
+        if (initialLost == 0) {
+            return;
+        }
+        StructDefinition context = getPacketContext(entry, source);
+        if (context == null || context.getDefinition(CTFStrings.EVENTS_DISCARDED) == null) {
+            return;
+        }
+        ByteBuffer headers = readFully(source, offset, (int) bitsToBytes(entry.getPayloadStartBits()));
+        ICompositeDefinition tracePacketHeader = fStreamInput.getStream().getTrace().getPacketHeaderDef();
+        headers.position((int) bitsToBytes(tracePacketHeader == null ? 0 : tracePacketHeader.size()));
+        patchEventsDiscarded(context, initialLost, headers);
+        headers.clear();
+        long position = outputStart;
+        while (headers.hasRemaining()) {
+            position += output.write(headers, position);
+        }
+    }
+
+    /**
+     * Get the packet context of a packet, reading it from the stream file if
+     * the packet descriptor was restored from a saved index
+     */
+    private @Nullable StructDefinition getPacketContext(ICTFPacketDescriptor entry, FileChannel source) throws IOException, CTFException {
+        if (!(entry instanceof StreamInputPacketIndexEntry)) {
+            return null;
+        }
+        StreamInputPacketIndexEntry indexEntry = (StreamInputPacketIndexEntry) entry;
+        StructDefinition context = indexEntry.getStreamPacketContextDef();
+        if (context == null) {
+            context = fStreamInput.readPacketContext(readFully(source, entry.getOffsetBytes(), (int) bitsToBytes(entry.getPayloadStartBits())));
+            indexEntry.setStreamPacketContextDef(context);
+        }
+        return context;
+    }
+
+    private static ByteBuffer readFully(FileChannel source, long position, int size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        while (buffer.hasRemaining()) {
+            if (source.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of file at " + (position + buffer.position())); //$NON-NLS-1$
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Offset the count of discarded events of a packet context, leaving the
+     * other fields as they are
+     */
+    private static void patchEventsDiscarded(StructDefinition context, long initialLost, @NonNull ByteBuffer buffer) throws CTFException {
+        BitBuffer bb = new BitBuffer(buffer);
+        bb.position(buffer.position() * (long) Byte.SIZE);
+        for (String field : context.getFieldNames()) {
+            Definition def = context.getDefinition(field);
+            IDeclaration declaration = def.getDeclaration();
+            align(declaration.getAlignment(), bb);
+            if (field.equals(CTFStrings.EVENTS_DISCARDED) && def instanceof SimpleDatatypeDefinition) {
+                if (declaration instanceof ISimpleDatatypeDeclaration) {
+                    bb.setByteOrder(((ISimpleDatatypeDeclaration) declaration).getByteOrder());
+                }
+                SimpleDatatypeDefinition simpleDef = (SimpleDatatypeDefinition) def;
+                bb.putLong((int) simpleDef.size(), simpleDef.getIntegerValue() - initialLost);
+                return;
+            }
+            bb.position(bb.position() + def.size());
+        }
+    }
+
     private static void writeCustomPacket(ICTFPacketDescriptor entry, FileChannel source, FileChannel output, long startOffsetBits, long endOffsetBits, StructDefinition packetContext, ICompositeDefinition tracePacketHeader, long startTime,
             long initialLost)
             throws IOException, CTFException {
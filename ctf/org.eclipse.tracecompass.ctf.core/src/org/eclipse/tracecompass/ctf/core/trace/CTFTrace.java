@@ -27,14 +27,20 @@ import java.nio.ByteOrder;
 import java.nio.channels.FileChannel;
 import java.nio.channels.FileChannel.MapMode;
 import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
@@ -59,6 +65,7 @@ import org.eclipse.tracecompass.internal.ctf.core.event.metadata.MetadataStrings
 import org.eclipse.tracecompass.internal.ctf.core.event.metadata.ParseException;
 import org.eclipse.tracecompass.internal.ctf.core.trace.CTFIndexFile;
 import org.eclipse.tracecompass.internal.ctf.core.trace.CTFStream;
+import org.eclipse.tracecompass.internal.ctf.core.trace.PacketIndexCacheFile;
 import org.eclipse.tracecompass.internal.ctf.core.trace.StreamInputPacketIndex;
 import org.eclipse.tracecompass.internal.ctf.core.utils.JsonMetadataStrings;
 import org.eclipse.tracecompass.internal.ctf.core.utils.Utils;
@@ -860,6 +867,84 @@ public class CTFTrace implements IDefinitionScope {
         return fSingleClock.getClockScale();
     }
 
+    /**
+     * Index the packets of all the stream inputs of this trace, so that
+     * reading and seeking in the trace do not have to index them as they go.
+     *
+     * If a cache directory is given, the index of each stream input is saved
+     * in it, and restored from it the next time the trace is opened, if the
+     * stream file did not change. The stream inputs whose index is not saved
+     * are indexed in parallel.
+     *
+     * The errors are logged: a stream input that cannot be fully indexed is
+     * indexed up to the packet that cannot be read, and its index is not
+     * saved.
+     *
+     * @param cacheDirectory
+     *            the directory where the indexes are saved, or null to not
+     *            save them
+     * @since 4.7
+     */
+    public void indexStreams(@Nullable File cacheDirectory) {
+        List<CTFStreamInput> toIndex = new ArrayList<>();
+        for (ICTFStream stream : fStreams.values()) {
+            for (CTFStreamInput streamInput : stream.getStreamInputs()) {
+                if (cacheDirectory == null || !restoreIndex(streamInput, getIndexCacheFile(cacheDirectory, streamInput))) {
+                    toIndex.add(streamInput);
+                }
+            }
+        }
+        if (toIndex.isEmpty()) {
+            return;
+        }
+        if (cacheDirectory != null && !cacheDirectory.isDirectory() && !cacheDirectory.mkdirs()) {
+            CtfCoreLoggerUtil.logWarning("Cannot create the packet index directory " + cacheDirectory); //$NON-NLS-1$
+        }
+        int nbThreads = Math.min(toIndex.size(), Runtime.getRuntime().availableProcessors());
+        ExecutorService executor = Executors.newFixedThreadPool(nbThreads);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (CTFStreamInput streamInput : toIndex) {
+                results.add(executor.submit(() -> {
+                    if (streamInput.indexAllPackets() && cacheDirectory != null && cacheDirectory.isDirectory()) {
+                        saveIndex(streamInput, getIndexCacheFile(cacheDirectory, streamInput));
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } catch (ExecutionException e) {
+            CtfCoreLoggerUtil.logError("Error indexing the packets of trace " + this, e); //$NON-NLS-1$
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static File getIndexCacheFile(File cacheDirectory, CTFStreamInput streamInput) {
+        return new File(cacheDirectory, streamInput.getFilename() + PacketIndexCacheFile.EXTENSION);
+    }
+
+    private static boolean restoreIndex(CTFStreamInput streamInput, File cacheFile) {
+        try {
+            List<@NonNull ICTFPacketDescriptor> packets = PacketIndexCacheFile.read(cacheFile, streamInput.getFile());
+            return packets != null && streamInput.restoreIndex(packets);
+        } catch (IOException e) {
+            CtfCoreLoggerUtil.logWarning("Cannot read the packet index " + cacheFile + ": " + e.getMessage()); //$NON-NLS-1$ //$NON-NLS-2$
+            return false;
+        }
+    }
+
+    private static void saveIndex(CTFStreamInput streamInput, File cacheFile) {
+        try {
+            PacketIndexCacheFile.write(cacheFile, streamInput.getFile(), streamInput.getIndex());
+        } catch (IOException e) {
+            CtfCoreLoggerUtil.logWarning("Cannot save the packet index " + cacheFile + ": " + e.getMessage()); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+    }
+
     /**
      * Gets the current first packet start time
      *
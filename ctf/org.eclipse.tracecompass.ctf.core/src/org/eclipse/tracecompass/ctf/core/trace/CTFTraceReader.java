@@ -26,15 +26,22 @@ import java.util.Objects;
 import java.util.PriorityQueue;
 import java.util.Set;
 
+import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.ctf.core.CTFException;
 import org.eclipse.tracecompass.ctf.core.event.IEventDeclaration;
 import org.eclipse.tracecompass.ctf.core.event.IEventDefinition;
+import org.eclipse.tracecompass.ctf.core.trace.CTFTraceReaderPosition.StreamPosition;
 import org.eclipse.tracecompass.internal.ctf.core.CtfCoreLoggerUtil;
 import org.eclipse.tracecompass.internal.ctf.core.trace.StreamInputReaderTimestampComparator;
 
 /**
  * A CTF trace reader. Reads the events of a trace.
  *
+ * The streams can optionally be read ahead (see
+ * {@link #setReadAhead(boolean)}): each stream is then decoded by a worker
+ * thread into a bounded buffer, and the events are merged by timestamp from
+ * the already decoded events.
+ *
  * @version 1.0
  * @author Matthew Khouzam
  * @author Alexandre Montplaisir
@@ -84,6 +91,11 @@ public class CTFTraceReader implements AutoCloseable {
      */
     private boolean fClosed = false;
 
+    /**
+     * Whether the streams are decoded ahead by worker threads
+     */
+    private boolean fReadAhead = false;
+
     // ------------------------------------------------------------------------
     // Constructors
     // ------------------------------------------------------------------------
@@ -132,6 +144,7 @@ public class CTFTraceReader implements AutoCloseable {
         CTFTraceReader newReader = null;
 
         newReader = new CTFTraceReader(fTrace);
+        newReader.setReadAhead(fReadAhead);
         newReader.fStartTime = fStartTime;
         newReader.fEndTime = fEndTime;
         return newReader;
@@ -255,6 +268,7 @@ public class CTFTraceReader implements AutoCloseable {
                     if (!fStreamInputReaders.contains(streamInputReader)) {
                         CTFStreamInputReader streamInputReaderToAdd = new CTFStreamInputReader(requireNonNull(streamInput));
                         streamInputReaderToAdd.readNextEvent();
+                        streamInputReaderToAdd.setReadAhead(fReadAhead);
                         fStreamInputReaders.add(streamInputReaderToAdd);
                         readers.add(streamInputReaderToAdd);
                     }
@@ -271,6 +285,37 @@ public class CTFTraceReader implements AutoCloseable {
         System.arraycopy(temp, 0, fEventCountPerTraceFile, 0, temp.length);
     }
 
+    /**
+     * Set whether the streams are decoded ahead by worker threads, into
+     * bounded buffers, while the events are consumed. This speeds up
+     * sequential reads of traces with many streams, but is wasteful if the
+     * reader seeks often. Streams read live are never read ahead.
+     *
+     * @param readAhead
+     *            whether the streams are decoded ahead
+     * @throws CTFException
+     *             if an error occurs when stopping the read-ahead
+     * @since 4.7
+     */
+    public void setReadAhead(boolean readAhead) throws CTFException {
+        fReadAhead = readAhead;
+        synchronized (fStreamInputReaders) {
+            for (CTFStreamInputReader reader : fStreamInputReaders) {
+                reader.setReadAhead(readAhead);
+            }
+        }
+    }
+
+    /**
+     * Get whether the streams are decoded ahead by worker threads
+     *
+     * @return whether the streams are decoded ahead
+     * @since 4.7
+     */
+    public boolean isReadAhead() {
+        return fReadAhead;
+    }
+
     /**
      * Gets an iterable of the stream input readers, useful for foreaches
      *
@@ -454,6 +499,76 @@ public class CTFTraceReader implements AutoCloseable {
         return hasMoreEvents();
     }
 
+    /**
+     * Get the position of this reader, which can be restored later with
+     * {@link #restorePosition(CTFTraceReaderPosition)} by any reader of the
+     * same trace
+     *
+     * @return the position, or null if it cannot be saved, when the streams
+     *         are read ahead or live
+     * @since 4.7
+     */
+    public @Nullable CTFTraceReaderPosition getPosition() {
+        List<StreamPosition> streamPositions = new ArrayList<>();
+        synchronized (fStreamInputReaders) {
+            for (CTFStreamInputReader streamInputReader : fStreamInputReaders) {
+                StreamPosition streamPosition = streamInputReader.savePosition();
+                if (streamPosition == null) {
+                    return null;
+                }
+                streamPositions.add(streamPosition);
+            }
+        }
+        return new CTFTraceReaderPosition(fTrace, streamPositions);
+    }
+
+    /**
+     * Restore a position obtained with {@link #getPosition()}. This is faster
+     * than seeking, as only the current packet of each stream is loaded again.
+     *
+     * @param position
+     *            the position to restore
+     * @return false if the position is not one of a reader of the same trace
+     *         with the same streams, in which case the reader is not moved
+     * @throws CTFException
+     *             if an error occurs, in which case the reader must be moved
+     *             with {@link #seek(long)}
+     * @since 4.7
+     */
+    public boolean restorePosition(CTFTraceReaderPosition position) throws CTFException {
+        List<StreamPosition> streamPositions = position.getStreamPositions();
+        if (position.getTrace() != fTrace || streamPositions.size() != fStreamInputReaders.size()) {
+            return false;
+        }
+        for (int i = 0; i < streamPositions.size(); i++) {
+            if (streamPositions.get(i).getStreamInput() != fStreamInputReaders.get(i).getStreamInput()) {
+                return false;
+            }
+        }
+        fPrio.clear();
+        for (int i = 0; i < streamPositions.size(); i++) {
+            CTFStreamInputReader streamInputReader = fStreamInputReaders.get(i);
+            if (!streamInputReader.restorePosition(streamPositions.get(i))) {
+                throw new CTFException("Cannot restore the position of stream " + streamInputReader.getFilename()); //$NON-NLS-1$
+            }
+            if (streamInputReader.getCurrentEvent() != null) {
+                fPrio.add(streamInputReader);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the number of stream input readers of this reader, each of which
+     * keeps its stream file open
+     *
+     * @return the number of stream input readers
+     * @since 4.7
+     */
+    public int getStreamInputReaderCount() {
+        return fStreamInputReaders.size();
+    }
+
     /**
      * Gets the stream with the oldest event
      *
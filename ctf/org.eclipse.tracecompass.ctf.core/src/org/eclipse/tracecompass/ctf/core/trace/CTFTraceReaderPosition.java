@@ -0,0 +1,141 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.ctf.core.trace;
+
+import java.util.List;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.event.IEventDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.ICompositeDefinition;
+import org.eclipse.tracecompass.internal.ctf.core.trace.CTFPacketReader;
+
+/**
+ * The saved position of a {@link CTFTraceReader}: the packet and the decoding
+ * state of each of its stream input readers.
+ *
+ * A position is obtained with {@link CTFTraceReader#getPosition()} and can be
+ * restored with {@link CTFTraceReader#restorePosition(CTFTraceReaderPosition)}
+ * on any reader of the same trace, which only has to reload the current packet
+ * of each stream, instead of searching the packets and decoding the events up
+ * to a timestamp like {@link CTFTraceReader#seek(long)}.
+ *
+ * @since 4.7
+ */
+public final class CTFTraceReaderPosition {
+
+    /**
+     * The position of a stream input reader
+     */
+    static final class StreamPosition {
+        private final CTFStreamInput fStreamInput;
+        private final int fPacketIndex;
+        private final boolean fInPacket;
+        private final long fInputPosition;
+        private final long fLocation;
+        private final long fLastTimestamp;
+        private final boolean fHasLost;
+        private final @Nullable ICompositeDefinition fEventHeader;
+        private final @Nullable IEventDefinition fCurrentEvent;
+        private final long fCurrentEventRank;
+
+        /**
+         * Constructor
+         *
+         * @param streamInput
+         *            the stream input of the reader
+         * @param packetIndex
+         *            the index of the current packet
+         * @param packetReader
+         *            the packet reader, or null if the reader is at the end of
+         *            the stream
+         * @param currentEvent
+         *            the current event
+         * @param currentEventRank
+         *            the rank of the current event among the events at the same
+         *            timestamp
+         */
+        StreamPosition(CTFStreamInput streamInput, int packetIndex, @Nullable CTFPacketReader packetReader, @Nullable IEventDefinition currentEvent, long currentEventRank) {
+            fStreamInput = streamInput;
+            fPacketIndex = packetIndex;
+            fInPacket = (packetReader != null);
+            fInputPosition = (packetReader != null) ? packetReader.getInputPosition() : 0;
+            fLocation = (packetReader != null) ? packetReader.getLocation() : 0;
+            fLastTimestamp = (packetReader != null) ? packetReader.getLastTimestamp() : 0;
+            fHasLost = (packetReader != null) && packetReader.hasLostEvent();
+            fEventHeader = (packetReader != null) ? packetReader.getCurrentPacketEventHeader() : null;
+            fCurrentEvent = currentEvent;
+            fCurrentEventRank = currentEventRank;
+        }
+
+        CTFStreamInput getStreamInput() {
+            return fStreamInput;
+        }
+
+        int getPacketIndex() {
+            return fPacketIndex;
+        }
+
+        /**
+         * Restore the decoding state in a packet reader of the current packet
+         *
+         * @param packetReader
+         *            the packet reader
+         * @throws CTFException
+         *             if the position is outside of the packet
+         */
+        void restore(CTFPacketReader packetReader) throws CTFException {
+            packetReader.restore(fInputPosition, fLocation, fLastTimestamp, fHasLost, fEventHeader);
+        }
+
+        /**
+         * @return false if the reader was at the end of the stream, with no
+         *         current packet
+         */
+        boolean isInPacket() {
+            return fInPacket;
+        }
+
+        @Nullable IEventDefinition getCurrentEvent() {
+            return fCurrentEvent;
+        }
+
+        long getCurrentEventRank() {
+            return fCurrentEventRank;
+        }
+    }
+
+    private final CTFTrace fTrace;
+    private final List<StreamPosition> fStreamPositions;
+
+    /**
+     * Constructor
+     *
+     * @param trace
+     *            the trace of the reader
+     * @param streamPositions
+     *            the positions of the stream input readers, in the order of
+     *            the readers
+     */
+    CTFTraceReaderPosition(CTFTrace trace, List<StreamPosition> streamPositions) {
+        fTrace = trace;
+        fStreamPositions = streamPositions;
+    }
+
+    CTFTrace getTrace() {
+        return fTrace;
+    }
+
+    List<StreamPosition> getStreamPositions() {
+        return fStreamPositions;
+    }
+}
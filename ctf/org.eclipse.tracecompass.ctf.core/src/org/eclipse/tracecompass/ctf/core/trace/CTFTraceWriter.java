@@ -55,9 +55,8 @@ public class CTFTraceWriter {
      */
     public CTFTraceWriter(@NonNull CTFTrace trace) throws CTFException {
         fInTrace = trace;
-        try (CTFTraceReader fTraceReader = new CTFTraceReader(fInTrace)) {
-            fTraceReader.populateIndex();
-        }
+        /* Only the packet headers are read, the packets are not decoded */
+        trace.indexStreams(null);
     }
 
     /**
@@ -63,6 +63,7 @@ import org.eclipse.tracecompass.internal.ctf.core.event.metadata.JsonEventRecord
 import org.eclipse.tracecompass.internal.ctf.core.event.metadata.JsonFieldClassAliasMetadataNode;
 import org.eclipse.tracecompass.internal.ctf.core.event.metadata.JsonPreambleMetadataNode;
 import org.eclipse.tracecompass.internal.ctf.core.event.metadata.JsonTraceMetadataNode;
+import org.eclipse.tracecompass.internal.ctf.core.event.metadata.MetadataTreeCache;
 import org.eclipse.tracecompass.internal.ctf.core.event.metadata.ParseException;
 import org.eclipse.tracecompass.internal.ctf.core.event.metadata.tsdl.trace.TraceDeclarationParser;
 import org.eclipse.tracecompass.internal.ctf.core.event.types.ICTFMetadataNode;
@@ -380,7 +381,12 @@ public class Metadata {
     }
 
     private void readMetaDataText(Reader metadataTextInput) throws IOException, RecognitionException, ParseException {
-        ICTFMetadataNode tree = createAST(metadataTextInput);
+        /*
+         * The traces of a session often share the same metadata, only parse it
+         * once
+         */
+        String text = IOUtils.toString(metadataTextInput);
+        ICTFMetadataNode tree = MetadataTreeCache.getTree(text, data -> createAST(new StringReader(data)));
         fTreeParser = new IOStructGen(tree, requireNonNull(fTrace));
         /* Generate IO structures (declarations) */
         fTreeParser.generate();
@@ -35,6 +35,17 @@ public final class SafeMappedByteBuffer {
 
     private SafeMappedByteBuffer(){}
 
+    /**
+     * Get whether the buffers returned by
+     * {@link #map(FileChannel, FileChannel.MapMode, long, long)} are mapped,
+     * or were read in memory
+     *
+     * @return true if the buffers are mapped
+     */
+    public static boolean isMapped() {
+        return !IS_WIN32;
+    }
+
     /**
      * Maps a region of this channel's file directly into memory. On Windows, this
      * will allocate a new ByteBuffer and read the file.
@@ -0,0 +1,144 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.ctf.core.event.metadata;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.antlr.runtime.RecognitionException;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.internal.ctf.core.event.types.ICTFMetadataNode;
+
+/**
+ * A cache of the trees parsed from TSDL metadata texts, keyed on a hash of the
+ * text.
+ *
+ * The traces of a session, like the traces of each host or of each user of an
+ * LTTng session, often have the same metadata. When they are opened or
+ * validated together, the metadata is only parsed once. The trees are not
+ * modified once parsed, so they can be shared by the traces.
+ *
+ * When the same text is parsed concurrently, the other threads wait for the
+ * tree of the first one.
+ */
+public final class MetadataTreeCache {
+
+    /**
+     * Parser of a metadata text
+     */
+    @FunctionalInterface
+    public interface ITreeParser {
+        /**
+         * Parse a metadata text
+         *
+         * @param text
+         *            the metadata text
+         * @return the root of the tree
+         * @throws IOException
+         *             error reading the text
+         * @throws RecognitionException
+         *             error parsing the text
+         */
+        ICTFMetadataNode parse(String text) throws IOException, RecognitionException;
+    }
+
+    private static final int MAX_SIZE = 16;
+
+    private static final String DIGEST_ALGORITHM = "SHA-256"; //$NON-NLS-1$
+
+    private static final Map<String, CompletableFuture<ICTFMetadataNode>> CACHE = new LinkedHashMap<String, CompletableFuture<ICTFMetadataNode>>(MAX_SIZE, 0.75f, true) {
+        private static final long serialVersionUID = -2526314929538574539L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.@Nullable Entry<String, CompletableFuture<ICTFMetadataNode>> eldest) {
+            return size() > MAX_SIZE;
+        }
+    };
+
+    private MetadataTreeCache() {
+        // Do nothing
+    }
+
+    /**
+     * Get the tree of a metadata text, parsing it only if the same text was not
+     * parsed before
+     *
+     * @param text
+     *            the metadata text
+     * @param parser
+     *            the parser of the text
+     * @return the root of the tree
+     * @throws IOException
+     *             error reading the text
+     * @throws RecognitionException
+     *             error parsing the text
+     */
+    public static ICTFMetadataNode getTree(String text, ITreeParser parser) throws IOException, RecognitionException {
+        String key = getKey(text);
+        if (key == null) {
+            return parser.parse(text);
+        }
+        CompletableFuture<ICTFMetadataNode> future = new CompletableFuture<>();
+        CompletableFuture<ICTFMetadataNode> cached;
+        synchronized (CACHE) {
+            cached = CACHE.putIfAbsent(key, future);
+        }
+        if (cached != null) {
+            try {
+                return cached.join();
+            } catch (CompletionException | CancellationException e) {
+                /* The text could not be parsed, parse it again to get the error */
+                return parser.parse(text);
+            }
+        }
+        ICTFMetadataNode tree = null;
+        try {
+            tree = parser.parse(text);
+            return tree;
+        } finally {
+            if (tree != null) {
+                future.complete(tree);
+            } else {
+                synchronized (CACHE) {
+                    CACHE.remove(key, future);
+                }
+                future.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Remove all the trees from the cache
+     */
+    public static void clear() {
+        synchronized (CACHE) {
+            CACHE.clear();
+        }
+    }
+
+    private static @Nullable String getKey(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+            return Base64.getEncoder().encodeToString(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            return null;
+        }
+    }
+}
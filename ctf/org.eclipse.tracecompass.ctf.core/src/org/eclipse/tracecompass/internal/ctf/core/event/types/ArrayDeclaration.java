@@ -112,6 +112,10 @@ public final class ArrayDeclaration extends CompoundDeclaration {
             input.get(data);
             return new ByteArrayDefinition(this, definitionScope, fieldName, data);
         }
+        if (IntegerArrayDefinition.isBulkDecodable(fElemType)) {
+            // Decode the integers in one call
+            return IntegerArrayDefinition.read(this, definitionScope, fieldName, input, fLength);
+        }
         @NonNull List<@NonNull Definition> definitions = read(input, definitionScope, fieldName);
         return new ArrayDefinition(this, definitionScope, fieldName, definitions);
     }
@@ -0,0 +1,175 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.ctf.core.event.types;
+
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.event.io.BitBuffer;
+import org.eclipse.tracecompass.ctf.core.event.scope.IDefinitionScope;
+import org.eclipse.tracecompass.ctf.core.event.types.AbstractArrayDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.CompoundDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.Definition;
+import org.eclipse.tracecompass.ctf.core.event.types.IDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.IntegerDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.IntegerDefinition;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * An array or sequence of integers, stored as the values of the integers. The
+ * integer definitions are only created when they are requested.
+ *
+ * The integers are decoded in bulk, instead of one by one.
+ */
+@NonNullByDefault
+public final class IntegerArrayDefinition extends AbstractArrayDefinition {
+
+    private final IntegerDeclaration fElementType;
+    private final long[] fValues;
+    private transient @Nullable List<Definition> fDefs;
+
+    /**
+     * Constructor
+     *
+     * @param declaration
+     *            the array or sequence declaration, of integers
+     * @param definitionScope
+     *            the definition scope
+     * @param fieldName
+     *            the field name
+     * @param values
+     *            the values of the integers
+     */
+    public IntegerArrayDefinition(CompoundDeclaration declaration,
+            @Nullable IDefinitionScope definitionScope,
+            String fieldName,
+            long[] values) {
+        super(declaration, definitionScope, fieldName);
+        fElementType = (IntegerDeclaration) declaration.getElementType();
+        fValues = values;
+    }
+
+    /**
+     * Check if the elements of an array or sequence can be decoded in bulk:
+     * they are fixed-size integers without padding between them, which are
+     * not characters or enumeration mappings
+     *
+     * @param elementType
+     *            the type of the elements
+     * @return true if the elements can be decoded in bulk
+     */
+    public static boolean isBulkDecodable(IDeclaration elementType) {
+        if (!(elementType instanceof IntegerDeclaration)) {
+            return false;
+        }
+        IntegerDeclaration integer = (IntegerDeclaration) elementType;
+        long alignment = integer.getAlignment();
+        return !integer.isVarint() && !integer.isCharacter() && integer.getMappings().isEmpty() &&
+                integer.getLength() > 0 && integer.getLength() <= Long.SIZE &&
+                alignment > 0 && integer.getLength() % alignment == 0;
+    }
+
+    /**
+     * Decode the integers of an array or sequence in bulk. The input must be
+     * aligned on the first integer.
+     *
+     * @param declaration
+     *            the array or sequence declaration, whose elements are
+     *            {@link #isBulkDecodable(IDeclaration) bulk decodable}
+     * @param definitionScope
+     *            the definition scope
+     * @param fieldName
+     *            the field name
+     * @param input
+     *            the input to read
+     * @param length
+     *            the number of integers
+     * @return the definition
+     * @throws CTFException
+     *             error reading the input
+     */
+    public static IntegerArrayDefinition read(CompoundDeclaration declaration,
+            @Nullable IDefinitionScope definitionScope,
+            String fieldName, BitBuffer input, int length) throws CTFException {
+        IntegerDeclaration elementType = (IntegerDeclaration) declaration.getElementType();
+        long[] values = new long[length];
+        ByteOrder byteOrder = input.getByteOrder();
+        input.setByteOrder(elementType.getByteOrder());
+        try {
+            input.get(values, elementType.getLength(), elementType.isSigned());
+        } finally {
+            input.setByteOrder(byteOrder);
+        }
+        return new IntegerArrayDefinition(declaration, definitionScope, fieldName, values);
+    }
+
+    @Override
+    public int getLength() {
+        return fValues.length;
+    }
+
+    /**
+     * Get the value of an integer of the array
+     *
+     * @param index
+     *            the index of the integer
+     * @return the value
+     */
+    public long getValue(int index) {
+        return fValues[index];
+    }
+
+    /**
+     * Get the values of the integers of the array
+     *
+     * @return a copy of the values
+     */
+    public long[] getValues() {
+        return Arrays.copyOf(fValues, fValues.length);
+    }
+
+    @Override
+    public synchronized List<Definition> getDefinitions() {
+        List<Definition> defs = fDefs;
+        if (defs == null) {
+            ImmutableList.Builder<Definition> builder = new ImmutableList.Builder<>();
+            for (int i = 0; i < fValues.length; i++) {
+                String fieldName = getFieldName() + '[' + i + ']';
+                builder.add(new IntegerDefinition(fElementType, getDefinitionScope(), fieldName, fValues[i]));
+            }
+            defs = builder.build();
+            fDefs = defs;
+        }
+        return defs;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder b = new StringBuilder();
+        b.append('[');
+        int base = fElementType.getBase();
+        boolean signed = fElementType.isSigned();
+        for (int i = 0; i < fValues.length; i++) {
+            if (i > 0) {
+                b.append(", "); //$NON-NLS-1$
+            }
+            b.append(IntegerDefinition.formatNumber(fValues[i], base, signed));
+        }
+        b.append(']');
+        return b.toString();
+    }
+}
@@ -130,6 +130,10 @@ public class SequenceDeclaration extends CompoundDeclaration {
             input.get(data);
             return new ByteArrayDefinition(this, definitionScope, fieldName, data);
         }
+        if (IntegerArrayDefinition.isBulkDecodable(fElemType)) {
+            // Decode the integers in one call
+            return IntegerArrayDefinition.read(this, definitionScope, fieldName, input, (int) length);
+        }
         Collection<String> collection = fPaths.get(fieldName);
         while (collection.size() < length) {
             fPaths.put(fieldName, fieldName + '[' + collection.size() + ']');
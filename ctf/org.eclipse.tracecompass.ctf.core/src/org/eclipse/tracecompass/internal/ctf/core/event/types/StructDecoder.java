@@ -0,0 +1,220 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.ctf.core.event.types;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.event.io.BitBuffer;
+import org.eclipse.tracecompass.ctf.core.event.scope.IDefinitionScope;
+import org.eclipse.tracecompass.ctf.core.event.types.Definition;
+import org.eclipse.tracecompass.ctf.core.event.types.EnumDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.IDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.IntegerDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.IntegerDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.StructDeclaration;
+
+/**
+ * A decoder specialized for a struct declaration whose fields all have a fixed
+ * size, like most event payloads and contexts.
+ *
+ * As the struct is aligned on the largest alignment of its fields, the offset
+ * of each field from the start of the struct is known from the declaration.
+ * The declaration is compiled once into a flat list of instructions with
+ * these offsets, so that decoding a struct checks the bounds of the buffer
+ * once, and reads the byte-aligned integers of 8, 16, 32 or 64 bits directly
+ * from the byte buffer, without aligning the buffer or changing its byte order
+ * for each field. The other fields are read by their declaration, at their
+ * offset.
+ */
+public final class StructDecoder {
+
+    private static final int GENERIC = 0;
+    private static final int INT8 = 8;
+    private static final int INT16 = 16;
+    private static final int INT32 = 32;
+    private static final int INT64 = 64;
+
+    private static final long BYTE_MASK = 0xFFL;
+    private static final long SHORT_MASK = 0xFFFFL;
+    private static final long INT_MASK = 0xFFFFFFFFL;
+
+    private final @NonNull String[] fNames;
+    private final IDeclaration[] fDeclarations;
+    private final int[] fKinds;
+    private final long[] fOffsets;
+    private final boolean[] fSigned;
+    private final @Nullable ByteOrder[] fOrders;
+    private final long fSize;
+
+    private StructDecoder(@NonNull String[] names, IDeclaration[] declarations, int[] kinds, long[] offsets, boolean[] signed, @Nullable ByteOrder[] orders, long size) {
+        fNames = names;
+        fDeclarations = declarations;
+        fKinds = kinds;
+        fOffsets = offsets;
+        fSigned = signed;
+        fOrders = orders;
+        fSize = size;
+    }
+
+    /**
+     * Compile a decoder for a struct declaration
+     *
+     * @param declaration
+     *            the struct declaration
+     * @return the decoder, or null if the fields of the struct do not all have
+     *         a fixed size
+     */
+    public static @Nullable StructDecoder compile(StructDeclaration declaration) {
+        List<@NonNull String> fieldNames = new ArrayList<>();
+        declaration.getFieldsList().forEach(fieldNames::add);
+        int nbFields = fieldNames.size();
+        @NonNull String[] names = new @NonNull String[nbFields];
+        IDeclaration[] declarations = new IDeclaration[nbFields];
+        int[] kinds = new int[nbFields];
+        long[] offsets = new long[nbFields];
+        boolean[] signed = new boolean[nbFields];
+        @Nullable ByteOrder[] orders = new @Nullable ByteOrder[nbFields];
+        long offset = 0;
+        int i = 0;
+        for (@NonNull String name : fieldNames) {
+            IDeclaration field = declaration.getField(name);
+            long size = field == null ? -1 : getFixedSize(field);
+            if (field == null || size < 0) {
+                return null;
+            }
+            long alignMask = Math.max(field.getAlignment(), 1) - 1;
+            offset = (offset + alignMask) & ~alignMask;
+            names[i] = name;
+            declarations[i] = field;
+            offsets[i] = offset;
+            kinds[i] = GENERIC;
+            if (field instanceof IntegerDeclaration) {
+                IntegerDeclaration integer = (IntegerDeclaration) field;
+                if (integer.getMappings().isEmpty() && integer.getByteOrder() != null && (offset % Byte.SIZE) == 0 && isDirect(integer.getLength())) {
+                    kinds[i] = integer.getLength();
+                    signed[i] = integer.isSigned();
+                    orders[i] = integer.getByteOrder();
+                }
+            }
+            offset += size;
+            i++;
+        }
+        if (offset > Integer.MAX_VALUE) {
+            return null;
+        }
+        return new StructDecoder(names, declarations, kinds, offsets, signed, orders, offset);
+    }
+
+    private static boolean isDirect(int length) {
+        return length == INT8 || length == INT16 || length == INT32 || length == INT64;
+    }
+
+    /**
+     * Get the size in bits of a field, if it is always the same, which is the
+     * case when it reads exactly its maximum size
+     *
+     * @return the size of the field, or -1 if it is variable
+     */
+    private static long getFixedSize(IDeclaration field) {
+        if (field instanceof IntegerDeclaration) {
+            IntegerDeclaration integer = (IntegerDeclaration) field;
+            return integer.isVarint() ? -1 : integer.getLength();
+        }
+        if (field instanceof EnumDeclaration) {
+            return getFixedSize(((EnumDeclaration) field).getContainerType());
+        }
+        if (field instanceof ArrayDeclaration) {
+            ArrayDeclaration array = (ArrayDeclaration) field;
+            IDeclaration element = array.getElementType();
+            if (!(element instanceof IntegerDeclaration)) {
+                return -1;
+            }
+            long elementSize = getFixedSize(element);
+            /* The elements must follow each other without padding */
+            if (elementSize < 0 || (elementSize % Math.max(element.getAlignment(), 1)) != 0) {
+                return -1;
+            }
+            return elementSize * array.getLength();
+        }
+        if (field instanceof StructDeclaration) {
+            StructDecoder decoder = compile((StructDeclaration) field);
+            if (decoder == null) {
+                return -1;
+            }
+            /* The generic struct reading does not pad the end of the struct */
+            return decoder.fSize;
+        }
+        return -1;
+    }
+
+    /**
+     * Decode the fields of a struct. The input must be aligned on the
+     * alignment of the struct.
+     *
+     * @param input
+     *            the input, at the start of the struct
+     * @param scope
+     *            the scope of the fields, which is the struct definition
+     * @param fields
+     *            the array to fill with the field definitions
+     * @return false if the input does not have enough bits for the struct, in
+     *         which case nothing was read
+     * @throws CTFException
+     *             if a field cannot be read
+     */
+    public boolean decode(BitBuffer input, IDefinitionScope scope, Definition[] fields) throws CTFException {
+        if (!input.canRead((int) fSize)) {
+            return false;
+        }
+        long start = input.position();
+        ByteBuffer buffer = input.getByteBuffer();
+        ByteOrder bufferOrder = buffer.order();
+        final int[] kinds = fKinds;
+        for (int i = 0; i < kinds.length; i++) {
+            int kind = kinds[i];
+            if (kind == GENERIC) {
+                input.position(start + fOffsets[i]);
+                fields[i] = fDeclarations[i].createDefinition(scope, fNames[i], input);
+                continue;
+            }
+            int index = (int) ((start + fOffsets[i]) / Byte.SIZE);
+            boolean swap = fOrders[i] != bufferOrder;
+            boolean signed = fSigned[i];
+            long value;
+            switch (kind) {
+            case INT8:
+                value = signed ? buffer.get(index) : (buffer.get(index) & BYTE_MASK);
+                break;
+            case INT16:
+                short shortValue = swap ? Short.reverseBytes(buffer.getShort(index)) : buffer.getShort(index);
+                value = signed ? shortValue : (shortValue & SHORT_MASK);
+                break;
+            case INT32:
+                int intValue = swap ? Integer.reverseBytes(buffer.getInt(index)) : buffer.getInt(index);
+                value = signed ? intValue : (intValue & INT_MASK);
+                break;
+            default:
+                value = swap ? Long.reverseBytes(buffer.getLong(index)) : buffer.getLong(index);
+                break;
+            }
+            fields[i] = new IntegerDefinition((IntegerDeclaration) fDeclarations[i], scope, fNames[i], value);
+        }
+        input.position(start + fSize);
+        return true;
+    }
+}
@@ -269,6 +269,62 @@ public final class CTFPacketReader implements IPacketReader, IDefinitionScope {
         return fPosition;
     }
 
+    /**
+     * Get the position in the {@link BitBuffer} of the next event to read
+     *
+     * @return the position, in bits
+     */
+    public long getInputPosition() {
+        return fInput.position();
+    }
+
+    /**
+     * Get the timestamp of the last event read, from which the timestamp of
+     * the next event is computed
+     *
+     * @return the timestamp of the last event
+     */
+    public long getLastTimestamp() {
+        return fLastTimestamp;
+    }
+
+    /**
+     * Get whether the lost event of the packet still has to be read
+     *
+     * @return true if the lost event was not read yet
+     */
+    public boolean hasLostEvent() {
+        return fHasLost;
+    }
+
+    /**
+     * Restore the decoding state of a packet reader of the same packet, so
+     * that the next event read is the one that reader would have read next
+     *
+     * @param inputPosition
+     *            the position of the next event in the {@link BitBuffer}, see
+     *            {@link #getInputPosition()}
+     * @param location
+     *            the location of the current event, see {@link #getLocation()}
+     * @param lastTimestamp
+     *            the timestamp of the last event read, see
+     *            {@link #getLastTimestamp()}
+     * @param hasLost
+     *            whether the lost event still has to be read, see
+     *            {@link #hasLostEvent()}
+     * @param eventHeader
+     *            the header of the current event
+     * @throws CTFException
+     *             if the position is outside of the packet
+     */
+    public void restore(long inputPosition, long location, long lastTimestamp, boolean hasLost, @Nullable ICompositeDefinition eventHeader) throws CTFException {
+        fInput.position(inputPosition);
+        fPosition = location;
+        fLastTimestamp = lastTimestamp;
+        fHasLost = hasLost;
+        fEventHeader = eventHeader;
+    }
+
     /**
      * TODO: remove when API is reworked a bit.
      */
@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.ctf.core.trace;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.internal.ctf.core.SafeMappedByteBuffer;
+
+/**
+ * A region of a file that is mapped at once, so that the buffers of many
+ * packets are sliced from the same mapping instead of mapping each packet.
+ *
+ * The region starts at the first buffer requested outside of it and spans up
+ * to the window size, or the end of the file. It is mapped again when a
+ * buffer is not entirely inside of it, either because the buffer goes past its
+ * end or because the reader moved backwards.
+ */
+public final class MappedFileWindow {
+
+    private final @Nullable FileChannel fFileChannel;
+    private final long fWindowSize;
+
+    private @Nullable ByteBuffer fWindow = null;
+    private long fStart = 0;
+    private long fEnd = 0;
+
+    /**
+     * Constructor
+     *
+     * @param fileChannel
+     *            the channel of the file to map
+     * @param windowSize
+     *            the size in bytes of the regions to map. The buffers larger
+     *            than this size are mapped on their own.
+     */
+    public MappedFileWindow(@Nullable FileChannel fileChannel, long windowSize) {
+        fFileChannel = fileChannel;
+        fWindowSize = windowSize;
+    }
+
+    /**
+     * Get a buffer of a region of the file, mapping a new window if the
+     * region is not in the current one
+     *
+     * @param start
+     *            the offset of the region in bytes
+     * @param length
+     *            the length of the region in bytes
+     * @return the buffer of the region, positioned at its start
+     * @throws IOException
+     *             error reading the file
+     * @throws CTFException
+     *             the region could not be mapped
+     */
+    public synchronized ByteBuffer getByteBuffer(long start, long length) throws IOException, CTFException {
+        if (!SafeMappedByteBuffer.isMapped() || length > fWindowSize) {
+            return SafeMappedByteBuffer.map(fFileChannel, MapMode.READ_ONLY, start, length);
+        }
+        ByteBuffer window = fWindow;
+        if (window == null || start < fStart || start + length > fEnd) {
+            /*
+             * Map a region starting at the buffer, up to the end of the file,
+             * so that the next packets are in the same region
+             */
+            FileChannel fileChannel = fFileChannel;
+            long fileSize = (fileChannel != null) ? fileChannel.size() : 0;
+            long windowSize = Math.max(length, Math.min(fWindowSize, fileSize - start));
+            window = SafeMappedByteBuffer.map(fileChannel, MapMode.READ_ONLY, start, windowSize);
+            fWindow = window;
+            fStart = start;
+            fEnd = start + windowSize;
+        }
+        ByteBuffer buffer = window.duplicate();
+        int offset = (int) (start - fStart);
+        buffer.position(offset);
+        buffer.limit(offset + (int) length);
+        return buffer.slice();
+    }
+
+    /**
+     * Get the mapped region, if any
+     *
+     * @return the buffer of the whole region, or null if nothing is mapped
+     */
+    public synchronized @Nullable ByteBuffer getWindow() {
+        return fWindow;
+    }
+
+    /**
+     * Get the offset of the mapped region
+     *
+     * @return the offset in bytes of the start of the region
+     */
+    public synchronized long getStart() {
+        return fStart;
+    }
+
+    /**
+     * Get the end of the mapped region
+     *
+     * @return the offset in bytes of the end of the region, exclusive
+     */
+    public synchronized long getEnd() {
+        return fEnd;
+    }
+
+    /**
+     * Release the mapped region
+     */
+    public synchronized void clear() {
+        fWindow = null;
+        fStart = 0;
+        fEnd = 0;
+    }
+}
@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.ctf.core.trace;
+
+import java.util.Arrays;
+
+/**
+ * A sparse index of the events of a packet: the position of every
+ * {@link #INTERVAL}th event in the packet, with its timestamp and the
+ * timestamp of the event before it, which is needed to decode its timestamp.
+ *
+ * The index is filled while the packet is decoded from its start, or from a
+ * checkpoint of the index, so that the events of a packet are only decoded
+ * sequentially once. A seek in the packet can then start decoding from the
+ * last checkpoint before the timestamp instead of the start of the packet.
+ *
+ * The checkpoints are always contiguous: checkpoint i is the event number
+ * i * {@link #INTERVAL} of the packet.
+ */
+public final class PacketEventIndex {
+
+    /** Number of events between two checkpoints */
+    public static final int INTERVAL = 64;
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private long[] fPositions = new long[INITIAL_CAPACITY];
+    private long[] fTimestamps = new long[INITIAL_CAPACITY];
+    private long[] fPreviousTimestamps = new long[INITIAL_CAPACITY];
+    private int fSize = 0;
+
+    /**
+     * Add an event to the index, if it is the next checkpoint
+     *
+     * @param eventNumber
+     *            the number of the event in the packet
+     * @param position
+     *            the position in bits of the event in the packet
+     * @param timestamp
+     *            the timestamp of the event
+     * @param previousTimestamp
+     *            the timestamp of the previous event, or the start of the
+     *            packet for the first event
+     */
+    public synchronized void add(long eventNumber, long position, long timestamp, long previousTimestamp) {
+        if (eventNumber != (long) fSize * INTERVAL) {
+            return;
+        }
+        if (fSize == fPositions.length) {
+            int capacity = fSize * 2;
+            fPositions = Arrays.copyOf(fPositions, capacity);
+            fTimestamps = Arrays.copyOf(fTimestamps, capacity);
+            fPreviousTimestamps = Arrays.copyOf(fPreviousTimestamps, capacity);
+        }
+        fPositions[fSize] = position;
+        fTimestamps[fSize] = timestamp;
+        fPreviousTimestamps[fSize] = previousTimestamp;
+        fSize++;
+    }
+
+    /**
+     * Find the last checkpoint whose event is before a timestamp. Decoding
+     * from that checkpoint gives the first event at or after the timestamp.
+     *
+     * @param timestamp
+     *            the timestamp
+     * @return the index of the checkpoint, or -1 if there is none
+     */
+    public synchronized int floor(long timestamp) {
+        int low = 0;
+        int high = fSize - 1;
+        int result = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (fTimestamps[mid] < timestamp) {
+                result = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the number of the event of a checkpoint in the packet
+     *
+     * @param checkpoint
+     *            the index of the checkpoint
+     * @return the event number
+     */
+    public static long getEventNumber(int checkpoint) {
+        return (long) checkpoint * INTERVAL;
+    }
+
+    /**
+     * Get the position of the event of a checkpoint
+     *
+     * @param checkpoint
+     *            the index of the checkpoint
+     * @return the position in bits in the packet
+     */
+    public synchronized long getPosition(int checkpoint) {
+        return fPositions[checkpoint];
+    }
+
+    /**
+     * Get the timestamp of the event before the event of a checkpoint
+     *
+     * @param checkpoint
+     *            the index of the checkpoint
+     * @return the timestamp of the previous event
+     */
+    public synchronized long getPreviousTimestamp(int checkpoint) {
+        return fPreviousTimestamps[checkpoint];
+    }
+
+    /**
+     * Get the number of checkpoints
+     *
+     * @return the number of checkpoints
+     */
+    public synchronized int size() {
+        return fSize;
+    }
+}
@@ -0,0 +1,221 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.ctf.core.trace;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.ctf.core.trace.ICTFPacketDescriptor;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * A file where the packet index of a stream file is saved, so that it does not
+ * have to be computed again when the trace is opened again.
+ *
+ * The file starts with the size and modification time of the stream file, the
+ * saved index is only used if they did not change. Then, for each packet, the
+ * values of its {@link ICTFPacketDescriptor} are saved, except its packet
+ * context definition, along with its attributes that are numbers, strings or
+ * enumeration values.
+ */
+public final class PacketIndexCacheFile {
+
+    /** The extension of the files */
+    public static final String EXTENSION = ".packets"; //$NON-NLS-1$
+
+    private static final int MAGIC = 0x43544650;
+    private static final int VERSION = 1;
+
+    private static final byte LONG_VALUE = 0;
+    private static final byte DOUBLE_VALUE = 1;
+    private static final byte STRING_VALUE = 2;
+    private static final byte ENUM_VALUE = 3;
+
+    /*
+     * The size of a packet without attributes: its seven descriptor values,
+     * its target, its target ID and its number of attributes
+     */
+    private static final int MIN_PACKET_BYTES = 7 * Long.BYTES + 1 + Long.BYTES + Integer.BYTES;
+
+    private PacketIndexCacheFile() {
+        // Do nothing
+    }
+
+    /**
+     * Read the packet index of a stream file
+     *
+     * @param cacheFile
+     *            the file where the index was saved
+     * @param streamFile
+     *            the stream file
+     * @return the packets of the stream file, or null if the index was not
+     *         saved, the stream file changed since or the number of packets
+     *         does not fit in the file
+     * @throws IOException
+     *             if the file cannot be read
+     */
+    public static @Nullable List<@NonNull ICTFPacketDescriptor> read(File cacheFile, File streamFile) throws IOException {
+        if (!cacheFile.exists()) {
+            return null;
+        }
+        /* Read the file at once, it is small */
+        byte[] content = Files.readAllBytes(cacheFile.toPath());
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(content))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION ||
+                    in.readLong() != streamFile.length() || in.readLong() != streamFile.lastModified()) {
+                return null;
+            }
+            int count = in.readInt();
+            if (count < 0 || count > in.available() / MIN_PACKET_BYTES) {
+                return null;
+            }
+            List<@NonNull ICTFPacketDescriptor> packets = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                long offsetBits = in.readLong();
+                long packetSizeBits = in.readLong();
+                long contentSizeBits = in.readLong();
+                long timestampBegin = in.readLong();
+                long timestampEnd = in.readLong();
+                long lostEvents = in.readLong();
+                long payloadStartBits = in.readLong();
+                String target = in.readBoolean() ? in.readUTF() : null;
+                long targetId = in.readLong();
+                Map<String, Object> attributes = readAttributes(in);
+                packets.add(new StreamInputPacketIndexEntry(offsetBits, packetSizeBits, contentSizeBits, timestampBegin, timestampEnd,
+                        lostEvents, payloadStartBits, target, targetId, attributes));
+            }
+            return packets;
+        }
+    }
+
+    private static @NonNull Map<String, Object> readAttributes(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        ImmutableMap.Builder<String, Object> attributes = ImmutableMap.builder();
+        for (int i = 0; i < count; i++) {
+            String name = in.readUTF();
+            byte type = in.readByte();
+            switch (type) {
+            case LONG_VALUE:
+                attributes.put(name, in.readLong());
+                break;
+            case DOUBLE_VALUE:
+                attributes.put(name, in.readDouble());
+                break;
+            case STRING_VALUE:
+                attributes.put(name, in.readUTF());
+                break;
+            case ENUM_VALUE:
+                String label = in.readUTF();
+                attributes.put(name, new AbstractMap.SimpleImmutableEntry<>(label, in.readLong()));
+                break;
+            default:
+                throw new IOException("Unknown attribute type " + type); //$NON-NLS-1$
+            }
+        }
+        return attributes.build();
+    }
+
+    /**
+     * Save the packet index of a stream file. The index is written to a
+     * temporary file first, which then replaces the file, so that a partial
+     * index is never read.
+     *
+     * @param cacheFile
+     *            the file where to save the index
+     * @param streamFile
+     *            the stream file
+     * @param index
+     *            the packet index of the stream file
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    public static void write(File cacheFile, File streamFile, StreamInputPacketIndex index) throws IOException {
+        File tempFile = new File(cacheFile.getPath() + ".tmp"); //$NON-NLS-1$
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(streamFile.length());
+            out.writeLong(streamFile.lastModified());
+            out.writeInt(index.size());
+            for (int i = 0; i < index.size(); i++) {
+                ICTFPacketDescriptor packet = index.getElement(i);
+                out.writeLong(packet.getOffsetBits());
+                out.writeLong(packet.getPacketSizeBits());
+                out.writeLong(packet.getContentSizeBits());
+                out.writeLong(packet.getTimestampBegin());
+                out.writeLong(packet.getTimestampEnd());
+                out.writeLong(packet.getLostEvents());
+                out.writeLong(packet.getPayloadStartBits());
+                String target = packet.getTarget();
+                out.writeBoolean(target != null);
+                if (target != null) {
+                    out.writeUTF(target);
+                }
+                out.writeLong(packet.getTargetId());
+                writeAttributes(out, packet.getAttributes());
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(tempFile.toPath());
+            throw e;
+        }
+        Files.move(tempFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void writeAttributes(DataOutputStream out, Map<String, Object> attributes) throws IOException {
+        List<Entry<String, Object>> supported = new ArrayList<>();
+        for (Entry<String, Object> attribute : attributes.entrySet()) {
+            Object value = attribute.getValue();
+            if (value instanceof Long || value instanceof Double || value instanceof String || isEnumValue(value)) {
+                supported.add(attribute);
+            }
+        }
+        out.writeInt(supported.size());
+        for (Entry<String, Object> attribute : supported) {
+            out.writeUTF(attribute.getKey());
+            Object value = attribute.getValue();
+            if (value instanceof Long) {
+                out.writeByte(LONG_VALUE);
+                out.writeLong((Long) value);
+            } else if (value instanceof Double) {
+                out.writeByte(DOUBLE_VALUE);
+                out.writeDouble((Double) value);
+            } else if (value instanceof String) {
+                out.writeByte(STRING_VALUE);
+                out.writeUTF((String) value);
+            } else {
+                Entry<?, ?> enumValue = (Entry<?, ?>) value;
+                out.writeByte(ENUM_VALUE);
+                out.writeUTF((String) enumValue.getKey());
+                out.writeLong((Long) enumValue.getValue());
+            }
+        }
+    }
+
+    private static boolean isEnumValue(Object value) {
+        return value instanceof Entry && ((Entry<?, ?>) value).getKey() instanceof String && ((Entry<?, ?>) value).getValue() instanceof Long;
+    }
+}
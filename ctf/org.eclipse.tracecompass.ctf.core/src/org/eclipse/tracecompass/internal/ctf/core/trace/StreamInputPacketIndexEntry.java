@@ -110,6 +110,8 @@ public class StreamInputPacketIndexEntry implements ICTFPacketDescriptor {
 
     private StructDefinition fStreamPacketContextDef;
 
+    private PacketEventIndex fEventIndex;
+
     // ------------------------------------------------------------------------
     // Constructors
     // ------------------------------------------------------------------------
@@ -245,6 +247,49 @@ public class StreamInputPacketIndexEntry implements ICTFPacketDescriptor {
         fLostEvents = computeLostEvents(lostSoFar);
     }
 
+    /**
+     * Constructor of an entry restored from a saved index. The packet context
+     * definition is not saved, it is read again with
+     * {@link #setStreamPacketContextDef(StructDefinition)} when the packet is
+     * read.
+     *
+     * @param offsetBits
+     *            offset in the file of the start of the packet, in bits
+     * @param packetSizeBits
+     *            packet size, in bits
+     * @param contentSizeBits
+     *            content size, in bits
+     * @param timestampBegin
+     *            begin timestamp
+     * @param timestampEnd
+     *            end timestamp
+     * @param lostEvents
+     *            number of events lost before this packet
+     * @param payloadStartBits
+     *            end of the packet headers, in bits
+     * @param target
+     *            the target being traced
+     * @param targetId
+     *            the ID of the target being traced
+     * @param attributes
+     *            the attributes of the packet context
+     */
+    public StreamInputPacketIndexEntry(long offsetBits, long packetSizeBits, long contentSizeBits, long timestampBegin, long timestampEnd,
+            long lostEvents, long payloadStartBits, String target, long targetId, @NonNull Map<String, Object> attributes) {
+        fOffsetBits = offsetBits;
+        fOffsetBytes = bitsToBytes(offsetBits);
+        fPacketSizeBits = packetSizeBits;
+        fContentSizeBits = contentSizeBits;
+        fTimestampBegin = timestampBegin;
+        fTimestampEnd = timestampEnd;
+        fLostEvents = lostEvents;
+        fEndPacketHeaderBits = payloadStartBits;
+        fTarget = target;
+        fTargetID = targetId;
+        fAttributes = attributes;
+        fStreamPacketContextDef = null;
+    }
+
     /**
      * Copy constructor that updates the timestamp end
      *
@@ -527,6 +572,21 @@ public class StreamInputPacketIndexEntry implements ICTFPacketDescriptor {
         return fStreamPacketContextDef;
     }
 
+    /**
+     * Get the sparse index of the events of this packet, which is filled as
+     * the packet is decoded
+     *
+     * @return the event index
+     */
+    public synchronized @NonNull PacketEventIndex getEventIndex() {
+        PacketEventIndex eventIndex = fEventIndex;
+        if (eventIndex == null) {
+            eventIndex = new PacketEventIndex();
+            fEventIndex = eventIndex;
+        }
+        return eventIndex;
+    }
+
     @Override
     public void setStreamPacketContextDef(StructDefinition streamPacketContextDef) {
         fStreamPacketContextDef = streamPacketContextDef;
@@ -17,13 +17,17 @@
 package org.eclipse.tracecompass.tmf.ctf.core.tests.context;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
 
 import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.tracecompass.internal.tmf.ctf.core.trace.iterator.CtfIterator;
 import org.eclipse.tracecompass.testtraces.ctf.CtfTestTrace;
 import org.eclipse.tracecompass.tmf.ctf.core.context.CtfTmfContext;
+import org.eclipse.tracecompass.tmf.ctf.core.event.CtfTmfEvent;
 import org.eclipse.tracecompass.tmf.ctf.core.tests.shared.CtfTmfTestTraceUtils;
 import org.eclipse.tracecompass.tmf.ctf.core.trace.CtfTmfTrace;
 import org.junit.AfterClass;
@@ -87,6 +91,46 @@ public class CtfTmfContextTest {
         assertTrue(count > 0);
     }
 
+    /**
+     * Test that a context reading the trace sequentially, whose streams are
+     * decoded ahead, reads the same events as another context, and that it
+     * can still seek.
+     */
+    @Test
+    public void testSequential() {
+        CtfTmfContext context = new CtfTmfContext(trace);
+        context.seek(0);
+        CtfTmfContext sequential = new CtfTmfContext(trace);
+        sequential.seek(0);
+        sequential.setSequential(true);
+        assertTrue(sequential.isSequential());
+        assertTrue(((CtfIterator) trace.createIteratorFromContext(sequential)).isReadAhead());
+
+        int count = 0;
+        long middle = begin;
+        CtfTmfEvent event = trace.getNext(context);
+        while (event != null) {
+            assertEquals(event, trace.getNext(sequential));
+            count++;
+            if (count == 1000) {
+                middle = event.getTimestamp().getValue();
+            }
+            event = trace.getNext(context);
+        }
+        assertNull(trace.getNext(sequential));
+        assertTrue(count > 1000);
+
+        sequential.seek(middle);
+        context.seek(middle);
+        assertEquals(context.getCurrentEvent(), sequential.getCurrentEvent());
+        sequential.setSequential(false);
+        assertFalse(((CtfIterator) trace.createIteratorFromContext(sequential)).isReadAhead());
+        assertEquals(trace.getNext(context), trace.getNext(sequential));
+        assertEquals(trace.getNext(context), trace.getNext(sequential));
+        context.dispose();
+        sequential.dispose();
+    }
+
     /**
      * Context fuzzer. Use an amount of contexts greater than the size of the
      * iterator cache and have them access the trace in parallel.
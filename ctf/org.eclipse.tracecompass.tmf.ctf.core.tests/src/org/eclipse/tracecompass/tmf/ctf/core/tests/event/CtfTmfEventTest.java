@@ -17,6 +17,7 @@
 package org.eclipse.tracecompass.tmf.ctf.core.tests.event;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 
@@ -28,6 +29,7 @@ import org.eclipse.tracecompass.internal.tmf.ctf.core.trace.iterator.CtfIterator
 import org.eclipse.tracecompass.testtraces.ctf.CtfTestTrace;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEventField;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEventType;
+import org.eclipse.tracecompass.tmf.core.event.TmfEventField;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfContext;
 import org.eclipse.tracecompass.tmf.ctf.core.event.CtfTmfEvent;
 import org.eclipse.tracecompass.tmf.ctf.core.event.CtfTmfEventFactory;
@@ -158,6 +160,23 @@ public class CtfTmfEventTest {
         /* TODO Missing case of embedded field, need event for it */
     }
 
+    /**
+     * Test that the content is equal to a basic field with the same name,
+     * value and fields, both ways.
+     */
+    @Test
+    public void testContentEquals() {
+        ITmfEventField content = fixture.getContent();
+        ITmfEventField field = new TmfEventField(ITmfEventField.ROOT_FIELD_ID, null, content.getFields().toArray(new ITmfEventField[0]));
+        assertEquals(field, content);
+        assertEquals(content, field);
+        assertEquals(field.hashCode(), content.hashCode());
+
+        ITmfEventField empty = new TmfEventField(ITmfEventField.ROOT_FIELD_ID, null, null);
+        assertNotEquals(empty, content);
+        assertNotEquals(content, empty);
+    }
+
     /**
      * Run the long getTimestamp() method test.
      */
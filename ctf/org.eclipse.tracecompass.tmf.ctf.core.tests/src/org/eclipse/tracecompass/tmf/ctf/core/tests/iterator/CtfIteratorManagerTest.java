@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.tmf.ctf.core.tests.iterator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.tracecompass.internal.tmf.ctf.core.trace.iterator.CtfIterator;
+import org.eclipse.tracecompass.internal.tmf.ctf.core.trace.iterator.CtfIteratorManager;
+import org.eclipse.tracecompass.testtraces.ctf.CtfTestTrace;
+import org.eclipse.tracecompass.tmf.ctf.core.context.CtfTmfContext;
+import org.eclipse.tracecompass.tmf.ctf.core.tests.shared.CtfTmfTestTraceUtils;
+import org.eclipse.tracecompass.tmf.ctf.core.trace.CtfTmfTrace;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test the replacement of the iterators of a {@link CtfIteratorManager} when
+ * there are more contexts than iterators, and the count of the file handles
+ * of the iterators
+ */
+public class CtfIteratorManagerTest {
+
+    private static final int MAX_ITERATORS = 6;
+    private static final int NB_CONTEXTS = 20;
+
+    private CtfTmfTrace fTrace;
+    private CtfIteratorManager fManager;
+    private int fOpenHandles;
+
+    /**
+     * Create the manager
+     */
+    @Before
+    public void setUp() {
+        fTrace = CtfTmfTestTraceUtils.getTrace(CtfTestTrace.KERNEL);
+        fOpenHandles = CtfIteratorManager.getOpenHandles();
+        fManager = new CtfIteratorManager(fTrace, MAX_ITERATORS);
+    }
+
+    /**
+     * Dispose the manager and the trace
+     */
+    @After
+    public void tearDown() {
+        if (fManager != null) {
+            fManager.dispose();
+        }
+        if (fTrace != null) {
+            fTrace.dispose();
+        }
+    }
+
+    private CtfIterator getIterator(CtfTmfContext context) {
+        CtfIterator iterator = fManager.getIterator(context);
+        assertNotNull(iterator);
+        return iterator;
+    }
+
+    /**
+     * Test that the manager does not have more iterators than its maximum when
+     * there are more contexts, and that the global count of the file handles
+     * includes the handles of its iterators
+     */
+    @Test
+    public void testMaxIterators() {
+        getIterator(new CtfTmfContext(fTrace));
+        int handlesPerIterator = fManager.getHandleCount();
+        assertTrue(handlesPerIterator > 0);
+        for (int i = 1; i < NB_CONTEXTS; i++) {
+            getIterator(new CtfTmfContext(fTrace));
+            assertEquals(Math.min(i + 1, MAX_ITERATORS), fManager.getIteratorCount());
+        }
+        assertEquals(MAX_ITERATORS * handlesPerIterator, fManager.getHandleCount());
+        assertEquals(fOpenHandles + MAX_ITERATORS * handlesPerIterator, CtfIteratorManager.getOpenHandles());
+    }
+
+    /**
+     * Test that the contexts that are read keep their iterator when the
+     * iterators of the other contexts are replaced
+     */
+    @Test
+    public void testRecentlyUsed() {
+        List<CtfTmfContext> hotContexts = new ArrayList<>();
+        List<CtfIterator> hotIterators = new ArrayList<>();
+        for (int i = 0; i < MAX_ITERATORS / 2; i++) {
+            CtfTmfContext context = new CtfTmfContext(fTrace);
+            hotContexts.add(context);
+            hotIterators.add(getIterator(context));
+        }
+        for (int i = 0; i < NB_CONTEXTS; i++) {
+            getIterator(new CtfTmfContext(fTrace));
+            for (int j = 0; j < hotContexts.size(); j++) {
+                assertSame("Context " + j, hotIterators.get(j), getIterator(hotContexts.get(j)));
+            }
+        }
+        assertEquals(MAX_ITERATORS, fManager.getIteratorCount());
+    }
+
+    /**
+     * Test that disposing the manager closes all its iterators and gives their
+     * file handles back
+     */
+    @Test
+    public void testDispose() {
+        for (int i = 0; i < NB_CONTEXTS; i++) {
+            getIterator(new CtfTmfContext(fTrace));
+        }
+        assertTrue(CtfIteratorManager.getOpenHandles() > fOpenHandles);
+
+        fManager.dispose();
+        assertEquals(0, fManager.getIteratorCount());
+        assertEquals(0, fManager.getHandleCount());
+        assertEquals(fOpenHandles, CtfIteratorManager.getOpenHandles());
+    }
+}
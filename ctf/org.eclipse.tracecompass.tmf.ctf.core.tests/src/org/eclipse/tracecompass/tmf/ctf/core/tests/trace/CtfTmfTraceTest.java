@@ -31,7 +31,11 @@ import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.tracecompass.testtraces.ctf.CtfTestTrace;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEventType;
+import org.eclipse.tracecompass.tmf.core.request.ITmfEventRequest;
+import org.eclipse.tracecompass.tmf.core.request.ITmfEventRequest.ExecutionType;
+import org.eclipse.tracecompass.tmf.core.request.TmfEventRequest;
 import org.eclipse.tracecompass.tmf.core.signal.TmfEndSynchSignal;
 import org.eclipse.tracecompass.tmf.core.signal.TmfSignal;
 import org.eclipse.tracecompass.tmf.core.timestamp.ITmfTimestamp;
@@ -41,6 +45,7 @@ import org.eclipse.tracecompass.tmf.core.trace.ITmfContext;
 import org.eclipse.tracecompass.tmf.core.trace.TmfEventTypeCollectionHelper;
 import org.eclipse.tracecompass.tmf.ctf.core.context.CtfLocation;
 import org.eclipse.tracecompass.tmf.ctf.core.context.CtfLocationInfo;
+import org.eclipse.tracecompass.tmf.ctf.core.context.CtfTmfContext;
 import org.eclipse.tracecompass.tmf.ctf.core.event.CtfTmfEvent;
 import org.eclipse.tracecompass.tmf.ctf.core.tests.shared.CtfTmfTestTraceUtils;
 import org.eclipse.tracecompass.tmf.ctf.core.trace.CtfTmfTrace;
@@ -168,6 +173,27 @@ public class CtfTmfTraceTest {
         assertNotNull(fixture);
     }
 
+    /**
+     * Test that only the contexts of the background requests that read many
+     * events read the trace sequentially
+     */
+    @Test
+    public void testArmRequest() {
+        assertSequential(ExecutionType.BACKGROUND, ITmfEventRequest.ALL_DATA, true);
+        assertSequential(ExecutionType.FOREGROUND, ITmfEventRequest.ALL_DATA, false);
+        assertSequential(ExecutionType.BACKGROUND, 1, false);
+    }
+
+    private static void assertSequential(ExecutionType type, int nbRequested, boolean sequential) {
+        TmfEventRequest request = new TmfEventRequest(ITmfEvent.class, 0, nbRequested, type) {
+        };
+        ITmfContext context = fixture.armRequest(request);
+        assertTrue(context instanceof CtfTmfContext);
+        assertEquals(sequential, ((CtfTmfContext) context).isSequential());
+        assertNotNull(fixture.getNext(context));
+        context.dispose();
+    }
+
     /**
      * Run the ITmfTimestamp getEndTime() method test.
      */
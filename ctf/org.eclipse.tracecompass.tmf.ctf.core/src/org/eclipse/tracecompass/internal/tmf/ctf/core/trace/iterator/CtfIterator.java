@@ -25,6 +25,7 @@ import org.eclipse.tracecompass.ctf.core.event.IEventDefinition;
 import org.eclipse.tracecompass.ctf.core.trace.CTFStreamInputReader;
 import org.eclipse.tracecompass.ctf.core.trace.CTFTrace;
 import org.eclipse.tracecompass.ctf.core.trace.CTFTraceReader;
+import org.eclipse.tracecompass.ctf.core.trace.CTFTraceReaderPosition;
 import org.eclipse.tracecompass.internal.tmf.ctf.core.Activator;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfContext;
@@ -239,6 +240,49 @@ public class CtfIterator extends CTFTraceReader
         return ret;
     }
 
+    /**
+     * Move this iterator to a location, restoring the position the reader had
+     * at that location instead of seeking when possible.
+     *
+     * @param ctfLocationData
+     *            The location to move to
+     * @param position
+     *            The position of a reader of the trace at that location
+     * @return boolean True if the iterator is at an event, false if there was
+     *         an error or if it is at the end of the trace.
+     */
+    public synchronized boolean restore(CtfLocationInfo ctfLocationData, CTFTraceReaderPosition position) {
+        try {
+            if (!super.restorePosition(position)) {
+                return seek(ctfLocationData);
+            }
+        } catch (CTFException e) {
+            Activator.getDefault().logError(e.getMessage(), e);
+            fCurLocation = NULL_LOCATION;
+            return seek(ctfLocationData);
+        }
+        fCurLocation = super.hasMoreEvents() ? new CtfLocation(ctfLocationData) : NULL_LOCATION;
+        return super.hasMoreEvents();
+    }
+
+    /**
+     * Set whether the context using this iterator reads the trace
+     * sequentially, in which case the streams are decoded ahead.
+     *
+     * @param sequential
+     *            whether the trace is read sequentially
+     */
+    public synchronized void setSequential(boolean sequential) {
+        if (sequential == isReadAhead()) {
+            return;
+        }
+        try {
+            setReadAhead(sequential);
+        } catch (CTFException e) {
+            Activator.getDefault().logError(e.getMessage(), e);
+        }
+    }
+
     // ------------------------------------------------------------------------
     // CTFTraceReader
     // ------------------------------------------------------------------------
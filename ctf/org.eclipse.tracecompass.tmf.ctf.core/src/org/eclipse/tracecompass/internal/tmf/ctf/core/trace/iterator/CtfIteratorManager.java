@@ -14,19 +14,20 @@
 
 package org.eclipse.tracecompass.internal.tmf.ctf.core.trace.iterator;
 
-import static org.eclipse.tracecompass.common.core.NonNullUtils.checkNotNull;
-
-import java.security.SecureRandom;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.ctf.core.trace.CTFTraceReaderPosition;
 import org.eclipse.tracecompass.internal.tmf.ctf.core.Activator;
+import org.eclipse.tracecompass.tmf.core.trace.location.ITmfLocation;
+import org.eclipse.tracecompass.tmf.ctf.core.context.CtfLocation;
 import org.eclipse.tracecompass.tmf.ctf.core.context.CtfLocationInfo;
 import org.eclipse.tracecompass.tmf.ctf.core.context.CtfTmfContext;
 import org.eclipse.tracecompass.tmf.ctf.core.trace.CtfTmfTrace;
@@ -38,29 +39,103 @@ import org.eclipse.tracecompass.tmf.ctf.core.trace.CtfTmfTrace;
  * manage the iterators that are opened to read that trace. This will allow
  * controlling the number of opened file handles per trace.
  *
+ * The file handles are budgeted globally: each iterator keeps one file open
+ * per stream file of its trace, and all the managers share the same budget of
+ * open files, so opening many traces does not multiply the number of open
+ * files. A manager can always open a few iterators, past that it replaces one
+ * of its iterators when the budget is used.
+ *
  * @author Matthew Khouzam
  */
 public class CtfIteratorManager {
     /*
-     * Cache size. Under 1023 on linux32 systems. Number of file handles
-     * created.
+     * Number of file handles that the iterators of all the traces can keep
+     * open.
+     */
+    private static final int HANDLE_BUDGET = 2048;
+
+    /*
+     * Number of iterators a trace can always have, whatever the budget.
+     */
+    private static final int MIN_SIZE = 4;
+
+    /*
+     * Maximum number of iterators of a trace, even if the budget allows more.
+     */
+    private static final int MAX_SIZE = 1000;
+
+    /*
+     * Maximum number of positions kept for the contexts whose iterator was
+     * replaced.
+     */
+    private static final int MAX_SAVED_POSITIONS = 1000;
+
+    /** The number of file handles kept open by the iterators of all traces */
+    private static final AtomicInteger OPEN_HANDLES = new AtomicInteger();
+
+    /**
+     * An iterator assigned to a context, with the reference bit of the clock
+     * replacement. The bit is only set when the context uses the iterator
+     * again, so that the iterators of the contexts that are being read are
+     * not replaced before the ones of contexts that were used once.
      */
-    private static final int MAX_SIZE = 100;
+    private static final class Entry {
+        private final CtfTmfContext fContext;
+        private final CtfIterator fIterator;
+        private final int fHandles;
+        private volatile boolean fReferenced = false;
+
+        public Entry(CtfTmfContext context, CtfIterator iterator, int handles) {
+            fContext = context;
+            fIterator = iterator;
+            fHandles = handles;
+        }
+    }
+
+    /**
+     * The position of the iterator of a context when it was replaced, to put
+     * it back cheaply when the context is used again at the same location
+     */
+    private static final class SavedPosition {
+        private final CtfLocationInfo fLocation;
+        private final CTFTraceReaderPosition fPosition;
+
+        public SavedPosition(CtfLocationInfo location, CTFTraceReaderPosition position) {
+            fLocation = location;
+            fPosition = position;
+        }
+    }
 
     /** The map of the cache */
-    private final Map<CtfTmfContext, CtfIterator> fMap;
+    private final Map<CtfTmfContext, Entry> fMap = new ConcurrentHashMap<>();
+
+    /** The entries of the cache, in the order visited by the clock hand */
+    private final List<Entry> fClock = new ArrayList<>();
+
+    /** The next entry to consider for replacement */
+    private int fHand = 0;
+
+    /** The positions of the contexts whose iterator was replaced */
+    private final Map<CtfTmfContext, SavedPosition> fPositions = new LinkedHashMap<CtfTmfContext, SavedPosition>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<CtfTmfContext, SavedPosition> eldest) {
+            return size() > MAX_SAVED_POSITIONS;
+        }
+    };
 
-    /** An array pointing to the same cache. this allows fast "random" accesses */
-    private final List<CtfTmfContext> fRandomAccess;
+    /** The number of file handles of an iterator of the trace */
+    private int fHandlesPerIterator = 0;
 
-    /** Lock for when we access the two previous data structures */
+    /** Lock for when we access the previous data structures */
     private final Lock fAccessLock = new ReentrantLock();
 
     /** The parent trace */
     private final CtfTmfTrace fTrace;
 
-    /** Random number generator */
-    private final Random fRnd;
+    /** The maximum number of iterators of the trace */
+    private final int fMaxSize;
 
     /**
      * Constructor
@@ -69,10 +144,21 @@ public class CtfIteratorManager {
      *            The trace whose iterators this manager will manage
      */
     public CtfIteratorManager(CtfTmfTrace trace) {
-        fMap = new HashMap<>();
-        fRandomAccess = new ArrayList<>();
-        fRnd = new SecureRandom();
+        this(trace, MAX_SIZE);
+    }
+
+    /**
+     * Constructor with a maximum number of iterators, for testing
+     *
+     * @param trace
+     *            The trace whose iterators this manager will manage
+     * @param maxSize
+     *            The maximum number of iterators of the trace, the manager can
+     *            always have a few iterators even if it is lower
+     */
+    public CtfIteratorManager(CtfTmfTrace trace, int maxSize) {
         fTrace = trace;
+        fMaxSize = maxSize;
     }
 
     /**
@@ -81,9 +167,12 @@ public class CtfIteratorManager {
      * failed since there is a limit to how many file handles we can have opened
      * simultaneously. Then a round-robin scheme was implemented, this lead up to a
      * two competing contexts syncing up and using the same file handler, causing
-     * horrible slowdowns. Now a random replacement algorithm is selected. This is
-     * the same as used by arm processors, and it works quite well when many cores
-     * so this looks promising for very multi-threaded systems.
+     * horrible slowdowns. Then a random replacement was used, which could replace
+     * the iterator of a context that is read constantly. Now a clock replacement
+     * is used: an iterator is only replaced if its context was not used since the
+     * hand of the clock last passed it, so that the contexts being read keep their
+     * iterator. The position of a replaced iterator is saved, so that the context
+     * gets it back without seeking.
      *
      * @param context
      *            the context to look up
@@ -93,123 +182,249 @@ public class CtfIteratorManager {
         /*
          * if the element is in the map, we don't need to do anything else.
          */
-        CtfIterator iter = fMap.get(context);
-        if (iter == null) {
-
-            fAccessLock.lock();
-            try {
+        Entry entry = fMap.get(context);
+        if (entry != null) {
+            entry.fReferenced = true;
+            return entry.fIterator;
+        }
+        fAccessLock.lock();
+        try {
+            entry = fMap.get(context);
+            if (entry != null) {
+                entry.fReferenced = true;
+                return entry.fIterator;
+            }
+            /*
+             * Assign an iterator to a context.
+             */
+            if (fClock.size() < MIN_SIZE || (fClock.size() < fMaxSize && reserveHandles(fHandlesPerIterator))) {
+                if (fClock.size() < MIN_SIZE) {
+                    OPEN_HANDLES.addAndGet(fHandlesPerIterator);
+                }
+                entry = createElement(context, fHandlesPerIterator);
+                if (entry == null) {
+                    return null;
+                }
+                fClock.add(entry);
+            } else {
                 /*
-                 * Assign an iterator to a context.
+                 * if we're full, replace an element that was not used recently
                  */
-                if (fRandomAccess.size() < MAX_SIZE) {
-                    /*
-                     * if we're not full yet, just add an element.
-                     */
-                    iter = (CtfIterator) fTrace.createIterator();
-                    if (iter == null) {
-                        return null;
-                    }
-                    addElement(context, iter);
-
-                } else {
-                    /*
-                     * if we're full, randomly replace an element
-                     */
-                    iter = replaceRandomElement(context);
+                entry = replaceElement(context);
+                if (entry == null) {
+                    return null;
                 }
-                if (context.getLocation() != null) {
-                    final CtfLocationInfo location = (CtfLocationInfo) context.getLocation().getLocationInfo();
-                    iter.seek(location);
+            }
+            fMap.put(context, entry);
+            CtfIterator iter = entry.fIterator;
+            iter.setSequential(context.isSequential());
+            SavedPosition saved = fPositions.remove(context);
+            ITmfLocation location = context.getLocation();
+            if (location != null) {
+                final CtfLocationInfo locationInfo = (CtfLocationInfo) location.getLocationInfo();
+                if (saved != null && saved.fLocation.equals(locationInfo)) {
+                    iter.restore(locationInfo, saved.fPosition);
+                } else {
+                    iter.seek(locationInfo);
                 }
-            } finally {
-                fAccessLock.unlock();
             }
+            return iter;
+        } finally {
+            fAccessLock.unlock();
         }
-        return iter;
     }
 
     /**
-     * Remove an iterator from this manager
+     * Reserve file handles in the global budget
      *
-     * @param context
-     *            The context of the iterator to remove
+     * @param handles
+     *            the number of handles
+     * @return false if the budget does not have that many handles left
      */
-    public void removeIterator(CtfTmfContext context) {
-        fAccessLock.lock();
-        try {
-            /* The try below is only to auto-call CtfIterator.close() */
-            try (CtfIterator removed = fMap.remove(context)) {
-                // try with resource
+    private static boolean reserveHandles(int handles) {
+        int open;
+        do {
+            open = OPEN_HANDLES.get();
+            if (open + handles > HANDLE_BUDGET) {
+                return false;
             }
-            fRandomAccess.remove(context);
+        } while (!OPEN_HANDLES.compareAndSet(open, open + handles));
+        return true;
+    }
 
-        } finally {
-            fAccessLock.unlock();
+    /**
+     * Create a new iterator for a context. The file handles it uses were
+     * reserved already, or are corrected if the expected count was wrong.
+     *
+     * @param context
+     *            the context
+     * @param reservedHandles
+     *            the number of handles reserved for the iterator
+     * @return the entry of the iterator, or null if it could not be created
+     */
+    private @Nullable Entry createElement(CtfTmfContext context, int reservedHandles) {
+        CtfIterator iter = (CtfIterator) fTrace.createIterator();
+        if (iter == null) {
+            OPEN_HANDLES.addAndGet(-reservedHandles);
+            return null;
         }
+        int handles = iter.getStreamInputReaderCount();
+        fHandlesPerIterator = handles;
+        OPEN_HANDLES.addAndGet(handles - reservedHandles);
+        return new Entry(context, iter, handles);
     }
 
     /**
-     * Add a pair of context and element to the hashmap and the arraylist.
+     * Remove an iterator from this manager
      *
      * @param context
-     *            the context
-     * @param elem
-     *            the iterator
+     *            The context of the iterator to remove
      */
-    private void addElement(final CtfTmfContext context,
-            final CtfIterator elem) {
+    public void removeIterator(CtfTmfContext context) {
         fAccessLock.lock();
         try {
-            fMap.put(context, elem);
-            fRandomAccess.add(context);
-
+            fPositions.remove(context);
+            Entry entry = fMap.remove(context);
+            if (entry == null) {
+                return;
+            }
+            int index = fClock.indexOf(entry);
+            fClock.remove(index);
+            if (index < fHand) {
+                fHand--;
+            }
+            closeElement(entry);
         } finally {
             fAccessLock.unlock();
         }
     }
 
+    private static void closeElement(Entry entry) {
+        /* The try below is only to auto-call CtfIterator.close() */
+        try (CtfIterator removed = entry.fIterator) {
+            // try with resource
+        }
+        OPEN_HANDLES.addAndGet(-entry.fHandles);
+    }
+
     /**
-     * Replace a random element
+     * Replace the first element found by the clock hand that was not used
+     * since the hand last passed it
      *
      * @param context
      *            the context to swap in
-     * @return the iterator of the removed elements.
+     * @return the entry of the context, with the iterator of the replaced
+     *         element, or null if a new iterator could not be created
      */
-    private CtfIterator replaceRandomElement(final CtfTmfContext context) {
+    private @Nullable Entry replaceElement(final CtfTmfContext context) {
         /*
-         * This needs some explanation too: We need to select a random victim
-         * and remove it. The order of the elements is not important, so instead
-         * of just calling arraylist.remove(element) which has an O(n)
-         * complexity, we pick an random number. The element is swapped out of
-         * the array and removed and replaced in the hashmap.
+         * The hand clears the reference bits it passes, so it finds an element
+         * in at most one turn.
          */
         fAccessLock.lock(); // just in case, should only be called when already locked
         try {
-            final int size = fRandomAccess.size();
-            final int pos = fRnd.nextInt(size);
-            final CtfTmfContext victim = fRandomAccess.get(pos);
-            fRandomAccess.set(pos, context);
-            CtfIterator elem = checkNotNull(fMap.remove(victim));
+            Entry victim;
+            while (true) {
+                if (fHand >= fClock.size()) {
+                    fHand = 0;
+                }
+                victim = fClock.get(fHand);
+                if (!victim.fReferenced) {
+                    break;
+                }
+                victim.fReferenced = false;
+                fHand++;
+            }
+            fMap.remove(victim.fContext);
+            CtfIterator elem = victim.fIterator;
+            Entry entry;
             if (elem.isClosed()) {
                 /*
                  * In case the iterator streams have been closed, we need to
                  * replace it by a fresh new one to access the trace. We also
                  * report that as an error as it should not happen.
                  */
-                Activator.getDefault().logError("Found closed iterator in iterator manager for trace " + victim.getTrace()); //$NON-NLS-1$
-
-                elem.dispose();
-                elem = (CtfIterator) fTrace.createIterator();
+                Activator.getDefault().logError("Found closed iterator in iterator manager for trace " + victim.fContext.getTrace()); //$NON-NLS-1$
+                fClock.remove(fHand);
+                closeElement(victim);
+                OPEN_HANDLES.addAndGet(fHandlesPerIterator);
+                entry = createElement(context, fHandlesPerIterator);
+                if (entry == null) {
+                    return null;
+                }
+                fClock.add(fHand, entry);
+            } else {
+                savePosition(victim);
+                entry = new Entry(context, elem, victim.fHandles);
+                fClock.set(fHand, entry);
             }
-            fMap.put(context, elem);
-            victim.dispose();
-            return elem;
+            fHand++;
+            return entry;
+        } finally {
+            fAccessLock.unlock();
+        }
+    }
+
+    /**
+     * Save the position of the iterator of a context that loses it
+     *
+     * @param victim
+     *            the entry of the context
+     */
+    private void savePosition(Entry victim) {
+        CtfLocation location = victim.fIterator.getLocation();
+        if (location.equals(CtfIterator.NULL_LOCATION)) {
+            return;
+        }
+        CTFTraceReaderPosition position = victim.fIterator.getPosition();
+        if (position != null) {
+            fPositions.put(victim.fContext, new SavedPosition(location.getLocationInfo(), position));
+        }
+    }
+
+    /**
+     * Get the number of iterators of this manager
+     *
+     * @return the number of iterators
+     */
+    public int getIteratorCount() {
+        fAccessLock.lock();
+        try {
+            return fClock.size();
+        } finally {
+            fAccessLock.unlock();
+        }
+    }
 
+    /**
+     * Get the number of file handles kept open by the iterators of this
+     * manager
+     *
+     * @return the number of file handles
+     */
+    public int getHandleCount() {
+        fAccessLock.lock();
+        try {
+            int handles = 0;
+            for (Entry entry : fClock) {
+                handles += entry.fHandles;
+            }
+            return handles;
         } finally {
             fAccessLock.unlock();
         }
     }
 
+    /**
+     * Get the number of file handles kept open by the iterators of all the
+     * traces
+     *
+     * @return the number of file handles
+     */
+    public static int getOpenHandles() {
+        return OPEN_HANDLES.get();
+    }
+
     /**
      * Dispose this iterator manager, which will close all the remaining
      * iterators.
@@ -217,14 +432,16 @@ public class CtfIteratorManager {
     public void dispose() {
         fAccessLock.lock();
         try {
-            for (CtfIterator iterator : fMap.values()) {
-                iterator.dispose();
+            for (Entry entry : fClock) {
+                entry.fIterator.dispose();
+                OPEN_HANDLES.addAndGet(-entry.fHandles);
             }
             fMap.clear();
-            fRandomAccess.clear();
-
+            fClock.clear();
+            fPositions.clear();
+            fHand = 0;
         } finally {
             fAccessLock.unlock();
         }
     }
-}
\ No newline at end of file
+}
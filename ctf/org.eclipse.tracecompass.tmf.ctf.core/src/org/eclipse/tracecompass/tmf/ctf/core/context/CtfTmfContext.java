@@ -36,6 +36,7 @@ public class CtfTmfContext implements ITmfContext {
 
     private CtfLocation fCurLocation;
     private long fCurRank;
+    private boolean fSequential = false;
 
     private final CtfTmfTrace fTrace;
 
@@ -118,6 +119,33 @@ public class CtfTmfContext implements ITmfContext {
         return fTrace;
     }
 
+    /**
+     * Set whether this context reads the trace sequentially, for example to
+     * index or analyze it, in which case its iterator decodes the streams
+     * ahead.
+     *
+     * @param sequential
+     *            whether the context reads the trace sequentially
+     * @since 4.6
+     */
+    public synchronized void setSequential(boolean sequential) {
+        fSequential = sequential;
+        CtfIterator iterator = getIterator();
+        if (iterator != null) {
+            iterator.setSequential(sequential);
+        }
+    }
+
+    /**
+     * Gets whether this context reads the trace sequentially
+     *
+     * @return whether the context reads the trace sequentially
+     * @since 4.6
+     */
+    public boolean isSequential() {
+        return fSequential;
+    }
+
     /**
      * Gets the current event. Wrapper to help CtfTmfTrace
      *
@@ -17,7 +17,6 @@ package org.eclipse.tracecompass.tmf.ctf.core.event;
 
 import static org.eclipse.tracecompass.common.core.NonNullUtils.checkNotNull;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -282,41 +281,13 @@ public class CtfTmfEvent extends TmfEvent
     public synchronized ITmfEventField getContent() {
         ITmfEventField content = fContent;
         if (content == null) {
-            content = new TmfEventField(
-                    ITmfEventField.ROOT_FIELD_ID, null, parseFields(fEvent));
+            /* The fields are converted when they are first requested */
+            content = new CtfTmfEventContent(fEvent);
             fContent = content;
         }
         return content;
     }
 
-    /**
-     * Extract the field information from the structDefinition haze-inducing
-     * mess, and put them into something ITmfEventField can cope with.
-     */
-    private static CtfTmfEventField[] parseFields(IEventDefinition eventDef) {
-        List<CtfTmfEventField> fields = new ArrayList<>();
-
-        ICompositeDefinition structFields = eventDef.getFields();
-        if (structFields != null) {
-            if (structFields.getFieldNames() != null) {
-                for (String fn : structFields.getFieldNames()) {
-                    fields.add(CtfTmfEventField.parseField(structFields.getDefinition(fn), fn));
-                }
-            }
-        }
-        /* Add context information as CtfTmfEventField */
-        ICompositeDefinition structContext = eventDef.getContext();
-        if (structContext != null) {
-            for (String contextName : structContext.getFieldNames()) {
-                /* Prefix field name */
-                String curContextName = CtfConstants.CONTEXT_FIELD_PREFIX + contextName;
-                fields.add(CtfTmfEventField.parseField(structContext.getDefinition(contextName), curContextName));
-            }
-        }
-
-        return fields.toArray(new @NonNull CtfTmfEventField[fields.size()]);
-    }
-
     // ------------------------------------------------------------------------
     // ITmfCustomAttributes
     // ------------------------------------------------------------------------
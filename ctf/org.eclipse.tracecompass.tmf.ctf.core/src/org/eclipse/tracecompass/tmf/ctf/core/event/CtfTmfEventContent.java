@@ -0,0 +1,226 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.tmf.ctf.core.event;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.ctf.core.event.IEventDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.ICompositeDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.IDefinition;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEventField;
+import org.eclipse.tracecompass.tmf.core.event.TmfEventField;
+import org.eclipse.tracecompass.tmf.ctf.core.CtfConstants;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * The root field of a {@link CtfTmfEvent}, containing the fields of the event
+ * payload followed by the fields of its context, whose names are prefixed by
+ * {@link CtfConstants#CONTEXT_FIELD_PREFIX}.
+ *
+ * The {@link CtfTmfEventField} of a field is only created the first time the
+ * field is requested by name, so that an analysis reading a few fields of an
+ * event does not pay for the conversion of all the others. All the fields are
+ * converted when they are requested as a whole, or to compare the content with
+ * another one.
+ */
+final class CtfTmfEventContent implements ITmfEventField {
+
+    private static final String UNDERSCORE = "_"; //$NON-NLS-1$
+
+    private final IEventDefinition fEvent;
+
+    /* The fields converted so far, by name */
+    private @Nullable Map<String, ITmfEventField> fConverted = null;
+    private @Nullable List<@NonNull String> fFieldNames = null;
+    private @Nullable TmfEventField fAllFields = null;
+
+    /**
+     * Constructor
+     *
+     * @param event
+     *            The event definition of the fields
+     */
+    public CtfTmfEventContent(IEventDefinition event) {
+        fEvent = event;
+    }
+
+    @Override
+    public @NonNull String getName() {
+        return ITmfEventField.ROOT_FIELD_ID;
+    }
+
+    @Override
+    public @Nullable Object getValue() {
+        return null;
+    }
+
+    @Override
+    public String getFormattedValue() {
+        return getAllFields().getFormattedValue();
+    }
+
+    @Override
+    public synchronized @NonNull Collection<@NonNull String> getFieldNames() {
+        List<@NonNull String> fieldNames = fFieldNames;
+        if (fieldNames == null) {
+            ImmutableList.Builder<@NonNull String> builder = ImmutableList.builder();
+            ICompositeDefinition structFields = fEvent.getFields();
+            if (structFields != null && structFields.getFieldNames() != null) {
+                for (String fieldName : structFields.getFieldNames()) {
+                    builder.add(fieldName.startsWith(UNDERSCORE) ? fieldName.substring(1) : fieldName);
+                }
+            }
+            ICompositeDefinition structContext = fEvent.getContext();
+            if (structContext != null) {
+                for (String contextName : structContext.getFieldNames()) {
+                    builder.add(CtfConstants.CONTEXT_FIELD_PREFIX + contextName);
+                }
+            }
+            fieldNames = builder.build();
+            fFieldNames = fieldNames;
+        }
+        return fieldNames;
+    }
+
+    @Override
+    public @NonNull Collection<? extends ITmfEventField> getFields() {
+        return getAllFields().getFields();
+    }
+
+    @Override
+    public @Nullable ITmfEventField getField(String @NonNull... path) {
+        if (path.length == 1) {
+            return getSubField(path[0]);
+        }
+        ITmfEventField field = this;
+        for (String name : path) {
+            field = field.getField(name);
+            if (field == null) {
+                return null;
+            }
+        }
+        return field;
+    }
+
+    private synchronized @Nullable ITmfEventField getSubField(String name) {
+        Map<String, ITmfEventField> converted = fConverted;
+        if (converted == null) {
+            converted = new HashMap<>();
+            fConverted = converted;
+        }
+        ITmfEventField field = converted.get(name);
+        if (field == null) {
+            field = convert(name);
+            if (field != null) {
+                converted.put(name, field);
+            }
+        }
+        return field;
+    }
+
+    private @Nullable ITmfEventField convert(String name) {
+        IDefinition definition = findDefinition(fEvent, name);
+        if (definition == null) {
+            return null;
+        }
+        /* Make sure the leading underscore stripped by the field is kept */
+        return CtfTmfEventField.parseField(definition, name.startsWith(UNDERSCORE) ? UNDERSCORE + name : name);
+    }
+
+    /**
+     * Find the definition of a field of an event, by the name of its field in
+     * the content of the event
+     *
+     * @param event
+     *            The event definition
+     * @param name
+     *            The name of the field in the content of the event
+     * @return The definition of the field, or null if there is none
+     */
+    private static @Nullable IDefinition findDefinition(IEventDefinition event, String name) {
+        ICompositeDefinition structFields = event.getFields();
+        if (structFields != null && structFields.getFieldNames() != null) {
+            /*
+             * The leading underscore of the payload field names is stripped,
+             * so the field may be declared with or without it.
+             */
+            if (!name.startsWith(UNDERSCORE)) {
+                IDefinition definition = structFields.getDefinition(name);
+                if (definition != null) {
+                    return definition;
+                }
+            }
+            IDefinition definition = structFields.getDefinition(UNDERSCORE + name);
+            if (definition != null) {
+                return definition;
+            }
+        }
+        ICompositeDefinition structContext = event.getContext();
+        if (structContext != null && name.startsWith(CtfConstants.CONTEXT_FIELD_PREFIX)) {
+            return structContext.getDefinition(name.substring(CtfConstants.CONTEXT_FIELD_PREFIX.length()));
+        }
+        return null;
+    }
+
+    private synchronized TmfEventField getAllFields() {
+        TmfEventField allFields = fAllFields;
+        if (allFields == null) {
+            Collection<@NonNull String> fieldNames = getFieldNames();
+            ITmfEventField[] fields = new ITmfEventField[fieldNames.size()];
+            int i = 0;
+            for (String name : fieldNames) {
+                ITmfEventField field = getSubField(name);
+                /* The field has no definition, use the default field */
+                fields[i++] = (field != null ? field : CtfTmfEventField.parseField(null, name));
+            }
+            allFields = new TmfEventField(ITmfEventField.ROOT_FIELD_ID, null, fields);
+            fAllFields = allFields;
+        }
+        return allFields;
+    }
+
+    // ------------------------------------------------------------------------
+    // Object
+    // ------------------------------------------------------------------------
+
+    @Override
+    public int hashCode() {
+        return getAllFields().hashCode();
+    }
+
+    /**
+     * The content is equal to another content, or to a {@link TmfEventField}
+     * with the same name, value and fields, like the content of the events
+     * whose fields are all converted.
+     */
+    @Override
+    public boolean equals(@Nullable Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj instanceof CtfTmfEventContent) {
+            return getAllFields().equals(((CtfTmfEventContent) obj).getAllFields());
+        }
+        return getAllFields().equals(obj);
+    }
+
+    @Override
+    public String toString() {
+        return getAllFields().toString();
+    }
+}
@@ -41,6 +41,7 @@ import org.eclipse.tracecompass.ctf.core.event.types.IntegerDefinition;
 import org.eclipse.tracecompass.ctf.core.event.types.StringDefinition;
 import org.eclipse.tracecompass.ctf.core.event.types.VariantDefinition;
 import org.eclipse.tracecompass.internal.ctf.core.event.types.ByteArrayDefinition;
+import org.eclipse.tracecompass.internal.ctf.core.event.types.IntegerArrayDefinition;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEventField;
 import org.eclipse.tracecompass.tmf.core.event.TmfEventField;
 import org.eclipse.tracecompass.tmf.ctf.core.CtfEnumPair;
@@ -155,6 +156,11 @@ public abstract class CtfTmfEventField extends TmfEventField {
                             elemIntType.getBase(),
                             elemIntType.isSigned());
 
+                } else if (arrayDef instanceof IntegerArrayDefinition) {
+                    /* it's a CTFIntegerArrayField, the values are decoded */
+                    field = new CTFIntegerArrayField(fieldName, ((IntegerArrayDefinition) arrayDef).getValues(),
+                            elemIntType.getBase(),
+                            elemIntType.isSigned());
                 } else {
                     /* it's a CTFIntegerArrayField */
                     int size = arrayDef.getLength();
@@ -0,0 +1,212 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.segmentstore.core.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.internal.segmentstore.core.compact.CompactSegmentStore;
+import org.eclipse.tracecompass.segmentstore.core.ISegment;
+import org.eclipse.tracecompass.segmentstore.core.ISegmentStore;
+import org.junit.Test;
+
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Iterators;
+
+/**
+ * Unit tests for the {@link CompactSegmentStore}. The segments it returns are
+ * read back from their serialized form, so they are not the same objects as
+ * the ones that were added.
+ */
+public class CompactSegmentStoreTest extends AbstractTestSegmentStore {
+
+    @Override
+    protected ISegmentStore<@NonNull TestSegment> getSegmentStore() {
+        return new CompactSegmentStore<>(TestSegment.DESERIALISER);
+    }
+
+    @Override
+    protected ISegmentStore<@NonNull TestSegment> getSegmentStore(@NonNull TestSegment @NonNull [] data) {
+        return new CompactSegmentStore<>(TestSegment.DESERIALISER, data);
+    }
+
+    @Override
+    protected void assertSegmentsEqual(@Nullable ISegment expected, @Nullable ISegment actual) {
+        assertNotNull(expected);
+        assertNotNull(actual);
+        assertEquals(expected.getStart(), actual.getStart());
+        assertEquals(expected.getEnd(), actual.getEnd());
+        assertEquals(((TestSegment) expected).getPayload(), ((TestSegment) actual).getPayload());
+    }
+
+    @Override
+    @Test
+    public void testToObjectArray() {
+        Object[] array = fSegmentStore.toArray();
+        assertEquals(SEGMENTS.size(), array.length);
+        for (int i = 0; i < array.length; i++) {
+            assertSegmentsEqual(SEGMENTS.get(i), (ISegment) array[i]);
+        }
+    }
+
+    @Override
+    @Test
+    public void testToSpecificArray() {
+        ISegment[] array = fSegmentStore.toArray(new ISegment[0]);
+        assertEquals(SEGMENTS.size(), array.length);
+        for (int i = 0; i < array.length; i++) {
+            assertSegmentsEqual(SEGMENTS.get(i), array[i]);
+        }
+    }
+
+    @Override
+    @Test
+    public void testToSpecifyArraySubtype() {
+        ISegmentStore<@NonNull TestSegment> store = getSegmentStore();
+        TestSegment otherSegment = new TestSegment(2, 6, "test");
+        store.add(otherSegment);
+        TestSegment[] array = store.toArray(new TestSegment[0]);
+
+        assertEquals(1, array.length);
+        assertSegmentsEqual(otherSegment, array[0]);
+        assertTrue(store.contains(otherSegment));
+        store.dispose();
+    }
+
+    @Override
+    @Test
+    public void testIterator() {
+        ISegmentStore<@NonNull TestSegment> store = getSegmentStore();
+        store.add(SEGMENTS.get(0));
+        store.add(SEGMENTS.get(2));
+        Iterator<@NonNull TestSegment> iter = store.iterator();
+
+        // Segments added after the iterator was taken, out of order
+        store.add(SEGMENTS.get(3));
+        store.add(SEGMENTS.get(1));
+        Iterator<@NonNull TestSegment> iter2 = store.iterator();
+
+        assertSegmentsEqual(SEGMENTS.get(0), iter.next());
+        assertSegmentsEqual(SEGMENTS.get(2), iter.next());
+        assertTrue(!iter.hasNext());
+        for (int i = 0; i < 4; i++) {
+            assertSegmentsEqual(SEGMENTS.get(i), iter2.next());
+        }
+        assertTrue(!iter2.hasNext());
+        store.dispose();
+    }
+
+    /**
+     * Test a store with many segments in random order, compared to the
+     * segments sorted by start and end times
+     */
+    @Test
+    public void testManySegments() {
+        ISegmentStore<@NonNull TestSegment> store = getSegmentStore();
+        List<@NonNull TestSegment> expected = new ArrayList<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 20000; i++) {
+            long start = random.nextInt(100000);
+            TestSegment segment = new TestSegment(start, start + random.nextInt(1000), "segment" + i);
+            expected.add(segment);
+            store.add(segment);
+            if (i % 5000 == 0) {
+                /* Read while building, to merge the unsorted segments */
+                assertEquals(i + 1, Iterables.size(store));
+            }
+        }
+        expected.sort((a, b) -> {
+            int cmp = Long.compare(a.getStart(), b.getStart());
+            return (cmp == 0) ? Long.compare(a.getEnd(), b.getEnd()) : cmp;
+        });
+
+        assertEquals(expected.size(), store.size());
+        ISegment previous = null;
+        for (TestSegment segment : store) {
+            if (previous != null) {
+                assertTrue(previous.getStart() < segment.getStart() ||
+                        (previous.getStart() == segment.getStart() && previous.getEnd() <= segment.getEnd()));
+            }
+            previous = segment;
+        }
+        assertTrue(store.containsAll(expected));
+
+        long start = 50000;
+        long end = 50500;
+        List<@NonNull TestSegment> intersecting = new ArrayList<>();
+        store.getIntersectingElements(start, end).forEach(intersecting::add);
+        long count = expected.stream().filter(s -> s.getStart() <= end && s.getEnd() >= start).count();
+        assertEquals(count, intersecting.size());
+        for (TestSegment segment : intersecting) {
+            assertTrue(segment.getStart() <= end && segment.getEnd() >= start);
+        }
+        store.dispose();
+    }
+
+    /**
+     * Test that the intersecting segments are only read when they are
+     * iterated on, from a snapshot of the store, and that the segments of all
+     * chunks are found, including a long segment that starts first
+     */
+    @Test
+    public void testIntersectingElementsLazy() {
+        AtomicInteger nbRead = new AtomicInteger();
+        ISegmentStore<@NonNull TestSegment> store = new CompactSegmentStore<>(buffer -> {
+            nbRead.incrementAndGet();
+            return TestSegment.DESERIALISER.readInterval(buffer);
+        });
+        List<@NonNull TestSegment> expected = new ArrayList<>();
+        expected.add(new TestSegment(0, 25000, "long"));
+        for (int i = 0; i < 20000; i++) {
+            expected.add(new TestSegment(i, i + 10, "segment" + i));
+        }
+        store.addAll(expected);
+
+        Iterable<@NonNull TestSegment> iterable = store.getIntersectingElements(15000, 15005);
+        /* Segments added after the query are not returned */
+        store.add(new TestSegment(15000, 15001, "added"));
+        assertEquals(0, nbRead.get());
+        Iterator<@NonNull TestSegment> iterator = iterable.iterator();
+        assertTrue(iterator.hasNext());
+        assertSegmentsEqual(expected.get(0), iterator.next());
+        assertEquals(1, nbRead.get());
+        assertEquals(16, Iterators.size(iterator));
+        assertEquals(17, nbRead.get());
+
+        /* Ranges at the chunk boundaries and outside of the segments */
+        long[][] ranges = { { 4095, 4096 }, { 8191, 8192 }, { 0, 0 }, { 19999, 30000 }, { 25001, 30000 }, { -10, -1 } };
+        for (long[] range : ranges) {
+            long start = range[0];
+            long end = range[1];
+            long count = expected.stream().filter(s -> s.getStart() <= end && s.getEnd() >= start).count();
+            assertEquals(count, Iterables.size(store.getIntersectingElements(start, end)));
+        }
+
+        /* Without the long segment, the early segments are not looked at */
+        ISegmentStore<@NonNull TestSegment> shortStore = getSegmentStore();
+        shortStore.addAll(expected.subList(1, expected.size()));
+        assertFalse(shortStore.getIntersectingElements(30000, 40000).iterator().hasNext());
+        assertEquals(11, Iterables.size(shortStore.getIntersectingElements(19990, 19990)));
+        store.dispose();
+        shortStore.dispose();
+    }
+}
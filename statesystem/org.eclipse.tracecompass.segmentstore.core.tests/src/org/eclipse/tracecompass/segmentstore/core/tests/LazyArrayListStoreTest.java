@@ -11,9 +11,21 @@
 
 package org.eclipse.tracecompass.segmentstore.core.tests;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.tracecompass.internal.segmentstore.core.arraylist.LazyArrayListStore;
 import org.eclipse.tracecompass.segmentstore.core.ISegmentStore;
+import org.junit.Test;
+
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
 
 /**
  * Unit tests for intersecting elements in an LazyArrayListStore
@@ -31,4 +43,75 @@ public class LazyArrayListStoreTest extends AbstractTestSegmentStore {
     protected ISegmentStore<@NonNull TestSegment> getSegmentStore(@NonNull TestSegment @NonNull [] data) {
         return new LazyArrayListStore<>(data);
     }
-}
\ No newline at end of file
+
+    /**
+     * Test the queries on a closed store, which use an interval index, with
+     * segments of very different durations
+     */
+    @Test
+    public void testClosedStoreQueries() {
+        ISegmentStore<@NonNull TestSegment> store = getSegmentStore();
+        List<@NonNull TestSegment> segments = new ArrayList<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 5000; i++) {
+            long start = random.nextInt(1000000);
+            long duration = (i % 100 == 0) ? random.nextInt(500000) : random.nextInt(100);
+            TestSegment segment = new TestSegment(start, start + duration, "segment" + i);
+            segments.add(segment);
+            store.add(segment);
+        }
+        List<@NonNull TestSegment> expectedAll = Lists.newArrayList(store);
+        LazyArrayListStore<@NonNull TestSegment> lazyStore = (LazyArrayListStore<@NonNull TestSegment>) store;
+        assertFalse(lazyStore.isIndexed());
+        store.close(true);
+        assertFalse(lazyStore.isIndexed());
+        store.close(false);
+        assertTrue(lazyStore.isIndexed());
+
+        assertEquals(expectedAll, Lists.newArrayList(store));
+        for (int i = 0; i < 200; i++) {
+            long start = random.nextInt(1100000) - 50000;
+            long end = start + ((i % 2 == 0) ? 0 : random.nextInt(20000));
+            List<@NonNull TestSegment> expected = new ArrayList<>();
+            for (TestSegment segment : expectedAll) {
+                if (segment.getStart() <= end && segment.getEnd() >= start) {
+                    expected.add(segment);
+                }
+            }
+            assertEquals(expected, Lists.newArrayList(store.getIntersectingElements(start, end)));
+        }
+
+        /* Adding a segment after closing must be seen by the queries */
+        TestSegment added = new TestSegment(2000000, 2000010, "added");
+        store.add(added);
+        assertFalse(lazyStore.isIndexed());
+        assertEquals(added, Iterables.getOnlyElement(store.getIntersectingElements(2000005)));
+        assertEquals(segments.size() + 1, Iterables.size(store));
+        store.dispose();
+    }
+
+    /**
+     * Test a store that is large enough to be sorted in parallel, with
+     * segments added in decreasing order of end times
+     */
+    @Test
+    public void testLargeStoreSort() {
+        ISegmentStore<@NonNull TestSegment> store = getSegmentStore();
+        int nb = 50000;
+        for (int i = nb; i > 0; i--) {
+            store.add(new TestSegment(i % 1000, nb + i, "segment" + i));
+        }
+        TestSegment previous = null;
+        int count = 0;
+        for (TestSegment segment : store) {
+            if (previous != null) {
+                assertTrue(previous.getStart() < segment.getStart() ||
+                        (previous.getStart() == segment.getStart() && previous.getEnd() <= segment.getEnd()));
+            }
+            previous = segment;
+            count++;
+        }
+        assertEquals(nb, count);
+        store.dispose();
+    }
+}
@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.segmentstore.core.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.tracecompass.internal.segmentstore.core.SegmentSorter;
+import org.eclipse.tracecompass.segmentstore.core.BasicSegment;
+import org.eclipse.tracecompass.segmentstore.core.ISegment;
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link SegmentSorter}, with lists small enough to be
+ * sorted sequentially and large enough to be sorted in parallel
+ */
+public class SegmentSorterTest {
+
+    private static final int SMALL_SIZE = 1000;
+    private static final int LARGE_SIZE = 100000;
+
+    private static @NonNull ISegment @NonNull [] createSegments(int size) {
+        Random random = new Random(size);
+        @NonNull ISegment[] segments = new @NonNull ISegment[size];
+        for (int i = 0; i < size; i++) {
+            long start = random.nextInt(size / 10);
+            segments[i] = new BasicSegment(start, start + random.nextInt(100));
+        }
+        return segments;
+    }
+
+    /**
+     * Test sorting lists of segments by start and end times
+     */
+    @Test
+    public void testSort() {
+        for (int size : new int[] { SMALL_SIZE, LARGE_SIZE }) {
+            @NonNull ISegment[] segments = createSegments(size);
+            List<@NonNull ISegment> expected = new ArrayList<>(List.of(segments));
+            expected.sort(Comparator.comparingLong(ISegment::getStart).thenComparingLong(ISegment::getEnd));
+            List<@NonNull ISegment> sorted = new ArrayList<>(List.of(segments));
+            SegmentSorter.sort(sorted, null);
+            assertEquals(size, sorted.size());
+            for (int i = 0; i < size; i++) {
+                assertSame("Segment " + i, expected.get(i), sorted.get(i));
+            }
+        }
+    }
+
+    /**
+     * Test the permutation that sorts segments by duration, which keeps the
+     * order of the array for segments of the same duration
+     */
+    @Test
+    public void testSortPositions() {
+        for (int size : new int[] { SMALL_SIZE, LARGE_SIZE }) {
+            @NonNull ISegment[] segments = createSegments(size);
+            int[] positions = SegmentSorter.sortPositions(segments, Comparator.comparingLong(ISegment::getLength));
+            assertEquals(size, positions.length);
+            boolean[] seen = new boolean[size];
+            for (int i = 0; i < size; i++) {
+                seen[positions[i]] = true;
+                if (i > 0) {
+                    ISegment previous = segments[positions[i - 1]];
+                    ISegment segment = segments[positions[i]];
+                    int cmp = Long.compare(previous.getLength(), segment.getLength());
+                    assertTrue("Position " + i, cmp < 0 || (cmp == 0 && positions[i - 1] < positions[i]));
+                }
+            }
+            for (int i = 0; i < size; i++) {
+                assertTrue("Segment " + i, seen[i]);
+            }
+        }
+    }
+}
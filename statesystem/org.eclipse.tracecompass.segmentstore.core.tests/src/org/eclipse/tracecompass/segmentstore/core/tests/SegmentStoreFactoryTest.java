@@ -26,6 +26,8 @@ import org.eclipse.tracecompass.segmentstore.core.SegmentStoreFactory;
 import org.eclipse.tracecompass.segmentstore.core.SegmentStoreFactory.SegmentStoreType;
 import org.junit.Test;
 
+import com.google.common.collect.Iterables;
+
 /**
  * Segment Store factory test
  *
@@ -60,6 +62,39 @@ public class SegmentStoreFactoryTest {
         assertNotNull(SegmentStoreFactory.createSegmentStore(SegmentStoreType.Stable));
     }
 
+    /**
+     * Create a compact segment store, whose segments are read back from their
+     * serialized form
+     */
+    @Test
+    public void createCompact() {
+        ISegmentStore<@NonNull BasicSegment> fixture = SegmentStoreFactory.createCompactSegmentStore(BasicSegment.BASIC_SEGMENT_READ_FACTORY);
+        assertNotNull(fixture);
+        fixture.add(new BasicSegment(3, 10));
+        fixture.add(new BasicSegment(1, 5));
+        assertEquals(2, fixture.size());
+        assertEquals(1, fixture.iterator().next().getStart());
+        assertEquals(1, Iterables.size(fixture.getIntersectingElements(8)));
+    }
+
+    /**
+     * Test that a compact segment store cannot be created without a segment
+     * reader
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void createCompactWithoutReader() {
+        SegmentStoreFactory.createSegmentStore(SegmentStoreType.Compact);
+    }
+
+    /**
+     * Test that a pre-loaded compact segment store cannot be created without a
+     * segment reader
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void createPreloadedCompact() {
+        SegmentStoreFactory.createSegmentStore(new ISegment[] { new BasicSegment(0, 0) }, SegmentStoreType.Fast, SegmentStoreType.Compact);
+    }
+
     /**
      * Create a "set" like segment store
      */
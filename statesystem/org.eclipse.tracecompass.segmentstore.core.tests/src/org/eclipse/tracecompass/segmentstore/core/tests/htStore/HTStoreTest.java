@@ -33,6 +33,8 @@ import org.eclipse.tracecompass.segmentstore.core.tests.historytree.HistoryTreeS
 import org.junit.After;
 import org.junit.Test;
 
+import com.google.common.collect.Iterables;
+
 /**
  * Unit tests for the history tree segment store. It tests the segment store
  * specific functionalities.
@@ -219,4 +221,23 @@ public class HTStoreTest extends AbstractTestSegmentStore {
         }
     }
 
-}
\ No newline at end of file
+
+    /**
+     * Test adding more segments than are sorted together before being
+     * inserted in the tree, in decreasing order of start times
+     */
+    @Test
+    public void testSortedRuns() {
+        ISegmentStore<TestSegment> store = fSegmentStore;
+        store.clear();
+        int nb = 100000;
+        for (int i = nb; i > 0; i--) {
+            store.add(new TestSegment(i, i + 10, "run"));
+        }
+        assertEquals(nb, store.size());
+        assertEquals(11, Iterables.size(store.getIntersectingElements(5000, 5000)));
+        store.close(false);
+        assertEquals(nb, store.size());
+        assertEquals(11, Iterables.size(store.getIntersectingElements(nb, nb)));
+    }
+}
@@ -0,0 +1,175 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.segmentstore.core;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.segmentstore.core.ISegment;
+
+/**
+ * Sorts large lists of segments by start and end times, or arrays of segments
+ * with any comparator. The positions of the segments are merge sorted in
+ * parallel. For lists, the times are copied to primitive arrays so the
+ * segments themselves are only accessed to break ties, and the segments are
+ * then moved once to their sorted position.
+ */
+public final class SegmentSorter {
+
+    /** Below this size, lists are sorted by {@link List#sort} */
+    private static final int MIN_PARALLEL_SIZE = 1 << 14;
+    /** Below this size, sub-ranges are sorted in the current thread */
+    private static final int SEQUENTIAL_SIZE = 1 << 12;
+
+    /**
+     * Compares two segments by their position
+     */
+    @FunctionalInterface
+    private interface PositionComparator {
+        int compare(int i, int j);
+    }
+
+    private SegmentSorter() {
+        // Do nothing
+    }
+
+    /**
+     * Sort a list of segments by start time, then end time, then with a
+     * comparator. The sort is stable.
+     *
+     * @param segments
+     *            The segments to sort, the list must support
+     *            {@link List#set(int, Object)}
+     * @param tieBreaker
+     *            The comparator of segments with the same start and end times,
+     *            or null to keep their order
+     */
+    public static <E extends ISegment> void sort(List<E> segments, @Nullable Comparator<? super E> tieBreaker) {
+        int size = segments.size();
+        if (size < MIN_PARALLEL_SIZE) {
+            Comparator<E> comparator = Comparator.comparingLong(E::getStart).thenComparingLong(E::getEnd);
+            segments.sort((tieBreaker == null) ? comparator : comparator.thenComparing(tieBreaker));
+            return;
+        }
+        Object[] elements = segments.toArray();
+        long[] starts = new long[size];
+        long[] ends = new long[size];
+        for (int i = 0; i < size; i++) {
+            ISegment segment = (ISegment) elements[i];
+            starts[i] = segment.getStart();
+            ends[i] = segment.getEnd();
+        }
+        int[] positions = sortPositions(size, (i, j) -> {
+            int cmp = Long.compare(starts[i], starts[j]);
+            if (cmp != 0) {
+                return cmp;
+            }
+            cmp = Long.compare(ends[i], ends[j]);
+            if (cmp != 0 || tieBreaker == null) {
+                return cmp;
+            }
+            return tieBreaker.compare((E) elements[i], (E) elements[j]);
+        });
+        for (int i = 0; i < size; i++) {
+            segments.set(i, (E) elements[positions[i]]);
+        }
+    }
+
+    /**
+     * Get the permutation that sorts an array of segments with a comparator,
+     * without moving the segments. The sort is stable.
+     *
+     * @param segments
+     *            The segments to sort
+     * @param comparator
+     *            The comparator of the segments
+     * @return The positions of the segments in the array, in sorted order
+     */
+    public static <E extends ISegment> int[] sortPositions(E[] segments, Comparator<? super E> comparator) {
+        return sortPositions(segments.length, (i, j) -> comparator.compare(segments[i], segments[j]));
+    }
+
+    private static int[] sortPositions(int size, PositionComparator comparator) {
+        int[] positions = new int[size];
+        for (int i = 0; i < size; i++) {
+            positions[i] = i;
+        }
+        SortTask task = new SortTask(comparator, positions, new int[size], 0, size);
+        if (size < MIN_PARALLEL_SIZE) {
+            task.sort(0, size);
+        } else {
+            ForkJoinPool.commonPool().invoke(task);
+        }
+        return positions;
+    }
+
+    private static class SortTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 6457106212458125307L;
+
+        private final transient PositionComparator fComparator;
+        private final int[] fPositions;
+        private final int[] fTmp;
+        private final int fFrom;
+        private final int fTo;
+
+        public SortTask(PositionComparator comparator, int[] positions, int[] tmp, int from, int to) {
+            fComparator = comparator;
+            fPositions = positions;
+            fTmp = tmp;
+            fFrom = from;
+            fTo = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (fTo - fFrom <= SEQUENTIAL_SIZE) {
+                sort(fFrom, fTo);
+                return;
+            }
+            int mid = (fFrom + fTo) >>> 1;
+            invokeAll(new SortTask(fComparator, fPositions, fTmp, fFrom, mid),
+                    new SortTask(fComparator, fPositions, fTmp, mid, fTo));
+            merge(fFrom, mid, fTo);
+        }
+
+        private void sort(int from, int to) {
+            if (to - from < 2) {
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            sort(from, mid);
+            sort(mid, to);
+            merge(from, mid, to);
+        }
+
+        private void merge(int from, int mid, int to) {
+            if (fComparator.compare(fPositions[mid - 1], fPositions[mid]) <= 0) {
+                /* Already in order */
+                return;
+            }
+            System.arraycopy(fPositions, from, fTmp, from, to - from);
+            int i = from;
+            int j = mid;
+            for (int k = from; k < to; k++) {
+                if (j >= to || (i < mid && fComparator.compare(fTmp[i], fTmp[j]) <= 0)) {
+                    fPositions[k] = fTmp[i++];
+                } else {
+                    fPositions[k] = fTmp[j++];
+                }
+            }
+        }
+    }
+}
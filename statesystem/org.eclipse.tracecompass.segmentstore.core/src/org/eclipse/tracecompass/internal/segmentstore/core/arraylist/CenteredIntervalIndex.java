@@ -0,0 +1,247 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.segmentstore.core.arraylist;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.tracecompass.segmentstore.core.ISegment;
+
+/**
+ * Immutable centered interval tree over a sorted list of segments, to find the
+ * segments intersecting a range in O(log n + k), even when some segments are
+ * very long. Since it is immutable, it can be queried concurrently without
+ * locking.
+ *
+ * Each node of the tree has a center time and holds the segments that contain
+ * it, sorted by start time and by decreasing end time. The segments that end
+ * before the center are in the left sub-tree, the ones that start after it
+ * are in the right sub-tree. The center of a node is the start time of the
+ * median segment, so the tree is balanced.
+ *
+ * The nodes are numbered in pre-order, so the left child of a node, if any,
+ * is the next node, and the segments of a node follow those of the previous
+ * node in the per-node arrays.
+ *
+ * @param <E>
+ *            The type of segment in the index
+ */
+public final class CenteredIntervalIndex<@NonNull E extends ISegment> {
+
+    private static final int NO_NODE = -1;
+
+    private final List<E> fSegments;
+    private final long[] fStarts;
+    private final long[] fEnds;
+    private final long fMinStart;
+    private final long fMaxEnd;
+
+    /* The nodes */
+    private final long[] fCenters;
+    private final int[] fRangeEnds;
+    private final boolean[] fHasLeft;
+    private final int[] fRight;
+    private int fNbNodes = 0;
+
+    /* Indexes of the segments of each node, by start time and by end time */
+    private final int[] fByStart;
+    private final int[] fByEnd;
+    private int fNbIndexed = 0;
+
+    /**
+     * Constructor
+     *
+     * @param segments
+     *            The segments to index, sorted by start time. The list must
+     *            not be modified afterwards.
+     */
+    public CenteredIntervalIndex(List<E> segments) {
+        fSegments = segments;
+        int size = segments.size();
+        fStarts = new long[size];
+        fEnds = new long[size];
+        long maxEnd = Long.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            E segment = segments.get(i);
+            fStarts[i] = segment.getStart();
+            fEnds[i] = segment.getEnd();
+            maxEnd = Math.max(maxEnd, fEnds[i]);
+        }
+        fMinStart = (size == 0) ? Long.MAX_VALUE : fStarts[0];
+        fMaxEnd = maxEnd;
+
+        fCenters = new long[size];
+        fRangeEnds = new int[size];
+        fHasLeft = new boolean[size];
+        fRight = new int[size];
+        fByStart = new int[size];
+        fByEnd = new int[size];
+        int[] all = new int[size];
+        Arrays.setAll(all, i -> i);
+        build(all);
+    }
+
+    private int build(int[] indexes) {
+        if (indexes.length == 0) {
+            return NO_NODE;
+        }
+        long center = fStarts[indexes[indexes.length / 2]];
+        int nbLeft = 0;
+        int nbRight = 0;
+        for (int i : indexes) {
+            if (fEnds[i] < center) {
+                nbLeft++;
+            } else if (fStarts[i] > center) {
+                nbRight++;
+            }
+        }
+        int[] left = new int[nbLeft];
+        int[] right = new int[nbRight];
+        nbLeft = 0;
+        nbRight = 0;
+        int from = fNbIndexed;
+        for (int i : indexes) {
+            if (fEnds[i] < center) {
+                left[nbLeft++] = i;
+            } else if (fStarts[i] > center) {
+                right[nbRight++] = i;
+            } else {
+                fByStart[fNbIndexed++] = i;
+            }
+        }
+        int to = fNbIndexed;
+        System.arraycopy(fByStart, from, fByEnd, from, to - from);
+        sortByDecreasingEnd(from, to, new int[to - from]);
+
+        int node = fNbNodes++;
+        fCenters[node] = center;
+        fRangeEnds[node] = to;
+        fHasLeft[node] = build(left) != NO_NODE;
+        fRight[node] = build(right);
+        return node;
+    }
+
+    /**
+     * Merge sort a range of the by-end indexes by decreasing end time
+     */
+    private void sortByDecreasingEnd(int from, int to, int[] tmp) {
+        if (to - from < 2) {
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        sortByDecreasingEnd(from, mid, tmp);
+        sortByDecreasingEnd(mid, to, tmp);
+        if (fEnds[fByEnd[mid - 1]] >= fEnds[fByEnd[mid]]) {
+            return;
+        }
+        int nb = to - from;
+        System.arraycopy(fByEnd, from, tmp, 0, nb);
+        int i = 0;
+        int j = mid - from;
+        for (int k = from; k < to; k++) {
+            if (j >= nb || (i < mid - from && fEnds[tmp[i]] >= fEnds[tmp[j]])) {
+                fByEnd[k] = tmp[i++];
+            } else {
+                fByEnd[k] = tmp[j++];
+            }
+        }
+    }
+
+    /**
+     * Get the indexed segments
+     *
+     * @return The segments, sorted by start time
+     */
+    public List<E> getSegments() {
+        return fSegments;
+    }
+
+    /**
+     * Get the segments that intersect a range, inclusively
+     *
+     * @param start
+     *            The start of the range
+     * @param end
+     *            The end of the range
+     * @return The segments that intersect the range, in the order of the
+     *         indexed list
+     */
+    public Iterable<E> getIntersectingElements(long start, long end) {
+        if (start <= fMinStart && end >= fMaxEnd) {
+            return fSegments;
+        }
+        if (fNbNodes == 0 || end < fMinStart || start > fMaxEnd) {
+            return Collections.emptyList();
+        }
+        int[] found = new int[16];
+        int nbFound = 0;
+        /* Nodes whose left sub-tree remains to be visited */
+        int[] pending = new int[64];
+        int nbPending = 0;
+        int node = 0;
+        while (node != NO_NODE || nbPending > 0) {
+            if (node == NO_NODE) {
+                int parent = pending[--nbPending];
+                node = parent + 1;
+            }
+            int from = (node == 0) ? 0 : fRangeEnds[node - 1];
+            int to = fRangeEnds[node];
+            long center = fCenters[node];
+            int first = from;
+            int last = from;
+            if (end < center) {
+                /* All the segments of the node end after the range */
+                while (last < to && fStarts[fByStart[last]] <= end) {
+                    last++;
+                }
+            } else if (start > center) {
+                /* All the segments of the node start before the range */
+                while (last < to && fEnds[fByEnd[last]] >= start) {
+                    last++;
+                }
+            } else {
+                last = to;
+            }
+            if (nbFound + last - first > found.length) {
+                found = Arrays.copyOf(found, Math.max(found.length * 2, nbFound + last - first));
+            }
+            int[] source = (start > center) ? fByEnd : fByStart;
+            System.arraycopy(source, first, found, nbFound, last - first);
+            nbFound += last - first;
+
+            int right = fRight[node];
+            if (end < center) {
+                node = fHasLeft[node] ? node + 1 : NO_NODE;
+            } else if (start > center) {
+                node = right;
+            } else {
+                if (fHasLeft[node]) {
+                    if (nbPending == pending.length) {
+                        pending = Arrays.copyOf(pending, nbPending * 2);
+                    }
+                    pending[nbPending++] = node;
+                }
+                node = right;
+            }
+        }
+
+        Arrays.sort(found, 0, nbFound);
+        List<E> result = new ArrayList<>(nbFound);
+        for (int i = 0; i < nbFound; i++) {
+            result.add(fSegments.get(found[i]));
+        }
+        return result;
+    }
+}
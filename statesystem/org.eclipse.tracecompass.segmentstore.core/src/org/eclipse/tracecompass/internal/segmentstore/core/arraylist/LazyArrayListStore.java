@@ -24,6 +24,7 @@ import java.util.function.Function;
 
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.internal.segmentstore.core.SegmentSorter;
 import org.eclipse.tracecompass.segmentstore.core.BasicSegment;
 import org.eclipse.tracecompass.segmentstore.core.ISegment;
 import org.eclipse.tracecompass.segmentstore.core.ISegmentStore;
@@ -47,6 +48,10 @@ import com.google.common.collect.ImmutableList;
  * should be faster at building when receiving shuffled datasets than the
  * {@link ArrayListStore}.
  *
+ * When the store is closed, a {@link CenteredIntervalIndex} of its segments is
+ * built, so that they can be iterated and queried without locking until a new
+ * segment is added.
+ *
  * Removal operations are not supported.
  *
  * @param <E>
@@ -70,6 +75,7 @@ public class LazyArrayListStore<@NonNull E extends ISegment> implements ISegment
     protected final List<E> fStore;
 
     private @Nullable transient Iterable<E> fLastSnapshot = null;
+    private volatile @Nullable CenteredIntervalIndex<E> fIndex = null;
 
     private volatile boolean fDirty = false;
     private volatile long fStart = Long.MAX_VALUE;
@@ -122,6 +128,10 @@ public class LazyArrayListStore<@NonNull E extends ISegment> implements ISegment
 
     @Override
     public Iterator<E> iterator() {
+        CenteredIntervalIndex<E> index = fIndex;
+        if (index != null) {
+            return checkNotNull(index.getSegments().iterator());
+        }
         fLock.lock();
         try {
             if (fDirty) {
@@ -140,10 +150,11 @@ public class LazyArrayListStore<@NonNull E extends ISegment> implements ISegment
 
     /**
      * Sort the backing ArrayList using the order defined by the internal
-     * comparator. DO NOT CALL FROM OUTSIDE OF A LOCK!
+     * comparator. Large stores are sorted in parallel. DO NOT CALL FROM
+     * OUTSIDE OF A LOCK!
      */
     protected void sortStore() {
-        fStore.sort(COMPARATOR);
+        SegmentSorter.sort(fStore, Comparator.naturalOrder());
         fDirty = false;
     }
 
@@ -158,6 +169,7 @@ public class LazyArrayListStore<@NonNull E extends ISegment> implements ISegment
             setDirtyIfNeeded(val);
             fStore.add(getInsertionPoint(val), val);
             fLastSnapshot = null;
+            fIndex = null;
             fStart = Math.min(fStart, val.getStart());
             fEnd = Math.max(fEnd, val.getEnd());
             return true;
@@ -269,6 +281,7 @@ public class LazyArrayListStore<@NonNull E extends ISegment> implements ISegment
         try {
             fStore.clear();
             fLastSnapshot = null;
+            fIndex = null;
             fDirty = false;
         } finally {
             fLock.unlock();
@@ -281,6 +294,10 @@ public class LazyArrayListStore<@NonNull E extends ISegment> implements ISegment
 
     @Override
     public Iterable<E> getIntersectingElements(long start, long end) {
+        CenteredIntervalIndex<E> index = fIndex;
+        if (index != null) {
+            return index.getIntersectingElements(start, end);
+        }
         fLock.lock();
         if (fDirty) {
             sortStore();
@@ -330,6 +347,37 @@ public class LazyArrayListStore<@NonNull E extends ISegment> implements ISegment
         }
     }
 
+    /**
+     * Check if the segments are indexed, which happens when the store is
+     * closed and until a new segment is added
+     *
+     * @return true if the queries use the index of the segments
+     */
+    public boolean isIndexed() {
+        return fIndex != null;
+    }
+
+    @Override
+    public void close(boolean deleteFiles) {
+        if (deleteFiles || fIndex != null) {
+            return;
+        }
+        fLock.lock();
+        try {
+            if (fDirty) {
+                sortStore();
+            }
+            Iterable<E> lastSnapshot = fLastSnapshot;
+            if (lastSnapshot == null) {
+                lastSnapshot = ImmutableList.copyOf(fStore);
+                fLastSnapshot = lastSnapshot;
+            }
+            fIndex = new CenteredIntervalIndex<>((List<E>) lastSnapshot);
+        } finally {
+            fLock.unlock();
+        }
+    }
+
     @Override
     public void dispose() {
         clear();
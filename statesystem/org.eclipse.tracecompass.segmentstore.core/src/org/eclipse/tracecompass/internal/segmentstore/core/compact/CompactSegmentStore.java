@@ -0,0 +1,642 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.segmentstore.core.compact;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.datastore.core.interval.IHTIntervalReader;
+import org.eclipse.tracecompass.datastore.core.serialization.SafeByteBufferFactory;
+import org.eclipse.tracecompass.segmentstore.core.ISegment;
+import org.eclipse.tracecompass.segmentstore.core.ISegmentStore;
+
+/**
+ * Implementation of an {@link ISegmentStore} that does not keep the segment
+ * objects. The start and end times of the segments are kept in chunks of
+ * primitive arrays, with the address of their serialized form, which is
+ * written off-heap with {@link ISegment#writeSegment}. Segments are read back
+ * with the segment reader only when they are returned, so that a store costs
+ * about 24 bytes per segment on the heap, whatever the type of segment.
+ *
+ * The iteration order is by ascending order of start times, then end times,
+ * then insertion order. Segments that are added in that order are appended to
+ * the sorted columns, the others are kept apart and merged with them on the
+ * next read. Iterators work on a snapshot of the columns, they are not
+ * affected by the segments added afterwards.
+ *
+ * The segments must implement {@link ISegment#getSizeOnDisk()} and
+ * {@link ISegment#writeSegment} so that the segment reader can read them
+ * back. Two segments are considered equal by this store if they have the same
+ * start and end times and the same serialized form.
+ *
+ * Removal operations are not supported.
+ *
+ * @param <E>
+ *            The type of segment held in this store
+ */
+public class CompactSegmentStore<@NonNull E extends ISegment> implements ISegmentStore<E> {
+
+    private static final int CHUNK_BITS = 12;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int PAYLOAD_CHUNK_SIZE = 1 << 20;
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    /**
+     * Columns of segments: start time, end time and address of the payload,
+     * made of the index of the payload chunk in the upper 32 bits and the
+     * position in that chunk in the lower 32 bits.
+     *
+     * The greatest end time of the segments up to the end of each chunk is
+     * also kept, in insertion order. It is only meaningful for sorted columns,
+     * where it bounds the segments that can intersect a time.
+     */
+    private static final class Columns {
+        private long[][] fStarts = new long[0][];
+        private long[][] fEnds = new long[0][];
+        private long[][] fAddresses = new long[0][];
+        private long[] fMaxEnds = new long[0];
+        private int fSize = 0;
+
+        public void add(long start, long end, long address) {
+            int chunk = fSize >>> CHUNK_BITS;
+            if (chunk == fStarts.length) {
+                int nbChunks = Math.max(4, chunk * 2);
+                fStarts = Arrays.copyOf(fStarts, nbChunks);
+                fEnds = Arrays.copyOf(fEnds, nbChunks);
+                fAddresses = Arrays.copyOf(fAddresses, nbChunks);
+                fMaxEnds = Arrays.copyOf(fMaxEnds, nbChunks);
+            }
+            if (fStarts[chunk] == null) {
+                fStarts[chunk] = new long[CHUNK_SIZE];
+                fEnds[chunk] = new long[CHUNK_SIZE];
+                fAddresses[chunk] = new long[CHUNK_SIZE];
+                fMaxEnds[chunk] = (chunk == 0) ? Long.MIN_VALUE : fMaxEnds[chunk - 1];
+            }
+            int index = fSize & CHUNK_MASK;
+            fStarts[chunk][index] = start;
+            fEnds[chunk][index] = end;
+            fAddresses[chunk][index] = address;
+            fMaxEnds[chunk] = Math.max(fMaxEnds[chunk], end);
+            fSize++;
+        }
+
+        public long getStart(int i) {
+            return fStarts[i >>> CHUNK_BITS][i & CHUNK_MASK];
+        }
+
+        public long getEnd(int i) {
+            return fEnds[i >>> CHUNK_BITS][i & CHUNK_MASK];
+        }
+
+        public long getAddress(int i) {
+            return fAddresses[i >>> CHUNK_BITS][i & CHUNK_MASK];
+        }
+
+        public int compare(int i, int j) {
+            int cmp = Long.compare(getStart(i), getStart(j));
+            if (cmp == 0) {
+                cmp = Long.compare(getEnd(i), getEnd(j));
+            }
+            /* Addresses increase with insertion order */
+            return (cmp == 0) ? Long.compare(getAddress(i), getAddress(j)) : cmp;
+        }
+
+        public void swap(int i, int j) {
+            swap(fStarts, i, j);
+            swap(fEnds, i, j);
+            swap(fAddresses, i, j);
+        }
+
+        private static void swap(long[][] column, int i, int j) {
+            long[] chunkI = column[i >>> CHUNK_BITS];
+            long[] chunkJ = column[j >>> CHUNK_BITS];
+            long tmp = chunkI[i & CHUNK_MASK];
+            chunkI[i & CHUNK_MASK] = chunkJ[j & CHUNK_MASK];
+            chunkJ[j & CHUNK_MASK] = tmp;
+        }
+
+        /**
+         * Sort the columns, using a quick sort with a median of three pivot.
+         */
+        public void sort(int from, int to) {
+            int lo = from;
+            int hi = to;
+            while (hi - lo > INSERTION_SORT_THRESHOLD) {
+                int mid = (lo + hi) >>> 1;
+                if (compare(mid, lo) < 0) {
+                    swap(mid, lo);
+                }
+                if (compare(hi - 1, lo) < 0) {
+                    swap(hi - 1, lo);
+                }
+                if (compare(hi - 1, mid) < 0) {
+                    swap(hi - 1, mid);
+                }
+                /* The pivot is moved next to the end */
+                swap(mid, hi - 2);
+                int pivot = hi - 2;
+                int i = lo;
+                int j = hi - 2;
+                while (true) {
+                    while (compare(++i, pivot) < 0) {
+                        // Find an element to move right
+                    }
+                    while (compare(--j, pivot) > 0) {
+                        // Find an element to move left
+                    }
+                    if (i >= j) {
+                        break;
+                    }
+                    swap(i, j);
+                }
+                swap(i, hi - 2);
+                /* Recurse on the smaller side to bound the depth */
+                if (i - lo < hi - i) {
+                    sort(lo, i);
+                    lo = i + 1;
+                } else {
+                    sort(i + 1, hi);
+                    hi = i;
+                }
+            }
+            for (int i = lo + 1; i < hi; i++) {
+                for (int j = i; j > lo && compare(j, j - 1) < 0; j--) {
+                    swap(j, j - 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * A read-only view of the sorted columns, that is not affected by the
+     * segments added after it was taken.
+     */
+    private final class Snapshot {
+        private final long[][] fStarts;
+        private final long[][] fEnds;
+        private final long[][] fAddresses;
+        private final long[] fMaxEnds;
+        private final ByteBuffer[] fChunks;
+        private final int fSize;
+
+        public Snapshot(Columns columns, ByteBuffer[] chunks) {
+            fStarts = columns.fStarts;
+            fEnds = columns.fEnds;
+            fAddresses = columns.fAddresses;
+            fMaxEnds = columns.fMaxEnds;
+            fSize = columns.fSize;
+            fChunks = chunks;
+        }
+
+        public long getStart(int i) {
+            return fStarts[i >>> CHUNK_BITS][i & CHUNK_MASK];
+        }
+
+        public long getEnd(int i) {
+            return fEnds[i >>> CHUNK_BITS][i & CHUNK_MASK];
+        }
+
+        public E get(int i) {
+            return fReader.readInterval(SafeByteBufferFactory.wrapReader(getPayload(i), getPayloadSize(i)));
+        }
+
+        /**
+         * Get a buffer positioned at the payload of a segment, after its size
+         */
+        private ByteBuffer getPayload(int i) {
+            long address = fAddresses[i >>> CHUNK_BITS][i & CHUNK_MASK];
+            ByteBuffer buffer = fChunks[(int) (address >>> 32)].duplicate();
+            buffer.position((int) address + Integer.BYTES);
+            return buffer;
+        }
+
+        private int getPayloadSize(int i) {
+            long address = fAddresses[i >>> CHUNK_BITS][i & CHUNK_MASK];
+            return fChunks[(int) (address >>> 32)].getInt((int) address);
+        }
+
+        /**
+         * Get the index of the first segment that starts after a time
+         */
+        public int upperBound(long time) {
+            int lo = 0;
+            int hi = fSize;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (getStart(mid) <= time) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        /**
+         * Get the index of the first segment that does not start before a time
+         */
+        public int lowerBound(long time) {
+            int lo = 0;
+            int hi = fSize;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (getStart(mid) < time) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        /**
+         * Get the index of the first segment that may end at or after a time:
+         * the first one of the first chunk where the segments up to its end
+         * have an end time that is not before that time. The segments before
+         * it all end before that time.
+         */
+        public int firstEndingAfter(long time) {
+            int lo = 0;
+            int hi = (fSize >>> CHUNK_BITS) + ((fSize & CHUNK_MASK) == 0 ? 0 : 1);
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (fMaxEnds[mid] < time) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return Math.min(lo << CHUNK_BITS, fSize);
+        }
+
+        public boolean contains(ISegment segment, byte[] payload) {
+            long start = segment.getStart();
+            for (int i = lowerBound(start); i < fSize && getStart(i) == start; i++) {
+                if (getEnd(i) == segment.getEnd() && getPayloadSize(i) == payload.length) {
+                    ByteBuffer buffer = getPayload(i);
+                    buffer.limit(buffer.position() + payload.length);
+                    if (buffer.equals(ByteBuffer.wrap(payload))) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        public Iterator<E> iterator() {
+            return new Iterator<E>() {
+                private int fNext = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return fNext < fSize;
+                }
+
+                @Override
+                public E next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return get(fNext++);
+                }
+            };
+        }
+
+        /**
+         * Get an iterator over the segments between two indexes that end at
+         * or after a time. The segments are only read when they are returned.
+         */
+        public Iterator<E> iterator(int from, int to, long time) {
+            return new Iterator<E>() {
+                private int fNext = skip(from);
+
+                private int skip(int index) {
+                    int i = index;
+                    while (i < to && getEnd(i) < time) {
+                        i++;
+                    }
+                    return i;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return fNext < to;
+                }
+
+                @Override
+                public E next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    E segment = get(fNext);
+                    fNext = skip(fNext + 1);
+                    return segment;
+                }
+            };
+        }
+    }
+
+    private final IHTIntervalReader<E> fReader;
+    private final ReentrantLock fLock = new ReentrantLock(false);
+
+    /* Segments in iteration order, and segments added out of order */
+    private Columns fSorted = new Columns();
+    private Columns fUnsorted = new Columns();
+
+    /* Off-heap chunks of serialized segments */
+    private ByteBuffer[] fChunks = new ByteBuffer[0];
+    private int fNbChunks = 0;
+
+    private volatile long fStart = Long.MAX_VALUE;
+    private volatile long fEnd = Long.MIN_VALUE;
+
+    /**
+     * Constructor
+     *
+     * @param segmentReader
+     *            The reader of the serialized segments
+     */
+    public CompactSegmentStore(IHTIntervalReader<E> segmentReader) {
+        fReader = segmentReader;
+    }
+
+    /**
+     * Constructor
+     *
+     * @param segmentReader
+     *            The reader of the serialized segments
+     * @param array
+     *            an array of elements to add to the segment store
+     */
+    public CompactSegmentStore(IHTIntervalReader<E> segmentReader, Object[] array) {
+        this(segmentReader);
+        for (Object object : array) {
+            if (object instanceof ISegment) {
+                add((E) object);
+            }
+        }
+    }
+
+    /**
+     * Get the snapshot of the sorted segments, merging the segments that were
+     * added out of order first. DO NOT CALL FROM OUTSIDE OF A LOCK!
+     */
+    private Snapshot getSnapshot() {
+        Columns unsorted = fUnsorted;
+        if (unsorted.fSize > 0) {
+            unsorted.sort(0, unsorted.fSize);
+            /*
+             * Merge in new columns, previous snapshots still use the previous
+             * ones
+             */
+            Columns sorted = fSorted;
+            Columns merged = new Columns();
+            int i = 0;
+            int j = 0;
+            while (i < sorted.fSize || j < unsorted.fSize) {
+                if (j == unsorted.fSize || (i < sorted.fSize && compare(sorted, i, unsorted, j) <= 0)) {
+                    merged.add(sorted.getStart(i), sorted.getEnd(i), sorted.getAddress(i));
+                    i++;
+                } else {
+                    merged.add(unsorted.getStart(j), unsorted.getEnd(j), unsorted.getAddress(j));
+                    j++;
+                }
+            }
+            fSorted = merged;
+            fUnsorted = new Columns();
+        }
+        return new Snapshot(fSorted, fChunks);
+    }
+
+    private static int compare(Columns columns1, int i, Columns columns2, int j) {
+        int cmp = Long.compare(columns1.getStart(i), columns2.getStart(j));
+        if (cmp == 0) {
+            cmp = Long.compare(columns1.getEnd(i), columns2.getEnd(j));
+        }
+        return (cmp == 0) ? Long.compare(columns1.getAddress(i), columns2.getAddress(j)) : cmp;
+    }
+
+    /**
+     * Write a segment off-heap. DO NOT CALL FROM OUTSIDE OF A LOCK!
+     *
+     * @return The address of the segment's payload
+     */
+    private long writePayload(E segment) {
+        int size = segment.getSizeOnDisk();
+        ByteBuffer chunk = (fNbChunks == 0) ? null : fChunks[fNbChunks - 1];
+        if (chunk == null || chunk.remaining() < size + Integer.BYTES) {
+            chunk = ByteBuffer.allocateDirect(Math.max(PAYLOAD_CHUNK_SIZE, size + Integer.BYTES));
+            if (fNbChunks == fChunks.length) {
+                fChunks = Arrays.copyOf(fChunks, Math.max(4, fNbChunks * 2));
+            }
+            fChunks[fNbChunks++] = chunk;
+        }
+        long address = ((long) (fNbChunks - 1) << 32) | chunk.position();
+        chunk.putInt(size);
+        segment.writeSegment(SafeByteBufferFactory.wrapWriter(chunk, size));
+        return address;
+    }
+
+    private static byte[] serialize(ISegment segment) {
+        int size = segment.getSizeOnDisk();
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        segment.writeSegment(SafeByteBufferFactory.wrapWriter(buffer, size));
+        return buffer.array();
+    }
+
+    // ------------------------------------------------------------------------
+    // Methods from Collection
+    // ------------------------------------------------------------------------
+
+    @Override
+    public Iterator<E> iterator() {
+        fLock.lock();
+        try {
+            return getSnapshot().iterator();
+        } finally {
+            fLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean add(@Nullable E val) {
+        if (val == null) {
+            throw new IllegalArgumentException("Cannot add null value"); //$NON-NLS-1$
+        }
+
+        fLock.lock();
+        try {
+            long address = writePayload(val);
+            long start = val.getStart();
+            long end = val.getEnd();
+            Columns sorted = fSorted;
+            int last = sorted.fSize - 1;
+            if (last < 0 || sorted.getStart(last) < start || (sorted.getStart(last) == start && sorted.getEnd(last) <= end)) {
+                sorted.add(start, end, address);
+            } else {
+                fUnsorted.add(start, end, address);
+            }
+            fStart = Math.min(fStart, start);
+            fEnd = Math.max(fEnd, end);
+            return true;
+        } finally {
+            fLock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        fLock.lock();
+        try {
+            return fSorted.fSize + fUnsorted.fSize;
+        } finally {
+            fLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public boolean contains(@Nullable Object o) {
+        if (!(o instanceof ISegment)) {
+            return false;
+        }
+        ISegment segment = (ISegment) o;
+        if (segment.getStart() < fStart || segment.getEnd() > fEnd) {
+            /* This segment cannot be in this SegmentStore */
+            return false;
+        }
+        byte[] payload = serialize(segment);
+        fLock.lock();
+        try {
+            return getSnapshot().contains(segment, payload);
+        } finally {
+            fLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean containsAll(@Nullable Collection<?> c) {
+        if (c == null) {
+            throw new IllegalArgumentException();
+        }
+        for (Object o : c) {
+            if (!contains(o)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Object[] toArray() {
+        return toList().toArray();
+    }
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+        return toList().toArray(a);
+    }
+
+    private List<E> toList() {
+        Snapshot snapshot;
+        fLock.lock();
+        try {
+            snapshot = getSnapshot();
+        } finally {
+            fLock.unlock();
+        }
+        List<E> list = new ArrayList<>(snapshot.fSize);
+        for (int i = 0; i < snapshot.fSize; i++) {
+            list.add(snapshot.get(i));
+        }
+        return list;
+    }
+
+    @Override
+    public boolean addAll(@Nullable Collection<? extends E> c) {
+        if (c == null) {
+            throw new IllegalArgumentException();
+        }
+
+        fLock.lock();
+        try {
+            c.forEach(this::add);
+            return true;
+        } finally {
+            fLock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        fLock.lock();
+        try {
+            fSorted = new Columns();
+            fUnsorted = new Columns();
+            fChunks = new ByteBuffer[0];
+            fNbChunks = 0;
+            fStart = Long.MAX_VALUE;
+            fEnd = Long.MIN_VALUE;
+        } finally {
+            fLock.unlock();
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Methods added by ISegmentStore
+    // ------------------------------------------------------------------------
+
+    @Override
+    public Iterable<E> getIntersectingElements(long start, long end) {
+        Snapshot snapshot;
+        fLock.lock();
+        try {
+            snapshot = getSnapshot();
+        } finally {
+            fLock.unlock();
+        }
+        if (start <= fStart && end >= fEnd) {
+            return snapshot::iterator;
+        }
+        /*
+         * Since segments are sorted by start times, there is no point in
+         * searching segments that start too late, nor those of the chunks
+         * where all segments end too early. The segments are only read when
+         * they are iterated on.
+         */
+        int first = snapshot.firstEndingAfter(start);
+        int last = snapshot.upperBound(end);
+        if (first >= last) {
+            return Collections.emptyList();
+        }
+        return () -> snapshot.iterator(first, last, start);
+    }
+
+    @Override
+    public void dispose() {
+        clear();
+    }
+}
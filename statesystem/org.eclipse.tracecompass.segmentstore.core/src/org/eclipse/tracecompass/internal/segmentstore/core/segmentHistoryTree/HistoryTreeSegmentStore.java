@@ -14,15 +14,18 @@ package org.eclipse.tracecompass.internal.segmentstore.core.segmentHistoryTree;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Objects;
 
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.common.core.NonNullUtils;
 import org.eclipse.tracecompass.datastore.core.interval.IHTIntervalReader;
+import org.eclipse.tracecompass.internal.segmentstore.core.SegmentSorter;
 import org.eclipse.tracecompass.segmentstore.core.ISegment;
 import org.eclipse.tracecompass.segmentstore.core.ISegmentStore;
 
@@ -37,6 +40,11 @@ import com.google.common.collect.Iterables;
  * the node type for the segment store. This class can be extended in the unit
  * tests with stub history trees and nodes to test its specific functionalities.
  *
+ * Segments are added to the tree in runs: they are buffered, then sorted by
+ * start time and inserted together, so that most of them fill the leaves of
+ * the tree one after the other instead of being pushed up to the core nodes.
+ * The buffer is flushed before the tree is read and when the store is closed.
+ *
  * @author Loic Prieur-Drevon
  * @author Geneviève Bastien
  * @param <E>
@@ -48,6 +56,8 @@ public class HistoryTreeSegmentStore<E extends ISegment> implements ISegmentStor
     // they are not adequate for segments stores. Do some benchmarks
     private static final int MAX_CHILDREN = 50;
     private static final int BLOCK_SIZE = 64 * 1024;
+    /** Number of segments sorted together before being inserted */
+    private static final int RUN_SIZE = 1 << 16;
     /**
      * The history tree that sits underneath.
      */
@@ -56,6 +66,9 @@ public class HistoryTreeSegmentStore<E extends ISegment> implements ISegmentStor
     /** Indicates if the history tree construction is done */
     private volatile boolean fFinishedBuilding = false;
 
+    /** Segments that are not inserted in the tree yet */
+    private final List<E> fRun = new ArrayList<>();
+
     /**
      * Constructor for new history files. Use this when creating a new history
      * from scratch.
@@ -114,14 +127,32 @@ public class HistoryTreeSegmentStore<E extends ISegment> implements ISegmentStor
     }
 
     /**
-     * Get the History Tree built by this backend.
+     * Get the History Tree built by this backend. The segments that were added
+     * but not inserted yet are inserted first.
      *
      * @return The history tree
      */
     public SegmentHistoryTree<E> getSHT() {
+        flushRun();
         return fSht;
     }
 
+    /**
+     * Sort the buffered segments by start time and insert them in the tree
+     */
+    private void flushRun() {
+        synchronized (fRun) {
+            if (fRun.isEmpty()) {
+                return;
+            }
+            SegmentSorter.sort(fRun, null);
+            for (E segment : fRun) {
+                fSht.insert(segment);
+            }
+            fRun.clear();
+        }
+    }
+
     /**
      * Get the start time of the history tree
      *
@@ -165,7 +196,10 @@ public class HistoryTreeSegmentStore<E extends ISegment> implements ISegmentStor
      * delete the SHT files from disk
      */
     public void removeFiles() {
-        getSHT().deleteFile();
+        synchronized (fRun) {
+            fRun.clear();
+        }
+        fSht.deleteFile();
     }
 
     @Override
@@ -178,7 +212,7 @@ public class HistoryTreeSegmentStore<E extends ISegment> implements ISegmentStor
              * built since it won't be complete, so shouldn't be re-used in the
              * future (.deleteFile() will close the file first)
              */
-            getSHT().deleteFile();
+            removeFiles();
         }
     }
 
@@ -193,7 +227,12 @@ public class HistoryTreeSegmentStore<E extends ISegment> implements ISegmentStor
 
     @Override
     public boolean add(E interval) {
-        getSHT().insert(interval);
+        synchronized (fRun) {
+            fRun.add(interval);
+            if (fRun.size() >= RUN_SIZE) {
+                flushRun();
+            }
+        }
         return true;
     }
 
@@ -293,8 +332,11 @@ public class HistoryTreeSegmentStore<E extends ISegment> implements ISegmentStor
 
     @Override
     public void clear() {
+        synchronized (fRun) {
+            fRun.clear();
+        }
         try {
-            getSHT().cleanFile();
+            fSht.cleanFile();
         } catch (IOException e) {
             throw new IllegalStateException("HT segment store: couldn't clear the HT file: " + e.getMessage()); //$NON-NLS-1$
         }
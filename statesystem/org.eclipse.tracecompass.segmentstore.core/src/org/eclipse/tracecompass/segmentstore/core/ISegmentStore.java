@@ -188,7 +188,8 @@ public interface ISegmentStore<E extends ISegment> extends Collection<E> {
     /**
      * Method to close off the segment store. This happens for example when we
      * are done reading an off-line trace. Implementers can use this method to
-     * save the segment store on disk
+     * save the segment store on disk, or to sort and index all the segments at
+     * once
      *
      * @param deleteFiles
      *            Whether to delete any file that was created while building the
@@ -24,6 +24,7 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.datastore.core.interval.IHTIntervalReader;
 import org.eclipse.tracecompass.internal.segmentstore.core.arraylist.ArrayListStore;
 import org.eclipse.tracecompass.internal.segmentstore.core.arraylist.LazyArrayListStore;
+import org.eclipse.tracecompass.internal.segmentstore.core.compact.CompactSegmentStore;
 import org.eclipse.tracecompass.internal.segmentstore.core.segmentHistoryTree.HistoryTreeSegmentStore;
 import org.eclipse.tracecompass.internal.segmentstore.core.treemap.TreeMapStore;
 
@@ -69,7 +70,18 @@ public final class SegmentStoreFactory<E> {
          *
          * @since 2.0
          */
-        OnDisk
+        OnDisk,
+        /**
+         * Segment store that keeps its segments serialized, off-heap, and only
+         * their start and end times in primitive arrays. It is ideal for large
+         * stores that have to be in memory, the segments are read back when
+         * they are returned. These kind of stores should be created using the
+         * {@link SegmentStoreFactory#createCompactSegmentStore(IHTIntervalReader)}
+         * factory method
+         *
+         * @since 3.2
+         */
+        Compact
     }
 
     private SegmentStoreFactory() {
@@ -84,6 +96,9 @@ public final class SegmentStoreFactory<E> {
      *            created
      *
      * @return a new {@link ISegmentStore}
+     * @throws IllegalArgumentException
+     *             if a {@link SegmentStoreType#Compact} store is requested,
+     *             which needs a segment reader
      */
     public static <E extends ISegment> ISegmentStore<E> createSegmentStore(@Nullable SegmentStoreType... segmentTypes) {
         Set<@NonNull SegmentStoreType> segments = getListOfFlags(segmentTypes);
@@ -93,6 +108,7 @@ public final class SegmentStoreFactory<E> {
         if (segments.contains(SegmentStoreType.Stable)) {
             return createArrayListStore();
         }
+        checkNotCompact(segments);
         // default option is the fastest
         return createLazyArrayListStore();
 
@@ -110,6 +126,9 @@ public final class SegmentStoreFactory<E> {
      *            {@link ISegment}
      * @return an {@link ISegmentStore} containing the {@link ISegment}s from
      *         array.
+     * @throws IllegalArgumentException
+     *             if a {@link SegmentStoreType#Compact} store is requested,
+     *             which needs a segment reader
      */
     public static <E extends ISegment> ISegmentStore<E> createSegmentStore(Object[] array, SegmentStoreType... segmentTypes) {
         Set<@NonNull SegmentStoreType> segments = getListOfFlags(segmentTypes);
@@ -125,6 +144,7 @@ public final class SegmentStoreFactory<E> {
         if (segments.contains(SegmentStoreType.Stable)) {
             return new ArrayListStore<>(array);
         }
+        checkNotCompact(segments);
         // default option is the fastest
         return new LazyArrayListStore<>(array);
     }
@@ -148,6 +168,32 @@ public final class SegmentStoreFactory<E> {
         return new HistoryTreeSegmentStore<>(segmentFile, segmentReader, version);
     }
 
+    /**
+     * SegmentStore factory method that creates a compact segment store, that
+     * keeps the segments serialized off-heap. The segments must implement
+     * {@link ISegment#getSizeOnDisk()} and {@link ISegment#writeSegment}.
+     *
+     * @param segmentReader
+     *            The factory to read the segments from a safe byte buffer
+     *
+     * @return an {@link ISegmentStore}
+     * @since 3.2
+     */
+    public static <E extends ISegment> ISegmentStore<E> createCompactSegmentStore(IHTIntervalReader<E> segmentReader) {
+        return new CompactSegmentStore<>(segmentReader);
+    }
+
+    /**
+     * A compact store cannot be created without a segment reader, it must be
+     * created with {@link #createCompactSegmentStore(IHTIntervalReader)}
+     * instead of falling back to another type of store.
+     */
+    private static void checkNotCompact(Set<@NonNull SegmentStoreType> segments) {
+        if (segments.contains(SegmentStoreType.Compact)) {
+            throw new IllegalArgumentException("A compact segment store must be created with a segment reader"); //$NON-NLS-1$
+        }
+    }
+
     private static Set<@NonNull SegmentStoreType> getListOfFlags(SegmentStoreType... segmentTypes) {
         Set<@NonNull SegmentStoreType> segments = new HashSet<>();
         for(@Nullable SegmentStoreType segmentType : segmentTypes ) {
@@ -21,6 +21,11 @@ import static org.junit.Assert.assertNotEquals;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.eclipse.tracecompass.internal.statesystem.core.AttributeTree;
 import org.eclipse.tracecompass.internal.statesystem.core.StateSystem;
@@ -125,4 +130,44 @@ public class AttributeTreeTest {
             file.delete();
         }
     }
+
+    /**
+     * Test that attributes added and looked up concurrently get the same
+     * quarks, and that their parents are added before them.
+     *
+     * @throws Exception
+     *             if a thread fails
+     */
+    @Test
+    public void testConcurrentQuarkAndAdd() throws Exception {
+        IStateHistoryBackend backend = StateHistoryBackendFactory.createNullBackend("test");
+        StateSystem ss = new StateSystem(backend);
+        AttributeTree attributeTree = new AttributeTree(ss);
+        int nbThreads = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(nbThreads);
+        try {
+            List<Future<int[]>> futures = new ArrayList<>();
+            for (int i = 0; i < nbThreads; i++) {
+                futures.add(executor.submit(() -> {
+                    int[] quarks = new int[NAMES.length];
+                    for (int j = 0; j < NAMES.length; j++) {
+                        int threadQuark = attributeTree.getQuarkAndAdd(ITmfStateSystem.ROOT_ATTRIBUTE, THREADS, NAMES[j]);
+                        quarks[j] = attributeTree.getQuarkAndAdd(threadQuark, STATUS);
+                        assertEquals(quarks[j], attributeTree.getQuarkDontAdd(ITmfStateSystem.ROOT_ATTRIBUTE, THREADS, NAMES[j], STATUS));
+                    }
+                    return quarks;
+                }));
+            }
+            int[] expected = futures.get(0).get();
+            for (Future<int[]> future : futures) {
+                assertArrayEquals(expected, future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(1 + 2 * NAMES.length, attributeTree.getNbAttributes());
+        assertEquals(ITmfStateSystem.INVALID_ATTRIBUTE, attributeTree.getQuarkDontAdd(ITmfStateSystem.ROOT_ATTRIBUTE, THREADS, STATUS));
+        assertEquals(ITmfStateSystem.INVALID_ATTRIBUTE, attributeTree.getQuarkDontAdd(ITmfStateSystem.ROOT_ATTRIBUTE, STATUS));
+        ss.dispose();
+    }
 }
@@ -0,0 +1,65 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.statesystem.core.tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
+import org.eclipse.tracecompass.statesystem.core.QuarkPath;
+import org.eclipse.tracecompass.statesystem.core.StateSystemFactory;
+import org.eclipse.tracecompass.statesystem.core.backend.StateHistoryBackendFactory;
+import org.eclipse.tracecompass.statesystem.core.exceptions.AttributeNotFoundException;
+import org.junit.Test;
+
+/**
+ * Test the {@link QuarkPath} class
+ */
+public class QuarkPathTest {
+
+    private static final String[] PATH = { "Threads", "1", "Status" }; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+
+    /**
+     * Test resolving a path in different state systems
+     *
+     * @throws AttributeNotFoundException
+     *             if the attribute was not added
+     */
+    @Test
+    public void testResolve() throws AttributeNotFoundException {
+        QuarkPath path = QuarkPath.of(PATH);
+        assertArrayEquals(PATH, path.getPath());
+
+        ITmfStateSystemBuilder ss1 = StateSystemFactory.newStateSystem(StateHistoryBackendFactory.createNullBackend("test1")); //$NON-NLS-1$
+        ITmfStateSystemBuilder ss2 = StateSystemFactory.newStateSystem(StateHistoryBackendFactory.createNullBackend("test2")); //$NON-NLS-1$
+        try {
+            assertEquals(ITmfStateSystem.INVALID_ATTRIBUTE, path.optQuark(ss1));
+            int quark1 = path.getQuarkAndAdd(ss1);
+            assertEquals(ss1.getQuarkAbsolute(PATH), quark1);
+            assertEquals(quark1, path.optQuark(ss1));
+            assertEquals(quark1, path.getQuarkAndAdd(ss1));
+
+            /* Another state system, where the attribute gets another quark */
+            ss2.getQuarkAbsoluteAndAdd("Other"); //$NON-NLS-1$
+            assertEquals(ITmfStateSystem.INVALID_ATTRIBUTE, path.optQuark(ss2));
+            int quark2 = path.getQuarkAndAdd(ss2);
+            assertEquals(ss2.getQuarkAbsolute(PATH), quark2);
+            assertEquals(quark1 + 1, quark2);
+            assertEquals(quark1, path.getQuarkAndAdd(ss1));
+            assertEquals(3, ss1.getNbAttributes());
+        } finally {
+            ss1.dispose();
+            ss2.dispose();
+        }
+    }
+}
@@ -18,11 +18,15 @@ import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.tracecompass.common.core.NonNullUtils;
@@ -301,6 +305,85 @@ public class StateSystem2DTest {
         assertTrue(Iterables.isEmpty(iterable));
     }
 
+    /**
+     * Test the 2D stream query method, unsorted and sorted by start time.
+     *
+     * @throws AttributeNotFoundException
+     *             if the requested attribute simply did not exist in the
+     *             system.
+     * @throws StateSystemDisposedException
+     *             If the query is sent after the state system has been disposed
+     */
+    @Test
+    public void testStream2DQuery() throws AttributeNotFoundException, StateSystemDisposedException {
+        ITmfStateSystem ss = fStateSystem;
+        assertNotNull(ss);
+        long end = ss.getCurrentEndTime();
+        int stringQuark = fStateSystem.getQuarkAbsolute(STRING_ATTRIBUTE);
+        int integerQuark = fStateSystem.getQuarkAbsolute(INTEGER_ATTRIBUTE);
+        Collection<Integer> quarks = ImmutableList.of(stringQuark, integerQuark);
+
+        /* The stream should return the same intervals as the iterable */
+        List<ITmfStateInterval> streamed = ss.query2DStream(quarks, START_TIME, end, false).collect(Collectors.toList());
+        testContinuous(streamed, quarks, START_TIME, end, 11);
+
+        /* The sorted stream should be ordered by start time */
+        List<ITmfStateInterval> sorted = ss.query2DStream(quarks, START_TIME, end, true).collect(Collectors.toList());
+        testContinuous(sorted, quarks, START_TIME, end, 11);
+        assertTrue(Ordering.natural().isOrdered(Iterables.transform(sorted, ITmfStateInterval::getStartTime)));
+
+        /* Short-circuiting operations should be supported */
+        assertTrue(ss.query2DStream(quarks, START_TIME, end, false).anyMatch(interval -> interval.getStartTime() == 130L));
+        assertEquals(3, ss.query2DStream(quarks, START_TIME, end, false).limit(3).count());
+
+        /* Empty queries */
+        assertEquals(0, ss.query2DStream(Collections.emptyList(), START_TIME, end, true).count());
+    }
+
+    /**
+     * Test the 2D stream query method on a history tree with many nodes, which
+     * can be split between threads.
+     *
+     * @throws IOException
+     *             If the state system file could not be created
+     * @throws StateSystemDisposedException
+     *             If the query is sent after the state system has been disposed
+     */
+    @Test
+    public void testParallelStream2DQuery() throws IOException, StateSystemDisposedException {
+        final int nbAttributes = 50;
+        final long endTime = 20000L;
+        IStateHistoryBackend backend = StateHistoryBackendFactory.createHistoryTreeBackendNewFile("test-stream",
+                NonNullUtils.checkNotNull(File.createTempFile("2DStreamTest", "ht")), 0, START_TIME, 0);
+        ITmfStateSystemBuilder ssb = StateSystemFactory.newStateSystem(NonNullUtils.checkNotNull(backend));
+        try {
+            List<Integer> quarks = new ArrayList<>();
+            for (int i = 0; i < nbAttributes; i++) {
+                quarks.add(ssb.getQuarkAbsoluteAndAdd(String.valueOf(i)));
+            }
+            for (long t = START_TIME; t < endTime; t++) {
+                ssb.modifyAttribute(t, t, quarks.get((int) (t % nbAttributes)));
+            }
+            ssb.closeHistory(endTime);
+
+            Set<ITmfStateInterval> expected = new HashSet<>();
+            Iterables.addAll(expected, ssb.query2D(quarks, START_TIME, endTime));
+
+            try (Stream<ITmfStateInterval> stream = ssb.query2DStream(quarks, START_TIME, endTime, false)) {
+                List<ITmfStateInterval> streamed = stream.collect(Collectors.toList());
+                assertEquals(expected.size(), streamed.size());
+                assertEquals(expected, new HashSet<>(streamed));
+            }
+
+            List<ITmfStateInterval> sorted = ssb.query2DStream(quarks, START_TIME, endTime, true).collect(Collectors.toList());
+            assertEquals(expected.size(), sorted.size());
+            assertTrue(Ordering.natural().isOrdered(Iterables.transform(sorted, ITmfStateInterval::getStartTime)));
+        } finally {
+            ssb.dispose();
+            ssb.removeFiles();
+        }
+    }
+
     /**
      * Test the continuous 2D query method when start time > end time. Since
      * this state system only has one node, it does not compare behavior between
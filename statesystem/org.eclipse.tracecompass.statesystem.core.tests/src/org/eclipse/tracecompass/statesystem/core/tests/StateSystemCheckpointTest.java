@@ -0,0 +1,256 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.statesystem.core.tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.ThreadedHistoryTreeBackend;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
+import org.eclipse.tracecompass.statesystem.core.StateSystemFactory;
+import org.eclipse.tracecompass.statesystem.core.backend.IStateHistoryBackend;
+import org.eclipse.tracecompass.statesystem.core.backend.StateHistoryBackendFactory;
+import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
+import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test resuming the construction of a state system from a checkpoint written
+ * by {@link ITmfStateSystemBuilder#writeCheckpoint(java.io.DataOutput)}.
+ */
+public class StateSystemCheckpointTest {
+
+    private static final String SSID = "checkpoint-test"; //$NON-NLS-1$
+    private static final int PROVIDER_VERSION = 0;
+    private static final int QUEUE_SIZE = 10;
+    private static final int BLOCK_SIZE = 4096;
+    private static final int MAX_CHILDREN = 3;
+    private static final int NB_THREADS = 6;
+    private static final long START = 0;
+    private static final long CHECKPOINT = 1000;
+    private static final long END = 2000;
+
+    private File fStateFile;
+
+    /**
+     * Create the history file
+     *
+     * @throws IOException
+     *             If the file cannot be created
+     */
+    @Before
+    public void setup() throws IOException {
+        fStateFile = File.createTempFile("StateSystemCheckpointTest", ".ht"); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    /**
+     * Delete the history file
+     */
+    @After
+    public void cleanup() {
+        fStateFile.delete();
+    }
+
+    /**
+     * Build a state system up to a checkpoint, keep going with state changes
+     * that will not be part of the result, then resume from the checkpoint and
+     * compare with a state system built in one go.
+     *
+     * @throws IOException
+     *             If the checkpoint cannot be written or read
+     * @throws StateSystemDisposedException
+     *             If a query fails
+     */
+    @Test
+    public void testResumeFromCheckpoint() throws IOException, StateSystemDisposedException {
+        /* Reference state system, built without interruption */
+        ITmfStateSystemBuilder expected = StateSystemFactory.newStateSystem(StateHistoryBackendFactory.createInMemoryBackend(SSID, START));
+        fill(expected, START, END, 0);
+        expected.closeHistory(END);
+
+        /* Build the first part and save a checkpoint */
+        IStateHistoryBackend backend = new ThreadedHistoryTreeBackend(SSID, fStateFile, PROVIDER_VERSION, START, QUEUE_SIZE, BLOCK_SIZE, MAX_CHILDREN);
+        ITmfStateSystemBuilder ss = StateSystemFactory.newStateSystem(backend);
+        fill(ss, START, CHECKPOINT, 0);
+        ByteArrayOutputStream checkpoint = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(checkpoint)) {
+            assertTrue(ss.writeCheckpoint(out));
+        }
+
+        /* Progress made after the checkpoint, then cancelled */
+        ss.getQuarkAbsoluteAndAdd("Lost"); //$NON-NLS-1$
+        fill(ss, CHECKPOINT, CHECKPOINT + 500, 7);
+        ss.closeHistory(CHECKPOINT + 500);
+        ss.dispose();
+
+        /* Resume from the checkpoint and finish the build */
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(checkpoint.toByteArray()))) {
+            backend = StateHistoryBackendFactory.createHistoryTreeBackendFromCheckpoint(SSID, fStateFile, PROVIDER_VERSION, QUEUE_SIZE, in);
+            ss = StateSystemFactory.newStateSystem(backend, in);
+        }
+        fill(ss, CHECKPOINT, END, 0);
+        ss.closeHistory(END);
+
+        try {
+            assertSameStates(expected, ss);
+        } finally {
+            expected.dispose();
+            ss.dispose();
+        }
+    }
+
+    /**
+     * Test that a build that is disposed before it is finished keeps its
+     * partial file if it has a checkpoint, and that it can be resumed from it.
+     *
+     * @throws IOException
+     *             If the checkpoint cannot be written or read
+     * @throws StateSystemDisposedException
+     *             If a query fails
+     */
+    @Test
+    public void testResumeAfterDispose() throws IOException, StateSystemDisposedException {
+        ITmfStateSystemBuilder expected = StateSystemFactory.newStateSystem(StateHistoryBackendFactory.createInMemoryBackend(SSID, START));
+        fill(expected, START, END, 0);
+        expected.closeHistory(END);
+
+        IStateHistoryBackend backend = new ThreadedHistoryTreeBackend(SSID, fStateFile, PROVIDER_VERSION, START, QUEUE_SIZE, BLOCK_SIZE, MAX_CHILDREN);
+        ITmfStateSystemBuilder ss = StateSystemFactory.newStateSystem(backend);
+        fill(ss, START, CHECKPOINT, 0);
+        ByteArrayOutputStream checkpoint = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(checkpoint)) {
+            assertTrue(ss.writeCheckpoint(out));
+        }
+
+        /* Interrupted in the middle of the build */
+        fill(ss, CHECKPOINT, CHECKPOINT + 500, 7);
+        ss.dispose();
+        assertTrue(fStateFile.exists());
+
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(checkpoint.toByteArray()))) {
+            backend = StateHistoryBackendFactory.createHistoryTreeBackendFromCheckpoint(SSID, fStateFile, PROVIDER_VERSION, QUEUE_SIZE, in);
+            ss = StateSystemFactory.newStateSystem(backend, in);
+        }
+        fill(ss, CHECKPOINT, END, 0);
+        ss.closeHistory(END);
+
+        try {
+            assertSameStates(expected, ss);
+        } finally {
+            expected.dispose();
+            ss.dispose();
+        }
+    }
+
+    /**
+     * Test that a build without checkpoint that is disposed before it is
+     * finished deletes its partial file
+     *
+     * @throws IOException
+     *             If the file cannot be created
+     */
+    @Test
+    public void testDisposeWithoutCheckpoint() throws IOException {
+        IStateHistoryBackend backend = new ThreadedHistoryTreeBackend(SSID, fStateFile, PROVIDER_VERSION, START, QUEUE_SIZE, BLOCK_SIZE, MAX_CHILDREN);
+        ITmfStateSystemBuilder ss = StateSystemFactory.newStateSystem(backend);
+        fill(ss, START, CHECKPOINT, 0);
+        ss.dispose();
+        assertFalse(fStateFile.exists());
+    }
+
+    /**
+     * Test that the in-memory backend does not write checkpoints
+     *
+     * @throws IOException
+     *             If the checkpoint cannot be written
+     */
+    @Test
+    public void testUnsupportedBackend() throws IOException {
+        ITmfStateSystemBuilder ss = StateSystemFactory.newStateSystem(StateHistoryBackendFactory.createInMemoryBackend(SSID, START));
+        fill(ss, START, CHECKPOINT, 0);
+        ByteArrayOutputStream checkpoint = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(checkpoint)) {
+            assertEquals(false, ss.writeCheckpoint(out));
+        }
+        assertEquals(0, checkpoint.size());
+        ss.dispose();
+    }
+
+    private static void assertSameStates(ITmfStateSystemBuilder expected, ITmfStateSystemBuilder ss) throws StateSystemDisposedException {
+        assertEquals(expected.getNbAttributes(), ss.getNbAttributes());
+        for (int quark = 0; quark < ss.getNbAttributes(); quark++) {
+            assertArrayEquals(expected.getFullAttributePathArray(quark), ss.getFullAttributePathArray(quark));
+        }
+        for (long t = START; t <= END; t += 7) {
+            List<ITmfStateInterval> expectedStates = expected.queryFullState(t);
+            List<ITmfStateInterval> actualStates = ss.queryFullState(t);
+            for (int quark = 0; quark < ss.getNbAttributes(); quark++) {
+                ITmfStateInterval expectedInterval = expectedStates.get(quark);
+                ITmfStateInterval actualInterval = actualStates.get(quark);
+                String message = "quark " + quark + " at " + t; //$NON-NLS-1$ //$NON-NLS-2$
+                assertEquals(message, expectedInterval.getStartTime(), actualInterval.getStartTime());
+                assertEquals(message, expectedInterval.getEndTime(), actualInterval.getEndTime());
+                assertEquals(message, expectedInterval.getValue(), actualInterval.getValue());
+            }
+        }
+    }
+
+    /**
+     * Apply deterministic state changes to the state system, for all the
+     * timestamps in [start, end[. Threads are added along the way so that the
+     * attribute tree also changes after the checkpoint.
+     */
+    private static void fill(ITmfStateSystemBuilder ss, long start, long end, int seed) {
+        for (long t = start; t < end; t++) {
+            int nbThreads = (int) (1 + (t * NB_THREADS) / END);
+            for (int thread = 0; thread < nbThreads; thread++) {
+                if ((t + thread + seed) % (thread + 2) != 0) {
+                    continue;
+                }
+                int status = ss.getQuarkAbsoluteAndAdd("Threads", String.valueOf(thread), "Status"); //$NON-NLS-1$ //$NON-NLS-2$
+                ss.modifyAttribute(t, getValue(t + seed, thread), status);
+                if (t % 10 == 0) {
+                    int exec = ss.getQuarkAbsoluteAndAdd("Threads", String.valueOf(thread), "Exec"); //$NON-NLS-1$ //$NON-NLS-2$
+                    ss.modifyAttribute(t, "exec" + (t + seed) / 10, exec); //$NON-NLS-1$
+                }
+            }
+        }
+    }
+
+    private static @Nullable Object getValue(long t, int thread) {
+        if ((t / (thread + 2)) % 3 == 0) {
+            return null;
+        }
+        /* Each attribute keeps the same value type */
+        switch (thread % 3) {
+        case 0:
+            return (int) t;
+        case 1:
+            return t * 1000L;
+        default:
+            return "state" + t % 5; //$NON-NLS-1$
+        }
+    }
+}
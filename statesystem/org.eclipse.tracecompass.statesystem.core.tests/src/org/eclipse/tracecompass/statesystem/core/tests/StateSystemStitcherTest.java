@@ -0,0 +1,210 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.statesystem.core.tests;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
+import org.eclipse.tracecompass.statesystem.core.StateSystemBuilderUtils;
+import org.eclipse.tracecompass.statesystem.core.StateSystemFactory;
+import org.eclipse.tracecompass.statesystem.core.StateSystemStitcher;
+import org.eclipse.tracecompass.statesystem.core.backend.StateHistoryBackendFactory;
+import org.eclipse.tracecompass.statesystem.core.exceptions.AttributeNotFoundException;
+import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
+import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test building a state system in time partitions stitched with a
+ * {@link StateSystemStitcher}, compared to the same state system built in one
+ * go.
+ */
+public class StateSystemStitcherTest {
+
+    private static final String SSID = "stitcher-test"; //$NON-NLS-1$
+    private static final int NB_THREADS = 6;
+    private static final long START = 0;
+    private static final long END = 3000;
+    private static final long[] PARTITIONS = { START, 700, 1300, 1950 };
+    private static final String COUNT = "Count"; //$NON-NLS-1$
+
+    private File fStateFile;
+
+    /**
+     * Create the history file
+     *
+     * @throws IOException
+     *             If the file cannot be created
+     */
+    @Before
+    public void setup() throws IOException {
+        fStateFile = File.createTempFile("StateSystemStitcherTest", ".ht"); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    /**
+     * Delete the history file
+     */
+    @After
+    public void cleanup() {
+        fStateFile.delete();
+    }
+
+    /**
+     * Test partitions whose states do not depend on the previous ones, so that
+     * the unknown states at the start of a partition are filled by the
+     * previous partition.
+     *
+     * @throws Exception
+     *             If the build or a query fails
+     */
+    @Test
+    public void testUnseededPartitions() throws Exception {
+        ITmfStateSystemBuilder expected = StateSystemFactory.newStateSystem(StateHistoryBackendFactory.createInMemoryBackend(SSID, START));
+        fill(expected, START, END, false);
+        expected.closeHistory(END - 1);
+
+        ITmfStateSystemBuilder actual = buildPartitioned(false);
+        try {
+            assertSameStates(expected, actual);
+        } finally {
+            expected.dispose();
+            actual.dispose();
+        }
+    }
+
+    /**
+     * Test partitions that need the state at their start time to be seeded,
+     * here a counter that is incremented from its current value.
+     *
+     * @throws Exception
+     *             If the build or a query fails
+     */
+    @Test
+    public void testSeededPartitions() throws Exception {
+        ITmfStateSystemBuilder expected = StateSystemFactory.newStateSystem(StateHistoryBackendFactory.createInMemoryBackend(SSID, START));
+        fill(expected, START, END, true);
+        expected.closeHistory(END - 1);
+
+        ITmfStateSystemBuilder actual = buildPartitioned(true);
+        try {
+            assertSameStates(expected, actual);
+        } finally {
+            expected.dispose();
+            actual.dispose();
+        }
+    }
+
+    private ITmfStateSystemBuilder buildPartitioned(boolean withCount) throws IOException, InterruptedException, ExecutionException {
+        StateSystemStitcher stitcher = new StateSystemStitcher(StateHistoryBackendFactory.createHistoryTreeBackendNewFile(SSID, fStateFile, 0, START, 0), null);
+        List<ITmfStateSystemBuilder> partitions = new ArrayList<>();
+        for (long partitionStart : PARTITIONS) {
+            ITmfStateSystemBuilder partition = stitcher.createPartition(partitionStart);
+            if (withCount && partitionStart != START) {
+                /* Seed the counter with its value at the start */
+                int quark = partition.getQuarkAbsoluteAndAdd(COUNT);
+                partition.modifyAttribute(partitionStart, (partitionStart - 1) / 7 + 1, quark);
+            }
+            partitions.add(partition);
+        }
+
+        /* Build the partitions concurrently */
+        ExecutorService executor = Executors.newFixedThreadPool(PARTITIONS.length);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < PARTITIONS.length; i++) {
+            ITmfStateSystemBuilder partition = partitions.get(i);
+            long start = PARTITIONS[i];
+            long end = (i == PARTITIONS.length - 1) ? END : PARTITIONS[i + 1];
+            futures.add(executor.submit(() -> {
+                fill(partition, start, end, withCount);
+                partition.closeHistory(end - 1);
+            }));
+        }
+        try {
+            for (int i = 0; i < PARTITIONS.length; i++) {
+                futures.get(i).get();
+                stitcher.stitch(partitions.get(i));
+                assertEquals(i == PARTITIONS.length - 1 ? END - 1 : PARTITIONS[i + 1] - 1, stitcher.getStitchedTime());
+            }
+        } finally {
+            executor.shutdown();
+            stitcher.dispose();
+        }
+        ITmfStateSystemBuilder ss = stitcher.getStateSystem();
+        ss.closeHistory(stitcher.getStitchedTime());
+        return ss;
+    }
+
+    private static void assertSameStates(ITmfStateSystemBuilder expected, ITmfStateSystemBuilder actual) throws StateSystemDisposedException, AttributeNotFoundException {
+        assertEquals(expected.getNbAttributes(), actual.getNbAttributes());
+        for (long t = START; t < END; t += 3) {
+            List<ITmfStateInterval> expectedStates = expected.queryFullState(t);
+            List<ITmfStateInterval> actualStates = actual.queryFullState(t);
+            for (int quark = 0; quark < expected.getNbAttributes(); quark++) {
+                ITmfStateInterval expectedInterval = expectedStates.get(quark);
+                ITmfStateInterval actualInterval = actualStates.get(actual.getQuarkAbsolute(expected.getFullAttributePathArray(quark)));
+                String message = expected.getFullAttributePath(quark) + " at " + t; //$NON-NLS-1$
+                assertEquals(message, expectedInterval.getStartTime(), actualInterval.getStartTime());
+                assertEquals(message, expectedInterval.getEndTime(), actualInterval.getEndTime());
+                assertEquals(message, expectedInterval.getValue(), actualInterval.getValue());
+            }
+        }
+    }
+
+    /**
+     * Apply deterministic state changes to the state system, for all the
+     * timestamps in [start, end[. Threads are added along the way and their
+     * states only depend on the time, except for the counter.
+     */
+    private static void fill(ITmfStateSystemBuilder ss, long start, long end, boolean withCount) {
+        for (long t = start; t < end; t++) {
+            int nbThreads = (int) (1 + (t * NB_THREADS) / END);
+            for (int thread = 0; thread < nbThreads; thread++) {
+                if ((t + thread) % (thread + 2) != 0) {
+                    continue;
+                }
+                int status = ss.getQuarkAbsoluteAndAdd("Threads", String.valueOf(thread), "Status"); //$NON-NLS-1$ //$NON-NLS-2$
+                ss.modifyAttribute(t, getValue(t, thread), status);
+                if (t % 10 == 0) {
+                    int exec = ss.getQuarkAbsoluteAndAdd("Threads", String.valueOf(thread), "Exec"); //$NON-NLS-1$ //$NON-NLS-2$
+                    ss.modifyAttribute(t, "exec" + t / 50, exec); //$NON-NLS-1$
+                }
+            }
+            if (withCount && t % 7 == 0) {
+                StateSystemBuilderUtils.incrementAttributeLong(ss, t, ss.getQuarkAbsoluteAndAdd(COUNT), 1);
+            }
+        }
+    }
+
+    private static Object getValue(long t, int thread) {
+        /* Each attribute keeps the same value type, and repeats values */
+        long step = (t / (thread + 2)) % 4;
+        switch (thread % 3) {
+        case 0:
+            return (int) step;
+        case 1:
+            return step * 1000L;
+        default:
+            return "state" + step; //$NON-NLS-1$
+        }
+    }
+}
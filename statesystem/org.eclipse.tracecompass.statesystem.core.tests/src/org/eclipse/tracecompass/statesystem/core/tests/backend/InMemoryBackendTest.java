@@ -227,6 +227,28 @@ public class InMemoryBackendTest extends StateHistoryBackendTestBase {
         }
     }
 
+    /**
+     * Test that intervals inserted before the latest interval of an attribute
+     * are still found, as well as the ones around them
+     */
+    @Test
+    public void testOutOfOrderInsertion() {
+        try {
+            IStateHistoryBackend backend = StateHistoryBackendFactory.createInMemoryBackend(SSID, 0);
+            for (int i = 0; i < 100; i += 2) {
+                backend.insertPastState(i * 10, i * 10 + 9, 0, i);
+            }
+            for (int i = 1; i < 100; i += 2) {
+                backend.insertPastState(i * 10, i * 10 + 9, 0, i);
+            }
+            for (int i = 0; i < 100; i++) {
+                testInterval(backend.doSingularQuery(i * 10 + 5, 0), i * 10, i * 10 + 9, i);
+            }
+        } catch (TimeRangeException | StateSystemDisposedException e) {
+            fail(e.getMessage());
+        }
+    }
+
     /**
      * Test out of range query
      *
@@ -32,6 +32,8 @@ import java.io.PrintWriter;
 import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.eclipse.jdt.annotation.NonNull;
@@ -61,6 +63,15 @@ public final class AttributeTree {
     private final Attribute fAttributeTreeRoot;
     private final ReentrantReadWriteLock fLock = new ReentrantReadWriteLock();
 
+    /*
+     * Interned path segments, and index of the quarks by their parent quark and
+     * segment id. They are only written under the write lock, once the
+     * attribute is in the tree, so that existing attributes can be looked up
+     * without locking.
+     */
+    private final Map<String, Integer> fSegmentIds = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> fQuarkIndex = new ConcurrentHashMap<>();
+
     /**
      * Standard constructor, create a new empty Attribute Tree
      *
@@ -246,6 +257,11 @@ public final class AttributeTree {
             return startingNodeQuark;
         }
 
+        int quark = lookUp(startingNodeQuark, subPath);
+        if (quark != INVALID_ATTRIBUTE) {
+            return quark;
+        }
+
         fLock.readLock().lock();
         try {
 
@@ -273,38 +289,64 @@ public final class AttributeTree {
      *             If the starting node quark is out of range
      */
     public int getQuarkAndAdd(int startingNodeQuark, String... subPath) {
+        int quark = lookUp(startingNodeQuark, subPath);
+        if (quark != INVALID_ATTRIBUTE) {
+            return quark;
+        }
+
         fLock.writeLock().lock();
         try {
             /* Get the "starting node" */
             Attribute prevNode = getAttribute(startingNodeQuark);
-
-            int knownQuark = prevNode.getSubAttributeQuark(subPath);
-            if (knownQuark == INVALID_ATTRIBUTE) {
-                /*
-                 * The attribute was not in the table previously, and we want to add it
-                 */
-                for (String curDirectory : subPath) {
-                    Attribute nextNode = prevNode.getSubAttributeNode(curDirectory);
-                    if (nextNode == null) {
-                        /* This is where we need to start adding */
-                        nextNode = new Attribute(prevNode, checkNotNull(curDirectory), fAttributeList.size());
-                        prevNode.addSubAttribute(nextNode);
-                        fAttributeList.add(nextNode);
-                        fSs.addEmptyAttribute();
-                    }
-                    prevNode = nextNode;
+            for (String curDirectory : subPath) {
+                Attribute nextNode = prevNode.getSubAttributeNode(curDirectory);
+                if (nextNode == null) {
+                    /* This is where we need to start adding */
+                    nextNode = new Attribute(prevNode, checkNotNull(curDirectory), fAttributeList.size());
+                    prevNode.addSubAttribute(nextNode);
+                    fAttributeList.add(nextNode);
+                    fSs.addEmptyAttribute();
+                    int segmentId = fSegmentIds.computeIfAbsent(curDirectory, segment -> fSegmentIds.size());
+                    fQuarkIndex.put(indexKey(prevNode.getQuark(), segmentId), nextNode.getQuark());
                 }
-                return fAttributeList.size() - 1;
+                prevNode = nextNode;
             }
-            /*
-             * The attribute already existed, return the quark of that attribute
-             */
-            return knownQuark;
+            return prevNode.getQuark();
         } finally {
             fLock.writeLock().unlock();
         }
     }
 
+    /**
+     * Look up an existing attribute in the quark index, without locking.
+     *
+     * @return The quark of the attribute, or
+     *         {@link ITmfStateSystem#INVALID_ATTRIBUTE} if it is not indexed
+     *         (yet) or the path is empty
+     */
+    private int lookUp(int startingNodeQuark, String[] subPath) {
+        if (subPath == null || subPath.length == 0) {
+            return INVALID_ATTRIBUTE;
+        }
+        int quark = startingNodeQuark;
+        for (String segment : subPath) {
+            Integer segmentId = (segment == null) ? null : fSegmentIds.get(segment);
+            if (segmentId == null) {
+                return INVALID_ATTRIBUTE;
+            }
+            Integer child = fQuarkIndex.get(indexKey(quark, segmentId));
+            if (child == null) {
+                return INVALID_ATTRIBUTE;
+            }
+            quark = child;
+        }
+        return quark;
+    }
+
+    private static long indexKey(int parentQuark, int segmentId) {
+        return ((long) parentQuark << 32) | (segmentId & 0xFFFFFFFFL);
+    }
+
     /**
      * Returns the sub-attributes of the quark passed in parameter
      *
@@ -15,12 +15,16 @@
 
 package org.eclipse.tracecompass.internal.statesystem.core;
 
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
@@ -28,12 +32,15 @@ import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.common.core.log.TraceCompassLog;
 import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.IntegerRangeCondition;
 import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.TimeRangeCondition;
+import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HTInterval;
 import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
 import org.eclipse.tracecompass.statesystem.core.backend.IStateHistoryBackend;
 import org.eclipse.tracecompass.statesystem.core.exceptions.AttributeNotFoundException;
@@ -121,6 +128,42 @@ public class StateSystem implements ITmfStateSystemBuilder {
         }
     }
 
+    /**
+     * Resume constructor, to continue building a state system from a
+     * checkpoint written by {@link #writeCheckpoint(DataOutput)}. The backend
+     * must have been resumed from the same checkpoint first.
+     *
+     * @param backend
+     *            The resumed back-end
+     * @param checkpoint
+     *            The input to read the attribute tree and ongoing state from
+     * @throws IOException
+     *             If the checkpoint cannot be read or is inconsistent
+     */
+    public StateSystem(@NonNull IStateHistoryBackend backend, DataInput checkpoint)
+            throws IOException {
+        this.backend = backend;
+        this.transState = new TransientState(backend);
+        this.attributeTree = new AttributeTree(this);
+
+        int nbAttributes = checkpoint.readInt();
+        List<@NonNull ITmfStateInterval> ongoingState = new ArrayList<>(nbAttributes);
+        for (int quark = 0; quark < nbAttributes; quark++) {
+            String[] path = new String[checkpoint.readInt()];
+            for (int i = 0; i < path.length; i++) {
+                path[i] = checkpoint.readUTF();
+            }
+            /* Parents come before their children, so quarks are the same */
+            if (attributeTree.getQuarkAndAdd(ROOT_ATTRIBUTE, path) != quark) {
+                throw new IOException("Inconsistent attribute tree in checkpoint"); //$NON-NLS-1$
+            }
+            byte[] interval = new byte[checkpoint.readInt()];
+            checkpoint.readFully(interval);
+            ongoingState.add(HTInterval.readFrom(ByteBuffer.wrap(interval), 0));
+        }
+        transState.replaceOngoingState(ongoingState);
+    }
+
     @Override
     public String getSSID() {
         return backend.getSSID();
@@ -247,6 +290,33 @@ public class StateSystem implements ITmfStateSystemBuilder {
         finishedLatch.countDown(); /* Mark the history as finished building */
     }
 
+    @Override
+    public boolean writeCheckpoint(DataOutput out) throws IOException {
+        if (!backend.writeCheckpoint(out)) {
+            return false;
+        }
+        int nbAttributes = getNbAttributes();
+        out.writeInt(nbAttributes);
+        for (int quark = 0; quark < nbAttributes; quark++) {
+            String[] path = getFullAttributePathArray(quark);
+            out.writeInt(path.length);
+            for (String name : path) {
+                out.writeUTF(name);
+            }
+            /*
+             * Only the start time and the value of the ongoing state matter,
+             * use the interval serialization which supports all value types.
+             */
+            long start = transState.getOngoingStartTime(quark);
+            HTInterval interval = new HTInterval(start, start, quark, transState.getOngoingStateValue(quark));
+            ByteBuffer buffer = ByteBuffer.allocate(interval.getSizeOnDisk(0));
+            interval.writeInterval(buffer, 0);
+            out.writeInt(buffer.position());
+            out.write(buffer.array(), 0, buffer.position());
+        }
+        return true;
+    }
+
     // --------------------------------------------------------------------------
     // Quark-retrieving methods
     // --------------------------------------------------------------------------
@@ -536,7 +606,7 @@ public class StateSystem implements ITmfStateSystemBuilder {
      * @param newStateIntervals
      *            The new List of state values to use as ongoing state info
      */
-    protected void replaceOngoingState(@NonNull List<@NonNull ITmfStateInterval> newStateIntervals) {
+    public void replaceOngoingState(@NonNull List<@NonNull ITmfStateInterval> newStateIntervals) {
         transState.replaceOngoingState(newStateIntervals);
     }
 
@@ -645,25 +715,63 @@ public class StateSystem implements ITmfStateSystemBuilder {
         return query2D(quarks, timeCondition, reverse);
     }
 
+    @Override
+    public Stream<@NonNull ITmfStateInterval> query2DStream(Collection<@NonNull Integer> quarks, long start, long end, boolean sortedByStart)
+            throws StateSystemDisposedException, TimeRangeException, IndexOutOfBoundsException {
+        if (isDisposed) {
+            throw new StateSystemDisposedException();
+        }
+
+        TimeRangeCondition timeCondition = TimeRangeCondition.forContinuousRange(Math.min(start, end), Math.max(start, end));
+        IntegerRangeCondition quarkCondition = getQuarkCondition(quarks, timeCondition);
+        if (quarkCondition == null) {
+            return Stream.empty();
+        }
+
+        /*
+         * The backend stream may be parallel, in which case the concatenated
+         * stream will be parallel too.
+         */
+        Stream<@NonNull ITmfStateInterval> stream = Stream.concat(
+                StreamSupport.stream(transState.query2D(quarks, timeCondition).spliterator(), false),
+                backend.query2DStream(quarkCondition, timeCondition));
+        return sortedByStart ? stream.sorted(Comparator.comparingLong(ITmfStateInterval::getStartTime)) : stream;
+    }
+
     private Iterable<@NonNull ITmfStateInterval> query2D(@NonNull Collection<@NonNull Integer> quarks, TimeRangeCondition timeCondition, boolean reverse)
             throws TimeRangeException, IndexOutOfBoundsException {
+        IntegerRangeCondition quarkCondition = getQuarkCondition(quarks, timeCondition);
+        if (quarkCondition == null) {
+            return Collections.emptyList();
+        }
+
+        Iterable<@NonNull ITmfStateInterval> transStateIterable = transState.query2D(quarks, timeCondition);
+        Iterable<@NonNull ITmfStateInterval> backendIterable = backend.query2D(quarkCondition, timeCondition, reverse);
+
+        return Iterables.concat(transStateIterable, backendIterable);
+    }
+
+    /**
+     * Validate the parameters of a 2D query and build the condition on the
+     * quarks.
+     *
+     * @return the quark condition, or null if there are no quarks to query
+     */
+    private @Nullable IntegerRangeCondition getQuarkCondition(@NonNull Collection<@NonNull Integer> quarks, TimeRangeCondition timeCondition)
+            throws TimeRangeException, IndexOutOfBoundsException {
         if (timeCondition.min() < getStartTime()) {
             throw new TimeRangeException("Time conditions " + timeCondition.min() + " is lower than state system start time: " + getStartTime()); //$NON-NLS-1$ //$NON-NLS-2$
         }
 
         if (quarks.isEmpty()) {
-            return Collections.emptyList();
+            return null;
         }
 
         IntegerRangeCondition quarkCondition = IntegerRangeCondition.forDiscreteRange(quarks);
         if (quarkCondition.min() < 0 || quarkCondition.max() >= getNbAttributes()) {
             throw new IndexOutOfBoundsException();
         }
-
-        Iterable<@NonNull ITmfStateInterval> transStateIterable = transState.query2D(quarks, timeCondition);
-        Iterable<@NonNull ITmfStateInterval> backendIterable = backend.query2D(quarkCondition, timeCondition, reverse);
-
-        return Iterables.concat(transStateIterable, backendIterable);
+        return quarkCondition;
     }
 
     @Override
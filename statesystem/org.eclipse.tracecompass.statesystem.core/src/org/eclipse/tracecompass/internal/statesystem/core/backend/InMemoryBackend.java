@@ -18,15 +18,16 @@ package org.eclipse.tracecompass.internal.statesystem.core.backend;
 
 import java.io.File;
 import java.io.FileInputStream;
-import java.util.Comparator;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
-import java.util.NavigableSet;
-import java.util.TreeSet;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.common.core.log.TraceCompassLog;
 import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.IntegerRangeCondition;
 import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.TimeRangeCondition;
@@ -36,7 +37,7 @@ import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
 import org.eclipse.tracecompass.statesystem.core.interval.TmfStateInterval;
 import org.eclipse.tracecompass.traceeventlogger.LogUtils.ScopeLog;
 
-import com.google.common.collect.Iterables;
+import com.google.common.collect.AbstractIterator;
 
 /**
  * State history back-end that stores its intervals in RAM only. It cannot be
@@ -44,9 +45,16 @@ import com.google.common.collect.Iterables;
  * trace. But it's relatively quick to build, so this shouldn't be a problem in
  * most cases.
  *
- * This should only be used with very small state histories (and/or, very small
- * traces). Since it's stored in standard Collections, it's limited to 2^31
- * intervals.
+ * The intervals of each attribute are stored in primitive arrays of start
+ * times, end times and value indexes, sorted by start time, and the values
+ * themselves are kept once in a dictionary shared by all attributes. Queries
+ * are binary searches in the arrays of the requested attributes. Only the
+ * insertions are synchronized, queries read the published arrays without
+ * locking.
+ *
+ * This should only be used with small to medium state histories (and/or
+ * traces). Since it's stored in arrays, it's limited to 2^31 intervals per
+ * attribute.
  *
  * @author Alexandre Montplaisir
  */
@@ -54,9 +62,14 @@ public class InMemoryBackend implements IStateHistoryBackend {
 
     private static final @NonNull Logger LOGGER = TraceCompassLog.getLogger(InMemoryBackend.class);
 
+    private static final int INITIAL_CAPACITY = 16;
+
     private final @NonNull String ssid;
-    private final NavigableSet<@NonNull ITmfStateInterval> intervals;
     private final long startTime;
+    private final ValueDictionary fValues = new ValueDictionary();
+
+    /** The attributes' intervals, indexed by quark. Replaced when it grows. */
+    private volatile Attribute[] fAttributes = new Attribute[0];
 
     private volatile long latestTime;
 
@@ -72,14 +85,6 @@ public class InMemoryBackend implements IStateHistoryBackend {
         this.ssid = ssid;
         this.startTime = startTime;
         this.latestTime = startTime;
-        /**
-         * We need to compare the end time and the attribute, because we can
-         * have 2 intervals with the same end time (for different attributes).
-         * And TreeSet needs a unique "key" per element.
-         */
-        this.intervals = new TreeSet<>(Comparator
-                .comparing(ITmfStateInterval::getEndTime)
-                .thenComparing(ITmfStateInterval::getAttribute));
     }
 
     @Override
@@ -105,11 +110,13 @@ public class InMemoryBackend implements IStateHistoryBackend {
             throw new TimeRangeException(ssid + " Interval Start:" + stateStartTime + ", Interval End:" + stateEndTime + ", Backend Start:" + startTime); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
         }
 
-        ITmfStateInterval interval = new TmfStateInterval(stateStartTime, stateEndTime, quark, value);
-
-        /* Add the interval into the tree */
-        synchronized (intervals) {
-            intervals.add(interval);
+        synchronized (fValues) {
+            /*
+             * The value must be in the dictionary before the interval that
+             * refers to it is published.
+             */
+            int valueIndex = fValues.indexOf(value);
+            getOrCreateAttribute(quark).append(stateStartTime, stateEndTime, valueIndex);
         }
 
         /* Update the "latest seen time" */
@@ -118,6 +125,25 @@ public class InMemoryBackend implements IStateHistoryBackend {
         }
     }
 
+    private Attribute getOrCreateAttribute(int quark) {
+        /* Should only be called by the writer, with the lock taken */
+        Attribute[] attributes = fAttributes;
+        if (quark >= attributes.length) {
+            int oldLength = attributes.length;
+            attributes = Arrays.copyOf(attributes, Math.max(quark + 1, oldLength * 2));
+            for (int i = oldLength; i < attributes.length; i++) {
+                attributes[i] = new Attribute();
+            }
+            fAttributes = attributes;
+        }
+        return attributes[quark];
+    }
+
+    private @Nullable Attribute getAttribute(int quark) {
+        Attribute[] attributes = fAttributes;
+        return (quark >= 0 && quark < attributes.length) ? attributes[quark] : null;
+    }
+
     @Override
     public void doQuery(List<ITmfStateInterval> currentStateInfo, long t)
             throws TimeRangeException {
@@ -125,20 +151,12 @@ public class InMemoryBackend implements IStateHistoryBackend {
             throw new TimeRangeException(ssid + " Time:" + t + ", Start:" + startTime + ", End:" + latestTime); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
         }
 
-        /*
-         * The intervals are sorted by end time, so we can binary search to get
-         * the first possible interval, then only compare their start times.
-         */
-        synchronized (intervals) {
-            Iterator<ITmfStateInterval> iter = searchforEndTime(intervals, 0, t).iterator();
-            for (int modCount = 0; iter.hasNext() && modCount < currentStateInfo.size();) {
-                ITmfStateInterval entry = iter.next();
-                final long entryStartTime = entry.getStartTime();
-                if (entryStartTime <= t) {
-                    /* Add this interval to the returned values */
-                    currentStateInfo.set(entry.getAttribute(), entry);
-                    modCount++;
-                }
+        Attribute[] attributes = fAttributes;
+        int nbAttributes = Math.min(attributes.length, currentStateInfo.size());
+        for (int quark = 0; quark < nbAttributes; quark++) {
+            ITmfStateInterval interval = attributes[quark].getIntervalAt(t, quark, fValues);
+            if (interval != null) {
+                currentStateInfo.set(quark, interval);
             }
         }
     }
@@ -150,24 +168,8 @@ public class InMemoryBackend implements IStateHistoryBackend {
             throw new TimeRangeException(ssid + " Time:" + t + ", Start:" + startTime + ", End:" + latestTime); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
         }
 
-        /*
-         * The intervals are sorted by end time, so we can binary search to get
-         * the first possible interval, then only compare their start times.
-         */
-        synchronized (intervals) {
-            Iterable<ITmfStateInterval> iter = searchforEndTime(intervals, attributeQuark, t);
-            for (ITmfStateInterval entry : iter) {
-                final boolean attributeMatches = (entry.getAttribute() == attributeQuark);
-                final long entryStartTime = entry.getStartTime();
-                if (attributeMatches) {
-                    if (entryStartTime <= t) {
-                        /* This is the droid we are looking for */
-                        return entry;
-                    }
-                }
-            }
-        }
-        return null;
+        Attribute attribute = getAttribute(attributeQuark);
+        return attribute == null ? null : attribute.getIntervalAt(t, attributeQuark, fValues);
     }
 
     private boolean checkValidTime(long t) {
@@ -207,11 +209,6 @@ public class InMemoryBackend implements IStateHistoryBackend {
         /* Nothing to do */
     }
 
-    private static Iterable<@NonNull ITmfStateInterval> searchforEndTime(NavigableSet<@NonNull ITmfStateInterval> tree, int quark, long time) {
-        ITmfStateInterval dummyInterval = new TmfStateInterval(-1, time, quark, (Object) null);
-        return tree.tailSet(dummyInterval);
-    }
-
     @Override
     public Iterable<@NonNull ITmfStateInterval> query2D(IntegerRangeCondition quarks, TimeRangeCondition times)
             throws TimeRangeException {
@@ -219,11 +216,225 @@ public class InMemoryBackend implements IStateHistoryBackend {
                 "ssid", getSSID(), //$NON-NLS-1$
                 "quarks", quarks, //$NON-NLS-1$
                 "times", times)) { //$NON-NLS-1$
-            synchronized (intervals) {
-                return Iterables.filter(searchforEndTime(intervals, quarks.min(), times.min()),
-                        interval -> quarks.test(interval.getAttribute())
-                                && times.intersects(interval.getStartTime(), interval.getEndTime()));
+            return () -> new Query2DIterator(fAttributes, fValues, quarks, times);
+        }
+    }
+
+    /**
+     * Iterator over the intervals of the attributes matching a 2D query. The
+     * attributes are iterated in quark order, and the intervals of each
+     * attribute in time order, starting from a binary search on their end
+     * times.
+     */
+    private static final class Query2DIterator extends AbstractIterator<@NonNull ITmfStateInterval> {
+
+        private final Attribute[] fAttributes;
+        private final ValueDictionary fValues;
+        private final IntegerRangeCondition fQuarks;
+        private final TimeRangeCondition fTimes;
+        private final int fLastQuark;
+
+        private int fQuark;
+        private @Nullable Column fColumn = null;
+        private int fIndex;
+        private int fSize;
+
+        public Query2DIterator(Attribute[] attributes, ValueDictionary values, IntegerRangeCondition quarks, TimeRangeCondition times) {
+            fAttributes = attributes;
+            fValues = values;
+            fQuarks = quarks;
+            fTimes = times;
+            fLastQuark = Math.min(quarks.max(), attributes.length - 1);
+            fQuark = Math.max(quarks.min(), 0) - 1;
+        }
+
+        @Override
+        protected @Nullable ITmfStateInterval computeNext() {
+            while (true) {
+                Column column = fColumn;
+                if (column != null) {
+                    while (fIndex < fSize && column.fStarts[fIndex] <= fTimes.max()) {
+                        int i = fIndex++;
+                        if (fTimes.intersects(column.fStarts[i], column.fEnds[i])) {
+                            return column.getInterval(i, fQuark, fValues);
+                        }
+                    }
+                    fColumn = null;
+                }
+                /* Move on to the next matching attribute */
+                do {
+                    fQuark++;
+                } while (fQuark <= fLastQuark && !fQuarks.test(fQuark));
+                if (fQuark > fLastQuark) {
+                    return endOfData();
+                }
+                column = fAttributes[fQuark].fColumn;
+                fSize = column.fSize;
+                fIndex = column.firstEndingAfter(fTimes.min(), fSize);
+                fColumn = column;
+            }
+        }
+    }
+
+    /**
+     * The intervals of one attribute. The column is replaced by a new one,
+     * published through the volatile field, when it needs to grow or when an
+     * interval is inserted before the last one.
+     */
+    private static final class Attribute {
+
+        private volatile Column fColumn = new Column(INITIAL_CAPACITY);
+
+        public void append(long start, long end, int valueIndex) {
+            /* Should only be called by the writer, with the lock taken */
+            Column column = fColumn;
+            int size = column.fSize;
+            if (size > 0 && start < column.fStarts[size - 1]) {
+                /* Intervals are expected in order, but handle it anyway */
+                int index = column.searchStart(start, size);
+                int position = index >= 0 ? index + 1 : -index - 1;
+                fColumn = column.copyWith(position, start, end, valueIndex, size);
+                return;
+            }
+            if (size == column.fStarts.length) {
+                column = column.copyWith(size, start, end, valueIndex, size);
+                fColumn = column;
+                return;
+            }
+            column.fStarts[size] = start;
+            column.fEnds[size] = end;
+            column.fValues[size] = valueIndex;
+            /* Publish the new interval */
+            column.fSize = size + 1;
+        }
+
+        public @Nullable ITmfStateInterval getIntervalAt(long t, int quark, ValueDictionary values) {
+            Column column = fColumn;
+            int size = column.fSize;
+            /* Find the first interval ending at or after t */
+            int index = column.firstEndingAfter(t, size);
+            if (index >= size || column.fStarts[index] > t) {
+                return null;
+            }
+            return column.getInterval(index, quark, values);
+        }
+    }
+
+    /**
+     * Primitive arrays of start times, end times and value indexes. The
+     * elements below the published size are never modified.
+     */
+    private static final class Column {
+
+        private final long[] fStarts;
+        private final long[] fEnds;
+        private final int[] fValues;
+        private volatile int fSize = 0;
+
+        public Column(int capacity) {
+            fStarts = new long[capacity];
+            fEnds = new long[capacity];
+            fValues = new int[capacity];
+        }
+
+        /**
+         * Copy this column into a larger one, inserting an interval at the
+         * given position
+         */
+        public Column copyWith(int position, long start, long end, int valueIndex, int size) {
+            Column column = new Column(Math.max(INITIAL_CAPACITY, size * 2));
+            System.arraycopy(fStarts, 0, column.fStarts, 0, position);
+            System.arraycopy(fEnds, 0, column.fEnds, 0, position);
+            System.arraycopy(fValues, 0, column.fValues, 0, position);
+            column.fStarts[position] = start;
+            column.fEnds[position] = end;
+            column.fValues[position] = valueIndex;
+            System.arraycopy(fStarts, position, column.fStarts, position + 1, size - position);
+            System.arraycopy(fEnds, position, column.fEnds, position + 1, size - position);
+            System.arraycopy(fValues, position, column.fValues, position + 1, size - position);
+            column.fSize = size + 1;
+            return column;
+        }
+
+        /**
+         * Binary search for the last interval starting at t
+         *
+         * @return the index of the last interval starting at t if there is
+         *         one, or (-(insertion point) - 1) otherwise, like
+         *         {@link Arrays#binarySearch}
+         */
+        public int searchStart(long t, int size) {
+            int low = 0;
+            int high = size - 1;
+            int found = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                long midStart = fStarts[mid];
+                if (midStart < t) {
+                    low = mid + 1;
+                } else if (midStart > t) {
+                    high = mid - 1;
+                } else {
+                    found = mid;
+                    low = mid + 1;
+                }
             }
+            return found >= 0 ? found : -(low + 1);
+        }
+
+        /**
+         * Binary search for the first interval ending at or after t. Since the
+         * intervals of an attribute do not overlap, the end times are sorted
+         * too.
+         */
+        public int firstEndingAfter(long t, int size) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (fEnds[mid] < t) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        public ITmfStateInterval getInterval(int index, int quark, ValueDictionary values) {
+            return new TmfStateInterval(fStarts[index], fEnds[index], quark, values.get(fValues[index]));
+        }
+    }
+
+    /**
+     * Dictionary of the state values, shared by all the attributes. Each
+     * distinct value is stored once and referred to by its index.
+     */
+    private static final class ValueDictionary {
+
+        /* Only accessed by the writer, with the lock taken */
+        private final Map<@Nullable Object, Integer> fIndexes = new HashMap<>();
+        private int fCount = 0;
+
+        private volatile @Nullable Object[] fTable = new Object[INITIAL_CAPACITY];
+
+        public int indexOf(@Nullable Object value) {
+            Integer index = fIndexes.get(value);
+            if (index != null) {
+                return index;
+            }
+            @Nullable Object[] table = fTable;
+            if (fCount == table.length) {
+                table = Arrays.copyOf(table, fCount * 2);
+            }
+            table[fCount] = value;
+            fTable = table;
+            fIndexes.put(value, fCount);
+            return fCount++;
+        }
+
+        public @Nullable Object get(int index) {
+            return fTable[index];
         }
     }
 
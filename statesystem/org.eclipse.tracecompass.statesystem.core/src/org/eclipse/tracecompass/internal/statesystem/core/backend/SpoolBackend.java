@@ -0,0 +1,260 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.statesystem.core.backend;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.IntegerRangeCondition;
+import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.TimeRangeCondition;
+import org.eclipse.tracecompass.internal.statesystem.core.Activator;
+import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HTInterval;
+import org.eclipse.tracecompass.statesystem.core.backend.IStateHistoryBackend;
+import org.eclipse.tracecompass.statesystem.core.exceptions.TimeRangeException;
+import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
+
+/**
+ * A state history back-end that appends the intervals it receives to a file,
+ * in the order in which they are inserted, so that they can be replayed later.
+ * Like the {@link NullBackend}, no queries can be done on it, only "ongoing"
+ * requests on its state system.
+ *
+ * Since the state system inserts intervals when they end, they are spooled in
+ * increasing order of end time, which is the order in which a history tree
+ * expects them.
+ */
+public class SpoolBackend implements IStateHistoryBackend {
+
+    private final @NonNull String fSsid;
+    private final long fStartTime;
+    private final File fSpoolFile;
+    private final DataOutputStream fOutput;
+
+    /* First and second intervals of each attribute, indexed by quark */
+    private final List<@Nullable ITmfStateInterval> fFirstIntervals = new ArrayList<>();
+    private final List<@Nullable ITmfStateInterval> fSecondIntervals = new ArrayList<>();
+
+    private ByteBuffer fBuffer = ByteBuffer.allocate(64);
+    private volatile long fEndTime;
+    private boolean fClosed = false;
+
+    /**
+     * Constructor
+     *
+     * @param ssid
+     *            The state system's id
+     * @param startTime
+     *            The start time of the state system
+     * @param spoolFile
+     *            The file in which to write the intervals. It is overwritten
+     *            if it exists.
+     * @throws IOException
+     *             If the file cannot be created
+     */
+    public SpoolBackend(@NonNull String ssid, long startTime, File spoolFile) throws IOException {
+        fSsid = ssid;
+        fStartTime = startTime;
+        fEndTime = startTime;
+        fSpoolFile = spoolFile;
+        fOutput = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(spoolFile)));
+    }
+
+    @Override
+    public String getSSID() {
+        return fSsid;
+    }
+
+    @Override
+    public long getStartTime() {
+        return fStartTime;
+    }
+
+    @Override
+    public long getEndTime() {
+        return fEndTime;
+    }
+
+    @Override
+    public synchronized void insertPastState(long stateStartTime, long stateEndTime,
+            int quark, Object value) {
+        if (fClosed || stateEndTime < stateStartTime) {
+            /* Intervals closed before any event was read are discarded */
+            return;
+        }
+        HTInterval interval = new HTInterval(stateStartTime, stateEndTime, quark, value);
+        int size = interval.getSizeOnDisk(0);
+        if (fBuffer.capacity() < size) {
+            fBuffer = ByteBuffer.allocate(Integer.highestOneBit(size) << 1);
+        }
+        fBuffer.clear();
+        interval.writeInterval(fBuffer, 0);
+        try {
+            fOutput.writeInt(size);
+            fOutput.write(fBuffer.array(), 0, size);
+        } catch (IOException e) {
+            Activator.getDefault().logError(e.getMessage(), e);
+        }
+        while (fFirstIntervals.size() <= quark) {
+            fFirstIntervals.add(null);
+            fSecondIntervals.add(null);
+        }
+        if (fFirstIntervals.get(quark) == null) {
+            fFirstIntervals.set(quark, interval);
+        } else if (fSecondIntervals.get(quark) == null) {
+            fSecondIntervals.set(quark, interval);
+        }
+        fEndTime = Math.max(fEndTime, stateEndTime);
+    }
+
+    @Override
+    public synchronized void finishedBuilding(long endTime) {
+        fEndTime = Math.max(fEndTime, endTime);
+        close();
+    }
+
+    /**
+     * Get the first interval that was spooled for an attribute
+     *
+     * @param quark
+     *            The quark of the attribute
+     * @return The first interval of that attribute, or null if none was
+     *         spooled
+     */
+    public synchronized @Nullable ITmfStateInterval getFirstInterval(int quark) {
+        return (quark < fFirstIntervals.size()) ? fFirstIntervals.get(quark) : null;
+    }
+
+    /**
+     * Get the second interval that was spooled for an attribute
+     *
+     * @param quark
+     *            The quark of the attribute
+     * @return The second interval of that attribute, or null if less than two
+     *         were spooled
+     */
+    public synchronized @Nullable ITmfStateInterval getSecondInterval(int quark) {
+        return (quark < fSecondIntervals.size()) ? fSecondIntervals.get(quark) : null;
+    }
+
+    /**
+     * Read back all the spooled intervals, in the order they were inserted.
+     * The history must be finished building.
+     *
+     * @param consumer
+     *            The consumer of the intervals
+     * @throws IOException
+     *             If the spool file cannot be read
+     */
+    public void replay(Consumer<@NonNull HTInterval> consumer) throws IOException {
+        synchronized (this) {
+            if (!fClosed) {
+                throw new IllegalStateException("Cannot replay a spool that is still being written"); //$NON-NLS-1$
+            }
+        }
+        byte[] bytes = new byte[fBuffer.capacity()];
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(fSpoolFile)))) {
+            while (true) {
+                int size;
+                try {
+                    size = in.readInt();
+                } catch (EOFException e) {
+                    return;
+                }
+                if (bytes.length < size) {
+                    bytes = new byte[size];
+                }
+                in.readFully(bytes, 0, size);
+                consumer.accept(HTInterval.readFrom(ByteBuffer.wrap(bytes, 0, size), 0));
+            }
+        }
+    }
+
+    private void close() {
+        if (fClosed) {
+            return;
+        }
+        fClosed = true;
+        try {
+            fOutput.close();
+        } catch (IOException e) {
+            Activator.getDefault().logError(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public FileInputStream supplyAttributeTreeReader() {
+        return null;
+    }
+
+    @Override
+    public File supplyAttributeTreeWriterFile() {
+        return null;
+    }
+
+    @Override
+    public long supplyAttributeTreeWriterFilePosition() {
+        return -1;
+    }
+
+    @Override
+    public synchronized void removeFiles() {
+        close();
+        if (!fSpoolFile.delete() && fSpoolFile.exists()) {
+            Activator.getDefault().logError("Failed to delete " + fSpoolFile.getName()); //$NON-NLS-1$
+        }
+    }
+
+    @Override
+    public void dispose() {
+        removeFiles();
+    }
+
+    /**
+     * Spool back-ends cannot run queries. Nothing will be put in
+     * currentStateInfo.
+     */
+    @Override
+    public void doQuery(List<ITmfStateInterval> currentStateInfo, long t) {
+        /* Cannot do past queries */
+    }
+
+    /**
+     * Spool back-ends cannot run queries. 'null' will be returned.
+     *
+     * @return Always returns null.
+     */
+    @Override
+    public ITmfStateInterval doSingularQuery(long t, int attributeQuark) {
+        /* Cannot do past queries */
+        return null;
+    }
+
+    @Override
+    public Iterable<@NonNull ITmfStateInterval> query2D(IntegerRangeCondition quarks,
+            TimeRangeCondition times) throws TimeRangeException {
+        return Collections.emptyList();
+    }
+}
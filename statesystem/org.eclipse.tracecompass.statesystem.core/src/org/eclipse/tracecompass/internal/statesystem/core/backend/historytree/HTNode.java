@@ -226,6 +226,26 @@ public abstract class HTNode {
      *             If there was an error writing
      */
     public final void writeSelf(FileChannel channel) throws IOException {
+        ByteBuffer buffer = serializeSelf();
+        final int blockSize = fConfig.getBlockSize();
+
+        /* Finally, write everything in the Buffer to disk */
+        int res = channel.write(buffer);
+        if (res != blockSize) {
+            throw new IllegalStateException("Wrong size of block written: Actual: " + res + ", Expected: " + blockSize); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        fIsOnDisk = true;
+    }
+
+    /**
+     * Serialize this node in a new block-sized buffer, in the same format as
+     * it is written on disk. Unlike {@link #writeSelf(FileChannel)}, this does
+     * not mark the node as being on disk, so it can be used to save the nodes
+     * of the latest branch while they are still being filled.
+     *
+     * @return The buffer containing the serialized node, ready to be read
+     */
+    public final ByteBuffer serializeSelf() {
         /*
          * Yes, we are taking the *read* lock here, because we are reading the
          * information in the node to write it to disk.
@@ -262,18 +282,11 @@ public abstract class HTNode {
             while (buffer.position() < blockSize) {
                 buffer.put((byte) 0);
             }
-
-            /* Finally, write everything in the Buffer to disk */
             buffer.flip();
-            int res = channel.write(buffer);
-            if (res != blockSize) {
-                throw new IllegalStateException("Wrong size of block written: Actual: " + res + ", Expected: " + blockSize); //$NON-NLS-1$ //$NON-NLS-2$
-            }
-
+            return buffer;
         } finally {
             fRwl.readLock().unlock();
         }
-        fIsOnDisk = true;
     }
 
     // ------------------------------------------------------------------------
@@ -814,4 +827,26 @@ public abstract class HTNode {
 
         return newNode;
     }
+
+    /**
+     * Parse a node of the latest branch that was saved with
+     * {@link #serializeSelf()} before being closed. Contrary to
+     * {@link #parseNode(HTConfig, ByteBuffer, IHTNodeFactory)}, the node is
+     * not considered to be on disk, so intervals can still be added to it.
+     *
+     * @param config
+     *            The history tree configuration
+     * @param buffer
+     *            the buffer containing a node
+     * @param nodeFactory
+     *            the node factory (used for custom values)
+     * @return The node, still open for insertions
+     * @throws IOException
+     *             If the buffer does not contain a valid node
+     */
+    public static @NonNull HTNode parseOpenNode(HTConfig config, ByteBuffer buffer, IHTNodeFactory nodeFactory) throws IOException {
+        HTNode newNode = parseNode(config, buffer, nodeFactory);
+        newNode.fIsOnDisk = false;
+        return newNode;
+    }
 }
@@ -22,6 +22,7 @@ import java.nio.ByteBuffer;
 import java.nio.channels.ClosedChannelException;
 import java.nio.channels.FileChannel;
 import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.util.Deque;
 import java.util.Iterator;
 import java.util.Objects;
@@ -131,7 +132,6 @@ public class HT_IO {
 
     /* Fields related to the file I/O */
     private final FileInputStream fFileInputStream;
-    private final FileOutputStream fFileOutputStream;
     private final FileChannel fFileChannelIn;
     private final FileChannel fFileChannelOut;
 
@@ -174,17 +174,49 @@ public class HT_IO {
                         historyTreeFile.getName());
             }
             fFileInputStream = new FileInputStream(historyTreeFile);
-            fFileOutputStream = new FileOutputStream(historyTreeFile, false);
+            fFileChannelOut = new FileOutputStream(historyTreeFile, false).getChannel();
         } else {
             /*
              * We want to open an existing file, make sure we don't squash the
              * existing content when opening the fos!
              */
             fFileInputStream = new FileInputStream(historyTreeFile);
-            fFileOutputStream = new FileOutputStream(historyTreeFile, true);
+            fFileChannelOut = new FileOutputStream(historyTreeFile, true).getChannel();
         }
         fFileChannelIn = fFileInputStream.getChannel();
-        fFileChannelOut = fFileOutputStream.getChannel();
+        fNodeFactory = nodeFactory;
+    }
+
+    /**
+     * Resume constructor, to continue writing a partially built History Tree
+     * file. Everything in the file past the given length is discarded, it
+     * will be written again by the tree.
+     *
+     * @param config
+     *            The configuration object for the StateHistoryTree
+     * @param length
+     *            The length of the file content to keep, in bytes
+     * @param nodeFactory
+     *            The factory to create new nodes for this tree
+     *
+     * @throws IOException
+     *             An exception can be thrown when file cannot be accessed
+     */
+    public HT_IO(HTConfig config, long length, IHTNodeFactory nodeFactory) throws IOException {
+        fConfig = config;
+
+        File historyTreeFile = config.getStateFile();
+        if (historyTreeFile.length() < length) {
+            throw new IOException("History file " + historyTreeFile.getName() + " is shorter than expected"); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        /*
+         * Do not open the output in append mode, nodes are written at their own
+         * position in the file.
+         */
+        fFileChannelOut = FileChannel.open(historyTreeFile.toPath(), StandardOpenOption.WRITE);
+        fFileChannelOut.truncate(length);
+        fFileInputStream = new FileInputStream(historyTreeFile);
+        fFileChannelIn = fFileInputStream.getChannel();
         fNodeFactory = nodeFactory;
     }
 
@@ -313,7 +345,7 @@ public class HT_IO {
     public synchronized void closeFile() {
         try {
             fFileInputStream.close();
-            fFileOutputStream.close();
+            fFileChannelOut.close();
         } catch (IOException e) {
             Activator.getDefault().logError(e.getMessage(), e);
         }
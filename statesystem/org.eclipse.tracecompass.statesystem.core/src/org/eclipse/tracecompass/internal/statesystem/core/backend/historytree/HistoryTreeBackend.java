@@ -17,6 +17,8 @@
 
 package org.eclipse.tracecompass.internal.statesystem.core.backend.historytree;
 
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
@@ -27,6 +29,8 @@ import java.util.List;
 import java.util.Objects;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.tracecompass.common.core.log.TraceCompassLog;
@@ -63,6 +67,9 @@ public class HistoryTreeBackend implements IStateHistoryBackend {
     /** Indicates if the history tree construction is done */
     private volatile boolean fFinishedBuilding = false;
 
+    /** Indicates if the construction can be resumed from a checkpoint */
+    private volatile boolean fHasCheckpoint = false;
+
     /**
      * Indicates if the history tree construction is done
      *
@@ -82,6 +89,17 @@ public class HistoryTreeBackend implements IStateHistoryBackend {
         fFinishedBuilding = isFinishedBuilding;
     }
 
+    /**
+     * Indicates if a checkpoint of the construction of the history tree was
+     * written, or if it was resumed from one. The partial file is then kept
+     * when the back-end is disposed before the end of the construction.
+     *
+     * @return if the construction can be resumed from a checkpoint
+     */
+    protected boolean hasCheckpoint() {
+        return fHasCheckpoint;
+    }
+
     /**
      * Constructor for new history files. Use this when creating a new history
      * from scratch.
@@ -163,6 +181,29 @@ public class HistoryTreeBackend implements IStateHistoryBackend {
         fFinishedBuilding = true;
     }
 
+    /**
+     * Resume constructor. Use this to continue building a history file from
+     * a checkpoint written by {@link #writeCheckpoint(DataOutput)}.
+     *
+     * @param ssid
+     *            The state system's id
+     * @param stateFile
+     *            Filename/location of the partially built history
+     * @param providerVersion
+     *            Expected version of of the state provider plugin.
+     * @param checkpoint
+     *            The input to read the checkpoint from
+     * @throws IOException
+     *             If the checkpoint cannot be read, or if it does not match
+     *             the history file or the expected providerVersion.
+     */
+    public HistoryTreeBackend(@NonNull String ssid, @NonNull File stateFile, int providerVersion, @NonNull DataInput checkpoint)
+            throws IOException {
+        fSsid = ssid;
+        fSht = initializeSHT(stateFile, providerVersion, checkpoint);
+        fHasCheckpoint = true;
+    }
+
     /**
      * New-tree initializer for the History Tree wrapped by this backend. Can be
      * overriden to use different implementations.
@@ -196,11 +237,30 @@ public class HistoryTreeBackend implements IStateHistoryBackend {
         return HistoryTreeFactory.createFromFile(existingStateFile.toPath(), providerVersion);
     }
 
+    /**
+     * Resumed-tree initializer for the History Tree wrapped by this backend.
+     * Can be overriden to use different implementations.
+     *
+     * @param stateFile
+     *            The partially built file
+     * @param providerVersion
+     *            The expected state provider version
+     * @param checkpoint
+     *            The input to read the checkpoint from
+     * @return The history tree, ready to receive new intervals
+     * @throws IOException
+     *             If there was a problem during creation
+     */
+    @VisibleForTesting
+    protected @NonNull IHistoryTree initializeSHT(@NonNull File stateFile, int providerVersion, @NonNull DataInput checkpoint) throws IOException {
+        return HistoryTreeFactory.resumeFromCheckpoint(stateFile, providerVersion, checkpoint);
+    }
+
     /**
      * Get the History Tree built by this backend.
      *
      * Note: Do not override this method. If you want to extend the class to use
-     * a different History Tree implementation, override both variants of
+     * a different History Tree implementation, override all the variants of
      * {@link #initializeSHT} instead.
      *
      * @return The history tree
@@ -240,6 +300,13 @@ public class HistoryTreeBackend implements IStateHistoryBackend {
         fFinishedBuilding = true;
     }
 
+    @Override
+    public boolean writeCheckpoint(DataOutput out) throws IOException {
+        getSHT().writeCheckpoint(out);
+        fHasCheckpoint = true;
+        return true;
+    }
+
     @Override
     public FileInputStream supplyAttributeTreeReader() {
         return getSHT().supplyATReader();
@@ -266,6 +333,14 @@ public class HistoryTreeBackend implements IStateHistoryBackend {
             LogUtils.traceInstant(LOGGER, Level.FINE, "HistoryTreeBackend:ClosingFile", "size", getSHT().getFileSize()); //$NON-NLS-1$ //$NON-NLS-2$
             LogUtils.traceObjectDestruction(LOGGER, Level.FINER, this);
             getSHT().closeFile();
+        } else if (fHasCheckpoint) {
+            /*
+             * The build is being interrupted, but it can be resumed from its
+             * last checkpoint, so keep the file we partially built. The owner
+             * of the checkpoint deletes it with removeFiles() if it is not
+             * usable.
+             */
+            getSHT().closeFile();
         } else {
             /*
              * The build is being interrupted, delete the file we partially
@@ -366,6 +441,15 @@ public class HistoryTreeBackend implements IStateHistoryBackend {
         }
     }
 
+    @Override
+    public Stream<@NonNull ITmfStateInterval> query2DStream(IntegerRangeCondition quarks, TimeRangeCondition times) {
+        LogUtils.traceInstant(LOGGER, Level.FINER, "HistoryTreeBackend:query2DStream", //$NON-NLS-1$
+                "ssid", getSSID(), //$NON-NLS-1$
+                "quarks", quarks, //$NON-NLS-1$
+                "timeCondition", times); //$NON-NLS-1$
+        return StreamSupport.stream(new HistoryTreeBackendSpliterator(getSHT(), quarks, times), true);
+    }
+
     /**
      * Return the size of the tree history file
      *
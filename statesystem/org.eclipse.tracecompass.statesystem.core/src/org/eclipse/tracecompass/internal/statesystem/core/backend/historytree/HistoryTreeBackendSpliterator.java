@@ -0,0 +1,149 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.statesystem.core.backend.historytree;
+
+import java.nio.channels.ClosedChannelException;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.common.core.log.TraceCompassLog;
+import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.IntegerRangeCondition;
+import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.TimeRangeCondition;
+import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
+import org.eclipse.tracecompass.traceeventlogger.LogUtils;
+
+/**
+ * Spliterator over the intervals of a history tree that match a 2D query. The
+ * frontier of nodes that remain to be read is split between spliterators, so
+ * that a parallel stream can decode separate sub-trees concurrently. Intervals
+ * are handed to the consumer node by node, as they are read.
+ */
+class HistoryTreeBackendSpliterator implements Spliterator<@NonNull ITmfStateInterval> {
+
+    private static final @NonNull Logger LOGGER = TraceCompassLog.getLogger(HistoryTreeBackendSpliterator.class);
+
+    private final @NonNull IHistoryTree fSht;
+    private final IntegerRangeCondition fQuarks;
+    private final TimeRangeCondition fTimes;
+    private final Deque<Integer> fSeqNumberQueue;
+
+    private Iterator<@NonNull HTInterval> fIntervals = Collections.emptyIterator();
+
+    /**
+     * Constructor for a spliterator starting at the root of the tree
+     *
+     * @param sht
+     *            The history tree to query
+     * @param quarks
+     *            Condition on the quarks for returned intervals
+     * @param times
+     *            Condition on the times for returned intervals
+     */
+    HistoryTreeBackendSpliterator(@NonNull IHistoryTree sht, IntegerRangeCondition quarks, TimeRangeCondition times) {
+        this(sht, quarks, times, new ArrayDeque<>(Collections.singleton(sht.getRootNode().getSequenceNumber())));
+    }
+
+    private HistoryTreeBackendSpliterator(@NonNull IHistoryTree sht, IntegerRangeCondition quarks, TimeRangeCondition times, Deque<Integer> seqNumberQueue) {
+        fSht = sht;
+        fQuarks = quarks;
+        fTimes = times;
+        fSeqNumberQueue = seqNumberQueue;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super @NonNull ITmfStateInterval> action) {
+        while (!fIntervals.hasNext()) {
+            if (!readNextNode()) {
+                return false;
+            }
+        }
+        action.accept(fIntervals.next());
+        return true;
+    }
+
+    @Override
+    public @Nullable Spliterator<@NonNull ITmfStateInterval> trySplit() {
+        /*
+         * When the frontier is down to a single node (ie. at the root), read
+         * it first so its children can be shared. Its own intervals stay with
+         * this spliterator.
+         */
+        if (fSeqNumberQueue.size() == 1 && !fIntervals.hasNext()) {
+            readNextNode();
+        }
+        int size = fSeqNumberQueue.size();
+        if (size < 2) {
+            return null;
+        }
+        Deque<Integer> prefix = new ArrayDeque<>(size / 2);
+        for (int i = 0; i < size / 2; i++) {
+            prefix.add(fSeqNumberQueue.pop());
+        }
+        LogUtils.traceInstant(LOGGER, Level.FINEST, "HistoryTreeBackendSpliterator:split", "nodes", size); //$NON-NLS-1$ //$NON-NLS-2$
+        return new HistoryTreeBackendSpliterator(fSht, fQuarks, fTimes, prefix);
+    }
+
+    @Override
+    public long estimateSize() {
+        /* The number of intervals per node is not known before reading it */
+        return (fSeqNumberQueue.isEmpty() && !fIntervals.hasNext()) ? 0 : Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return NONNULL;
+    }
+
+    /**
+     * Read the next node of the frontier, queue its relevant children and
+     * prepare its matching intervals.
+     *
+     * @return false if there are no more nodes to read
+     */
+    private boolean readNextNode() {
+        if (fSeqNumberQueue.isEmpty()) {
+            return false;
+        }
+        try {
+            HTNode currentNode = fSht.readNode(fSeqNumberQueue);
+            /*
+             * Compute reduced conditions here to reduce complexity in queuing
+             * operations. Do not reduce for the root node.
+             */
+            TimeRangeCondition subTimes = currentNode.getParentSequenceNumber() == -1 ? fTimes : fTimes.subCondition(currentNode.getNodeStart(), currentNode.getNodeEnd());
+            /*
+             * During the SHT construction, the bounds of the children are not
+             * final, so we may have queued some nodes which don't overlap the
+             * query.
+             */
+            if (fQuarks.intersects(currentNode.getMinQuark(), currentNode.getMaxQuark()) && subTimes != null) {
+                if (currentNode.getNodeType() == HTNode.NodeType.CORE) {
+                    ((ParentNode) currentNode).queueNextChildren2D(fQuarks, subTimes, fSeqNumberQueue, false);
+                }
+                fIntervals = currentNode.iterable2D(fQuarks, subTimes).iterator();
+            }
+            return true;
+        } catch (ClosedChannelException e) {
+            LogUtils.traceInstant(LOGGER, Level.FINER, "HistoryTreeBackendSpliterator:channelClosed"); //$NON-NLS-1$
+            fSeqNumberQueue.clear();
+            return false;
+        }
+    }
+}
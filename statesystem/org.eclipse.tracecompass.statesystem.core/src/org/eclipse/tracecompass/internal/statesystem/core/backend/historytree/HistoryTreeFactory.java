@@ -11,6 +11,8 @@
 
 package org.eclipse.tracecompass.internal.statesystem.core.backend.historytree;
 
+import java.io.DataInput;
+import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
@@ -92,4 +94,24 @@ public final class HistoryTreeFactory {
             throw new IOException("Not a known history tree file"); //$NON-NLS-1$
         }
     }
+
+    /**
+     * "Resume" factory : continue the construction of a partially built tree
+     * file, from a checkpoint written by
+     * {@link IHistoryTree#writeCheckpoint(java.io.DataOutput)}.
+     *
+     * @param stateFile
+     *            Path/filename of the partially built history file
+     * @param expectedProviderVersion
+     *            The expected version of the state provider
+     * @param checkpoint
+     *            The input to read the checkpoint from
+     * @return The history tree, ready to receive new intervals
+     * @throws IOException
+     *             If the checkpoint or the file cannot be used to resume the
+     *             construction
+     */
+    public static IHistoryTree resumeFromCheckpoint(File stateFile, int expectedProviderVersion, DataInput checkpoint) throws IOException {
+        return new HistoryTreeClassic(stateFile, expectedProviderVersion, checkpoint);
+    }
 }
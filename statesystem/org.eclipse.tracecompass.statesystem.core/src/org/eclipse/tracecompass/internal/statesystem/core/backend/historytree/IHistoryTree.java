@@ -11,6 +11,7 @@
 
 package org.eclipse.tracecompass.internal.statesystem.core.backend.historytree;
 
+import java.io.DataOutput;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
@@ -212,6 +213,19 @@ public interface IHistoryTree {
      */
     long getFileSize();
 
+    /**
+     * Save the state of the tree construction, so that it can later be resumed
+     * from this point. The nodes that are already closed must be on disk when
+     * this method returns, the nodes of the latest branch are saved in the
+     * checkpoint itself.
+     *
+     * @param out
+     *            The output to write the checkpoint to
+     * @throws IOException
+     *             If an error happens writing the checkpoint
+     */
+    void writeCheckpoint(DataOutput out) throws IOException;
+
     /**
      * Seek the given FileChannel to the position corresponding to the node that
      * has seqNumber
@@ -16,13 +16,19 @@
 
 package org.eclipse.tracecompass.internal.statesystem.core.backend.historytree;
 
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.File;
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.common.core.collect.BufferedBlockingQueue;
 import org.eclipse.tracecompass.common.core.log.TraceCompassLog;
 import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.IntegerRangeCondition;
@@ -48,6 +54,8 @@ public final class ThreadedHistoryTreeBackend extends HistoryTreeBackend
     private static final @NonNull Logger LOGGER = TraceCompassLog.getLogger(ThreadedHistoryTreeBackend.class);
 
     private static final int CHUNK_SIZE = 127;
+    /** Attribute of the marker interval used to drain the queue */
+    private static final int CHECKPOINT_ATTRIBUTE = -2;
     private final @NonNull BufferedBlockingQueue<HTInterval> intervalQueue;
     private final @NonNull Thread shtThread;
     /**
@@ -55,6 +63,9 @@ public final class ThreadedHistoryTreeBackend extends HistoryTreeBackend
      * consideration intervals in the queue.
      */
     private long fEndTime;
+    private volatile @Nullable CountDownLatch fDrained = null;
+    /** Whether the tree is closed when the thread is stopped */
+    private volatile boolean fCloseTree = true;
 
     /**
      * New state history constructor
@@ -134,6 +145,39 @@ public final class ThreadedHistoryTreeBackend extends HistoryTreeBackend
         shtThread.start();
     }
 
+    /**
+     * Resume constructor, to continue building a history file from a
+     * checkpoint.
+     *
+     * @param ssid
+     *            The state system's id
+     * @param stateFile
+     *            Filename/location of the partially built history
+     * @param providerVersion
+     *            Expected version of of the state provider plugin.
+     * @param queueSize
+     *            The size of the interval insertion queue. 2000 - 10000 usually
+     *            works well
+     * @param checkpoint
+     *            The input to read the checkpoint from
+     * @throws IOException
+     *             If the checkpoint cannot be read, or if it does not match
+     *             the history file or the expected providerVersion.
+     */
+    public ThreadedHistoryTreeBackend(@NonNull String ssid,
+            @NonNull File stateFile,
+            int providerVersion,
+            int queueSize,
+            @NonNull DataInput checkpoint)
+                    throws IOException {
+        super(ssid, stateFile, providerVersion, checkpoint);
+        fEndTime = getSHT().getTreeEnd();
+
+        intervalQueue = new BufferedBlockingQueue<>(queueSize / CHUNK_SIZE, CHUNK_SIZE);
+        shtThread = new Thread(this, "History Tree Thread"); //$NON-NLS-1$
+        shtThread.start();
+    }
+
     /*
      * The Threaded version does not specify an "existing file" constructor,
      * since the history is already built (and we only use the other thread
@@ -175,14 +219,43 @@ public final class ThreadedHistoryTreeBackend extends HistoryTreeBackend
         return;
     }
 
+    @Override
+    public boolean writeCheckpoint(DataOutput out) throws IOException {
+        if (!shtThread.isAlive()) {
+            return false;
+        }
+        /*
+         * Wait for the tree thread to insert everything that is in the queue.
+         * We are the only thread putting intervals in it, so the tree will
+         * not change until we are done writing the checkpoint.
+         */
+        CountDownLatch drained = new CountDownLatch(1);
+        fDrained = drained;
+        try {
+            intervalQueue.put(new HTInterval(Long.MIN_VALUE, Long.MIN_VALUE, CHECKPOINT_ATTRIBUTE, TmfStateValue.nullValue()));
+            intervalQueue.flushInputBuffer();
+            drained.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the history tree thread", e); //$NON-NLS-1$
+        }
+        return super.writeCheckpoint(out);
+    }
+
     @Override
     public void dispose() {
         if (!isFinishedBuilding()) {
+            /*
+             * A file that can be resumed from its checkpoint is truncated
+             * after its last flushed node when resuming, there is no need to
+             * write the latest branch.
+             */
+            fCloseTree = !hasCheckpoint();
             stopRunningThread(Long.MAX_VALUE);
         }
         /*
          * isFinishedBuilding remains false, so the superclass will ask the
-         * back-end to delete the file.
+         * back-end to delete the file, unless it has a checkpoint.
          */
         super.dispose();
     }
@@ -213,6 +286,16 @@ public final class ThreadedHistoryTreeBackend extends HistoryTreeBackend
         try {
             HTInterval currentInterval = intervalQueue.blockingPeek();
             while (currentInterval.getStartTime() != Long.MIN_VALUE || currentInterval.getAttribute() != -1) {
+                if (currentInterval.getStartTime() == Long.MIN_VALUE && currentInterval.getAttribute() == CHECKPOINT_ATTRIBUTE) {
+                    /* Everything before the marker is in the tree */
+                    intervalQueue.take();
+                    CountDownLatch drained = fDrained;
+                    if (drained != null) {
+                        drained.countDown();
+                    }
+                    currentInterval = intervalQueue.blockingPeek();
+                    continue;
+                }
                 /* Send the interval to the History Tree */
                 getSHT().insertInterval(currentInterval);
                 /* Actually remove the interval from the queue */
@@ -224,7 +307,9 @@ public final class ThreadedHistoryTreeBackend extends HistoryTreeBackend
              * We've been told we're done, let's write down everything and quit.
              * The end time of this "signal interval" is actually correct.
              */
-            getSHT().closeTree(currentInterval.getEndTime());
+            if (fCloseTree) {
+                getSHT().closeTree(currentInterval.getEndTime());
+            }
         } catch (TimeRangeException e) {
             /* This should not happen */
             Activator.getDefault().logError("Error starting the state system", e); //$NON-NLS-1$
@@ -314,4 +399,19 @@ public final class ThreadedHistoryTreeBackend extends HistoryTreeBackend
             return Iterables.concat(super.query2D(quarks, times, reverse), queuedIntervals);
         }
     }
+
+    @Override
+    public Stream<@NonNull ITmfStateInterval> query2DStream(IntegerRangeCondition quarks, TimeRangeCondition times)
+            throws TimeRangeException {
+        /*
+         * As for the iterable query, the queue is only looked at once the
+         * history tree part of the stream has been consumed, hence the
+         * spliterator supplier.
+         */
+        Stream<@NonNull ITmfStateInterval> queuedIntervals = StreamSupport.stream(intervalQueue::spliterator, 0, false)
+                .filter(interval -> !isFinishedBuilding() && quarks.test(interval.getAttribute())
+                        && times.intersects(interval.getStartTime(), interval.getEndTime()))
+                .map(interval -> (ITmfStateInterval) interval);
+        return Stream.concat(super.query2DStream(quarks, times), queuedIntervals);
+    }
 }
@@ -16,6 +16,8 @@
 
 package org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.classic;
 
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
@@ -232,6 +234,60 @@ public class HistoryTreeClassic implements IHistoryTree {
         }
     }
 
+    /**
+     * "Resume" constructor : continue the construction of a tree file from a
+     * checkpoint written by {@link #writeCheckpoint(DataOutput)}. The nodes
+     * that were closed before the checkpoint are kept in the file, the
+     * content written after it is discarded and the latest branch is restored
+     * from the checkpoint.
+     *
+     * @param stateFile
+     *            Path/filename of the partially built history file
+     * @param expProviderVersion
+     *            The expected version of the state provider
+     * @param checkpoint
+     *            The input to read the checkpoint from
+     * @throws IOException
+     *             If an error happens reading the checkpoint or the file, or
+     *             if they do not match the expected versions
+     */
+    public HistoryTreeClassic(File stateFile, int expProviderVersion, DataInput checkpoint) throws IOException {
+        if (checkpoint.readInt() != HISTORY_FILE_MAGIC_NUMBER) {
+            throw new IOException("Wrong magic number"); //$NON-NLS-1$
+        }
+        if (checkpoint.readInt() != FILE_VERSION) {
+            throw new IOException("Mismatching History Tree file format versions"); //$NON-NLS-1$
+        }
+        int providerVersion = checkpoint.readInt();
+        if (providerVersion != expProviderVersion &&
+                expProviderVersion != ITmfStateSystemBuilder.IGNORE_PROVIDER_VERSION) {
+            throw new IOException("Mismatching event handler versions"); //$NON-NLS-1$
+        }
+        int bs = checkpoint.readInt();
+        int maxc = checkpoint.readInt();
+        long startTime = checkpoint.readLong();
+        fConfig = new HTConfig(stateFile, bs, maxc, providerVersion, startTime);
+        fTreeEnd = checkpoint.readLong();
+        fNodeCount = checkpoint.readInt();
+
+        fTreeIO = new HT_IO(fConfig, IHistoryTree.TREE_HEADER_SIZE + ((long) fNodeCount * bs), CLASSIC_NODE_FACTORY);
+
+        int depth = checkpoint.readInt();
+        List<@NonNull HTNode> latestBranch = new ArrayList<>(depth);
+        byte[] block = new byte[bs];
+        for (int i = 0; i < depth; i++) {
+            checkpoint.readFully(block);
+            ByteBuffer buffer = ByteBuffer.wrap(block);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            latestBranch.add(HTNode.parseOpenNode(fConfig, buffer, CLASSIC_NODE_FACTORY));
+        }
+        fLatestBranch = Collections.synchronizedList(latestBranch);
+        if (depth == 0 || startTime != getRootNode().getNodeStart()) {
+            fTreeIO.closeFile();
+            throw new IOException("Inconsistent history tree checkpoint"); //$NON-NLS-1$
+        }
+    }
+
     /**
      * Rebuild the latestBranch "cache" object by reading the nodes from disk
      * (When we are opening an existing file on disk and want to append to it,
@@ -315,6 +371,33 @@ public class HistoryTreeClassic implements IHistoryTree {
         }
     }
 
+    @Override
+    public void writeCheckpoint(DataOutput out) throws IOException {
+        synchronized (fLatestBranch) {
+            /*
+             * The closed nodes must really be on disk before a checkpoint
+             * refers to them.
+             */
+            fTreeIO.getFcOut().force(false);
+
+            out.writeInt(HISTORY_FILE_MAGIC_NUMBER);
+            out.writeInt(FILE_VERSION);
+            out.writeInt(fConfig.getProviderVersion());
+            out.writeInt(fConfig.getBlockSize());
+            out.writeInt(fConfig.getMaxChildren());
+            out.writeLong(fConfig.getTreeStart());
+            out.writeLong(fTreeEnd);
+            out.writeInt(fNodeCount);
+
+            /* The nodes of the latest branch are only in memory */
+            out.writeInt(fLatestBranch.size());
+            for (HTNode node : fLatestBranch) {
+                ByteBuffer buffer = node.serializeSelf();
+                out.write(buffer.array(), 0, buffer.limit());
+            }
+        }
+    }
+
     // ------------------------------------------------------------------------
     // Accessors
     // ------------------------------------------------------------------------
@@ -15,7 +15,10 @@
 package org.eclipse.tracecompass.statesystem.core;
 
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
@@ -540,4 +543,43 @@ public interface ITmfStateSystem {
      */
     Iterable<@NonNull ITmfStateInterval> query2D(@NonNull Collection<Integer> quarks,
             long start, long end) throws StateSystemDisposedException, IndexOutOfBoundsException, TimeRangeException;
+
+    /**
+     * Multiple attribute and time range stream query. Streams the intervals
+     * from attributes in the quarks collection that intersect the [start, end]
+     * time range.
+     * <p>
+     * Unlike {@link #query2D(Collection, long, long)}, the returned stream may
+     * be parallel: the backend can split the nodes to read between the threads
+     * of the common fork-join pool and intervals are handed to the consumer as
+     * they are decoded. Short-circuiting operations (for example
+     * {@link Stream#anyMatch} or {@link Stream#limit}) stop the traversal as
+     * soon as they are satisfied. There may be duplicates during State System
+     * construction.
+     * </p>
+     *
+     * @param quarks
+     *            a collection of quarks for which we want information
+     * @param start
+     *            lower bound for the query
+     * @param end
+     *            upper bound for the query
+     * @param sortedByStart
+     *            if true, the intervals are returned ordered by start time,
+     *            otherwise there is no guaranteed order
+     * @return a lazily evaluated stream of the queried intervals
+     * @throws StateSystemDisposedException
+     *             If the query is sent after the state system has been disposed
+     * @throws IndexOutOfBoundsException
+     *             If the smallest attribute is {@literal <} 0 or if the largest
+     *             is {@literal >=} to the number of attributes.
+     * @throws TimeRangeException
+     *             If the smallest time is before the state system start time.
+     * @since 5.4
+     */
+    default Stream<@NonNull ITmfStateInterval> query2DStream(@NonNull Collection<Integer> quarks,
+            long start, long end, boolean sortedByStart) throws StateSystemDisposedException, IndexOutOfBoundsException, TimeRangeException {
+        Stream<@NonNull ITmfStateInterval> stream = StreamSupport.stream(query2D(quarks, start, end).spliterator(), false);
+        return sortedByStart ? stream.sorted(Comparator.comparingLong(ITmfStateInterval::getStartTime)) : stream;
+    }
 }
\ No newline at end of file
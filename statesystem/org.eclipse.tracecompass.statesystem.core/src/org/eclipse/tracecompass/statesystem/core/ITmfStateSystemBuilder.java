@@ -14,6 +14,8 @@
 
 package org.eclipse.tracecompass.statesystem.core;
 
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -279,6 +281,26 @@ public interface ITmfStateSystemBuilder extends ITmfStateSystem {
      */
     void closeHistory(long endTime);
 
+    /**
+     * Save the progress of the construction of this state system: the
+     * backend's own progress, the attribute tree and the ongoing state of
+     * every attribute. A state system built from this checkpoint with
+     * {@link StateSystemFactory#newStateSystem(org.eclipse.tracecompass.statesystem.core.backend.IStateHistoryBackend, java.io.DataInput)}
+     * can then receive the state changes that come after it. This must be
+     * called by the thread doing the state changes, between two of them.
+     *
+     * @param out
+     *            The output to write the checkpoint to
+     * @return {@code true} if a checkpoint was written, {@code false} if the
+     *         backend does not support resuming its construction
+     * @throws IOException
+     *             If an error happens writing the checkpoint
+     * @since 5.4
+     */
+    default boolean writeCheckpoint(DataOutput out) throws IOException {
+        return false;
+    }
+
     /**
      * Delete any generated files or anything that might have been created by
      * the history backend (either temporary or save files). By calling this, we
@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.statesystem.core;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * A reusable handle on an absolute attribute path, which remembers the quark
+ * it was resolved to in a state system. State providers can create their
+ * constant paths once and get their quarks on every event without resolving
+ * the path again.
+ *
+ * The handle keeps the quark of the last state system it was resolved in, and
+ * resolves the path again if it is used with another state system. It does not
+ * prevent that state system from being garbage collected.
+ *
+ * @since 5.4
+ */
+@NonNullByDefault
+public final class QuarkPath {
+
+    private static final class Resolved {
+        private final WeakReference<ITmfStateSystem> fStateSystem;
+        private final int fQuark;
+
+        public Resolved(ITmfStateSystem stateSystem, int quark) {
+            fStateSystem = new WeakReference<>(stateSystem);
+            fQuark = quark;
+        }
+    }
+
+    private final String[] fPath;
+    private volatile @Nullable Resolved fResolved = null;
+
+    private QuarkPath(String[] path) {
+        fPath = path;
+    }
+
+    /**
+     * Create a handle on an absolute attribute path
+     *
+     * @param path
+     *            The full path of the attribute
+     * @return The handle
+     */
+    public static QuarkPath of(String... path) {
+        return new QuarkPath(Arrays.copyOf(path, path.length));
+    }
+
+    /**
+     * Get the path of this handle
+     *
+     * @return A copy of the path elements
+     */
+    public String[] getPath() {
+        return Arrays.copyOf(fPath, fPath.length);
+    }
+
+    /**
+     * Get the quark of this path in a state system, adding the attribute if
+     * it does not exist, like
+     * {@link ITmfStateSystemBuilder#getQuarkAbsoluteAndAdd(String...)}.
+     *
+     * @param ss
+     *            The state system builder
+     * @return The quark of the attribute
+     */
+    public int getQuarkAndAdd(ITmfStateSystemBuilder ss) {
+        Resolved resolved = fResolved;
+        if (resolved != null && resolved.fStateSystem.get() == ss) {
+            return resolved.fQuark;
+        }
+        int quark = ss.getQuarkAbsoluteAndAdd(fPath);
+        fResolved = new Resolved(ss, quark);
+        return quark;
+    }
+
+    /**
+     * Get the quark of this path in a state system, if the attribute exists,
+     * like {@link ITmfStateSystem#optQuarkAbsolute(String...)}.
+     *
+     * @param ss
+     *            The state system
+     * @return The quark of the attribute, or
+     *         {@link ITmfStateSystem#INVALID_ATTRIBUTE} if it does not exist
+     */
+    public int optQuark(ITmfStateSystem ss) {
+        Resolved resolved = fResolved;
+        if (resolved != null && resolved.fStateSystem.get() == ss) {
+            return resolved.fQuark;
+        }
+        int quark = ss.optQuarkAbsolute(fPath);
+        if (quark != ITmfStateSystem.INVALID_ATTRIBUTE) {
+            /* Quarks never change once attributed, but missing ones may be added */
+            fResolved = new Resolved(ss, quark);
+        }
+        return quark;
+    }
+
+    @Override
+    public String toString() {
+        return String.join("/", fPath); //$NON-NLS-1$
+    }
+}
@@ -14,6 +14,7 @@
 
 package org.eclipse.tracecompass.statesystem.core;
 
+import java.io.DataInput;
 import java.io.IOException;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -66,4 +67,26 @@ public final class StateSystemFactory {
         return new StateSystem(backend, newFile);
     }
 
+    /**
+     * Resume factory method. Continue the construction of a state system
+     * from a checkpoint written by
+     * {@link ITmfStateSystemBuilder#writeCheckpoint(java.io.DataOutput)}. The backend
+     * must already have been resumed from the same checkpoint, so that the
+     * input is positioned right after the backend's part.
+     *
+     * @param backend
+     *            The resumed back-end
+     * @param checkpoint
+     *            The input to read the rest of the checkpoint from
+     * @return The state system, ready to receive the state changes that come
+     *         after the checkpoint
+     * @throws IOException
+     *             If the checkpoint cannot be read or is inconsistent
+     * @since 5.4
+     */
+    public static ITmfStateSystemBuilder newStateSystem(IStateHistoryBackend backend,
+            DataInput checkpoint) throws IOException {
+        return new StateSystem(backend, checkpoint);
+    }
+
 }
@@ -0,0 +1,237 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.statesystem.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.common.core.log.TraceCompassLog;
+import org.eclipse.tracecompass.internal.statesystem.core.StateSystem;
+import org.eclipse.tracecompass.internal.statesystem.core.backend.SpoolBackend;
+import org.eclipse.tracecompass.statesystem.core.backend.IStateHistoryBackend;
+import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
+import org.eclipse.tracecompass.statesystem.core.interval.TmfStateInterval;
+import org.eclipse.tracecompass.traceeventlogger.LogUtils.ScopeLog;
+
+/**
+ * Builds a state system from partitions of its time range that are built
+ * independently, for example concurrently by different state providers.
+ *
+ * Each partition is a state system that starts at the start time of its
+ * partition and only keeps its ongoing state: its intervals are spooled to a
+ * file. Once a partition's history is closed, it is stitched to the target
+ * state system, which receives the partitions in time order:
+ * <ul>
+ * <li>attributes are matched by their path, and added to the target in the
+ * order in which they are found;</li>
+ * <li>the first state of an attribute in a partition continues the last
+ * state of that attribute in the previous partitions if its value is null,
+ * meaning it was not known at the start of the partition, or equal to it.
+ * Otherwise the previous state ends right before the partition start. The
+ * state that follows an unknown one also continues it if it has the same
+ * value, as it would have in a state system built in one go.</li>
+ * </ul>
+ *
+ * A partition can be seeded with the state at its start time by modifying
+ * its attributes at that time, before its events are handled.
+ *
+ * @since 5.4
+ */
+@NonNullByDefault
+public final class StateSystemStitcher {
+
+    private static final Logger LOGGER = TraceCompassLog.getLogger(StateSystemStitcher.class);
+
+    private static final String SPOOL_EXTENSION = ".spool"; //$NON-NLS-1$
+
+    private static final class Partition {
+        private final StateSystem fStateSystem;
+        private final SpoolBackend fSpool;
+
+        public Partition(StateSystem stateSystem, SpoolBackend spool) {
+            fStateSystem = stateSystem;
+            fSpool = spool;
+        }
+    }
+
+    private final IStateHistoryBackend fBackend;
+    private final StateSystem fTarget;
+    private final @Nullable File fSpoolDirectory;
+
+    /* Partitions that are not stitched yet, in time order */
+    private final Deque<Partition> fPartitions = new ArrayDeque<>();
+    /* Ongoing state of each attribute of the target, indexed by quark */
+    private final List<@NonNull ITmfStateInterval> fOngoingState = new ArrayList<>();
+
+    private long fLastPartitionStart = Long.MIN_VALUE;
+    private volatile long fStitchedTime;
+
+    /**
+     * Constructor
+     *
+     * @param backend
+     *            The back-end of the target state system. It must be new.
+     * @param spoolDirectory
+     *            The directory where to spool the intervals of the partitions,
+     *            or null to use the default temporary directory
+     */
+    public StateSystemStitcher(IStateHistoryBackend backend, @Nullable File spoolDirectory) {
+        fBackend = backend;
+        fTarget = new StateSystem(backend);
+        fSpoolDirectory = spoolDirectory;
+        fStitchedTime = backend.getStartTime() - 1;
+    }
+
+    /**
+     * Get the target state system. The partitions are added to it as they are
+     * stitched, its history must be closed once they are all stitched.
+     *
+     * @return The target state system
+     */
+    public ITmfStateSystemBuilder getStateSystem() {
+        return fTarget;
+    }
+
+    /**
+     * Get the time up to which the target state system contains the states of
+     * the partitions stitched so far.
+     *
+     * @return The end time of the last stitched partition, or the time before
+     *         the start of the target if none was stitched yet
+     */
+    public long getStitchedTime() {
+        return fStitchedTime;
+    }
+
+    /**
+     * Create the state system of a new partition. Partitions must be created
+     * in increasing order of start time.
+     *
+     * @param startTime
+     *            The start time of the partition
+     * @return The state system of the partition, to be built by a state
+     *         provider
+     * @throws IOException
+     *             If the spool file of the partition cannot be created
+     */
+    public synchronized ITmfStateSystemBuilder createPartition(long startTime) throws IOException {
+        if (startTime < fBackend.getStartTime() || startTime <= fLastPartitionStart) {
+            throw new IllegalArgumentException("Partitions must be created in time order, within the target's range"); //$NON-NLS-1$
+        }
+        fLastPartitionStart = startTime;
+        String ssid = fBackend.getSSID() + "-partition" + startTime; //$NON-NLS-1$
+        File spoolFile = File.createTempFile(ssid, SPOOL_EXTENSION, fSpoolDirectory);
+        SpoolBackend spool = new SpoolBackend(ssid, startTime, spoolFile);
+        StateSystem stateSystem = new StateSystem(spool);
+        fPartitions.add(new Partition(stateSystem, spool));
+        return stateSystem;
+    }
+
+    /**
+     * Stitch a partition to the target state system. Partitions must be
+     * stitched in the order in which they were created, once their history is
+     * closed. The partition is disposed afterwards.
+     *
+     * @param partition
+     *            The state system of the next partition
+     * @throws IOException
+     *             If the spooled intervals cannot be read
+     */
+    public synchronized void stitch(ITmfStateSystemBuilder partition) throws IOException {
+        Partition next = fPartitions.peek();
+        if (next == null || next.fStateSystem != partition) {
+            throw new IllegalArgumentException("Partitions must be stitched in the order in which they were created"); //$NON-NLS-1$
+        }
+        partition.waitUntilBuilt();
+        SpoolBackend spool = next.fSpool;
+        long start = spool.getStartTime();
+        long end = spool.getEndTime();
+
+        try (ScopeLog log = new ScopeLog(LOGGER, Level.FINE, "StateSystemStitcher:stitch", //$NON-NLS-1$
+                "ssid", fBackend.getSSID(), "start", start, "end", end)) { //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            int nbAttributes = partition.getNbAttributes();
+            int[] quarks = new int[nbAttributes];
+            /* Number of intervals of each attribute that continue its ongoing state */
+            int[] continued = new int[nbAttributes];
+            for (int attribute = 0; attribute < nbAttributes; attribute++) {
+                int quark = fTarget.getQuarkAbsoluteAndAdd(partition.getFullAttributePathArray(attribute));
+                quarks[attribute] = quark;
+                while (fOngoingState.size() <= quark) {
+                    fOngoingState.add(new TmfStateInterval(fBackend.getStartTime(), fBackend.getStartTime(), fOngoingState.size(), (Object) null));
+                }
+                ITmfStateInterval ongoing = fOngoingState.get(quark);
+                ITmfStateInterval first = spool.getFirstInterval(attribute);
+                if (first == null || first.getValue() == null || Objects.equals(first.getValue(), ongoing.getValue())) {
+                    ITmfStateInterval second = spool.getSecondInterval(attribute);
+                    continued[attribute] = (second != null && Objects.equals(second.getValue(), ongoing.getValue())) ? 2 : 1;
+                } else if (ongoing.getStartTime() < start) {
+                    /* The previous state ends where the partition starts */
+                    fBackend.insertPastState(ongoing.getStartTime(), start - 1, quark, ongoing.getValue());
+                }
+            }
+
+            int[] seen = new int[nbAttributes];
+            spool.replay(interval -> {
+                int attribute = interval.getAttribute();
+                int quark = quarks[attribute];
+                long intervalStart = interval.getStartTime();
+                Object value = interval.getValue();
+                int index = seen[attribute]++;
+                if (index < continued[attribute]) {
+                    if (index < continued[attribute] - 1) {
+                        /* Merged with the next one */
+                        return;
+                    }
+                    ITmfStateInterval ongoing = fOngoingState.get(quark);
+                    intervalStart = ongoing.getStartTime();
+                    value = ongoing.getValue();
+                }
+                if (interval.getEndTime() >= end) {
+                    /* Still ongoing at the end of the partition */
+                    fOngoingState.set(quark, new TmfStateInterval(intervalStart, end, quark, value));
+                } else {
+                    fBackend.insertPastState(intervalStart, interval.getEndTime(), quark, value);
+                }
+            });
+
+            while (fOngoingState.size() < fTarget.getNbAttributes()) {
+                fOngoingState.add(new TmfStateInterval(fBackend.getStartTime(), fBackend.getStartTime(), fOngoingState.size(), (Object) null));
+            }
+            fTarget.replaceOngoingState(new ArrayList<>(fOngoingState));
+            fStitchedTime = Math.max(fStitchedTime, end);
+        } finally {
+            fPartitions.remove();
+            partition.dispose();
+        }
+    }
+
+    /**
+     * Dispose the partitions that were not stitched and delete their spool
+     * files. The target state system is not disposed.
+     */
+    public synchronized void dispose() {
+        for (Partition partition : fPartitions) {
+            partition.fStateSystem.dispose();
+        }
+        fPartitions.clear();
+    }
+}
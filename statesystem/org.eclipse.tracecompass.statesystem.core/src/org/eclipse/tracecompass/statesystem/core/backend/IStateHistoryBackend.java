@@ -14,9 +14,13 @@
 
 package org.eclipse.tracecompass.statesystem.core.backend;
 
+import java.io.DataOutput;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.IOException;
 import java.util.List;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
@@ -292,6 +296,33 @@ public interface IStateHistoryBackend {
         return query2D(quarkCondition, timeCondition);
     }
 
+    /**
+     * Generalized 2D stream query method. Streams the intervals that match the
+     * conditions on quarks and times with no guaranteed order, like
+     * {@link #query2D(IntegerRangeCondition, TimeRangeCondition)}.
+     * <p>
+     * Backends that can split their storage into independent parts should
+     * return a parallel stream, so that the intervals are decoded concurrently
+     * as they are consumed. Short-circuiting operations on the stream (for
+     * example {@link Stream#anyMatch} or {@link Stream#limit}) stop reading
+     * the backend once satisfied. The default implementation simply streams
+     * the result of the 2D query sequentially.
+     * </p>
+     *
+     * @param quarkCondition
+     *            Condition on the quarks for returned intervals.
+     * @param timeCondition
+     *            Condition on the times for returned intervals
+     * @return An un-ordered stream of the queried intervals
+     * @throws TimeRangeException
+     *             if the time bounds are outside the range of the HistoryTree
+     * @since 5.4
+     */
+    default Stream<@NonNull ITmfStateInterval> query2DStream(IntegerRangeCondition quarkCondition, TimeRangeCondition timeCondition)
+            throws TimeRangeException {
+        return StreamSupport.stream(query2D(quarkCondition, timeCondition).spliterator(), false);
+    }
+
     /**
      * Defines whether backend is able to insert states before existing states.
      *
@@ -302,4 +333,22 @@ public interface IStateHistoryBackend {
     default boolean canInsertBackwards() {
         return false;
     }
+
+    /**
+     * Save the progress of the construction of this backend, so that it can
+     * be resumed later on from this point. This is called by the thread doing
+     * the insertions, between two state changes.
+     *
+     * @param out
+     *            The output to write the checkpoint to
+     * @return {@code true} if a checkpoint was written, {@code false} if this
+     *         backend does not support resuming its construction, in which
+     *         case nothing was written
+     * @throws IOException
+     *             If an error happens writing the checkpoint
+     * @since 5.4
+     */
+    default boolean writeCheckpoint(DataOutput out) throws IOException {
+        return false;
+    }
 }
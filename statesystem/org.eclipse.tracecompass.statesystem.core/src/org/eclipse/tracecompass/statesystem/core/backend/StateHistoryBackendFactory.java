@@ -14,6 +14,7 @@
 
 package org.eclipse.tracecompass.statesystem.core.backend;
 
+import java.io.DataInput;
 import java.io.File;
 import java.io.IOException;
 
@@ -117,4 +118,36 @@ public final class StateHistoryBackendFactory {
             int providerVersion) throws IOException {
         return new HistoryTreeBackend(ssid, stateFile, providerVersion);
     }
+
+    /**
+     * Continue building a History Tree backend from a checkpoint written by
+     * {@link IStateHistoryBackend#writeCheckpoint(java.io.DataOutput)}. The intervals
+     * that were stored before the checkpoint are kept in the file, the rest
+     * of the file is discarded.
+     *
+     * @param ssid
+     *            The state system's id
+     * @param stateFile
+     *            Filename/location of the partially built history
+     * @param providerVersion
+     *            Expected version of of the state provider plugin.
+     * @param queueSize
+     *            The size of the interval insertion queue between the receiver
+     *            and writer threads. If 0 is specified, no queue is used and
+     *            the writes happen in the same thread.
+     * @param checkpoint
+     *            The input to read the checkpoint from
+     * @return The state system backend
+     * @throws IOException
+     *             If the checkpoint cannot be read, or if it does not match
+     *             the history file or the expected providerVersion.
+     * @since 5.4
+     */
+    public static IStateHistoryBackend createHistoryTreeBackendFromCheckpoint(String ssid, File stateFile,
+            int providerVersion, int queueSize, DataInput checkpoint) throws IOException {
+        if (queueSize > 0) {
+            return new ThreadedHistoryTreeBackend(ssid, stateFile, providerVersion, queueSize, checkpoint);
+        }
+        return new HistoryTreeBackend(ssid, stateFile, providerVersion, checkpoint);
+    }
 }
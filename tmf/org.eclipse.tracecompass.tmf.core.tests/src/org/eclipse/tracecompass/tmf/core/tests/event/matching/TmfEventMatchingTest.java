@@ -409,4 +409,48 @@ public class TmfEventMatchingTest {
 
     }
 
+    /**
+     * Test that the events waiting for a match are dropped when they are too
+     * old or too many
+     */
+    @Test
+    public void testUnmatchedEventLimits() {
+        Collection<@NonNull ITmfTrace> traces = fTraces;
+        assertNotNull(traces);
+        TmfEventMatchingStub matching = new TmfEventMatchingStub(traces);
+        matching.initMatching();
+        matching.setUnmatchedEventLimits(100L, 3);
+
+        TmfTraceStub t1 = fT1;
+        TmfTraceStub t2 = fT2;
+        assertNotNull(t1);
+        assertNotNull(t2);
+
+        // Add more unmatched causes than the maximum, the oldest are dropped
+        for (int i = 1; i <= 5; i++) {
+            matching.matchEvent(new MatchEventStub(t1, TmfTimestamp.fromNanos(i), i, Direction.CAUSE), t1, PROGRESS_MONITOR);
+        }
+        assertEquals(3, matching.getUnmatchedOut().row(t1).size());
+        assertEquals(2, matching.getEvictedUnmatchedCount());
+        assertEquals(0, matching.getExpiredUnmatchedCount());
+
+        // A dropped cause is not matched anymore
+        matching.matchEvent(new MatchEventStub(t2, TmfTimestamp.fromNanos(10L), 1, Direction.EFFECT), t2, PROGRESS_MONITOR);
+        assertEquals(1, matching.getUnmatchedIn().row(t2).size());
+        assertEquals(3, matching.getUnmatchedOut().row(t1).size());
+
+        // Add a cause much later, the older causes expire
+        matching.matchEvent(new MatchEventStub(t1, TmfTimestamp.fromNanos(200L), 6, Direction.CAUSE), t1, PROGRESS_MONITOR);
+        assertEquals(1, matching.getUnmatchedOut().row(t1).size());
+        assertEquals(1, matching.getUnmatchedIn().row(t2).size());
+        assertEquals(2, matching.getEvictedUnmatchedCount());
+        assertEquals(3, matching.getExpiredUnmatchedCount());
+
+        // Initializing the matching resets the counters
+        matching.initMatching();
+        assertEquals(0, matching.getUnmatchedOut().row(t1).size());
+        assertEquals(0, matching.getEvictedUnmatchedCount());
+        assertEquals(0, matching.getExpiredUnmatchedCount());
+    }
+
 }
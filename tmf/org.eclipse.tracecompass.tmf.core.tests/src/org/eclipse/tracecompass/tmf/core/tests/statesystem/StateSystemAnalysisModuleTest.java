@@ -22,13 +22,19 @@ import java.io.File;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.common.core.NonNullUtils;
 import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
+import org.eclipse.tracecompass.statesystem.core.StateSystemBuilderUtils;
+import org.eclipse.tracecompass.statesystem.core.exceptions.AttributeNotFoundException;
+import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
 import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
 import org.eclipse.tracecompass.statesystem.core.tests.shared.utils.StateIntervalStub;
 import org.eclipse.tracecompass.statesystem.core.tests.shared.utils.StateSystemTestUtils;
@@ -90,6 +96,11 @@ public class StateSystemAnalysisModuleTest {
     /** ID of the test state system analysis module */
     public static final String MODULE_SS = "org.eclipse.linuxtools.tmf.core.tests.analysis.sstest";
     private static final String XML_TRACE = "testfiles/stub_xml_traces/valid/analysis_dependency.xml";
+    /** Number of events in the test trace */
+    private static final long NB_EVENTS = 7;
+    private static final String EVENT_COUNT = "count";
+    private static final String CHECKPOINT_SUFFIX = ".checkpoint";
+    private static final String RESUMED_MODULE_ID = "org.eclipse.tracecompass.tmf.core.tests.analysis.resumed";
 
     private TestStateSystemModule fModule;
     private ITmfTrace fTrace;
@@ -568,4 +579,119 @@ public class StateSystemAnalysisModuleTest {
         }
     }
 
+    /**
+     * Test that the construction of a full history that is cancelled after a
+     * checkpoint keeps its partial history, and that the next execution
+     * resumes it instead of reading the trace from the start
+     *
+     * @throws TmfAnalysisException
+     *             An exception when setting the trace
+     * @throws InterruptedException
+     *             The test was interrupted
+     * @throws AttributeNotFoundException
+     *             The count attribute is missing
+     * @throws StateSystemDisposedException
+     *             A state system is disposed
+     */
+    @Test
+    public void testCancelAndResume() throws TmfAnalysisException, InterruptedException, AttributeNotFoundException, StateSystemDisposedException {
+        AtomicInteger nbHandled = new AtomicInteger();
+        TestStateSystemProvider.setEventHandler((ss, provider, event) -> {
+            nbHandled.incrementAndGet();
+            int quark = ss.getQuarkAbsoluteAndAdd(EVENT_COUNT);
+            StateSystemBuilderUtils.incrementAttributeLong(ss, event.getTimestamp().toNanos(), quark, 1);
+            return true;
+        });
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch built = new CountDownLatch(1);
+        TestStateSystemModule module = new TestStateSystemModule(true) {
+            @Override
+            protected ITmfStateProvider createStateProvider() {
+                /* Handle each event as soon as it is queued */
+                return new TestStateSystemProvider(NonNullUtils.checkNotNull(getTrace()), 1, 1);
+            }
+
+            @Override
+            protected void completingBuild(boolean deleteFiles) {
+                built.countDown();
+            }
+        };
+        TestStateSystemModule resumed = new TestStateSystemModule(true);
+        TestStateSystemModule reference = new TestStateSystemModule();
+        try {
+            ITmfTrace trace = fTrace;
+            assertNotNull(trace);
+            /* Both executions build the same file */
+            module.setId(RESUMED_MODULE_ID);
+            resumed.setId(RESUMED_MODULE_ID);
+            module.setTrace(trace);
+            resumed.setTrace(trace);
+            reference.setTrace(trace);
+            module.setCheckpointPeriod(2);
+            resumed.setCheckpointPeriod(2);
+
+            /* Block the request on the sixth event */
+            AtomicInteger nbRead = new AtomicInteger();
+            module.setRequestAction(event -> {
+                if (nbRead.incrementAndGet() == 6) {
+                    blocked.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return event;
+            });
+            module.schedule();
+            assertTrue(blocked.await(10, TimeUnit.SECONDS));
+            /* Wait for the checkpoint after the fourth event to be written */
+            while (nbHandled.get() < 5) {
+                Thread.sleep(10);
+            }
+            File ssFile = module.getSsFile();
+            assertNotNull(ssFile);
+            File checkpointFile = new File(ssFile.getPath() + CHECKPOINT_SUFFIX);
+            assertTrue(checkpointFile.exists());
+
+            /* Cancel the construction, its partial history is kept */
+            module.cancel();
+            release.countDown();
+            assertFalse(module.waitForCompletion());
+            assertTrue(built.await(10, TimeUnit.SECONDS));
+            module.dispose();
+            assertTrue(ssFile.exists());
+            assertTrue(checkpointFile.exists());
+
+            /* The next execution resumes the construction from the checkpoint */
+            nbHandled.set(0);
+            resumed.schedule();
+            assertTrue(resumed.waitForCompletion());
+            assertTrue("Events handled again: " + nbHandled.get(), nbHandled.get() <= NB_EVENTS - 4);
+            assertFalse(checkpointFile.exists());
+
+            /* The resumed history is the same as an uninterrupted one */
+            reference.schedule();
+            assertTrue(reference.waitForCompletion());
+            ITmfStateSystem ss = resumed.getStateSystem();
+            ITmfStateSystem expected = reference.getStateSystem();
+            assertNotNull(ss);
+            assertNotNull(expected);
+            int quark = ss.getQuarkAbsolute(EVENT_COUNT);
+            int expectedQuark = expected.getQuarkAbsolute(EVENT_COUNT);
+            for (long t = ss.getStartTime(); t <= ss.getCurrentEndTime(); t++) {
+                assertEquals("Count at " + t, expected.querySingleState(t, expectedQuark).getValue(), ss.querySingleState(t, quark).getValue());
+            }
+            assertEquals(NB_EVENTS, ss.querySingleState(ss.getCurrentEndTime(), quark).getValue());
+        } finally {
+            TestStateSystemProvider.setEventHandler(null);
+            release.countDown();
+            module.dispose();
+            resumed.clearPersistentData();
+            resumed.dispose();
+            reference.dispose();
+        }
+    }
+
 }
@@ -41,6 +41,7 @@ public class TestStateSystemModule extends TmfStateSystemAnalysisModule {
     private boolean fThrottleEvents = false;
     private @Nullable TestStateSystemProvider fProvider = null;
     private Function<ITmfEvent, ITmfEvent> fRequestAction = e -> e;
+    private int fCheckpointPeriod = 0;
 
     /**
      * Constructor
@@ -113,6 +114,23 @@ public class TestStateSystemModule extends TmfStateSystemAnalysisModule {
         return super.getSsFile();
     }
 
+    /**
+     * Set the number of events between two checkpoints of the construction of
+     * a full history
+     *
+     * @param checkpointPeriod
+     *            The number of events between checkpoints, or 0 to disable
+     *            them
+     */
+    public void setCheckpointPeriod(int checkpointPeriod) {
+        fCheckpointPeriod = checkpointPeriod;
+    }
+
+    @Override
+    protected int getCheckpointPeriod() {
+        return fCheckpointPeriod;
+    }
+
     /**
      * Set a function that will be executed on an event and return an event.
      * This action will be executed in the event request, before calling the
@@ -179,9 +179,13 @@ public class TmfEventField implements ITmfEventField {
             return false;
         }
 
-        /* We only consider equals fields of the exact same class. */
+        /*
+         * We only consider equals fields of the exact same class. A field that
+         * is not a TmfEventField, like a content that converts its fields
+         * lazily, decides if it is equal to this field.
+         */
         if (!(this.getClass().equals(obj.getClass()))) {
-            return false;
+            return !(obj instanceof TmfEventField) && (obj instanceof ITmfEventField) && obj.equals(this);
         }
 
         final TmfEventField other = (TmfEventField) obj;
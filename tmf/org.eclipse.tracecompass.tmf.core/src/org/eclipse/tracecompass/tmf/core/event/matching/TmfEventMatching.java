@@ -76,12 +76,12 @@ public class TmfEventMatching implements ITmfEventMatching {
     /**
      * Hashtables for unmatches incoming events
      */
-    private final Table<ITmfTrace, IEventMatchingKey, DependencyEvent> fUnmatchedIn = HashBasedTable.create();
+    private final UnmatchedEventStore fUnmatchedIn = new UnmatchedEventStore();
 
     /**
      * Hashtables for unmatches outgoing events
      */
-    private final Table<ITmfTrace, IEventMatchingKey, DependencyEvent> fUnmatchedOut = HashBasedTable.create();
+    private final UnmatchedEventStore fUnmatchedOut = new UnmatchedEventStore();
 
     /**
      * Hash tables matching the latest match between 2 hosts (sender, receiver) by
@@ -182,6 +182,47 @@ public class TmfEventMatching implements ITmfEventMatching {
         return ImmutableList.copyOf(fMatchMap.get(trace));
     }
 
+    /**
+     * Set the limits of the events waiting for a match, in each direction.
+     * When an event is added, the events that have been waiting longer than
+     * the time to live, or the oldest events in excess of the maximum number,
+     * are dropped. By default, there is no limit.
+     *
+     * @param timeToLive
+     *            The time in nanoseconds after which an unmatched event is
+     *            dropped, relative to the latest unmatched event in the same
+     *            direction
+     * @param maxSize
+     *            The maximum number of unmatched events in each direction
+     * @since 9.7
+     */
+    public void setUnmatchedEventLimits(long timeToLive, int maxSize) {
+        fUnmatchedIn.setLimits(timeToLive, maxSize);
+        fUnmatchedOut.setLimits(timeToLive, maxSize);
+    }
+
+    /**
+     * Get the number of unmatched events that were dropped because they were
+     * waiting for longer than the time to live
+     *
+     * @return The number of expired unmatched events
+     * @since 9.7
+     */
+    public long getExpiredUnmatchedCount() {
+        return fUnmatchedIn.getExpiredCount() + fUnmatchedOut.getExpiredCount();
+    }
+
+    /**
+     * Get the number of unmatched events that were dropped because there were
+     * too many events waiting for a match
+     *
+     * @return The number of evicted unmatched events
+     * @since 9.7
+     */
+    public long getEvictedUnmatchedCount() {
+        return fUnmatchedIn.getEvictedCount() + fUnmatchedOut.getEvictedCount();
+    }
+
     /**
      * Method that initializes any data structure for the event matching. It
      * also assigns to each trace an event matching definition instance that
@@ -224,9 +265,10 @@ public class TmfEventMatching implements ITmfEventMatching {
         int i = 0;
         for (ITmfTrace trace : getIndividualTraces()) {
             b.append("Trace " + i++ + ":" + cr + //$NON-NLS-1$ //$NON-NLS-2$
-                    "  " + fUnmatchedIn.row(trace).size() + " unmatched incoming events" + cr + //$NON-NLS-1$ //$NON-NLS-2$
-                    "  " + fUnmatchedOut.row(trace).size() + " unmatched outgoing events" + cr); //$NON-NLS-1$ //$NON-NLS-2$
+                    "  " + fUnmatchedIn.getTable().row(trace).size() + " unmatched incoming events" + cr + //$NON-NLS-1$ //$NON-NLS-2$
+                    "  " + fUnmatchedOut.getTable().row(trace).size() + " unmatched outgoing events" + cr); //$NON-NLS-1$ //$NON-NLS-2$
         }
+        b.append("Dropped unmatched events: " + getExpiredUnmatchedCount() + " expired, " + getEvictedUnmatchedCount() + " evicted" + cr); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 
         return b.toString();
     }
@@ -266,17 +308,18 @@ public class TmfEventMatching implements ITmfEventMatching {
             return;
         }
 
-        Table<ITmfTrace, IEventMatchingKey, DependencyEvent> unmatchedTbl, companionTbl;
+        UnmatchedEventStore unmatchedStore;
+        Table<ITmfTrace, IEventMatchingKey, DependencyEvent> companionTbl;
 
         /* Point to the appropriate table */
         switch (evType) {
         case EFFECT:
-            unmatchedTbl = fUnmatchedIn;
-            companionTbl = fUnmatchedOut;
+            unmatchedStore = fUnmatchedIn;
+            companionTbl = fUnmatchedOut.getTable();
             break;
         case CAUSE:
-            unmatchedTbl = fUnmatchedOut;
-            companionTbl = fUnmatchedIn;
+            unmatchedStore = fUnmatchedOut;
+            companionTbl = fUnmatchedIn.getTable();
             break;
         default:
             return;
@@ -340,8 +383,8 @@ public class TmfEventMatching implements ITmfEventMatching {
              * events as value for the unmatched table. Not necessary right now
              * though
              */
-            if (!unmatchedTbl.contains(event.getTrace(), eventKey)) {
-                unmatchedTbl.put(event.getTrace(), eventKey, depEvent);
+            if (!unmatchedStore.getTable().contains(event.getTrace(), eventKey)) {
+                unmatchedStore.add(event.getTrace(), eventKey, depEvent);
             }
         }
     }
@@ -354,8 +397,8 @@ public class TmfEventMatching implements ITmfEventMatching {
         lastMatches.put(sourceHost, destHost, dep);
 
         // Do some cleanup of events waiting to be matched
-        cleanupList(eventKey, lastMatches.row(sourceHost), dep.getSource(), evDep -> evDep.getSource().getTimestamp().toNanos(), fUnmatchedOut);
-        cleanupList(eventKey, lastMatches.column(destHost), dep.getDestination(), evDep -> evDep.getDestination().getTimestamp().toNanos(), fUnmatchedIn);
+        cleanupList(eventKey, lastMatches.row(sourceHost), dep.getSource(), evDep -> evDep.getSource().getTimestamp().toNanos(), fUnmatchedOut.getTable());
+        cleanupList(eventKey, lastMatches.column(destHost), dep.getDestination(), evDep -> evDep.getDestination().getTimestamp().toNanos(), fUnmatchedIn.getTable());
     }
 
     private Table<String, String, TmfEventDependency> getLastMatchTable(@NonNull IEventMatchingKey eventKey) {
@@ -470,7 +513,7 @@ public class TmfEventMatching implements ITmfEventMatching {
      */
     @VisibleForTesting
     protected Table<ITmfTrace, IEventMatchingKey, DependencyEvent> getUnmatchedIn() {
-        return fUnmatchedIn;
+        return fUnmatchedIn.getTable();
     }
 
     /**
@@ -481,7 +524,7 @@ public class TmfEventMatching implements ITmfEventMatching {
      */
     @VisibleForTesting
     protected Table<ITmfTrace, IEventMatchingKey, DependencyEvent> getUnmatchedOut() {
-        return fUnmatchedOut;
+        return fUnmatchedOut.getTable();
     }
 
 }
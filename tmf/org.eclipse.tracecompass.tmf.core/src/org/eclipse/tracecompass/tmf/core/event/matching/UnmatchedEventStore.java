@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.tmf.core.event.matching;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import org.eclipse.tracecompass.tmf.core.event.matching.TmfEventDependency.DependencyEvent;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+
+import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.Table;
+
+/**
+ * Table of the events waiting for a match, with a bounded size.
+ *
+ * The events are dropped, oldest first, when they have been waiting longer
+ * than a time to live, relative to the timestamp of the latest event added,
+ * or when there are more events than the maximum size. The events remain in
+ * the insertion queue when they are matched or cleaned up, so the queue is
+ * compacted when it has too many of those.
+ */
+final class UnmatchedEventStore {
+
+    private static final int MIN_QUEUE_SIZE_TO_COMPACT = 1024;
+
+    private static final class Pending {
+        private final ITmfTrace fTrace;
+        private final IEventMatchingKey fKey;
+        private final DependencyEvent fEvent;
+        private final long fTime;
+
+        public Pending(ITmfTrace trace, IEventMatchingKey key, DependencyEvent event, long time) {
+            fTrace = trace;
+            fKey = key;
+            fEvent = event;
+            fTime = time;
+        }
+    }
+
+    private final Table<ITmfTrace, IEventMatchingKey, DependencyEvent> fTable = HashBasedTable.create();
+    /* The events in the order they were added, some may no longer be waiting */
+    private final Deque<Pending> fQueue = new ArrayDeque<>();
+    private long fTimeToLive = Long.MAX_VALUE;
+    private int fMaxSize = Integer.MAX_VALUE;
+    private long fExpiredCount = 0;
+    private long fEvictedCount = 0;
+
+    /**
+     * Get the table of events waiting for a match. Events can be removed from
+     * it directly, but should be added with
+     * {@link #add(ITmfTrace, IEventMatchingKey, DependencyEvent)}.
+     *
+     * @return The table of unmatched events
+     */
+    public Table<ITmfTrace, IEventMatchingKey, DependencyEvent> getTable() {
+        return fTable;
+    }
+
+    /**
+     * Set the limits of this store
+     *
+     * @param timeToLive
+     *            The time in nanoseconds after which an event is dropped
+     * @param maxSize
+     *            The maximum number of events
+     */
+    public void setLimits(long timeToLive, int maxSize) {
+        fTimeToLive = timeToLive;
+        fMaxSize = maxSize;
+    }
+
+    /**
+     * Remove all the events and reset the counters
+     */
+    public void clear() {
+        fTable.clear();
+        fQueue.clear();
+        fExpiredCount = 0;
+        fEvictedCount = 0;
+    }
+
+    /**
+     * Add an event waiting for a match, dropping the events that are too old
+     * or in excess
+     *
+     * @param trace
+     *            The trace of the event
+     * @param key
+     *            The matching key of the event
+     * @param event
+     *            The event
+     */
+    public void add(ITmfTrace trace, IEventMatchingKey key, DependencyEvent event) {
+        long time = event.getTimestamp().toNanos();
+        if (fTimeToLive != Long.MAX_VALUE) {
+            long limit = time - fTimeToLive;
+            while (!fQueue.isEmpty() && fQueue.getFirst().fTime < limit) {
+                if (remove(fQueue.removeFirst())) {
+                    fExpiredCount++;
+                }
+            }
+        }
+        fTable.put(trace, key, event);
+        fQueue.addLast(new Pending(trace, key, event, time));
+        int size = fTable.size();
+        while (size > fMaxSize && !fQueue.isEmpty()) {
+            if (remove(fQueue.removeFirst())) {
+                fEvictedCount++;
+                size--;
+            }
+        }
+        if (fQueue.size() > MIN_QUEUE_SIZE_TO_COMPACT && fQueue.size() > 2 * size) {
+            fQueue.removeIf(pending -> fTable.get(pending.fTrace, pending.fKey) != pending.fEvent);
+        }
+    }
+
+    private boolean remove(Pending pending) {
+        if (fTable.get(pending.fTrace, pending.fKey) != pending.fEvent) {
+            /* The event was matched or cleaned up */
+            return false;
+        }
+        fTable.remove(pending.fTrace, pending.fKey);
+        return true;
+    }
+
+    /**
+     * Get the number of events dropped because they were waiting for longer
+     * than the time to live
+     *
+     * @return The number of expired events
+     */
+    public long getExpiredCount() {
+        return fExpiredCount;
+    }
+
+    /**
+     * Get the number of events dropped because the store was full
+     *
+     * @return The number of evicted events
+     */
+    public long getEvictedCount() {
+        return fEvictedCount;
+    }
+}
@@ -221,6 +221,17 @@ public abstract class AbstractTmfStateProvider implements ITmfStateProvider {
         fEventsQueue.put(curEvent);
     }
 
+    /**
+     * @since 9.7
+     */
+    @Override
+    public void requestCheckpoint(Runnable checkpoint) {
+        if (!fStateSystemAssigned) {
+            return;
+        }
+        fEventsQueue.put(new CheckpointEvent(checkpoint));
+    }
+
     /**
      * @since 3.0
      */
@@ -277,6 +288,16 @@ public abstract class AbstractTmfStateProvider implements ITmfStateProvider {
         }
     }
 
+    /** Fake event carrying a checkpoint to save once it leaves the queue */
+    private static class CheckpointEvent extends TmfEvent {
+        private final Runnable fCheckpoint;
+
+        public CheckpointEvent(Runnable checkpoint) {
+            super(null, ITmfContext.UNKNOWN_RANK, null, null, null);
+            fCheckpoint = checkpoint;
+        }
+    }
+
     private static final EndEvent END_EVENT = new EndEvent();
     private static final EmptyQueueEvent EMPTY_QUEUE_EVENT = new EmptyQueueEvent();
 
@@ -319,6 +340,17 @@ public abstract class AbstractTmfStateProvider implements ITmfStateProvider {
                         event = fEventsQueue.take();
                         continue;
                     }
+                    if (event instanceof CheckpointEvent) {
+                        /*
+                         * The pending future events would not be part of the
+                         * checkpoint, skip it until there are none
+                         */
+                        if (fFutureEvents.isEmpty()) {
+                            ((CheckpointEvent) event).fCheckpoint.run();
+                        }
+                        event = fEventsQueue.take();
+                        continue;
+                    }
                     currentEvent = event;
                     long currentTime = event.getTimestamp().toNanos();
                     fSafeTime = currentTime - 1;
@@ -0,0 +1,62 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.tmf.core.statesystem;
+
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
+import org.eclipse.tracecompass.statesystem.core.StateSystemStitcher;
+
+/**
+ * A state provider that can build its state system one time range of the
+ * trace at a time. A {@link TmfStateSystemAnalysisModule} with a full history
+ * can then split the trace in partitions, build each of them with a new
+ * instance of the provider, and stitch the results in a single history, as
+ * described in {@link StateSystemStitcher}. The events of the partitions are
+ * read in turn from the trace, but each provider handles its events in its
+ * own thread, concurrently with the others.
+ *
+ * The state system of a partition only contains what happened since the
+ * start of the partition, so a provider is partitionable if:
+ * <ul>
+ * <li>it only queries the ongoing state of its state system;</li>
+ * <li>it can handle attributes whose value is not known yet, which are null at
+ * the start of a partition, unless they are seeded by
+ * {@link #seedPartition(ITmfStateSystemBuilder, long)};</li>
+ * <li>it does not keep state between events outside of the state system,
+ * other than what can be rebuilt from the seed;</li>
+ * <li>it does not set an attribute to null to end a state that started in a
+ * previous partition, unless it is seeded, since an unknown value is null
+ * too.</li>
+ * </ul>
+ *
+ * @since 9.7
+ */
+public interface ITmfPartitionableStateProvider extends ITmfStateProvider {
+
+    /**
+     * Seed the state system of a partition with the state at its start time,
+     * before the events of the partition are handled. The state of the
+     * attributes is set with modifications at the start time. It can come for
+     * example from a snapshot or from a fast pre-pass over the trace.
+     *
+     * It is not called for the partition that starts with the trace. By
+     * default, nothing is seeded and the state of all the attributes is
+     * unknown at the start of the partition.
+     *
+     * @param ss
+     *            The state system of the partition
+     * @param startTime
+     *            The start time of the partition
+     */
+    default void seedPartition(ITmfStateSystemBuilder ss, long startTime) {
+        // Do nothing by default
+    }
+}
@@ -199,4 +199,23 @@ public interface ITmfStateProvider {
     default void addFutureEvent(long time, @Nullable Object futureValue, int attribute, FutureEventType type) {
         // Do nothing by default
     }
+
+    /**
+     * Request a checkpoint of the state system being built. The action will
+     * be run in the thread that applies the state changes, once all the
+     * events received so far have been handled, so that the state system
+     * reflects exactly those events when it runs. It will not run if the
+     * provider has future events pending at that moment, since those are not
+     * part of the state system yet.
+     *
+     * Providers that do not handle events in order in a separate thread can
+     * ignore the request, which is the default.
+     *
+     * @param checkpoint
+     *            The action saving the checkpoint
+     * @since 9.7
+     */
+    default void requestCheckpoint(Runnable checkpoint) {
+        // Do nothing by default
+    }
 }
@@ -15,8 +15,16 @@
 
 package org.eclipse.tracecompass.tmf.core.statesystem;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -42,6 +50,7 @@ import org.eclipse.tracecompass.internal.tmf.core.statesystem.backends.partial.P
 import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
 import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
 import org.eclipse.tracecompass.statesystem.core.StateSystemFactory;
+import org.eclipse.tracecompass.statesystem.core.StateSystemStitcher;
 import org.eclipse.tracecompass.statesystem.core.backend.ICustomStateHistoryBackend;
 import org.eclipse.tracecompass.statesystem.core.backend.IPartialStateHistoryBackend;
 import org.eclipse.tracecompass.statesystem.core.backend.IStateHistoryBackend;
@@ -56,7 +65,9 @@ import org.eclipse.tracecompass.tmf.core.request.TmfEventRequest;
 import org.eclipse.tracecompass.tmf.core.signal.TmfSignalHandler;
 import org.eclipse.tracecompass.tmf.core.signal.TmfTraceRangeUpdatedSignal;
 import org.eclipse.tracecompass.tmf.core.statesystem.ITmfStateProvider.FutureEventType;
+import org.eclipse.tracecompass.tmf.core.timestamp.ITmfTimestamp;
 import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimeRange;
+import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimestamp;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTraceCompleteness;
 import org.eclipse.tracecompass.tmf.core.trace.TmfTraceManager;
@@ -85,6 +96,11 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
     private static final Logger LOGGER = TraceCompassLog.getLogger(TmfStateSystemAnalysisModule.class);
 
     private static final String EXTENSION = ".ht"; //$NON-NLS-1$
+    private static final String CHECKPOINT_EXTENSION = ".checkpoint"; //$NON-NLS-1$
+    private static final String TMP_EXTENSION = ".tmp"; //$NON-NLS-1$
+    private static final int CHECKPOINT_MAGIC_NUMBER = 0x05FFC400;
+    /* Minimum number of events per partition of a partitioned build */
+    private static final long MIN_PARTITION_EVENTS = 100000;
 
     private final CountDownLatch fInitialized = new CountDownLatch(1);
     private final Object fRequestSyncObj = new Object();
@@ -97,6 +113,12 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
     private boolean fInitializationSucceeded;
 
     private volatile @Nullable ITmfStateProvider fStateProvider;
+    /* Where to save checkpoints of the build, null if they are disabled */
+    private volatile @Nullable File fCheckpointFile = null;
+    private int fCheckpointPeriod = 0;
+    /* Stitcher of the partitions, only during a partitioned build */
+    private volatile @Nullable StateSystemStitcher fStitcher = null;
+    private volatile List<ITmfEventRequest> fPartitionRequests = Collections.emptyList();
     private @Nullable Integer fProviderVersion = null;
 
     /**
@@ -167,6 +189,23 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
         return StateSystemBackendType.FULL;
     }
 
+    /**
+     * Get the number of events between two checkpoints of the state system
+     * construction. If the construction of a full history is interrupted, by a
+     * cancellation or a crash, the next execution of the analysis resumes from
+     * the last checkpoint instead of reading the trace from the start.
+     *
+     * Checkpoints only save the state system and the position in the trace, so
+     * they are disabled by default. Analyses whose state provider keeps all
+     * its state in the state system can override this to enable them.
+     *
+     * @return The number of events between checkpoints, or 0 to disable them
+     * @since 9.7
+     */
+    protected int getCheckpointPeriod() {
+        return 0;
+    }
+
     /**
      * Get the supplementary file name where to save this state system. The default
      * is the ID of the analysis followed by the extension.
@@ -228,6 +267,10 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
      */
     @Override
     public boolean isQueryable(long ts) {
+        StateSystemStitcher stitcher = fStitcher;
+        if (stitcher != null) {
+            return ts <= stitcher.getStitchedTime();
+        }
         /*
          * Return true if there is no state provider available (the analysis is not
          * being built)
@@ -335,13 +378,27 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
         if ((req != null) && (!req.isCompleted())) {
             req.cancel();
         }
+        for (ITmfEventRequest partitionRequest : fPartitionRequests) {
+            if (!partitionRequest.isCompleted()) {
+                partitionRequest.cancel();
+            }
+        }
     }
 
     @Override
     public void dispose() {
         super.dispose();
-        if (fStateSystem != null) {
-            fStateSystem.dispose();
+        ITmfStateSystemBuilder ss = fStateSystem;
+        if (ss != null) {
+            ss.dispose();
+            /*
+             * The back-end keeps a partial history that it checkpointed, but
+             * it cannot be resumed without the checkpoint file.
+             */
+            File htFile = getSsFile();
+            if (htFile != null && htFile.exists() && !ss.waitUntilBuilt(0) && !getCheckpointFile(htFile).exists()) {
+                ss.removeFiles();
+            }
         }
     }
 
@@ -355,11 +412,24 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
      */
     private void createFullHistory(String id, ITmfStateProvider provider, File htFile) throws TmfTraceException {
 
+        /*
+         * A checkpoint means the construction of the target file was
+         * interrupted, resume it if possible, or rebuild it.
+         */
+        File checkpointFile = getCheckpointFile(htFile);
+        boolean interrupted = checkpointFile.exists();
+        if (interrupted) {
+            if (getCheckpointPeriod() > 0 && resumeFullHistory(id, provider, htFile, checkpointFile)) {
+                return;
+            }
+            deleteCheckpoint(checkpointFile);
+        }
+
         /* If the target file already exists, do not rebuild it uselessly */
         // TODO for now we assume it's complete. Might be a good idea to check
         // at least if its range matches the trace's range.
 
-        if (htFile.exists()) {
+        if (!interrupted && htFile.exists()) {
             /* Load an existing history */
             final int version = provider.getVersion();
             try {
@@ -383,7 +453,14 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
         try {
             IStateHistoryBackend backend = StateHistoryBackendFactory.createHistoryTreeBackendNewFile(
                     id, htFile, provider.getVersion(), provider.getStartTime(), QUEUE_SIZE);
+            int nbPartitions = getNbPartitions(provider);
+            if (nbPartitions > 1) {
+                buildPartitioned((ITmfPartitionableStateProvider) provider, backend, htFile.getParentFile(), nbPartitions);
+                return;
+            }
             fStateSystem = StateSystemFactory.newStateSystem(backend);
+            fNbRead = 0;
+            enableCheckpoints(checkpointFile);
             provider.assignTargetStateSystem(fStateSystem);
             build(provider);
         } catch (IOException e) {
@@ -395,6 +472,230 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
         }
     }
 
+    /*
+     * Resume the construction of a history file from its last checkpoint. The
+     * state system is restored as it was at the checkpoint, and the event
+     * request starts at the first event that was not part of it. Returns false
+     * if the checkpoint cannot be used.
+     */
+    private boolean resumeFullHistory(String id, ITmfStateProvider provider, File htFile, File checkpointFile) {
+        /* Size of the blocking queue to use when building a state history */
+        final int QUEUE_SIZE = 10000;
+
+        /* The state system of a cancelled execution still has the file open */
+        ITmfStateSystemBuilder previous = fStateSystem;
+        if (previous != null) {
+            previous.dispose();
+        }
+
+        final int version = provider.getVersion();
+        IStateHistoryBackend backend = null;
+        ITmfStateSystemBuilder ss;
+        long rank;
+        try (ScopeLog log = new ScopeLog(LOGGER, Level.FINE, "StateSystemAnalysis:resuming", "id", id); //$NON-NLS-1$ //$NON-NLS-2$
+                DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(checkpointFile)))) {
+            if (in.readInt() != CHECKPOINT_MAGIC_NUMBER || in.readInt() != version) {
+                return false;
+            }
+            rank = in.readLong();
+            backend = StateHistoryBackendFactory.createHistoryTreeBackendFromCheckpoint(id, htFile, version, QUEUE_SIZE, in);
+            ss = StateSystemFactory.newStateSystem(backend, in);
+        } catch (IOException e) {
+            Activator.logWarning("Could not resume the construction of " + htFile.getName() + ", it will be rebuilt", e); //$NON-NLS-1$ //$NON-NLS-2$
+            if (backend != null) {
+                backend.dispose();
+            }
+            return false;
+        }
+
+        fStateSystem = ss;
+        fNbRead = (int) rank;
+        enableCheckpoints(checkpointFile);
+        provider.assignTargetStateSystem(ss);
+        /* The initial state is already part of the checkpoint */
+        build(provider, false);
+        return true;
+    }
+
+    private void enableCheckpoints(File checkpointFile) {
+        fCheckpointPeriod = getCheckpointPeriod();
+        fCheckpointFile = (fCheckpointPeriod > 0) ? checkpointFile : null;
+    }
+
+    private static File getCheckpointFile(File htFile) {
+        return new File(htFile.getPath() + CHECKPOINT_EXTENSION);
+    }
+
+    private static void deleteCheckpoint(File checkpointFile) {
+        try {
+            Files.deleteIfExists(checkpointFile.toPath());
+        } catch (IOException e) {
+            Activator.logWarning("Could not delete checkpoint " + checkpointFile.getName(), e); //$NON-NLS-1$
+        }
+    }
+
+    /*
+     * Save a checkpoint of the state system, run by the state provider's thread
+     * once the events before the given rank have all been handled. The file is
+     * replaced atomically, so that an interruption while writing it leaves the
+     * previous checkpoint intact.
+     */
+    private void writeCheckpoint(ITmfStateProvider provider, long rank) {
+        ITmfStateSystemBuilder ss = fStateSystem;
+        File checkpointFile = fCheckpointFile;
+        if (ss == null || checkpointFile == null) {
+            return;
+        }
+        File tmpFile = new File(checkpointFile.getPath() + TMP_EXTENSION);
+        try (ScopeLog log = new ScopeLog(LOGGER, Level.FINE, "StateSystemAnalysis:checkpoint", "id", getId(), "rank", rank)) { //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            boolean written;
+            try (FileOutputStream fos = new FileOutputStream(tmpFile);
+                    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos))) {
+                out.writeInt(CHECKPOINT_MAGIC_NUMBER);
+                out.writeInt(provider.getVersion());
+                out.writeLong(rank);
+                written = ss.writeCheckpoint(out);
+                out.flush();
+                fos.getFD().sync();
+            }
+            if (written) {
+                Files.move(tmpFile.toPath(), checkpointFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } else {
+                /* The backend does not support it, do not try again */
+                fCheckpointFile = null;
+                deleteCheckpoint(tmpFile);
+            }
+        } catch (IOException e) {
+            Activator.logWarning("Could not write checkpoint for analysis " + getId(), e); //$NON-NLS-1$
+            deleteCheckpoint(tmpFile);
+        }
+    }
+
+    /*
+     * Get the number of partitions in which to split the construction of a
+     * full history. Only the partitionable providers of complete and indexed
+     * traces are split.
+     */
+    private int getNbPartitions(ITmfStateProvider provider) {
+        ITmfTrace trace = provider.getTrace();
+        if (!(provider instanceof ITmfPartitionableStateProvider) || !isCompleteTrace(trace)) {
+            return 1;
+        }
+        long duration = trace.getEndTime().toNanos() - provider.getStartTime();
+        return (int) Math.max(1, Math.min(getMaxPartitions(trace), duration));
+    }
+
+    /**
+     * Get the maximum number of time partitions in which to build the full
+     * history of a {@link ITmfPartitionableStateProvider}. By default, there
+     * is up to one partition per processor, as long as each partition has
+     * enough events to be worth it.
+     *
+     * The events of all the partitions are read by the request executor of the
+     * trace, so only the handling of the events by the state providers and
+     * their insertion in the state systems of the partitions are concurrent.
+     *
+     * @param trace
+     *            The complete and indexed trace of the analysis
+     * @return The maximum number of partitions, 1 to build the history in one
+     *         go
+     * @since 9.7
+     */
+    protected int getMaxPartitions(ITmfTrace trace) {
+        return (int) Math.min(trace.getNbEvents() / MIN_PARTITION_EVENTS, Runtime.getRuntime().availableProcessors());
+    }
+
+    /*
+     * Build a full history in time partitions. Each partition is handled
+     * concurrently by its own instance of the state provider, then stitched to
+     * the target history once it and the previous ones are done. The event
+     * requests of the partitions share the trace's request executor, which
+     * reads their events in turn.
+     */
+    private void buildPartitioned(ITmfPartitionableStateProvider provider, IStateHistoryBackend backend,
+            @Nullable File spoolDirectory, int nbPartitions) throws IOException {
+        ITmfTrace trace = provider.getTrace();
+        long start = provider.getStartTime();
+        long step = (trace.getEndTime().toNanos() - start) / nbPartitions;
+        StateSystemStitcher stitcher = new StateSystemStitcher(backend, spoolDirectory);
+        ITmfStateSystemBuilder ss = stitcher.getStateSystem();
+        fStateSystem = ss;
+        fStitcher = stitcher;
+
+        List<ITmfStateProvider> providers = new ArrayList<>(nbPartitions);
+        List<ITmfStateSystemBuilder> partitions = new ArrayList<>(nbPartitions);
+        List<ITmfEventRequest> requests = new ArrayList<>(nbPartitions);
+        int nbDisposed = 0;
+        boolean succeeded = false;
+        try (ScopeLog log = new ScopeLog(LOGGER, Level.FINE, "StateSystemAnalysis:partitionedBuild", "id", getId(), "partitions", nbPartitions)) { //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            for (int i = 0; i < nbPartitions; i++) {
+                long partitionStart = start + i * step;
+                ITmfStateSystemBuilder partition = stitcher.createPartition(partitionStart);
+                ITmfStateProvider partitionProvider = (i == 0) ? provider : provider.getNewInstance();
+                if (i == 0) {
+                    loadInitialState(provider, partition, ss.getSSID());
+                } else if (partitionProvider instanceof ITmfPartitionableStateProvider) {
+                    ((ITmfPartitionableStateProvider) partitionProvider).seedPartition(partition, partitionStart);
+                }
+                partitionProvider.assignTargetStateSystem(partition);
+                providers.add(partitionProvider);
+                partitions.add(partition);
+
+                ITmfTimestamp partitionEnd = (i == nbPartitions - 1) ? TmfTimestamp.BIG_CRUNCH : TmfTimestamp.fromNanos(partitionStart + step - 1);
+                requests.add(new PartitionEventRequest(partitionProvider, new TmfTimeRange(TmfTimestamp.fromNanos(partitionStart), partitionEnd)));
+            }
+            fPartitionRequests = requests;
+            analysisReady(true);
+            for (ITmfEventRequest request : requests) {
+                trace.sendRequest(request);
+            }
+
+            for (int i = 0; i < nbPartitions; i++) {
+                ITmfEventRequest request = requests.get(i);
+                ITmfStateProvider partitionProvider = providers.get(i);
+                request.waitForCompletion();
+                /* Close the state system of the partition */
+                partitionProvider.dispose();
+                nbDisposed++;
+                Throwable failureCause = partitionProvider.getFailureCause();
+                if (failureCause == null && request.isFailed()) {
+                    failureCause = request.getFailureCause();
+                    if (failureCause == null) {
+                        failureCause = new RuntimeException("Event request failed without a cause"); //$NON-NLS-1$
+                    }
+                }
+                if (failureCause != null) {
+                    fail(failureCause);
+                    return;
+                }
+                if (request.isCancelled()) {
+                    return;
+                }
+                stitcher.stitch(partitions.get(i));
+            }
+            ss.closeHistory(stitcher.getStitchedTime());
+            succeeded = true;
+        } catch (InterruptedException e) {
+            fail(e);
+        } finally {
+            for (ITmfEventRequest request : requests) {
+                if (!request.isCompleted()) {
+                    request.cancel();
+                }
+            }
+            for (int i = nbDisposed; i < providers.size(); i++) {
+                providers.get(i).dispose();
+            }
+            fPartitionRequests = Collections.emptyList();
+            fStitcher = null;
+            stitcher.dispose();
+            if (!succeeded) {
+                ss.removeFiles();
+            }
+            completingBuild(!succeeded);
+        }
+    }
+
     /*
      * Create a new state system backed with a partial history. A partial history is
      * similar to a "full" one (which you get with {@link #newFullHistory}), except
@@ -531,8 +832,13 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
     }
 
     private void disposeProvider(boolean deleteFiles) {
+        disposeProvider(deleteFiles, false);
+    }
+
+    private void disposeProvider(boolean deleteFiles, boolean cancelled) {
         ITmfStateProvider provider = fStateProvider;
         boolean shouldDeleteFiles = deleteFiles;
+        boolean failed = false;
         if (provider != null) {
             provider.dispose();
             Throwable failureCause = provider.getFailureCause();
@@ -542,10 +848,21 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
             if (failureCause != null) {
                 fail(failureCause);
                 shouldDeleteFiles = true;
+                failed = true;
             }
         }
         fStateProvider = null;
-        if (shouldDeleteFiles && (fStateSystem != null)) {
+        /*
+         * Keep the partial history of a cancelled build if it has a checkpoint, the
+         * next execution will resume from it.
+         */
+        File checkpointFile = fCheckpointFile;
+        fCheckpointFile = null;
+        boolean resumable = cancelled && !failed && checkpointFile != null && checkpointFile.exists();
+        if (checkpointFile != null && !resumable) {
+            deleteCheckpoint(checkpointFile);
+        }
+        if (shouldDeleteFiles && !resumable && (fStateSystem != null)) {
             fStateSystem.removeFiles();
         }
         completingBuild(shouldDeleteFiles);
@@ -567,6 +884,10 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
     }
 
     private void build(ITmfStateProvider provider) {
+        build(provider, true);
+    }
+
+    private void build(ITmfStateProvider provider, boolean loadInitialState) {
         if (fStateSystem == null) {
             throw new IllegalArgumentException();
         }
@@ -576,7 +897,9 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
          * signal listener below will start sending real trace events through the state
          * provider.
          */
-        loadInitialState(provider);
+        if (loadInitialState) {
+            loadInitialState(provider);
+        }
 
         /* Continue on initializing the event request to read trace events. */
         ITmfEventRequest request = fRequest;
@@ -627,55 +950,61 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
      * Batch-load the initial state, if there is any.
      */
     private void loadInitialState(ITmfStateProvider provider) {
+        for (ITmfStateSystem ss : getStateSystems()) {
+            if (ss instanceof ITmfStateSystemBuilder) {
+                loadInitialState(provider, (ITmfStateSystemBuilder) ss, ss.getSSID());
+            }
+        }
+    }
+
+    /**
+     * Batch-load the initial state of a state system, if there is any.
+     */
+    private void loadInitialState(ITmfStateProvider provider, ITmfStateSystemBuilder ss, String ssid) {
         final ITmfTrace trace = provider.getTrace();
         File path = new File(trace.getPath());
         path = path.isDirectory() ? path : path.getParentFile();
         if (path == null) {
             return;
         }
-        for (ITmfStateSystem ss : getStateSystems()) {
-            if (ss instanceof ITmfStateSystemBuilder) {
-                StateSnapshot snapshot = StateSnapshot.read(path.toPath(), ss.getSSID());
-                if (snapshot == null || provider.getVersion() != snapshot.getVersion()) {
-                    /*
-                     * No statedump found, nothing to pre-load or Do not load the statedump if its
-                     * version does not match the current provider.
-                     */
-
-                    continue;
-                }
+        StateSnapshot snapshot = StateSnapshot.read(path.toPath(), ssid);
+        if (snapshot == null || provider.getVersion() != snapshot.getVersion()) {
+            /*
+             * No statedump found, nothing to pre-load or Do not load the statedump if its
+             * version does not match the current provider.
+             */
+            return;
+        }
 
-                List<List<String>> paths = new ArrayList<>();
-                /* create quark list */
-                for (Entry<List<String>, ITmfStateInterval> attributeSnapshot : snapshot.getStates().entrySet()) {
-                    List<String> attributePath = Objects.requireNonNull(attributeSnapshot.getKey());
-                    ITmfStateInterval state = Objects.requireNonNull(attributeSnapshot.getValue());
-                    while (paths.size() <= state.getAttribute()) {
-                        paths.add(Collections.singletonList("Dummy" + paths.size())); //$NON-NLS-1$
-                    }
-                    paths.set(state.getAttribute(), attributePath);
-                }
-                /*
-                 * Populate quarks in order
-                 */
-                int i = 0;
-                for (List<String> attributePath : paths) {
-                    int quark = ((ITmfStateSystemBuilder) ss).getQuarkAbsoluteAndAdd(attributePath.toArray(new String[attributePath.size()]));
-                    if (i != quark) {
-                        Activator.logWarning("Quark for analysis " + getClass().getCanonicalName() + " not the same ( " + quark + " != " + i + ")"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
-                    }
-                    i++;
-                }
+        List<List<String>> paths = new ArrayList<>();
+        /* create quark list */
+        for (Entry<List<String>, ITmfStateInterval> attributeSnapshot : snapshot.getStates().entrySet()) {
+            List<String> attributePath = Objects.requireNonNull(attributeSnapshot.getKey());
+            ITmfStateInterval state = Objects.requireNonNull(attributeSnapshot.getValue());
+            while (paths.size() <= state.getAttribute()) {
+                paths.add(Collections.singletonList("Dummy" + paths.size())); //$NON-NLS-1$
+            }
+            paths.set(state.getAttribute(), attributePath);
+        }
+        /*
+         * Populate quarks in order
+         */
+        int i = 0;
+        for (List<String> attributePath : paths) {
+            int quark = ss.getQuarkAbsoluteAndAdd(attributePath.toArray(new String[attributePath.size()]));
+            if (i != quark) {
+                Activator.logWarning("Quark for analysis " + getClass().getCanonicalName() + " not the same ( " + quark + " != " + i + ")"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+            }
+            i++;
+        }
 
-                /* Load the statedump into the statesystem */
-                for (ITmfStateInterval interval : snapshot.getStates().values()) {
-                    Object initialState = interval.getValue();
-                    int attribute = interval.getAttribute();
-                    provider.addFutureEvent(interval.getStartTime(), initialState, attribute, FutureEventType.MODIFICATION);
-                    if (interval.getEndTime() != Long.MIN_VALUE) {
-                        provider.addFutureEvent(interval.getEndTime() + 1, (Object) null, attribute, FutureEventType.MODIFICATION);
-                    }
-                }
+        /* Load the statedump into the statesystem */
+        for (ITmfStateInterval interval : snapshot.getStates().values()) {
+            Object initialState = interval.getValue();
+            int attribute = interval.getAttribute();
+            provider.addFutureEvent(interval.getStartTime(), initialState, attribute, FutureEventType.MODIFICATION);
+            if (interval.getEndTime() != Long.MIN_VALUE) {
+                provider.addFutureEvent(interval.getEndTime() + 1, (Object) null, attribute, FutureEventType.MODIFICATION);
             }
         }
     }
@@ -742,20 +1071,16 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
         public void handleData(final ITmfEvent event) {
             super.handleData(event);
             processEvent(event, trace);
+            int period = fCheckpointPeriod;
+            if (fCheckpointFile != null && period > 0 && getNbRead() % period == 0) {
+                /* Rank of the first event that is not part of the checkpoint */
+                long rank = (long) fNbRead + getNbRead();
+                sci.requestCheckpoint(() -> writeCheckpoint(sci, rank));
+            }
         }
 
         private void processEvent(final ITmfEvent event, ITmfTrace tmfTrace) {
-            if (event.getTrace() == tmfTrace) {
-                sci.processEvent(event);
-            } else if (tmfTrace instanceof TmfExperiment) {
-                /*
-                 * If the request is for an experiment, check if the event is from one of the
-                 * child trace
-                 */
-                for (ITmfTrace childTrace : ((TmfExperiment) tmfTrace).getTraces()) {
-                    processEvent(event, childTrace);
-                }
-            }
+            dispatchEvent(sci, event, tmfTrace);
         }
 
         @Override
@@ -777,7 +1102,7 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
         @Override
         public void handleCancel() {
             super.handleCancel();
-            disposeProvider(true);
+            disposeProvider(true, true);
         }
 
         @Override
@@ -788,6 +1113,45 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
 
     }
 
+    /**
+     * A request to build one time partition of a state system
+     */
+    private class PartitionEventRequest extends TmfEventRequest {
+
+        private final ITmfStateProvider fProvider;
+
+        public PartitionEventRequest(ITmfStateProvider provider, TmfTimeRange timeRange) {
+            super(ITmfEvent.class,
+                    timeRange,
+                    0,
+                    ITmfEventRequest.ALL_DATA,
+                    ITmfEventRequest.ExecutionType.BACKGROUND,
+                    TmfStateSystemAnalysisModule.this.getDependencyLevel());
+            fProvider = provider;
+        }
+
+        @Override
+        public void handleData(final ITmfEvent event) {
+            super.handleData(event);
+            dispatchEvent(fProvider, event, fProvider.getTrace());
+        }
+    }
+
+    /*
+     * Send an event to a state provider if it belongs to its trace. If the
+     * trace is an experiment, check if the event is from one of its child
+     * traces.
+     */
+    private static void dispatchEvent(ITmfStateProvider provider, final ITmfEvent event, ITmfTrace tmfTrace) {
+        if (event.getTrace() == tmfTrace) {
+            provider.processEvent(event);
+        } else if (tmfTrace instanceof TmfExperiment) {
+            for (ITmfTrace childTrace : ((TmfExperiment) tmfTrace).getTraces()) {
+                dispatchEvent(provider, event, childTrace);
+            }
+        }
+    }
+
     // ------------------------------------------------------------------------
     // ITmfAnalysisModuleWithStateSystems
     // ------------------------------------------------------------------------
@@ -923,6 +1287,10 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
                 break;
             }
         }
+        File htFile = getSsFile();
+        if (htFile != null) {
+            deleteCheckpoint(getCheckpointFile(htFile));
+        }
 
         // Reset analysis so that it can be scheduled again
         resetAnalysis();
@@ -47,6 +47,9 @@ public class TmfStatisticsEventTypesModule extends TmfStateSystemAnalysisModule
 
     private static final @NonNull String NAME = "TMF Statistics, events per type"; //$NON-NLS-1$
 
+    /** Number of events between two checkpoints of the construction */
+    private static final int CHECKPOINT_PERIOD = 1000000;
+
     /**
      * Constructor
      */
@@ -66,6 +69,15 @@ public class TmfStatisticsEventTypesModule extends TmfStateSystemAnalysisModule
         return "statistics-types.ht"; //$NON-NLS-1$
     }
 
+    @Override
+    protected int getCheckpointPeriod() {
+        /*
+         * The provider keeps all its state in the state system, so the
+         * construction can resume from a checkpoint.
+         */
+        return CHECKPOINT_PERIOD;
+    }
+
 
     /**
      * The state provider for traces statistics that use TmfStateStatistics. It
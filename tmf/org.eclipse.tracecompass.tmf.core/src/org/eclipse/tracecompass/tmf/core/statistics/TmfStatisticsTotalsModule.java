@@ -44,6 +44,9 @@ public class TmfStatisticsTotalsModule extends TmfStateSystemAnalysisModule {
 
     private static final @NonNull String NAME = "TMF Statistics, event totals"; //$NON-NLS-1$
 
+    /** Number of events between two checkpoints of the construction */
+    private static final int CHECKPOINT_PERIOD = 1000000;
+
     /**
      * Constructor
      */
@@ -63,6 +66,15 @@ public class TmfStatisticsTotalsModule extends TmfStateSystemAnalysisModule {
         return "statistics-totals.ht"; //$NON-NLS-1$
     }
 
+    @Override
+    protected int getCheckpointPeriod() {
+        /*
+         * The provider keeps all its state in the state system, so the
+         * construction can resume from a checkpoint.
+         */
+        return CHECKPOINT_PERIOD;
+    }
+
 
     /**
      * The state provider for traces statistics that use TmfStateStatistics. It
@@ -26,6 +26,10 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.eclipse.core.filesystem.EFS;
 import org.eclipse.core.filesystem.IFileInfo;
@@ -411,7 +415,7 @@ public class TraceValidateAndImportOperation extends TmfWorkspaceModifyOperation
      */
     private void importFileSystemElements(IProgressMonitor monitor, List<TraceFileSystemElement> fileSystemElements)
             throws InterruptedException, TmfTraceImportException, CoreException, InvocationTargetException {
-        SubMonitor subMonitor = SubMonitor.convert(monitor, fileSystemElements.size());
+        SubMonitor subMonitor = SubMonitor.convert(monitor, 2);
         // Sort the elements in a sensible order to make it more predictable to
         // the user when there can be name clashes. Otherwise, the order can
         // seem pretty random depending on the OS/Filesystem.
@@ -421,6 +425,8 @@ public class TraceValidateAndImportOperation extends TmfWorkspaceModifyOperation
 
         // Map to remember already imported directory traces
         final Map<String, TraceFileSystemElement> directoryTraces = new HashMap<>();
+        // Traces to validate and import, in import order
+        final List<TraceFileSystemElement> traces = new ArrayList<>();
         while (fileSystemElementsIter.hasNext()) {
             ModalContext.checkCanceled(monitor);
             fCurrentPath = null;
@@ -430,11 +436,10 @@ public class TraceValidateAndImportOperation extends TmfWorkspaceModifyOperation
             element.setDestinationContainerPath(computeDestinationContainerPath(new Path(resourcePath)));
 
             fCurrentPath = resourcePath;
-            SubMonitor sub = subMonitor.split(1, SubMonitor.SUPPRESS_BEGINTASK | SubMonitor.SUPPRESS_SUBTASK);
             if (element.isDirectory()) {
                 if (!directoryTraces.containsKey(resourcePath) && isDirectoryTrace(element)) {
                     directoryTraces.put(resourcePath, element);
-                    validateAndImportTrace(element, sub);
+                    traces.add(element);
                 }
             } else {
                 TraceFileSystemElement parentElement = (TraceFileSystemElement) element.getParent();
@@ -444,7 +449,7 @@ public class TraceValidateAndImportOperation extends TmfWorkspaceModifyOperation
                 if (!directoryTraces.containsKey(parentPath)) {
                     if (isDirectoryTrace(parentElement)) {
                         directoryTraces.put(parentPath, parentElement);
-                        validateAndImportTrace(parentElement, sub);
+                        traces.add(parentElement);
                     } else {
                         boolean validateFile = true;
                         TraceFileSystemElement grandParentElement = (TraceFileSystemElement) parentElement.getParent();
@@ -458,17 +463,112 @@ public class TraceValidateAndImportOperation extends TmfWorkspaceModifyOperation
                                 validateFile = false;
                             } else if (isDirectoryTrace(grandParentElement)) {
                                 directoryTraces.put(grandParentPath, grandParentElement);
-                                validateAndImportTrace(grandParentElement, sub);
+                                traces.add(grandParentElement);
                                 validateFile = false;
                             }
                         }
                         if (validateFile && (fileSystemObject.exists())) {
-                            validateAndImportTrace(element, sub);
+                            traces.add(element);
                         }
                     }
                 }
             }
         }
+
+        // Validate the traces concurrently, then import them in order
+        Map<TraceFileSystemElement, TraceTypeHelper> traceTypes = validateTraces(traces, subMonitor.split(1));
+        SubMonitor importMonitor = SubMonitor.convert(subMonitor.split(1), traces.size());
+        for (TraceFileSystemElement trace : traces) {
+            ModalContext.checkCanceled(monitor);
+            fCurrentPath = trace.getFileSystemObject().getAbsolutePath();
+            SubMonitor sub = importMonitor.split(1, SubMonitor.SUPPRESS_BEGINTASK | SubMonitor.SUPPRESS_SUBTASK);
+            importTrace(trace, traceTypes.get(trace), sub);
+        }
+    }
+
+    /**
+     * Validate traces on a pool of threads bounded by the number of
+     * processors. The validation reads the traces, for example parsing the
+     * metadata of CTF traces, and does not depend on the other traces.
+     *
+     * @return the trace type of each valid trace
+     */
+    private Map<TraceFileSystemElement, TraceTypeHelper> validateTraces(List<TraceFileSystemElement> traces, IProgressMonitor monitor) throws InterruptedException {
+        SubMonitor subMonitor = SubMonitor.convert(monitor, traces.size());
+        Map<TraceFileSystemElement, TraceTypeHelper> traceTypes = new HashMap<>();
+        List<TraceFileSystemElement> toValidate = new ArrayList<>();
+        for (TraceFileSystemElement trace : traces) {
+            if (isArchiveToExtract(trace)) {
+                // We'll be extracting this later, do not validate it
+                subMonitor.worked(1);
+            } else {
+                toValidate.add(trace);
+            }
+        }
+        if (toValidate.isEmpty()) {
+            return traceTypes;
+        }
+        int nbThreads = Math.min(toValidate.size(), Runtime.getRuntime().availableProcessors());
+        ExecutorService executor = Executors.newFixedThreadPool(nbThreads);
+        try {
+            List<Future<TraceTypeHelper>> results = new ArrayList<>();
+            for (TraceFileSystemElement trace : toValidate) {
+                results.add(executor.submit(() -> validateTrace(trace)));
+            }
+            for (int i = 0; i < toValidate.size(); i++) {
+                ModalContext.checkCanceled(subMonitor);
+                TraceFileSystemElement trace = toValidate.get(i);
+                String path = trace.getFileSystemObject().getAbsolutePath();
+                subMonitor.setTaskName(Messages.ImportTraceWizard_ExamineOperationTaskName + " " + path); //$NON-NLS-1$
+                try {
+                    TraceTypeHelper traceType = results.get(i).get();
+                    if (traceType != null) {
+                        traceTypes.put(trace, traceType);
+                    }
+                } catch (ExecutionException e) {
+                    Activator.getDefault().logError(Messages.ImportTraceWizard_ImportProblem + ": " + path, e); //$NON-NLS-1$
+                }
+                subMonitor.worked(1);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return traceTypes;
+    }
+
+    /**
+     * Validate a single trace
+     *
+     * @return the trace type of the trace, or null if the trace is not valid
+     */
+    private TraceTypeHelper validateTrace(TraceFileSystemElement fileSystemElement) {
+        String path = fileSystemElement.getFileSystemObject().getAbsolutePath();
+        if (fTraceType == null) {
+            // Auto Detection
+            try {
+                return TmfTraceTypeUIUtils.selectTraceType(path, null, null);
+            } catch (TmfTraceImportException e) {
+                // the trace did not match any trace type
+                return null;
+            }
+        }
+        boolean isDirectoryTraceType = TmfTraceType.isDirectoryTraceType(fTraceType);
+        if (fileSystemElement.isDirectory() != isDirectoryTraceType) {
+            return null;
+        }
+        TraceTypeHelper traceTypeHelper = TmfTraceType.getTraceType(fTraceType);
+        if (traceTypeHelper == null || !traceTypeHelper.validate(path).isOK()) {
+            return null;
+        }
+        return traceTypeHelper;
+    }
+
+    private boolean isArchiveToExtract(TraceFileSystemElement fileSystemElement) {
+        if ((fImportOptionFlags & ImportTraceWizardPage.OPTION_SKIP_ARCHIVE_EXTRACTION) == 0) {
+            File file = (File) fileSystemElement.getFileSystemObject().getRawFileSystemObject();
+            return fileSystemElement.getFileSystemObject() instanceof FileFileSystemObject && ArchiveUtil.isArchiveFile(file);
+        }
+        return false;
     }
 
     /**
@@ -653,30 +753,21 @@ public class TraceValidateAndImportOperation extends TmfWorkspaceModifyOperation
     }
 
     /**
-     * Import a single file system element into the workspace.
+     * Import a single file system element into the workspace, with the trace
+     * type found when it was validated.
      */
-    private void validateAndImportTrace(TraceFileSystemElement fileSystemElement, IProgressMonitor monitor)
+    private void importTrace(TraceFileSystemElement fileSystemElement, TraceTypeHelper validTraceType, IProgressMonitor monitor)
             throws TmfTraceImportException, CoreException, InvocationTargetException, InterruptedException {
-        String path = fileSystemElement.getFileSystemObject().getAbsolutePath();
-        TraceTypeHelper traceTypeHelper = null;
+        TraceTypeHelper traceTypeHelper = validTraceType;
         monitor.setTaskName(Messages.ImportTraceWizard_ExamineOperationTaskName + " " + fileSystemElement.getFileSystemObject().getAbsolutePath()); //$NON-NLS-1$
 
-        if ((fImportOptionFlags & ImportTraceWizardPage.OPTION_SKIP_ARCHIVE_EXTRACTION) == 0) {
-            File file = (File) fileSystemElement.getFileSystemObject().getRawFileSystemObject();
-            boolean isArchiveFileElement = fileSystemElement.getFileSystemObject() instanceof FileFileSystemObject && ArchiveUtil.isArchiveFile(file);
-            if (isArchiveFileElement) {
-                // We'll be extracting this later, do not import as a trace
-                return;
-            }
+        if (isArchiveToExtract(fileSystemElement)) {
+            // We'll be extracting this later, do not import as a trace
+            return;
         }
 
         if (fTraceType == null) {
             // Auto Detection
-            try {
-                traceTypeHelper = TmfTraceTypeUIUtils.selectTraceType(path, null, null);
-            } catch (TmfTraceImportException e) {
-                // the trace did not match any trace type
-            }
             if (traceTypeHelper == null) {
                 if ((fImportOptionFlags & ImportTraceWizardPage.OPTION_IMPORT_UNRECOGNIZED_TRACES) != 0) {
                     importResource(fileSystemElement, monitor);
@@ -688,14 +779,13 @@ public class TraceValidateAndImportOperation extends TmfWorkspaceModifyOperation
             if (fileSystemElement.isDirectory() != isDirectoryTraceType) {
                 return;
             }
-            traceTypeHelper = TmfTraceType.getTraceType(fTraceType);
 
-            if (traceTypeHelper == null) {
+            if (TmfTraceType.getTraceType(fTraceType) == null) {
                 // Trace type not found
                 throw new TmfTraceImportException(Messages.ImportTraceWizard_TraceTypeNotFound);
             }
 
-            if (!traceTypeHelper.validate(path).isOK()) {
+            if (traceTypeHelper == null) {
                 // Trace type exist but doesn't validate for given trace.
                 return;
             }